@@ -0,0 +1,64 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reproducible inputs for the benchmarks. Every generator takes its own seed so the same parameters always
+ * produce the same data, whichever benchmark asks for it first.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BenchmarkData {
+
+  private static final long SEED = 42L;
+
+  /**
+   * Features drawn uniformly from [-2, 2).
+   *
+   * @param m number of examples.
+   * @param n number of features.
+   * @return the (m,n) matrix.
+   */
+  static List<List<BigDecimal>> features(final int m, final int n) {
+    final SplittableRandom random = new SplittableRandom(SEED);
+    return IntStream.range(0, m)
+        .mapToObj(i -> values(random, n, -2D, 2D))
+        .toList();
+  }
+
+  /**
+   * Binary labels, roughly balanced.
+   *
+   * @param m number of examples.
+   * @return the (m,) labels.
+   */
+  static List<BigDecimal> labels(final int m) {
+    final SplittableRandom random = new SplittableRandom(SEED + 1);
+    return IntStream.range(0, m)
+        .mapToObj(i -> random.nextBoolean() ? BigDecimal.ONE : BigDecimal.ZERO)
+        .toList();
+  }
+
+  /**
+   * Values drawn uniformly from [-1, 1), used for targets and parameters.
+   *
+   * @param size number of values.
+   * @return the (size,) values.
+   */
+  static List<BigDecimal> values(final int size) {
+    return values(new SplittableRandom(SEED + 2), size, -1D, 1D);
+  }
+
+  private static List<BigDecimal> values(final SplittableRandom random,
+                                         final int size,
+                                         final double origin,
+                                         final double bound) {
+    return IntStream.range(0, size)
+        .mapToObj(j -> BigDecimal.valueOf(random.nextDouble(origin, bound)))
+        .toList();
+  }
+}
@@ -0,0 +1,38 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Univariate linear regression cost through the list API, conversion to the backend included.
+ */
+@State(Scope.Benchmark)
+public class ComputeCostServiceBenchmark {
+
+  @Param({"1024", "131072"})
+  public int m;
+
+  @Param({"EXACT", "DOUBLE", "FLOAT"})
+  public NumericBackend backend;
+
+  private ComputeCostService computeCostService;
+  private List<BigDecimal> x;
+  private List<BigDecimal> y;
+
+  @Setup
+  public void setUp() {
+    this.computeCostService = new ComputeCostService(LinearRegressionProperties.defaults());
+    this.x = BenchmarkData.features(this.m, 1).stream().map(List::getFirst).toList();
+    this.y = BenchmarkData.values(this.m);
+  }
+
+  @Benchmark
+  public BigDecimal computeCost() {
+    return this.computeCostService.computeCost(this.x, this.y, BigDecimal.valueOf(0.75D), BigDecimal.ONE, this.backend);
+  }
+}
@@ -0,0 +1,45 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Dot product of one row with the parameters: the list overload for {@link NumericBackend#EXACT}, the dense row of
+ * the backend's feature matrix otherwise.
+ */
+@State(Scope.Benchmark)
+public class DotProductBenchmark {
+
+  @Param({"16", "256", "4096"})
+  public int n;
+
+  @Param({"EXACT", "DOUBLE", "FLOAT"})
+  public NumericBackend backend;
+
+  private List<BigDecimal> row;
+  private List<BigDecimal> w;
+  private FeatureMatrix matrix;
+  private double[] wDense;
+
+  @Setup
+  public void setUp() {
+    final List<List<BigDecimal>> x = BenchmarkData.features(1, this.n);
+    this.row = x.getFirst();
+    this.w = BenchmarkData.values(this.n);
+    this.matrix = this.backend.toFeatureMatrix(x);
+    this.wDense = Utils.toDoubleArray(this.w, "w");
+  }
+
+  @Benchmark
+  public double dotProduct() {
+    if (this.backend == NumericBackend.EXACT) {
+      return Utils.calculateDotProduct(this.row, this.w);
+    }
+    return this.matrix.dot(0, this.wDense);
+  }
+}
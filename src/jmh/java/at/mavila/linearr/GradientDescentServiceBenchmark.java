@@ -0,0 +1,54 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A complete logistic regression training run of {@link #ITERATIONS} iterations through the list API, as a caller
+ * of the service would pay for it, conversion to the backend included.
+ */
+@State(Scope.Benchmark)
+public class GradientDescentServiceBenchmark {
+
+  private static final long ITERATIONS = 20L;
+
+  @Param({"1024", "16384"})
+  public int m;
+
+  @Param({"8", "64"})
+  public int n;
+
+  @Param({"EXACT", "DOUBLE", "FLOAT"})
+  public NumericBackend backend;
+
+  private GradientDescentService gradientDescentService;
+  private GradientDescentOptions options;
+  private List<List<BigDecimal>> x;
+  private List<BigDecimal> y;
+  private List<BigDecimal> w;
+
+  @Setup
+  public void setUp() {
+    final LinearRegressionProperties properties = LinearRegressionProperties.defaults();
+    final TrainingMetrics metrics = TrainingMetrics.disabled();
+    final ComputeGradientLogisticService computeGradientLogisticService =
+        new ComputeGradientLogisticService(new SigmoidService(properties), properties, metrics);
+    this.gradientDescentService = new GradientDescentService(computeGradientLogisticService, properties, metrics);
+    this.options = GradientDescentOptions.defaults().withNumericBackend(this.backend);
+    this.x = BenchmarkData.features(this.m, this.n);
+    this.y = BenchmarkData.labels(this.m);
+    this.w = Collections.nCopies(this.n, BigDecimal.ZERO);
+  }
+
+  @Benchmark
+  public ResultGradientDescent train() {
+    return this.gradientDescentService.compute(this.x, this.y, this.w, BigDecimal.ZERO, new BigDecimal("0.1"),
+        ITERATIONS, this.options);
+  }
+}
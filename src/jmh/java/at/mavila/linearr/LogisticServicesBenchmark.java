@@ -0,0 +1,74 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Logistic cost and gradient over an (m,n) dataset. {@link NumericBackend#EXACT} goes through the list API, the
+ * primitive backends through the feature matrix API on data converted once in the setup.
+ */
+@State(Scope.Benchmark)
+public class LogisticServicesBenchmark {
+
+  @Param({"1024", "16384"})
+  public int m;
+
+  @Param({"8", "64"})
+  public int n;
+
+  @Param({"EXACT", "DOUBLE", "FLOAT"})
+  public NumericBackend backend;
+
+  private ComputeCostLogisticService computeCostLogisticService;
+  private ComputeGradientLogisticService computeGradientLogisticService;
+  private List<List<BigDecimal>> x;
+  private List<BigDecimal> y;
+  private List<BigDecimal> w;
+  private FeatureMatrix matrix;
+  private double[] yDense;
+  private double[] wDense;
+
+  @Setup
+  public void setUp() {
+    final LinearRegressionProperties properties = LinearRegressionProperties.defaults();
+    final SigmoidService sigmoidService = new SigmoidService(properties);
+    final TrainingMetrics metrics = TrainingMetrics.disabled();
+    this.computeCostLogisticService = new ComputeCostLogisticService(sigmoidService, properties, metrics);
+    this.computeGradientLogisticService = new ComputeGradientLogisticService(sigmoidService, properties, metrics);
+    this.x = BenchmarkData.features(this.m, this.n);
+    this.y = BenchmarkData.labels(this.m);
+    this.w = BenchmarkData.values(this.n);
+    this.matrix = this.backend.toFeatureMatrix(this.x);
+    this.yDense = Utils.toDoubleArray(this.y, "y");
+    this.wDense = Utils.toDoubleArray(this.w, "w");
+  }
+
+  @Benchmark
+  public Object cost() {
+    if (this.backend == NumericBackend.EXACT) {
+      return this.computeCostLogisticService.compute(this.x, this.y, this.w, BigDecimal.ONE, this.backend);
+    }
+    return this.computeCostLogisticService.compute(this.matrix, this.yDense, this.wDense, 1D);
+  }
+
+  @Benchmark
+  public Object gradient() {
+    if (this.backend == NumericBackend.EXACT) {
+      return this.computeGradientLogisticService.compute(this.x, this.y, this.w, BigDecimal.ONE, this.backend);
+    }
+    return this.computeGradientLogisticService.compute(this.matrix, this.yDense, this.wDense, 1D);
+  }
+
+  @Benchmark
+  public Object gradientWithCost() {
+    if (this.backend == NumericBackend.EXACT) {
+      return this.computeGradientLogisticService.computeWithCost(this.x, this.y, this.w, BigDecimal.ONE);
+    }
+    return this.computeGradientLogisticService.computeWithCost(this.matrix, this.yDense, this.wDense, 1D);
+  }
+}
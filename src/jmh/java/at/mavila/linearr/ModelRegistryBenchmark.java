@@ -0,0 +1,43 @@
+package at.mavila.linearr;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scoring a single row with a registered model, looked up by identifier and version on every call or held by the
+ * caller. The gc profiler should report no allocation for the held model.
+ */
+@State(Scope.Benchmark)
+public class ModelRegistryBenchmark {
+
+  @Param({"8", "256"})
+  public int n;
+
+  @Param({"LINEAR", "LOGISTIC"})
+  public ModelType type;
+
+  private ModelRegistryService registry;
+  private RegisteredModel model;
+  private double[] x;
+
+  @Setup
+  public void setUp() {
+    this.registry = new ModelRegistryService(LinearRegressionProperties.defaults());
+    this.model = this.registry.register("model", this.type,
+        Utils.toDoubleArray(BenchmarkData.values(this.n), "w"), 0.5D);
+    this.x = Utils.toDoubleArray(BenchmarkData.features(1, this.n).getFirst(), "x");
+  }
+
+  @Benchmark
+  public double predictById() {
+    return this.registry.predict("model", 1L, this.x);
+  }
+
+  @Benchmark
+  public double predictHeldModel() {
+    return this.registry.predict(this.model, this.x, 0);
+  }
+}
@@ -0,0 +1,46 @@
+package at.mavila.linearr;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A Newton run of {@link #ITERATIONS} iterations on a dense dataset, each one a Hessian pass and a Cholesky solve,
+ * on the calling thread or on every processor.
+ */
+@State(Scope.Benchmark)
+public class NewtonSolverServiceBenchmark {
+
+  private static final long ITERATIONS = 10L;
+
+  @Param({"16384"})
+  public int m;
+
+  @Param({"8", "64", "256"})
+  public int n;
+
+  @Param({"1", "0"})
+  public int parallelism;
+
+  private NewtonSolverService newtonSolverService;
+  private GradientDescentOptions options;
+  private DenseDataset x;
+  private double[] y;
+
+  @Setup
+  public void setUp() {
+    final LinearRegressionProperties properties = LinearRegressionProperties.defaults();
+    this.newtonSolverService =
+        new NewtonSolverService(new SigmoidService(properties), properties, TrainingMetrics.disabled());
+    this.options = GradientDescentOptions.defaults().withParallelism(this.parallelism);
+    this.x = DenseDataset.of(BenchmarkData.features(this.m, this.n));
+    this.y = Utils.toDoubleArray(BenchmarkData.labels(this.m), "y");
+  }
+
+  @Benchmark
+  public ResultGradientDescent solve() {
+    return this.newtonSolverService.solve(this.x, this.y, new double[this.n], 0D, ITERATIONS, this.options);
+  }
+}
@@ -0,0 +1,46 @@
+package at.mavila.linearr;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Batch prediction of m rows of n features into a reused output array, on the calling thread or on every processor.
+ */
+@State(Scope.Benchmark)
+public class PredictionServiceBenchmark {
+
+  @Param({"65536", "1048576"})
+  public int m;
+
+  @Param({"16"})
+  public int n;
+
+  @Param({"LINEAR", "LOGISTIC"})
+  public ModelType type;
+
+  @Param({"1", "0"})
+  public int parallelism;
+
+  private PredictionService predictionService;
+  private DenseDataset x;
+  private double[] w;
+  private double[] out;
+
+  @Setup
+  public void setUp() {
+    this.predictionService = new PredictionService(LinearRegressionProperties.defaults(), TrainingMetrics.disabled());
+    this.x = DenseDataset.of(BenchmarkData.features(this.m, this.n));
+    this.w = Utils.toDoubleArray(BenchmarkData.values(this.n), "w");
+    this.out = new double[this.m];
+  }
+
+  @Benchmark
+  public void predict(final Blackhole blackhole) {
+    this.predictionService.predict(this.x, this.w, 0.5D, this.type, this.out, this.parallelism);
+    blackhole.consume(this.out);
+  }
+}
@@ -0,0 +1,48 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Sigmoid over m values, either one BigDecimal at a time or in bulk on a double[] with each approximation.
+ */
+@State(Scope.Benchmark)
+public class SigmoidServiceBenchmark {
+
+  @Param({"1024", "65536"})
+  public int m;
+
+  @Param({"BIG_DECIMAL", "EXACT", "TABLE", "RATIONAL"})
+  public String mode;
+
+  private SigmoidService sigmoidService;
+  private List<BigDecimal> z;
+  private double[] zDense;
+  private double[] out;
+
+  @Setup
+  public void setUp() {
+    this.sigmoidService = new SigmoidService(LinearRegressionProperties.defaults());
+    this.z = BenchmarkData.values(this.m).stream().map(value -> value.multiply(BigDecimal.TEN)).toList();
+    this.zDense = Utils.toDoubleArray(this.z, "z");
+    this.out = new double[this.m];
+  }
+
+  @Benchmark
+  public void sigmoid(final Blackhole blackhole) {
+    if ("BIG_DECIMAL".equals(this.mode)) {
+      for (BigDecimal value : this.z) {
+        blackhole.consume(this.sigmoidService.sigmoid(value));
+      }
+      return;
+    }
+    this.sigmoidService.sigmoid(this.zDense, this.out, SigmoidApproximation.valueOf(this.mode));
+    blackhole.consume(this.out);
+  }
+}
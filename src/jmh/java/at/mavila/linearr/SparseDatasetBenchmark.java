@@ -0,0 +1,57 @@
+package at.mavila.linearr;
+
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Fused logistic gradient and cost on text-like features, {@link #nonZerosPerRow} nonzeros out of n per row, stored
+ * dense or in compressed sparse rows.
+ */
+@State(Scope.Benchmark)
+public class SparseDatasetBenchmark {
+
+  @Param({"4096"})
+  public int m;
+
+  @Param({"4096"})
+  public int n;
+
+  @Param({"16"})
+  public int nonZerosPerRow;
+
+  @Param({"false", "true"})
+  public boolean sparse;
+
+  private ComputeGradientLogisticService computeGradientLogisticService;
+  private FeatureMatrix x;
+  private double[] y;
+  private double[] w;
+
+  @Setup
+  public void setUp() {
+    final LinearRegressionProperties properties = LinearRegressionProperties.defaults();
+    this.computeGradientLogisticService =
+        new ComputeGradientLogisticService(new SigmoidService(properties), properties, TrainingMetrics.disabled());
+    final SplittableRandom random = new SplittableRandom(42L);
+    final double[] values = new double[this.m * this.n];
+    this.y = new double[this.m];
+    for (int i = 0; i < this.m; i++) {
+      for (int k = 0; k < this.nonZerosPerRow; k++) {
+        values[i * this.n + random.nextInt(this.n)] = random.nextDouble();
+      }
+      this.y[i] = random.nextBoolean() ? 1D : 0D;
+    }
+    final DenseDataset dense = new DenseDataset(values, this.m, this.n);
+    this.x = this.sparse ? SparseDataset.of(dense) : dense;
+    this.w = random.doubles(this.n, -1D, 1D).toArray();
+  }
+
+  @Benchmark
+  public ResultComputeGradientDense gradientWithCost() {
+    return this.computeGradientLogisticService.computeWithCost(this.x, this.y, this.w, 0.5D, 1);
+  }
+}
@@ -0,0 +1,42 @@
+package at.mavila.linearr;
+
+/**
+ * Adam. The bias corrections 1 / (1 - beta^t) of both moments are computed once per step and applied to the moments of
+ * every parameter, so epsilon is added to the corrected second moment, as in the original algorithm.
+ */
+final class AdamOptimizer implements Optimizer {
+
+  private final double beta1;
+  private final double beta2;
+  private final double epsilon;
+  private final double[] first;
+  private final double[] second;
+  private double firstB;
+  private double secondB;
+  private double beta1Power = 1D;
+  private double beta2Power = 1D;
+
+  AdamOptimizer(final int n, final double beta1, final double beta2, final double epsilon) {
+    this.beta1 = beta1;
+    this.beta2 = beta2;
+    this.epsilon = epsilon;
+    this.first = new double[n];
+    this.second = new double[n];
+  }
+
+  @Override
+  public double step(final double alpha, final double[] w, final double b, final double[] djDw, final double djDb) {
+    this.beta1Power *= this.beta1;
+    this.beta2Power *= this.beta2;
+    final double firstCorrection = 1D / (1D - this.beta1Power);
+    final double secondCorrection = 1D / (1D - this.beta2Power);
+    for (int j = 0; j < w.length; j++) {
+      this.first[j] = this.beta1 * this.first[j] + (1D - this.beta1) * djDw[j];
+      this.second[j] = this.beta2 * this.second[j] + (1D - this.beta2) * djDw[j] * djDw[j];
+      w[j] -= alpha * this.first[j] * firstCorrection / (Math.sqrt(this.second[j] * secondCorrection) + this.epsilon);
+    }
+    this.firstB = this.beta1 * this.firstB + (1D - this.beta1) * djDb;
+    this.secondB = this.beta2 * this.secondB + (1D - this.beta2) * djDb * djDb;
+    return b - alpha * this.firstB * firstCorrection / (Math.sqrt(this.secondB * secondCorrection) + this.epsilon);
+  }
+}
@@ -0,0 +1,38 @@
+package at.mavila.linearr;
+
+import graphql.GraphQLError;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps the exceptions of the services to problem details, or to GraphQL errors for the GraphQL API: invalid inputs
+ * are the caller's fault, a full training queue is a temporary condition worth retrying.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ProblemDetail handleIllegalArgument(final IllegalArgumentException exception) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, exception.getMessage());
+  }
+
+  @GraphQlExceptionHandler
+  public GraphQLError handleGraphQlIllegalArgument(final IllegalArgumentException exception) {
+    return GraphQLError.newError().errorType(ErrorType.BAD_REQUEST).message(exception.getMessage()).build();
+  }
+
+  @GraphQlExceptionHandler
+  public GraphQLError handleGraphQlRejectedExecution(final RejectedExecutionException exception) {
+    return GraphQLError.newError().errorType(ErrorType.INTERNAL_ERROR).message("the training queue is full").build();
+  }
+
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ProblemDetail handleRejectedExecution(final RejectedExecutionException exception) {
+    return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "the training queue is full");
+  }
+}
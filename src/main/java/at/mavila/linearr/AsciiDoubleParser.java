@@ -0,0 +1,116 @@
+package at.mavila.linearr;
+
+import java.nio.charset.StandardCharsets;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parser of decimal numbers straight from the bytes of a text file, without creating a String per value.
+ * Numbers of at most 15 significant digits and a decimal exponent within [-22, 22], which covers nearly every value
+ * found in exported datasets, are exact after a single multiplication or division by an exact power of ten
+ * (Clinger's fast path). Anything else falls back to {@link Double#parseDouble(String)}, so the result is always the
+ * correctly rounded double.
+ * <pre>
+ * parse("-12.5e-1") = -1.25
+ * parse("0.1")      = 0.1
+ * parse("1,5")      = NumberFormatException
+ * </pre>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class AsciiDoubleParser {
+
+  private static final int MAXIMUM_FAST_DIGITS = 15;
+  private static final int MAXIMUM_FAST_EXPONENT = 22;
+  private static final double[] POWERS_OF_TEN = new double[MAXIMUM_FAST_EXPONENT + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1D;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10D;
+    }
+  }
+
+  /**
+   * Parse the bytes [from, to) as a decimal number, with optional sign, fraction and exponent.
+   *
+   * @param bytes the ASCII text.
+   * @param from  first byte, inclusive.
+   * @param to    last byte, exclusive.
+   * @return the parsed value.
+   * @throws NumberFormatException if the bytes are not a number.
+   */
+  static double parse(final byte[] bytes, final int from, final int to) {
+    int i = from;
+    final boolean negative = i < to && bytes[i] == '-';
+    if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+      i++;
+    }
+
+    long mantissa = 0L;
+    int digits = 0;
+    int exponent = 0;
+    boolean anyDigit = false;
+    boolean fraction = false;
+    for (; i < to; i++) {
+      final byte c = bytes[i];
+      if (c >= '0' && c <= '9') {
+        anyDigit = true;
+        if (mantissa == 0L && c == '0') {
+          //Leading zeros are not significant
+          exponent -= fraction ? 1 : 0;
+        } else if (digits < MAXIMUM_FAST_DIGITS) {
+          mantissa = mantissa * 10L + (c - '0');
+          digits++;
+          exponent -= fraction ? 1 : 0;
+        } else {
+          return fallback(bytes, from, to);
+        }
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else {
+        break;
+      }
+    }
+    if (!anyDigit) {
+      return fallback(bytes, from, to);
+    }
+
+    if (i < to) {
+      if (bytes[i] != 'e' && bytes[i] != 'E') {
+        return fallback(bytes, from, to);
+      }
+      i++;
+      final boolean negativeExponent = i < to && bytes[i] == '-';
+      if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+        i++;
+      }
+      if (i == to) {
+        return fallback(bytes, from, to);
+      }
+      int explicit = 0;
+      for (; i < to; i++) {
+        final byte c = bytes[i];
+        if (c < '0' || c > '9' || explicit > 1000) {
+          return fallback(bytes, from, to);
+        }
+        explicit = explicit * 10 + (c - '0');
+      }
+      exponent += negativeExponent ? -explicit : explicit;
+    }
+
+    if (mantissa == 0L) {
+      return negative ? -0D : 0D;
+    }
+    if (exponent < -MAXIMUM_FAST_EXPONENT || exponent > MAXIMUM_FAST_EXPONENT) {
+      return fallback(bytes, from, to);
+    }
+    final double value = exponent < 0
+        ? mantissa / POWERS_OF_TEN[-exponent]
+        : mantissa * POWERS_OF_TEN[exponent];
+    return negative ? -value : value;
+  }
+
+  private static double fallback(final byte[] bytes, final int from, final int to) {
+    return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.ISO_8859_1));
+  }
+}
@@ -0,0 +1,27 @@
+package at.mavila.linearr;
+
+import java.util.function.Consumer;
+
+/**
+ * Labelled dataset that is only ever read sequentially, one chunk of rows at a time, so it never has to fit in memory.
+ * Every pass re-reads the source from the start.
+ */
+public interface ChunkedDataset {
+
+  /**
+   * Number of features.
+   *
+   * @return the number of columns of every chunk, n.
+   */
+  int n();
+
+  /**
+   * Make one pass over the rows.
+   * The chunk handed to the consumer is reused for the next rows: it must not be retained once the consumer returns.
+   *
+   * @param consumer receives the chunks in order, every one holding at least one row.
+   * @throws java.io.UncheckedIOException if the source cannot be read.
+   * @throws IllegalArgumentException     if a row is malformed.
+   */
+  void forEachChunk(Consumer<DatasetChunk> consumer);
+}
@@ -0,0 +1,141 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import org.springframework.stereotype.Service;
+
+/**
+ * Closed-form least squares for the univariate linear regression model of {@link ComputeCostService} and
+ * {@link ComputeGradientService}. A single pass accumulates {@link UnivariateStatistics}, from which
+ * w = cov(x, y) / var(x) and b = mean(y) - w * mean(x) follow directly, where gradient descent needs thousands of
+ * passes to approach them. {@link MultivariateStatistics} does the same for n features.
+ */
+@Service
+public class ClosedFormSolverService {
+
+  private static final int CHUNK_SIZE = 1 << 13;
+
+  /**
+   * Solve the univariate linear regression.
+   * <pre>
+   * Usage:
+   * solve([1, 2, 3, 4], [3, 5, 7, 9]) = (w = 2, b = 1, cost = 0)
+   * solve([1, 1], [2, 3]) = IllegalArgumentException
+   * </pre>
+   *
+   * @param x list of x values
+   * @param y list of y values
+   * @return the w and b minimizing the cost, and that cost
+   * @throws IllegalArgumentException if the lists are null, empty or of different sizes, or all the x values are equal.
+   */
+  public ResultClosedFormSolver solve(List<BigDecimal> x, List<BigDecimal> y) {
+    InputValidator.validateArraysXY(x, y);
+    final UnivariateStatistics statistics = statistics(Utils.toDoubleArray(x, "x"), Utils.toDoubleArray(y, "y"));
+    final double w = statistics.w();
+    final double b = statistics.b();
+    return ResultClosedFormSolver.builder()
+        .w(BigDecimal.valueOf(w))
+        .b(BigDecimal.valueOf(b))
+        .cost(BigDecimal.valueOf(statistics.cost(w, b)))
+        .build();
+  }
+
+  /**
+   * Accumulate the sufficient statistics of the points in one pass. Large inputs (at least
+   * {@value ComputeCostService#PARALLEL_THRESHOLD} points) are split across cores.
+   *
+   * @param x array of x values
+   * @param y array of y values
+   * @return the statistics of the points
+   * @throws IllegalArgumentException if the arrays are null, empty or of different lengths.
+   */
+  public UnivariateStatistics statistics(double[] x, double[] y) {
+    return statistics(x, y, Objects.nonNull(x) && x.length >= ComputeCostService.PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Accumulate the sufficient statistics of the points, choosing whether to split the pass across cores.
+   * The points are cut into fixed chunks merged in order, so the result does not depend on the scheduling.
+   *
+   * @param x        array of x values
+   * @param y        array of y values
+   * @param parallel true to accumulate the chunks in parallel on the common pool
+   * @return the statistics of the points
+   * @throws IllegalArgumentException if the arrays are null, empty or of different lengths.
+   */
+  public UnivariateStatistics statistics(double[] x, double[] y, boolean parallel) {
+    InputValidator.validateArraysXY(x, y);
+    final int m = x.length;
+    final int chunks = (m + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+    IntStream indexes = IntStream.range(0, chunks);
+    if (parallel) {
+      indexes = indexes.parallel();
+    }
+    return indexes
+        .mapToObj(chunk -> accumulate(x, y, chunk * CHUNK_SIZE, Math.min(m, (chunk + 1) * CHUNK_SIZE)))
+        .collect(UnivariateStatistics::new, UnivariateStatistics::merge, UnivariateStatistics::merge);
+  }
+
+  /**
+   * Solve the linear regression with n features, the multivariate counterpart of {@link #solve(List, List)}.
+   *
+   * @param x (ndarray (m,n)): Data, m examples with n features.
+   * @param y (ndarray (m,)) : target values.
+   * @return the w and b minimizing the cost, and that cost.
+   * @throws IllegalArgumentException if the inputs are invalid, or some feature is constant or a linear combination of
+   *                                  the others.
+   */
+  public ResultLeastSquares solve(FeatureMatrix x, double[] y) {
+    return statistics(x, y).solve();
+  }
+
+  /**
+   * Accumulate the sufficient statistics of a feature matrix in one pass, split across cores from
+   * {@value ComputeCostService#PARALLEL_THRESHOLD} rows on. Every chunk is accumulated into its own statistics and
+   * the chunks are merged in order.
+   *
+   * @param x (ndarray (m,n)): Data, m examples with n features.
+   * @param y (ndarray (m,)) : target values.
+   * @return the statistics of the rows, which can keep ingesting new samples.
+   * @throws IllegalArgumentException if an argument is null or y does not have m values.
+   */
+  public MultivariateStatistics statistics(FeatureMatrix x, double[] y) {
+    Utils.validateNotNull(x, "x");
+    Utils.validateNotNull(y, "y");
+    if (y.length != x.m()) {
+      throw new IllegalArgumentException("y does not have " + x.m() + " values");
+    }
+    final int m = x.m();
+    final int chunks = (m + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+    IntStream indexes = IntStream.range(0, chunks);
+    if (m >= ComputeCostService.PARALLEL_THRESHOLD) {
+      indexes = indexes.parallel();
+    }
+    return indexes
+        .mapToObj(chunk -> accumulate(x, y, chunk * CHUNK_SIZE, Math.min(m, (chunk + 1) * CHUNK_SIZE)))
+        .collect(() -> new MultivariateStatistics(x.n()), MultivariateStatistics::merge, MultivariateStatistics::merge);
+  }
+
+  private static MultivariateStatistics accumulate(final FeatureMatrix x,
+                                                   final double[] y,
+                                                   final int from,
+                                                   final int to) {
+    final MultivariateStatistics statistics = new MultivariateStatistics(x.n());
+    for (int i = from; i < to; i++) {
+      statistics.add(x, i, y[i]);
+    }
+    return statistics;
+  }
+
+  private static UnivariateStatistics accumulate(final double[] x, final double[] y, final int from, final int to) {
+    final UnivariateStatistics statistics = new UnivariateStatistics();
+    for (int i = from; i < to; i++) {
+      statistics.add(x[i], y[i]);
+    }
+    return statistics;
+  }
+}
@@ -0,0 +1,193 @@
+package at.mavila.linearr;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Per-column count, mean, standard deviation, minimum and maximum of a dataset, computed in one pass.
+ * Means and squared deviations use Welford updates, and the chunks of a parallel pass are merged with Chan's formula.
+ * <p>
+ * Datasets are read only, so the statistics of a dataset are cached with it: they are computed by the first training
+ * run that scales it, and dropped when the dataset is no longer referenced. The pass runs outside of the lock of the
+ * cache, so a long scan, such as the one of a large {@link CsvDataset}, never holds up the lookups of other runs; two
+ * runs racing on the same new dataset may both compute it, and the first one stored wins.
+ */
+public final class ColumnStatistics {
+
+  private static final int CHUNK_SIZE = 1 << 13;
+
+  private static final Map<Object, ColumnStatistics> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final double[] mean;
+  private final double[] m2;
+  private final double[] min;
+  private final double[] max;
+  private final double[] row;
+  private long count;
+
+  private ColumnStatistics(final int n) {
+    this.mean = new double[n];
+    this.m2 = new double[n];
+    this.min = new double[n];
+    this.max = new double[n];
+    this.row = new double[n];
+    Arrays.fill(this.min, Double.POSITIVE_INFINITY);
+    Arrays.fill(this.max, Double.NEGATIVE_INFINITY);
+  }
+
+  /**
+   * Statistics of the columns of a feature matrix, from the cache or from one pass split in chunks across cores.
+   *
+   * @param x the feature matrix, such as a {@link DenseDataset}.
+   * @return the statistics of its columns.
+   * @throws IllegalArgumentException if x is null.
+   */
+  public static ColumnStatistics of(final FeatureMatrix x) {
+    Utils.validateNotNull(x, "x");
+    return cached(x, () -> compute(x));
+  }
+
+  /**
+   * Statistics of the columns of a chunked dataset, from the cache or from one pass over its chunks.
+   *
+   * @param x the chunked dataset, such as a {@link CsvDataset}.
+   * @return the statistics of its columns.
+   * @throws IllegalArgumentException if x is null or has no rows.
+   */
+  public static ColumnStatistics of(final ChunkedDataset x) {
+    Utils.validateNotNull(x, "x");
+    return cached(x, () -> {
+      final ColumnStatistics statistics = new ColumnStatistics(x.n());
+      x.forEachChunk(chunk -> statistics.merge(accumulate(chunk, 0, chunk.m())));
+      if (statistics.count == 0L) {
+        throw new IllegalArgumentException("x has no rows");
+      }
+      return statistics;
+    });
+  }
+
+  private static ColumnStatistics cached(final Object x, final Supplier<ColumnStatistics> pass) {
+    final ColumnStatistics cached = CACHE.get(x);
+    if (Objects.nonNull(cached)) {
+      return cached;
+    }
+    final ColumnStatistics statistics = pass.get();
+    return Objects.requireNonNullElse(CACHE.putIfAbsent(x, statistics), statistics);
+  }
+
+  /**
+   * Statistics of the columns of a feature matrix, from one pass split in chunks across cores, without the cache: for
+   * a matrix built for a single run, such as the copy of a list based dataset, which would never be looked up again.
+   *
+   * @param x the feature matrix.
+   * @return the statistics of its columns.
+   */
+  static ColumnStatistics compute(final FeatureMatrix x) {
+    final int m = x.m();
+    final int chunks = (m + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    return IntStream.range(0, chunks)
+        .parallel()
+        .mapToObj(chunk -> accumulate(x, chunk * CHUNK_SIZE, Math.min(m, (chunk + 1) * CHUNK_SIZE)))
+        .collect(() -> new ColumnStatistics(x.n()), ColumnStatistics::merge, ColumnStatistics::merge);
+  }
+
+  private static ColumnStatistics accumulate(final FeatureMatrix x, final int from, final int to) {
+    final ColumnStatistics statistics = new ColumnStatistics(x.n());
+    for (int i = from; i < to; i++) {
+      Arrays.fill(statistics.row, 0D);
+      x.axpy(i, 1D, statistics.row);
+      statistics.add(statistics.row);
+    }
+    return statistics;
+  }
+
+  private void add(final double[] values) {
+    this.count++;
+    for (int j = 0; j < values.length; j++) {
+      final double delta = values[j] - this.mean[j];
+      this.mean[j] += delta / this.count;
+      this.m2[j] += delta * (values[j] - this.mean[j]);
+      this.min[j] = Math.min(this.min[j], values[j]);
+      this.max[j] = Math.max(this.max[j], values[j]);
+    }
+  }
+
+  private void merge(final ColumnStatistics other) {
+    if (other.count == 0L) {
+      return;
+    }
+    final long total = this.count + other.count;
+    final double weight = (double) this.count * other.count / total;
+    for (int j = 0; j < this.mean.length; j++) {
+      final double delta = other.mean[j] - this.mean[j];
+      this.mean[j] += delta * other.count / total;
+      this.m2[j] += other.m2[j] + delta * delta * weight;
+      this.min[j] = Math.min(this.min[j], other.min[j]);
+      this.max[j] = Math.max(this.max[j], other.max[j]);
+    }
+    this.count = total;
+  }
+
+  /**
+   * Number of columns.
+   *
+   * @return n.
+   */
+  public int n() {
+    return this.mean.length;
+  }
+
+  /**
+   * Number of rows the statistics are over.
+   *
+   * @return m.
+   */
+  public long count() {
+    return this.count;
+  }
+
+  /**
+   * Mean of a column.
+   *
+   * @param j the column index.
+   * @return the mean of column j.
+   */
+  public double mean(final int j) {
+    return this.mean[j];
+  }
+
+  /**
+   * Population standard deviation of a column.
+   *
+   * @param j the column index.
+   * @return the standard deviation of column j.
+   */
+  public double standardDeviation(final int j) {
+    return Math.sqrt(this.m2[j] / this.count);
+  }
+
+  /**
+   * Minimum of a column.
+   *
+   * @param j the column index.
+   * @return the smallest value of column j.
+   */
+  public double min(final int j) {
+    return this.min[j];
+  }
+
+  /**
+   * Maximum of a column.
+   *
+   * @param j the column index.
+   * @return the largest value of column j.
+   */
+  public double max(final int j) {
+    return this.max[j];
+  }
+}
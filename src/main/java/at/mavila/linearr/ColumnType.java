@@ -0,0 +1,59 @@
+package at.mavila.linearr;
+
+/**
+ * Storage type of the feature columns of a {@link ColumnarDatasetFormat} file.
+ */
+public enum ColumnType {
+
+  /**
+   * IEEE 754 double precision, 8 bytes per value.
+   */
+  FLOAT64(1, Double.BYTES),
+
+  /**
+   * IEEE 754 single precision, 4 bytes per value, widened to double when read.
+   */
+  FLOAT32(2, Float.BYTES);
+
+  private final int code;
+  private final int width;
+
+  ColumnType(final int code, final int width) {
+    this.code = code;
+    this.width = width;
+  }
+
+  /**
+   * Code of the type in the file header.
+   *
+   * @return the code.
+   */
+  public int code() {
+    return this.code;
+  }
+
+  /**
+   * Number of bytes of a value.
+   *
+   * @return the width in bytes.
+   */
+  public int width() {
+    return this.width;
+  }
+
+  /**
+   * Look a type up by its header code.
+   *
+   * @param code the code read from a header.
+   * @return the type.
+   * @throws IllegalArgumentException if no type has that code.
+   */
+  public static ColumnType ofCode(final int code) {
+    for (ColumnType type : values()) {
+      if (type.code == code) {
+        return type;
+      }
+    }
+    throw new IllegalArgumentException("unknown column type " + code);
+  }
+}
@@ -0,0 +1,177 @@
+package at.mavila.linearr;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact binary columnar file format of a labelled dataset, and the reader that maps it into memory.
+ * All values are little-endian:
+ * <pre>
+ * offset  size  content
+ *      0     4  magic "LRCD"
+ *      4     4  version, 1
+ *      8     4  column type code of the features, see {@link ColumnType}
+ *     12     4  n, number of features
+ *     16     8  m, number of examples
+ *     24     8  reserved, 0
+ *     32        n feature columns of m values each, column j at 32 + j * m * width
+ *               1 label column of m FLOAT64 values
+ * </pre>
+ * Every column is mapped on its own, so a column, not the file, is bounded by the 2 GB limit of a mapping.
+ * <pre>
+ * ColumnarDatasetFormat.write(path, x, y, ColumnType.FLOAT32);
+ * MappedColumnarDataset dataset = ColumnarDatasetFormat.map(path);
+ * gradientDescentService.compute(dataset, dataset.labels(), w, b, alpha, iterations, options);
+ * </pre>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ColumnarDatasetFormat {
+
+  /**
+   * Size of the header, the first column starts right after it.
+   */
+  public static final int HEADER_SIZE = 32;
+
+  private static final int MAGIC = 0x4443524C;
+  private static final int VERSION = 1;
+
+  /**
+   * Write a list based dataset.
+   *
+   * @param path the file to create or overwrite.
+   * @param x    (ndarray (m,n)): Data, m examples with n features.
+   * @param y    (ndarray (m,)): target values.
+   * @param type the storage type of the features.
+   * @throws IOException              if the file cannot be written.
+   * @throws IllegalArgumentException if the inputs are null, empty or of mismatching sizes.
+   */
+  public static void write(final Path path,
+                           final List<List<BigDecimal>> x,
+                           final List<BigDecimal> y,
+                           final ColumnType type) throws IOException {
+    write(path, DenseDataset.of(x), Utils.toDoubleArray(y, "y"), type);
+  }
+
+  /**
+   * Write a dense dataset, transposing it into columns.
+   *
+   * @param path the file to create or overwrite.
+   * @param x    the dense features.
+   * @param y    the target values, m long.
+   * @param type the storage type of the features.
+   * @throws IOException              if the file cannot be written.
+   * @throws IllegalArgumentException if the inputs are null or of mismatching sizes.
+   */
+  public static void write(final Path path,
+                           final DenseDataset x,
+                           final double[] y,
+                           final ColumnType type) throws IOException {
+    Utils.validateNotNull(path, "path");
+    Utils.validateNotNull(type, "type");
+    Utils.validateNotNull(x, "x");
+    Utils.validateNotNull(y, "y");
+    if (y.length != x.m()) {
+      throw new IllegalArgumentException("y does not have " + x.m() + " values");
+    }
+    final int m = x.m();
+    final int n = x.n();
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING)) {
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(MAGIC).putInt(VERSION).putInt(type.code()).putInt(n).putLong(m).putLong(0L).flip();
+      channel.write(header, 0L);
+
+      for (int j = 0; j < n; j++) {
+        final MappedByteBuffer column = map(channel, FileChannel.MapMode.READ_WRITE, columnOffset(j, m, type), m, type.width());
+        if (type == ColumnType.FLOAT32) {
+          final FloatBuffer values = column.asFloatBuffer();
+          for (int i = 0; i < m; i++) {
+            values.put(i, (float) x.get(i, j));
+          }
+        } else {
+          final DoubleBuffer values = column.asDoubleBuffer();
+          for (int i = 0; i < m; i++) {
+            values.put(i, x.get(i, j));
+          }
+        }
+        column.force();
+      }
+      final MappedByteBuffer labels = map(channel, FileChannel.MapMode.READ_WRITE, columnOffset(n, m, type), m, Double.BYTES);
+      labels.asDoubleBuffer().put(0, y);
+      labels.force();
+    }
+  }
+
+  /**
+   * Map a dataset file. Nothing is copied onto the heap besides the header: the features are read straight from the
+   * page cache while the kernels iterate, and the mapping outlives the channel it was created from.
+   *
+   * @param path the file to map.
+   * @return the mapped dataset.
+   * @throws IOException              if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a dataset of this format, or is truncated.
+   */
+  public static MappedColumnarDataset map(final Path path) throws IOException {
+    Utils.validateNotNull(path, "path");
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      if (channel.read(header, 0L) != HEADER_SIZE || header.getInt(0) != MAGIC) {
+        throw new IllegalArgumentException(path + " is not a columnar dataset");
+      }
+      if (header.getInt(4) != VERSION) {
+        throw new IllegalArgumentException("unsupported columnar dataset version " + header.getInt(4));
+      }
+      final ColumnType type = ColumnType.ofCode(header.getInt(8));
+      final int n = header.getInt(12);
+      final long m = header.getLong(16);
+      if (n <= 0 || m <= 0L || m > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("invalid dimensions " + m + " x " + n);
+      }
+      final long expected = HEADER_SIZE + m * n * type.width() + m * Double.BYTES;
+      if (channel.size() < expected) {
+        throw new IllegalArgumentException(path + " is truncated, expected " + expected + " bytes");
+      }
+
+      final MappedByteBuffer[] columns = new MappedByteBuffer[n];
+      for (int j = 0; j < n; j++) {
+        columns[j] = map(channel, FileChannel.MapMode.READ_ONLY, columnOffset(j, (int) m, type), (int) m, type.width());
+      }
+      final MappedByteBuffer labels =
+          map(channel, FileChannel.MapMode.READ_ONLY, columnOffset(n, (int) m, type), (int) m, Double.BYTES);
+      return new MappedColumnarDataset((int) m, n, type, columns, labels.asDoubleBuffer());
+    }
+  }
+
+  /**
+   * Offset of a column in the file; column n is the label column.
+   */
+  private static long columnOffset(final int j, final int m, final ColumnType type) {
+    return HEADER_SIZE + (long) j * m * type.width();
+  }
+
+  private static MappedByteBuffer map(final FileChannel channel,
+                                      final FileChannel.MapMode mode,
+                                      final long offset,
+                                      final int m,
+                                      final int width) throws IOException {
+    final long size = (long) m * width;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("column of " + size + " bytes is larger than a mapping");
+    }
+    final MappedByteBuffer column = channel.map(mode, offset, size);
+    column.order(ByteOrder.LITTLE_ENDIAN);
+    return column;
+  }
+}
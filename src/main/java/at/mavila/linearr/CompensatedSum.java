@@ -0,0 +1,62 @@
+package at.mavila.linearr;
+
+/**
+ * Running sum of doubles with Neumaier (improved Kahan) compensation.
+ * The rounding error of every addition is kept in a separate term, so the result does not depend on the
+ * order of the additions beyond the last bits. That makes partial sums computed on different threads
+ * mergeable into the same value a sequential pass would produce.
+ * <pre>
+ * sum of [1e100, 1.0, -1e100] = 1.0 (a naive sum returns 0.0)
+ * </pre>
+ */
+public final class CompensatedSum {
+
+  private double sum;
+  private double compensation;
+
+  /**
+   * Add a value to the sum.
+   *
+   * @param value the value to add.
+   * @return this sum.
+   */
+  public CompensatedSum add(final double value) {
+    final double total = this.sum + value;
+    this.compensation += error(this.sum, value, total);
+    this.sum = total;
+    return this;
+  }
+
+  /**
+   * Rounding error of one addition, for the kernels that keep the running sums in primitive arrays.
+   *
+   * @param sum   the running sum before the addition.
+   * @param value the value added.
+   * @param total the rounded result, sum + value.
+   * @return the exact sum minus total.
+   */
+  static double error(final double sum, final double value, final double total) {
+    return Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+  }
+
+  /**
+   * Merge a partial sum into this one.
+   *
+   * @param other the partial sum to merge.
+   * @return this sum.
+   */
+  public CompensatedSum merge(final CompensatedSum other) {
+    add(other.sum);
+    add(other.compensation);
+    return this;
+  }
+
+  /**
+   * The compensated value of the sum.
+   *
+   * @return the sum of all the added values.
+   */
+  public double value() {
+    return this.sum + this.compensation;
+  }
+}
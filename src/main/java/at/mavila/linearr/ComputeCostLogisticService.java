@@ -14,6 +14,8 @@ import org.springframework.stereotype.Service;
 public class ComputeCostLogisticService {
 
   private final SigmoidService sigmoidService;
+  private final LinearRegressionProperties properties;
+  private final TrainingMetrics metrics;
 
   /**
    * Compute the cost for the logistic regression.
@@ -25,9 +27,29 @@ public class ComputeCostLogisticService {
    * @return the cost for the logistic regression.
    */
   BigDecimal compute(List<List<BigDecimal>> x, List<BigDecimal> y, List<BigDecimal> w, BigDecimal b) {
+    return compute(x, y, w, b, this.properties.numericBackend());
+  }
+
+  /**
+   * Compute the cost for the logistic regression with a chosen numeric backend.
+   *
+   * @param x       (ndarray (m,n)): Data, m examples with n features.
+   * @param y       (ndarray (m,)) : target values.
+   * @param w       (ndarray (n,)) : model parameters (weights).
+   * @param b       b (scalar)       : model parameter (bias).
+   * @param backend the arithmetic to compute with, see {@link NumericBackend}.
+   * @return the cost for the logistic regression.
+   */
+  BigDecimal compute(List<List<BigDecimal>> x, List<BigDecimal> y, List<BigDecimal> w, BigDecimal b, NumericBackend backend) {
 
     performParameterValidations(x, y, w, b);
+    Utils.validateNotNull(backend, "backend");
+    if (backend != NumericBackend.EXACT) {
+      return BigDecimal.valueOf(
+          compute(backend.toFeatureMatrix(x), Utils.toDoubleArray(y, "y"), Utils.toDoubleArray(w, "w"), b.doubleValue()));
+    }
 
+    final long start = this.metrics.start();
     final int m = x.size();
     final AtomicReference<BigDecimal> cost = new AtomicReference<>(BigDecimal.ZERO);
     for (int n = 0; n < m; n++) {
@@ -40,19 +62,125 @@ public class ComputeCostLogisticService {
       final BigDecimal fWbInput = this.sigmoidService.sigmoid(zInput);
 
       //Calculate the cost for the logistic regression and accumulate it
-      //cost +=  -y[i]*np.log(f_wb_i) - (1-y[i])*np.log(1-f_wb_i)
-      final BigDecimal yNegated = y.get(n).negate();
-      //Calculate log(f_wb_i)
-      final Log log = new Log();
+      cost.set(cost.get().add(sampleCost(fWbInput, y.get(n))));
+    }
+
+    this.metrics.recordCost(start, m);
+    return average(cost.get(), m);
+  }
+
+  /**
+   * Cost of a single sample given its prediction.
+   * cost =  -y[i]*np.log(f_wb_i) - (1-y[i])*np.log(1-f_wb_i)
+   *
+   * @param fWb the prediction of the model for the sample, sigmoid(w &middot; x + b).
+   * @param y   the target value of the sample.
+   * @return the cost of the sample.
+   */
+  static BigDecimal sampleCost(final BigDecimal fWb, final BigDecimal y) {
+    final BigDecimal yNegated = y.negate();
+    //Calculate log(f_wb_i)
+    final Log log = new Log();
+
+    final BigDecimal yMultiplied = yNegated.multiply(BigDecimal.valueOf(log.value(fWb.doubleValue())));
+    final BigDecimal add = BigDecimal.ONE.add(yNegated).multiply(BigDecimal.valueOf(log.value(1D - fWb.doubleValue())));
 
-      final BigDecimal yMultiplied = yNegated.multiply(BigDecimal.valueOf(log.value(fWbInput.doubleValue())));
-      final BigDecimal add = BigDecimal.ONE.add(yNegated).multiply(BigDecimal.valueOf(log.value(1D - fWbInput.doubleValue())));
+    //Cost is equal to the rest of yMultiplied and add
+    return yMultiplied.subtract(add);
+  }
 
-      //Cost is equal to the rest of yMultiplied and add
-      cost.set(cost.get().add(yMultiplied.subtract(add)));
+  /**
+   * Divide an accumulated cost by the number of samples.
+   *
+   * @param cost the accumulated cost.
+   * @param m    the number of samples.
+   * @return the cost per sample.
+   */
+  static BigDecimal average(final BigDecimal cost, final int m) {
+    return cost.divide(BigDecimal.valueOf(m), new MathContext(Utils.PRECISION)).stripTrailingZeros();
+  }
+
+  /**
+   * Compute the cost for the logistic regression on a primitive feature matrix, such as a {@link DenseDataset}.
+   * The rows are read in place, and the losses of the m samples are summed with compensation, see
+   * {@link CompensatedSum}.
+   * The loss of each sample is evaluated in its logit form, max(z, 0) - y * z + log(1 + e^(-|z|)),
+   * which is the same value as -y * log(f_wb) - (1 - y) * log(1 - f_wb) but stays finite when f_wb saturates.
+   *
+   * @param x (ndarray (m,n)): Data, m examples with n features.
+   * @param y (ndarray (m,)) : target values.
+   * @param w (ndarray (n,)) : model parameters (weights).
+   * @param b b (scalar)       : model parameter (bias).
+   * @return the cost for the logistic regression.
+   */
+  double compute(FeatureMatrix x, double[] y, double[] w, double b) {
+    Utils.validateDense(x, y, w);
+
+    final long start = this.metrics.start();
+    final int m = x.m();
+    final CompensatedSum cost = new CompensatedSum();
+    for (int i = 0; i < m; i++) {
+      final double z = x.dot(i, w) + b;
+      cost.add(logLoss(z, y[i]));
     }
 
-    return cost.get().divide(BigDecimal.valueOf(m), new MathContext(Utils.PRECISION)).stripTrailingZeros();
+    this.metrics.recordCost(start, m);
+    return cost.value() / m;
+  }
+
+  /**
+   * Compute the cost for the logistic regression over a dataset read chunk by chunk, such as a {@link CsvDataset}.
+   * The losses of all the chunks are summed before the single division by m.
+   *
+   * @param x the chunked dataset, labels included.
+   * @param w (ndarray (n,)) : model parameters (weights).
+   * @param b b (scalar)       : model parameter (bias).
+   * @return the cost for the logistic regression.
+   * @throws IllegalArgumentException if the parameters are invalid or the dataset is empty.
+   */
+  double compute(ChunkedDataset x, double[] w, double b) {
+    Utils.validateChunked(x, w);
+
+    final long start = this.metrics.start();
+    final CompensatedSum cost = new CompensatedSum();
+    final long[] m = {0L};
+    x.forEachChunk(chunk -> {
+      final double[] y = chunk.y();
+      for (int i = 0; i < chunk.m(); i++) {
+        cost.add(logLoss(chunk.dot(i, w) + b, y[i]));
+      }
+      m[0] += chunk.m();
+    });
+    if (m[0] == 0L) {
+      throw new IllegalArgumentException("x has no rows");
+    }
+
+    this.metrics.recordCost(start, m[0]);
+    return cost.value() / m[0];
+  }
+
+  /**
+   * Log-loss of a single sample from its logit and its already computed prediction, without a second exponential.
+   * Uses log(1 + e^(-|z|)) = -log(max(f_wb, 1 - f_wb)).
+   *
+   * @param z   the logit, w &middot; x + b.
+   * @param fWb the prediction, sigmoid(z).
+   * @param y   the target value.
+   * @return -y * log(f_wb) - (1 - y) * log(1 - f_wb).
+   */
+  static double logLoss(double z, double fWb, double y) {
+    return Math.max(z, 0D) - y * z - Math.log(Math.max(fWb, 1D - fWb));
+  }
+
+  /**
+   * Log-loss of a single sample expressed in terms of its logit.
+   *
+   * @param z the logit, w &middot; x + b.
+   * @param y the target value.
+   * @return -y * log(sigmoid(z)) - (1 - y) * log(1 - sigmoid(z)).
+   */
+  static double logLoss(double z, double y) {
+    return Math.max(z, 0D) - y * z + Math.log1p(Math.exp(-Math.abs(z)));
   }
 
   private static void performParameterValidations(List<List<BigDecimal>> x,
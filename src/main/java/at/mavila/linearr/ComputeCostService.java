@@ -3,11 +3,24 @@ package at.mavila.linearr;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
+@AllArgsConstructor(onConstructor_ = @Autowired)
 public class ComputeCostService {
 
+  /**
+   * Number of points from which the primitive cost is computed in parallel by default.
+   */
+  public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+  private static final int CHUNK_SIZE = 1 << 13;
+
+  private final LinearRegressionProperties properties;
 
   /**
    * Compute the cost of the linear regression model.
@@ -27,33 +40,150 @@ public class ComputeCostService {
    * @return the cost of the linear regression model
    */
   public BigDecimal computeCost(List<BigDecimal> x, List<BigDecimal> y, BigDecimal w, BigDecimal b) {
+    return computeCost(x, y, w, b, this.properties.numericBackend());
+  }
+
+  /**
+   * Compute the cost of the linear regression model with a chosen numeric backend.
+   * Same formula and result type as {@link #computeCost(List, List, BigDecimal, BigDecimal)}.
+   *
+   * @param x       list of x values
+   * @param y       list of y values
+   * @param w       weight
+   * @param b       bias
+   * @param backend the arithmetic to compute with, see {@link NumericBackend}
+   * @return the cost of the linear regression model
+   */
+  public BigDecimal computeCost(List<BigDecimal> x, List<BigDecimal> y, BigDecimal w, BigDecimal b, NumericBackend backend) {
 
     ResultGradientCalculator resultGradientCalculator = InputValidator.wrapParameters(x, y, w, b);
+    Utils.validateNotNull(backend, "backend");
 
+    final double wValid = resultGradientCalculator.wValid().doubleValue();
+    final double bValid = resultGradientCalculator.bValid().doubleValue();
+    return switch (backend) {
+      case EXACT -> computeCostExact(x, y, resultGradientCalculator.wValid(), resultGradientCalculator.bValid());
+      case DOUBLE, SPARSE -> BigDecimal.valueOf(computeCost(Utils.toDoubleArray(x, "x"), Utils.toDoubleArray(y, "y"), wValid, bValid));
+      case FLOAT -> {
+        final float[] xFloat = Utils.toFloatArray(x, "x");
+        final float[] yFloat = Utils.toFloatArray(y, "y");
+        yield BigDecimal.valueOf(reduceChunks(xFloat.length, xFloat.length >= PARALLEL_THRESHOLD,
+            (from, to) -> calculateChunkCost(xFloat, yFloat, wValid, bValid, from, to)));
+      }
+    };
+  }
+
+  private static BigDecimal computeCostExact(List<BigDecimal> x, List<BigDecimal> y, BigDecimal w, BigDecimal b) {
     //Compute the cost
     BigDecimal divided =
-        calculateTotalCost(x, y, resultGradientCalculator.wValid(), resultGradientCalculator.bValid()) /*BigDecimal*/
+        calculateTotalCost(x, y, w, b) /*BigDecimal*/
         .divide(BigDecimal.valueOf(2L * x.size()), new MathContext(Utils.PRECISION));
 
     return divided.stripTrailingZeros();
   }
 
+  /**
+   * Compute the cost of the linear regression model on primitive arrays.
+   * Same formula as {@link #computeCost(List, List, BigDecimal, BigDecimal)}, evaluated in a single index based pass
+   * with compensated summation. Large inputs (at least {@value #PARALLEL_THRESHOLD} points) are split across cores.
+   * <pre>
+   * Usage:
+   * computeCost([1, 2, 3, 4], [2, 3, 4, 5], 2, 1) = 3.75
+   * computeCost(null, null, 2, 1) = IllegalArgumentException
+   * </pre>
+   *
+   * @param x array of x values
+   * @param y array of y values
+   * @param w weight
+   * @param b bias
+   * @return the cost of the linear regression model
+   */
+  public double computeCost(double[] x, double[] y, double w, double b) {
+    return computeCost(x, y, w, b, Objects.nonNull(x) && x.length >= PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Compute the cost of the linear regression model on primitive arrays, choosing whether to split the pass across cores.
+   * The points are cut into fixed chunks whose compensated partial sums are merged in order, so the parallel result
+   * matches the sequential one to the last bits regardless of how the chunks are scheduled.
+   *
+   * @param x        array of x values
+   * @param y        array of y values
+   * @param w        weight
+   * @param b        bias
+   * @param parallel true to reduce the chunks in parallel on the common pool
+   * @return the cost of the linear regression model
+   */
+  public double computeCost(double[] x, double[] y, double w, double b, boolean parallel) {
+    InputValidator.validateArraysXY(x, y);
+    return reduceChunks(x.length, parallel, (from, to) -> calculateChunkCost(x, y, w, b, from, to));
+  }
+
+  private static double reduceChunks(final int m, final boolean parallel, final ChunkCost chunkCost) {
+    final int chunks = (m + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+    IntStream indexes = IntStream.range(0, chunks);
+    if (parallel) {
+      indexes = indexes.parallel();
+    }
+    final CompensatedSum total = indexes
+        .mapToObj(chunk -> chunkCost.apply(chunk * CHUNK_SIZE, Math.min(m, (chunk + 1) * CHUNK_SIZE)))
+        .collect(CompensatedSum::new, CompensatedSum::merge, CompensatedSum::merge);
+
+    return total.value() / (2D * m);
+  }
+
+  private static CompensatedSum calculateChunkCost(final double[] x,
+                                                   final double[] y,
+                                                   final double w,
+                                                   final double b,
+                                                   final int from,
+                                                   final int to) {
+    final CompensatedSum sum = new CompensatedSum();
+    for (int i = from; i < to; i++) {
+      final double residual = w * x[i] + b - y[i];
+      sum.add(residual * residual);
+    }
+    return sum;
+  }
+
+  private static CompensatedSum calculateChunkCost(final float[] x,
+                                                   final float[] y,
+                                                   final double w,
+                                                   final double b,
+                                                   final int from,
+                                                   final int to) {
+    final CompensatedSum sum = new CompensatedSum();
+    for (int i = from; i < to; i++) {
+      final double residual = w * x[i] + b - y[i];
+      sum.add(residual * residual);
+    }
+    return sum;
+  }
+
   private static BigDecimal calculateTotalCost(final List<BigDecimal> x,
                                                final List<BigDecimal> y,
                                                final BigDecimal w,
                                                final BigDecimal b) {
-    return x.stream().map(xi -> calculateSingleCost(x, y, xi, w, b)).reduce(BigDecimal.ZERO, BigDecimal::add);
+    return IntStream.range(0, x.size())
+        .mapToObj(i -> calculateSingleCost(x.get(i), y.get(i), w, b))
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
   }
 
-  private static BigDecimal calculateSingleCost(final List<BigDecimal> x,
-                                                final List<BigDecimal> y,
-                                                final BigDecimal xi,
+  private static BigDecimal calculateSingleCost(final BigDecimal xi,
+                                                final BigDecimal yi,
                                                 final BigDecimal w,
                                                 final BigDecimal b) {
 
-    return ModelCreator.createModel(xi, w, b).subtract(y.get(x.indexOf(xi))).pow(2);
+    return ModelCreator.createModel(xi, w, b).subtract(yi).pow(2);
 
   }
 
-
-}
\ No newline at end of file
+  /**
+   * Sum of the squared residuals of the points [from, to).
+   */
+  @FunctionalInterface
+  private interface ChunkCost {
+    CompensatedSum apply(int from, int to);
+  }
+}
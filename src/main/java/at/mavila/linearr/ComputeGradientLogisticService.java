@@ -3,7 +3,10 @@ package at.mavila.linearr;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +16,14 @@ import org.springframework.stereotype.Service;
 @AllArgsConstructor(onConstructor_ = @Autowired)
 public class ComputeGradientLogisticService {
 
+  /**
+   * Tasks created per worker, so that uneven chunks still keep every worker busy.
+   */
+  private static final int TASKS_PER_WORKER = 4;
+
   private final SigmoidService sigmoidService;
+  private final LinearRegressionProperties properties;
+  private final TrainingMetrics metrics;
 
   /**
    * X (ndarray (m,n): Data, m examples with n features
@@ -32,6 +42,43 @@ public class ComputeGradientLogisticService {
                                        final List<BigDecimal> y,
                                        final List<BigDecimal> w,
                                        final BigDecimal b) {
+    return compute(x, y, w, b, this.properties.numericBackend());
+  }
+
+  /**
+   * Compute the gradient with a chosen numeric backend, see {@link #compute(List, List, List, BigDecimal)}.
+   * The primitive backends run the dense kernels on a copy of x and, unlike the exact one, always return n elements
+   * in djDw, zeros included.
+   *
+   * @param x       (ndarray (m,n))
+   * @param y       (ndarray (m,))
+   * @param w       (ndarray (n,))
+   * @param b       (scalar)
+   * @param backend the arithmetic to compute with, see {@link NumericBackend}
+   * @return dj_dw (ndarray (n,)): The gradient of the cost w.r.t. the parameters w.
+   * dj_db (scalar)      : The gradient of the cost w.r.t. the parameter b.
+   */
+  public ResultComputeGradient compute(final List<List<BigDecimal>> x,
+                                       final List<BigDecimal> y,
+                                       final List<BigDecimal> w,
+                                       final BigDecimal b,
+                                       final NumericBackend backend) {
+    Utils.validateNotNull(backend, "backend");
+    if (backend == NumericBackend.EXACT) {
+      return computeExact(x, y, w, b);
+    }
+    Utils.validateNotNull(b, "b");
+    final ResultComputeGradientDense dense =
+        compute(backend.toFeatureMatrix(x), Utils.toDoubleArray(y, "y"), Utils.toDoubleArray(w, "w"), b.doubleValue());
+    return new ResultComputeGradient(BigDecimal.valueOf(dense.djDb()),
+        Arrays.stream(dense.djDw()).mapToObj(BigDecimal::valueOf).toList());
+  }
+
+  private ResultComputeGradient computeExact(final List<List<BigDecimal>> x,
+                                             final List<BigDecimal> y,
+                                             final List<BigDecimal> w,
+                                             final BigDecimal b) {
+    final long start = this.metrics.start();
     int m = x.size();
 
     List<BigDecimal> djDw = new ArrayList<>(m);
@@ -59,8 +106,496 @@ public class ComputeGradientLogisticService {
     //There are zeros in the djDw list, so we need to remove them
     djDw.removeIf(BigDecimal.ZERO::equals);
     djDb.set(djDb.get().divide(BigDecimal.valueOf(m), new MathContext(Utils.PRECISION)).stripTrailingZeros());
+    this.metrics.recordGradient(start, m);
 
     return new ResultComputeGradient(djDb.get(), djDw);
 
   }
-}
\ No newline at end of file
+
+  /**
+   * Compute the gradient and the cost at the same parameters in a single pass over the rows.
+   * The sigmoid and the dot product of every sample are evaluated once and shared by both.
+   * Unlike {@link #compute(List, List, List, BigDecimal)}, djDw always has n elements, zeros included.
+   *
+   * @param x (ndarray (m,n))
+   * @param y (ndarray (m,))
+   * @param w (ndarray (n,))
+   * @param b (scalar)
+   * @return the gradient, as returned by {@link #compute(List, List, List, BigDecimal)}, and the cost,
+   *     as returned by {@link ComputeCostLogisticService}, both at w and b.
+   */
+  public ResultComputeGradientCost computeWithCost(final List<List<BigDecimal>> x,
+                                                   final List<BigDecimal> y,
+                                                   final List<BigDecimal> w,
+                                                   final BigDecimal b) {
+    return computeWithCost(x, y, w, b, true);
+  }
+
+  /**
+   * Fused gradient pass over lists, skipping the cost when it is not needed.
+   *
+   * @param withCost false to leave the cost null and skip the logarithms.
+   */
+  ResultComputeGradientCost computeWithCost(final List<List<BigDecimal>> x,
+                                            final List<BigDecimal> y,
+                                            final List<BigDecimal> w,
+                                            final BigDecimal b,
+                                            final boolean withCost) {
+    Utils.validateList(x, "x");
+    Utils.validateList(y, "y");
+    Utils.validateList(w, "w");
+    Utils.validateNotNull(b, "b");
+
+    final long start = this.metrics.start();
+    final int m = x.size();
+    final int n = w.size();
+    final BigDecimal[] djDw = new BigDecimal[n];
+    Arrays.fill(djDw, BigDecimal.ZERO);
+    BigDecimal djDb = BigDecimal.ZERO;
+    BigDecimal cost = BigDecimal.ZERO;
+
+    for (int i = 0; i < m; i++) {
+      final List<BigDecimal> xi = x.get(i);
+      final BigDecimal fWbi = this.sigmoidService.sigmoid(BigDecimal.valueOf(Utils.calculateDotProduct(xi, w)).add(b));
+      final BigDecimal erri = fWbi.subtract(y.get(i));
+
+      for (int j = 0; j < n; j++) {
+        djDw[j] = djDw[j].add(erri.multiply(xi.get(j)));
+      }
+      djDb = djDb.add(erri);
+      if (withCost) {
+        cost = cost.add(ComputeCostLogisticService.sampleCost(fWbi, y.get(i)));
+      }
+    }
+
+    final MathContext mathContext = new MathContext(Utils.PRECISION);
+    final BigDecimal divisor = BigDecimal.valueOf(m);
+    final List<BigDecimal> djDwAveraged = Arrays.stream(djDw)
+        .map(dj -> dj.divide(divisor, mathContext).stripTrailingZeros())
+        .toList();
+
+    this.metrics.recordGradient(start, m);
+    return ResultComputeGradientCost.builder()
+        .gradient(new ResultComputeGradient(djDb.divide(divisor, mathContext).stripTrailingZeros(), djDwAveraged))
+        .cost(withCost ? ComputeCostLogisticService.average(cost, m) : null)
+        .build();
+  }
+
+  /**
+   * Same gradient as {@link #compute(List, List, List, BigDecimal)} on a primitive feature matrix, such as a
+   * {@link DenseDataset}. The rows are read in place, so the pass over the m samples does not allocate.
+   * Unlike the list version, djDw always has n elements, zeros included.
+   *
+   * @param x (ndarray (m,n))
+   * @param y (ndarray (m,))
+   * @param w (ndarray (n,))
+   * @param b (scalar)
+   * @return dj_dw (ndarray (n,)): The gradient of the cost w.r.t. the parameters w.
+   * dj_db (scalar)      : The gradient of the cost w.r.t. the parameter b.
+   */
+  public ResultComputeGradientDense compute(final FeatureMatrix x,
+                                            final double[] y,
+                                            final double[] w,
+                                            final double b) {
+    return compute(x, y, w, b, false, 0);
+  }
+
+  /**
+   * Same gradient as {@link #compute(FeatureMatrix, double[], double[], double)}, split across a number of workers.
+   * The rows are cut into chunks on a fork/join pool, every worker sums its chunk into its own gradient buffers and
+   * the buffers are merged pairwise back up the tree of tasks. The chunks do not depend on scheduling, so the result
+   * is the same from one call to the next.
+   *
+   * @param x           (ndarray (m,n))
+   * @param y           (ndarray (m,))
+   * @param w           (ndarray (n,))
+   * @param b           (scalar)
+   * @param parallelism number of workers, 1 to stay on the calling thread, 0 for the configured
+   *                    {@code linearr.gradient-parallelism}
+   * @return dj_dw (ndarray (n,)): The gradient of the cost w.r.t. the parameters w.
+   * dj_db (scalar)      : The gradient of the cost w.r.t. the parameter b.
+   */
+  public ResultComputeGradientDense compute(final FeatureMatrix x,
+                                            final double[] y,
+                                            final double[] w,
+                                            final double b,
+                                            final int parallelism) {
+    return compute(x, y, w, b, false, parallelism);
+  }
+
+  /**
+   * Compute the gradient and the cost at the same parameters in a single pass over a dense dataset.
+   *
+   * @param x (ndarray (m,n))
+   * @param y (ndarray (m,))
+   * @param w (ndarray (n,))
+   * @param b (scalar)
+   * @return the gradient, as returned by {@link #compute(FeatureMatrix, double[], double[], double)}, with the cost
+   *     as returned by {@link ComputeCostLogisticService}, both at w and b.
+   */
+  public ResultComputeGradientDense computeWithCost(final FeatureMatrix x,
+                                                    final double[] y,
+                                                    final double[] w,
+                                                    final double b) {
+    return compute(x, y, w, b, true, 0);
+  }
+
+  /**
+   * Fused gradient and cost pass split across a number of workers,
+   * see {@link #compute(FeatureMatrix, double[], double[], double, int)}.
+   *
+   * @param x           (ndarray (m,n))
+   * @param y           (ndarray (m,))
+   * @param w           (ndarray (n,))
+   * @param b           (scalar)
+   * @param parallelism number of workers, 1 to stay on the calling thread, 0 for the configured default
+   * @return the gradient and the cost, both at w and b.
+   */
+  public ResultComputeGradientDense computeWithCost(final FeatureMatrix x,
+                                                    final double[] y,
+                                                    final double[] w,
+                                                    final double b,
+                                                    final int parallelism) {
+    return compute(x, y, w, b, true, parallelism);
+  }
+
+  private ResultComputeGradientDense compute(final FeatureMatrix x,
+                                             final double[] y,
+                                             final double[] w,
+                                             final double b,
+                                             final boolean withCost,
+                                             final int parallelism) {
+    Utils.validateDense(x, y, w);
+    final long start = this.metrics.start();
+    final GradientAccumulator accumulator = new GradientAccumulator(x.n(), withCost);
+    accumulate(x, y, w, b, accumulator, parallelism);
+    accumulator.average(x.m());
+    this.metrics.recordGradient(start, x.m());
+    return accumulator.toResult();
+  }
+
+  /**
+   * Compute the gradient for logistic regression over a dataset read chunk by chunk, such as a {@link CsvDataset}.
+   * The gradients of the chunks are summed into the same buffers, so the result is the gradient of the whole dataset
+   * while only one chunk is in memory at any time.
+   *
+   * @param x the chunked dataset, labels included.
+   * @param w (ndarray (n,))
+   * @param b (scalar)
+   * @return dj_dw (ndarray (n,)): The gradient of the cost w.r.t. the parameters w.
+   * dj_db (scalar)      : The gradient of the cost w.r.t. the parameter b.
+   */
+  public ResultComputeGradientDense compute(final ChunkedDataset x, final double[] w, final double b) {
+    return compute(x, w, b, false);
+  }
+
+  /**
+   * Compute the gradient and the cost at the same parameters in a single pass over a chunked dataset.
+   *
+   * @param x the chunked dataset, labels included.
+   * @param w (ndarray (n,))
+   * @param b (scalar)
+   * @return the gradient, as returned by {@link #compute(ChunkedDataset, double[], double)}, with the cost at w and b.
+   */
+  public ResultComputeGradientDense computeWithCost(final ChunkedDataset x, final double[] w, final double b) {
+    return compute(x, w, b, true);
+  }
+
+  private ResultComputeGradientDense compute(final ChunkedDataset x,
+                                             final double[] w,
+                                             final double b,
+                                             final boolean withCost) {
+    Utils.validateChunked(x, w);
+    final long start = this.metrics.start();
+    final GradientAccumulator accumulator = new GradientAccumulator(x.n(), withCost);
+    final long m = accumulate(x, w, b, accumulator, 0);
+    accumulator.average(m);
+    this.metrics.recordGradient(start, m);
+    return accumulator.toResult();
+  }
+
+  /**
+   * Add the unscaled gradient, and the cost when requested, of every chunk of a dataset to an accumulator.
+   * Each chunk is split across workers like a dense dataset when it is large enough.
+   *
+   * @param x           the chunked dataset.
+   * @param w           the weights.
+   * @param b           the bias.
+   * @param accumulator where the sums are added.
+   * @param parallelism number of workers, 0 for the configured default.
+   * @return the number of rows, m.
+   * @throws IllegalArgumentException if the dataset is empty.
+   */
+  long accumulate(final ChunkedDataset x,
+                  final double[] w,
+                  final double b,
+                  final GradientAccumulator accumulator,
+                  final int parallelism) {
+    final long[] m = {0L};
+    x.forEachChunk(chunk -> {
+      accumulate(chunk, chunk.y(), w, b, accumulator, parallelism);
+      m[0] += chunk.m();
+    });
+    if (m[0] == 0L) {
+      throw new IllegalArgumentException("x has no rows");
+    }
+    return m[0];
+  }
+
+  /**
+   * Add the unscaled gradient, and the cost when requested, of all the rows to an accumulator,
+   * splitting the rows across workers when the dataset is large enough.
+   *
+   * @param x           the dense dataset.
+   * @param y           the target values.
+   * @param w           the weights.
+   * @param b           the bias.
+   * @param accumulator where the sums are added.
+   * @param parallelism number of workers, 0 for the configured default.
+   */
+  void accumulate(final FeatureMatrix x,
+                  final double[] y,
+                  final double[] w,
+                  final double b,
+                  final GradientAccumulator accumulator,
+                  final int parallelism) {
+    final int m = x.m();
+    final int workers = ForkJoinPools.resolve(parallelism == 0 ? this.properties.gradientParallelism() : parallelism);
+    final int minimumRows = this.properties.gradientMinimumRowsPerTask();
+    if (workers == 1 || m < 2 * minimumRows) {
+      accumulate(x, y, w, b, 0, m, accumulator);
+      return;
+    }
+    final int rowsPerTask = Math.max(minimumRows, Math.ceilDiv(m, workers * TASKS_PER_WORKER));
+    accumulator.merge(ForkJoinPools.get(workers)
+        .invoke(new GradientTask(this, x, y, w, b, 0, m, rowsPerTask, accumulator.withCost)));
+  }
+
+  /**
+   * Add the unscaled gradient, and the cost when requested, of the rows [from, to) to an accumulator.
+   * The parameters are not validated: callers iterating over the same dataset check them once.
+   *
+   * @param x           the dense dataset.
+   * @param y           the target values.
+   * @param w           the weights.
+   * @param b           the bias.
+   * @param from        first row, inclusive.
+   * @param to          last row, exclusive.
+   * @param accumulator where the sums are added.
+   */
+  void accumulate(final FeatureMatrix x,
+                  final double[] y,
+                  final double[] w,
+                  final double b,
+                  final int from,
+                  final int to,
+                  final GradientAccumulator accumulator) {
+    if (x instanceof FloatDenseDataset floats) {
+      accumulateCompensated(floats, y, w, b, null, from, to, accumulator);
+      return;
+    }
+    if (x instanceof MappedColumnarDataset columns) {
+      accumulateColumnar(columns, y, w, b, from, to, accumulator);
+      return;
+    }
+    accumulateRows(x, y, w, b, null, from, to, accumulator);
+  }
+
+  /**
+   * Add the unscaled gradient, and the cost when requested, of a subset of the rows to an accumulator.
+   * The rows are visited in the order of rows[from .. to - 1], as for a shuffled mini-batch.
+   * The parameters are not validated: callers iterating over the same dataset check them once.
+   *
+   * @param x           the dense dataset.
+   * @param y           the target values.
+   * @param w           the weights.
+   * @param b           the bias.
+   * @param rows        indexes of rows of x.
+   * @param from        first position in rows, inclusive.
+   * @param to          last position in rows, exclusive.
+   * @param accumulator where the sums are added.
+   */
+  void accumulate(final FeatureMatrix x,
+                  final double[] y,
+                  final double[] w,
+                  final double b,
+                  final int[] rows,
+                  final int from,
+                  final int to,
+                  final GradientAccumulator accumulator) {
+    if (x instanceof FloatDenseDataset floats) {
+      accumulateCompensated(floats, y, w, b, rows, from, to, accumulator);
+      return;
+    }
+    accumulateRows(x, y, w, b, rows, from, to, accumulator);
+  }
+
+  /**
+   * The row by row loop of the two accumulations above.
+   *
+   * @param rows indexes of rows of x, or null to visit the rows [from, to) in order.
+   */
+  private void accumulateRows(final FeatureMatrix x,
+                              final double[] y,
+                              final double[] w,
+                              final double b,
+                              final int[] rows,
+                              final int from,
+                              final int to,
+                              final GradientAccumulator accumulator) {
+    final double[] djDw = accumulator.djDw;
+    double djDb = 0D;
+    double cost = 0D;
+
+    for (int k = from; k < to; k++) {
+      final int i = Objects.isNull(rows) ? k : rows[k];
+      final double z = x.dot(i, w) + b;
+      final double fWbi = this.sigmoidService.sigmoid(z);
+      final double erri = fWbi - y[i];
+
+      x.axpy(i, erri, djDw);
+      djDb += erri;
+      if (accumulator.withCost) {
+        cost += ComputeCostLogisticService.logLoss(z, fWbi, y[i]);
+      }
+    }
+
+    accumulator.djDb += djDb;
+    accumulator.cost += cost;
+  }
+
+  /**
+   * The float backend variant of the two accumulations above: the sums over the rows are compensated, see
+   * {@link FloatDenseDataset}.
+   *
+   * @param rows indexes of rows of x, or null to visit the rows [from, to) in order.
+   */
+  private void accumulateCompensated(final FloatDenseDataset x,
+                                     final double[] y,
+                                     final double[] w,
+                                     final double b,
+                                     final int[] rows,
+                                     final int from,
+                                     final int to,
+                                     final GradientAccumulator accumulator) {
+    final double[] djDw = accumulator.djDw;
+    final double[] compensation = accumulator.compensation();
+    final CompensatedSum djDb = new CompensatedSum();
+    final CompensatedSum cost = new CompensatedSum();
+
+    for (int k = from; k < to; k++) {
+      final int i = Objects.isNull(rows) ? k : rows[k];
+      final double z = x.dot(i, w) + b;
+      final double fWbi = this.sigmoidService.sigmoid(z);
+      final double erri = fWbi - y[i];
+
+      x.axpy(i, erri, djDw, compensation);
+      djDb.add(erri);
+      if (accumulator.withCost) {
+        cost.add(ComputeCostLogisticService.logLoss(z, fWbi, y[i]));
+      }
+    }
+
+    for (int j = 0; j < djDw.length; j++) {
+      djDw[j] += compensation[j];
+    }
+    accumulator.djDb += djDb.value();
+    accumulator.cost += cost.value();
+  }
+
+  /**
+   * The memory mapped variant of the accumulation of the rows [from, to): the rows are taken in blocks, and the dot
+   * products and the gradient of a block are computed column by column, see {@link MappedColumnarDataset}. The sums
+   * are taken in the same order as the row by row loop, so the results are the same.
+   */
+  private void accumulateColumnar(final MappedColumnarDataset x,
+                                  final double[] y,
+                                  final double[] w,
+                                  final double b,
+                                  final int from,
+                                  final int to,
+                                  final GradientAccumulator accumulator) {
+    //Holds the dot products of a block, then its errors
+    final double[] block = accumulator.block();
+    double djDb = 0D;
+    double cost = 0D;
+
+    for (int start = from; start < to; start += block.length) {
+      final int end = Math.min(to, start + block.length);
+      x.dot(start, end, w, block);
+      for (int i = start; i < end; i++) {
+        final double z = block[i - start] + b;
+        final double fWbi = this.sigmoidService.sigmoid(z);
+        final double erri = fWbi - y[i];
+
+        block[i - start] = erri;
+        djDb += erri;
+        if (accumulator.withCost) {
+          cost += ComputeCostLogisticService.logLoss(z, fWbi, y[i]);
+        }
+      }
+      x.axpy(start, end, block, accumulator.djDw);
+    }
+
+    accumulator.djDb += djDb;
+    accumulator.cost += cost;
+  }
+
+  /**
+   * Fork/join task summing the gradient of a range of rows into its own buffers.
+   * Ranges above the task size are halved, and the two halves are merged when both are done.
+   */
+  private static final class GradientTask extends RecursiveTask<GradientAccumulator> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ComputeGradientLogisticService service;
+    private final transient FeatureMatrix x;
+    private final transient double[] y;
+    private final transient double[] w;
+    private final double b;
+    private final int from;
+    private final int to;
+    private final int rowsPerTask;
+    private final boolean withCost;
+
+    private GradientTask(final ComputeGradientLogisticService service,
+                         final FeatureMatrix x,
+                         final double[] y,
+                         final double[] w,
+                         final double b,
+                         final int from,
+                         final int to,
+                         final int rowsPerTask,
+                         final boolean withCost) {
+      this.service = service;
+      this.x = x;
+      this.y = y;
+      this.w = w;
+      this.b = b;
+      this.from = from;
+      this.to = to;
+      this.rowsPerTask = rowsPerTask;
+      this.withCost = withCost;
+    }
+
+    @Override
+    protected GradientAccumulator compute() {
+      if (this.to - this.from <= this.rowsPerTask) {
+        final GradientAccumulator accumulator = new GradientAccumulator(this.x.n(), this.withCost);
+        this.service.accumulate(this.x, this.y, this.w, this.b, this.from, this.to, accumulator);
+        return accumulator;
+      }
+      final int middle = (this.from + this.to) >>> 1;
+      final GradientTask left = new GradientTask(this.service, this.x, this.y, this.w, this.b, this.from, middle,
+          this.rowsPerTask, this.withCost);
+      final GradientTask right = new GradientTask(this.service, this.x, this.y, this.w, this.b, middle, this.to,
+          this.rowsPerTask, this.withCost);
+      left.fork();
+      final GradientAccumulator rightSums = right.compute();
+      final GradientAccumulator leftSums = left.join();
+      leftSums.merge(rightSums);
+      return leftSums;
+    }
+  }
+}
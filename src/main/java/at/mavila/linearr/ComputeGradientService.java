@@ -3,11 +3,15 @@ package at.mavila.linearr;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.List;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
+@AllArgsConstructor(onConstructor_ = @Autowired)
 public class ComputeGradientService {
 
+  private final LinearRegressionProperties properties;
 
   /**
    * Compute the gradient.
@@ -29,10 +33,39 @@ public class ComputeGradientService {
    * @return the gradient
    */
   public List<BigDecimal> computeGradient(List<BigDecimal> x, List<BigDecimal> y, BigDecimal w, BigDecimal b) {
+    return computeGradient(x, y, w, b, this.properties.numericBackend());
+  }
+
+  /**
+   * Compute the gradient with a chosen numeric backend.
+   * Same formula and result type as {@link #computeGradient(List, List, BigDecimal, BigDecimal)}.
+   *
+   * @param x       list of x values
+   * @param y       list of y values
+   * @param w       weight
+   * @param b       bias
+   * @param backend the arithmetic to compute with, see {@link NumericBackend}
+   * @return the gradient
+   */
+  public List<BigDecimal> computeGradient(List<BigDecimal> x,
+                                          List<BigDecimal> y,
+                                          BigDecimal w,
+                                          BigDecimal b,
+                                          NumericBackend backend) {
     // Use the input validator to validate the input
     final ResultGradientCalculator resultGradientCalculator = InputValidator.wrapParameters(x, y, w, b);
+    Utils.validateNotNull(backend, "backend");
     final int m = x.size();
 
+    if (backend != NumericBackend.EXACT) {
+      final double wValid = resultGradientCalculator.wValid().doubleValue();
+      final double bValid = resultGradientCalculator.bValid().doubleValue();
+      final double[] sums = backend != NumericBackend.FLOAT
+          ? GradientCalculator.calculateGradients(Utils.toDoubleArray(x, "x"), Utils.toDoubleArray(y, "y"), wValid, bValid)
+          : GradientCalculator.calculateGradients(Utils.toFloatArray(x, "x"), Utils.toFloatArray(y, "y"), wValid, bValid);
+      return List.of(BigDecimal.valueOf(sums[0] / m), BigDecimal.valueOf(sums[1] / m));
+    }
+
     BigDecimal[] gradients =
         GradientCalculator.calculateGradients(x, y, m, resultGradientCalculator,
             Utils.getBigDecimals(BigDecimal.ZERO, BigDecimal.ZERO));
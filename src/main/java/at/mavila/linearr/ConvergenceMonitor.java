@@ -0,0 +1,89 @@
+package at.mavila.linearr;
+
+import java.util.Objects;
+
+/**
+ * Per-run state of the stopping criteria of {@link GradientDescentOptions}: the previous computed cost and the
+ * deadline of the time budget. It also reports the progress to the listener of the options, and stops a run whose
+ * thread has been interrupted.
+ */
+final class ConvergenceMonitor {
+
+  private final GradientDescentOptions options;
+  private final boolean budgeted;
+  private final long deadline;
+  private double previousCost = Double.NaN;
+
+  /**
+   * Start monitoring a run, the time budget starts now.
+   *
+   * @param options the options of the run.
+   */
+  ConvergenceMonitor(final GradientDescentOptions options) {
+    this.options = options;
+    this.budgeted = Objects.nonNull(options.timeBudget());
+    this.deadline = this.budgeted ? System.nanoTime() + options.timeBudget().toNanos() : 0L;
+  }
+
+  /**
+   * Whether the run must compute the cost of this iteration, either to record it or to test it.
+   *
+   * @param iteration the 0 based iteration index.
+   * @return true on every {@link GradientDescentOptions#costHistoryInterval()} iterations.
+   */
+  boolean isCostComputed(final long iteration) {
+    return iteration % this.options.costHistoryInterval() == 0;
+  }
+
+  /**
+   * Whether the run must compute the norm of the gradient, either to test it or to report it.
+   *
+   * @return true if the gradient tolerance is enabled or there is a progress listener.
+   */
+  boolean isGradientNormComputed() {
+    return this.options.gradientTolerance() > 0D || Objects.nonNull(this.options.progressListener());
+  }
+
+  /**
+   * Report an iteration and test the stopping criteria.
+   *
+   * @param iterations   the number of iterations completed, this one included.
+   * @param cost         the cost computed in the iteration, NaN if it was not computed.
+   * @param gradientNorm the euclidean norm of the gradient, NaN if it was not computed, which skips the test.
+   * @return why the run must stop, or null to keep going.
+   */
+  StopReason check(final long iterations, final double cost, final double gradientNorm) {
+    if (Objects.nonNull(this.options.progressListener())) {
+      this.options.progressListener().onIteration(iterations, cost, gradientNorm);
+    }
+    if (Thread.currentThread().isInterrupted()) {
+      return StopReason.CANCELLED;
+    }
+    if (this.options.gradientTolerance() > 0D && gradientNorm < this.options.gradientTolerance()) {
+      return StopReason.GRADIENT_CONVERGED;
+    }
+    if (!Double.isNaN(cost)) {
+      final double previous = this.previousCost;
+      this.previousCost = cost;
+      if (this.options.costTolerance() > 0D
+          && Math.abs(previous - cost) <= this.options.costTolerance() * Math.abs(previous)) {
+        return StopReason.COST_CONVERGED;
+      }
+    }
+    if (this.budgeted && System.nanoTime() - this.deadline >= 0L) {
+      return StopReason.TIME_BUDGET_EXCEEDED;
+    }
+    return null;
+  }
+
+  /**
+   * Euclidean norm of a gradient.
+   *
+   * @param djDw the gradient w.r.t. w.
+   * @param djDb the gradient w.r.t. b.
+   * @return the norm of (djDw, djDb).
+   */
+  static double norm(final double[] djDw, final double djDb) {
+    return Math.sqrt(VectorKernels.dot(djDw, djDw) + djDb * djDb);
+  }
+}
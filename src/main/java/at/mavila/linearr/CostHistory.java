@@ -0,0 +1,86 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cost history of fixed capacity, downsampled as the run grows.
+ * Entry k holds the cost of iteration {@code k * stride}. When the buffer is full every other entry is dropped and
+ * the stride doubles, so the entries stay evenly spread over the whole run and the memory never exceeds the capacity,
+ * whatever the number of iterations.
+ * <pre>
+ * capacity 4, interval 1, iterations 0..9: entries of iterations [0, 2, 4, 6], then [0, 4, 8], stride 4
+ * </pre>
+ */
+final class CostHistory {
+
+  private final double[] costs;
+  private int size;
+  private long stride;
+
+  /**
+   * Create an empty history.
+   *
+   * @param capacity maximum number of entries, at least 2.
+   * @param interval initial number of iterations between two entries.
+   */
+  CostHistory(final int capacity, final long interval) {
+    this.costs = new double[capacity];
+    this.stride = interval;
+  }
+
+  /**
+   * Record the cost of an iteration if it falls on the current stride.
+   *
+   * @param iteration the 0 based iteration index, increasing between calls.
+   * @param cost      the cost at that iteration.
+   */
+  void add(final long iteration, final double cost) {
+    if (iteration % this.stride != 0) {
+      return;
+    }
+    if (this.size == this.costs.length) {
+      downsample();
+      if (iteration % this.stride != 0) {
+        return;
+      }
+    }
+    this.costs[this.size++] = cost;
+  }
+
+  /**
+   * Number of iterations between two entries.
+   *
+   * @return the current stride.
+   */
+  long stride() {
+    return this.stride;
+  }
+
+  /**
+   * The last recorded cost.
+   *
+   * @return the cost, NaN while the history is empty.
+   */
+  double last() {
+    return this.size == 0 ? Double.NaN : this.costs[this.size - 1];
+  }
+
+  /**
+   * Copy the entries out.
+   *
+   * @return the recorded costs, oldest first.
+   */
+  List<BigDecimal> toList() {
+    return Arrays.stream(this.costs, 0, this.size).mapToObj(BigDecimal::valueOf).toList();
+  }
+
+  private void downsample() {
+    for (int k = 0; 2 * k < this.size; k++) {
+      this.costs[k] = this.costs[2 * k];
+    }
+    this.size = (this.size + 1) / 2;
+    this.stride *= 2;
+  }
+}
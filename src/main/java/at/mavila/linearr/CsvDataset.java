@@ -0,0 +1,119 @@
+package at.mavila.linearr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Numeric CSV file read as a {@link ChunkedDataset}: every line holds the n features followed by the label.
+ * Only one chunk of rows is in memory at any time, so files far larger than the heap can be trained on; the price is
+ * that every pass, i.e. every gradient descent iteration, reads and parses the whole file again.
+ * <pre>
+ * CsvDataset dataset = CsvDataset.of(Path.of("export.csv"), true);
+ * gradientDescentService.compute(dataset, new double[dataset.n()], 0D, 0.1D, 100L, options);
+ * </pre>
+ */
+public final class CsvDataset implements ChunkedDataset {
+
+  /**
+   * Number of values (rows times features) per chunk when no row count is given, 8 MB of doubles.
+   */
+  public static final int DEFAULT_CHUNK_VALUES = 1 << 20;
+
+  private final Path path;
+  private final boolean header;
+  private final int chunkRows;
+  private final int n;
+
+  private CsvDataset(final Path path, final boolean header, final int chunkRows, final int n) {
+    this.path = path;
+    this.header = header;
+    this.chunkRows = chunkRows;
+    this.n = n;
+  }
+
+  /**
+   * Open a comma separated file with chunks of about {@value #DEFAULT_CHUNK_VALUES} values, whatever the number of
+   * features.
+   *
+   * @param path   the file.
+   * @param header whether the first line is a header to skip.
+   * @return the dataset, n taken from the first row.
+   * @throws UncheckedIOException     if the file cannot be read.
+   * @throws IllegalArgumentException if the file has no rows, or its first row has fewer than two fields.
+   */
+  public static CsvDataset of(final Path path, final boolean header) {
+    return of(path, header, 0);
+  }
+
+  /**
+   * Open a comma separated file.
+   *
+   * @param path      the file.
+   * @param header    whether the first line is a header to skip.
+   * @param chunkRows number of rows per chunk, 0 to size the chunks after {@value #DEFAULT_CHUNK_VALUES} values.
+   * @return the dataset, n taken from the first row.
+   * @throws UncheckedIOException     if the file cannot be read.
+   * @throws IllegalArgumentException if the file has no rows, its first row has fewer than two fields, or chunkRows is
+   *                                  negative.
+   */
+  public static CsvDataset of(final Path path, final boolean header, final int chunkRows) {
+    Utils.validateNotNull(path, "path");
+    if (chunkRows < 0) {
+      throw new IllegalArgumentException("chunkRows is negative");
+    }
+    try (CsvReader reader = open(path, header)) {
+      if (!reader.next()) {
+        throw new IllegalArgumentException(path + " has no rows");
+      }
+      if (reader.fieldCount() < 2) {
+        throw new IllegalArgumentException(path + " needs at least one feature and a label per row");
+      }
+      final int n = reader.fieldCount() - 1;
+      return new CsvDataset(path, header, chunkRows == 0 ? Math.max(1, DEFAULT_CHUNK_VALUES / n) : chunkRows, n);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public int n() {
+    return this.n;
+  }
+
+  @Override
+  public void forEachChunk(final Consumer<DatasetChunk> consumer) {
+    final DatasetChunk chunk = new DatasetChunk(this.chunkRows, this.n);
+    try (CsvReader reader = open(this.path, this.header)) {
+      while (reader.next()) {
+        if (reader.fieldCount() != this.n + 1) {
+          throw new IllegalArgumentException("line " + reader.lineNumber() + " does not have " + (this.n + 1) + " fields");
+        }
+        chunk.add(reader);
+        if (chunk.isFull()) {
+          consumer.accept(chunk);
+          chunk.clear();
+        }
+      }
+      if (chunk.m() > 0) {
+        consumer.accept(chunk);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static CsvReader open(final Path path, final boolean header) throws IOException {
+    final CsvReader reader = new CsvReader(path, ',');
+    try {
+      if (header) {
+        reader.skip();
+      }
+      return reader;
+    } catch (IOException e) {
+      reader.close();
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package at.mavila.linearr;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Forward only reader of numeric CSV files. Bytes are read from a file channel into a reusable buffer and the fields
+ * are parsed in place by {@link AsciiDoubleParser}, so reading a row allocates nothing once the buffers have grown to
+ * the longest line.
+ */
+final class CsvReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final byte delimiter;
+  private byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+  private int limit;
+  private boolean endOfFile;
+  private int lineStart;
+  private int lineEnd;
+  private long lineNumber;
+  private double[] fields = new double[16];
+  private int fieldCount;
+
+  /**
+   * Open a file.
+   *
+   * @param path      the CSV file.
+   * @param delimiter the field delimiter, usually a comma.
+   * @throws IOException if the file cannot be opened.
+   */
+  CsvReader(final Path path, final char delimiter) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.delimiter = (byte) delimiter;
+  }
+
+  /**
+   * Skip a line without parsing it, such as a header.
+   *
+   * @return false at the end of the file.
+   * @throws IOException if the file cannot be read.
+   */
+  boolean skip() throws IOException {
+    return nextLine();
+  }
+
+  /**
+   * Move to the next non-blank line and parse its fields.
+   *
+   * @return false at the end of the file.
+   * @throws IOException              if the file cannot be read.
+   * @throws IllegalArgumentException if a field is empty or not a number.
+   */
+  boolean next() throws IOException {
+    do {
+      if (!nextLine()) {
+        return false;
+      }
+    } while (this.lineStart == this.lineEnd);
+
+    this.fieldCount = 0;
+    int start = this.lineStart;
+    for (int i = this.lineStart; i <= this.lineEnd; i++) {
+      if (i == this.lineEnd || this.buffer[i] == this.delimiter) {
+        addField(start, i);
+        start = i + 1;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Number of fields of the current line.
+   *
+   * @return the field count.
+   */
+  int fieldCount() {
+    return this.fieldCount;
+  }
+
+  /**
+   * A parsed field of the current line.
+   *
+   * @param k the field index.
+   * @return the value.
+   */
+  double field(final int k) {
+    return this.fields[k];
+  }
+
+  /**
+   * 1 based number of the current line in the file, for error messages.
+   *
+   * @return the line number.
+   */
+  long lineNumber() {
+    return this.lineNumber;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  private void addField(final int from, final int to) {
+    int start = from;
+    int end = to;
+    while (start < end && this.buffer[start] == ' ') {
+      start++;
+    }
+    while (end > start && this.buffer[end - 1] == ' ') {
+      end--;
+    }
+    if (start == end) {
+      throw new IllegalArgumentException("line " + this.lineNumber + ": field " + (this.fieldCount + 1) + " is empty");
+    }
+    if (this.fieldCount == this.fields.length) {
+      this.fields = Arrays.copyOf(this.fields, 2 * this.fields.length);
+    }
+    try {
+      this.fields[this.fieldCount++] = AsciiDoubleParser.parse(this.buffer, start, end);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("line " + this.lineNumber + ": field " + this.fieldCount + " is not a number", e);
+    }
+  }
+
+  private boolean nextLine() throws IOException {
+    int scan = this.position;
+    while (true) {
+      while (scan < this.limit && this.buffer[scan] != '\n') {
+        scan++;
+      }
+      if (scan < this.limit) {
+        setLine(this.position, scan);
+        this.position = scan + 1;
+        return true;
+      }
+      if (this.endOfFile) {
+        if (this.position == this.limit) {
+          return false;
+        }
+        setLine(this.position, this.limit);
+        this.position = this.limit;
+        return true;
+      }
+      scan -= this.position;
+      fill();
+    }
+  }
+
+  private void setLine(final int start, final int end) {
+    this.lineNumber++;
+    this.lineStart = start;
+    this.lineEnd = end > start && this.buffer[end - 1] == '\r' ? end - 1 : end;
+  }
+
+  /**
+   * Move the unread bytes to the start of the buffer, growing it when a single line fills it, and read more.
+   */
+  private void fill() throws IOException {
+    final int remaining = this.limit - this.position;
+    if (remaining == this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, 2 * this.buffer.length);
+    } else if (this.position > 0) {
+      System.arraycopy(this.buffer, this.position, this.buffer, 0, remaining);
+    }
+    this.position = 0;
+    this.limit = remaining;
+    final int read = this.channel.read(ByteBuffer.wrap(this.buffer, this.limit, this.buffer.length - this.limit));
+    if (read < 0) {
+      this.endOfFile = true;
+    } else {
+      this.limit += read;
+    }
+  }
+}
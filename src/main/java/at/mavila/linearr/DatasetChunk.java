@@ -0,0 +1,73 @@
+package at.mavila.linearr;
+
+/**
+ * Consecutive rows of a {@link ChunkedDataset} with their labels, stored row-major like a {@link DenseDataset}.
+ * The buffers are allocated once for the capacity and refilled for every chunk of a pass.
+ */
+public final class DatasetChunk implements FeatureMatrix {
+
+  private final double[] values;
+  private final double[] y;
+  private final int n;
+  private int m;
+
+  /**
+   * Create an empty chunk.
+   *
+   * @param capacity maximum number of rows.
+   * @param n        number of features.
+   */
+  DatasetChunk(final int capacity, final int n) {
+    this.values = new double[capacity * n];
+    this.y = new double[capacity];
+    this.n = n;
+  }
+
+  @Override
+  public int m() {
+    return this.m;
+  }
+
+  @Override
+  public int n() {
+    return this.n;
+  }
+
+  /**
+   * Labels of the rows, only the first {@link #m()} values belong to this chunk.
+   *
+   * @return the label buffer.
+   */
+  public double[] y() {
+    return this.y;
+  }
+
+  @Override
+  public double dot(final int i, final double[] w) {
+    return VectorKernels.dot(this.values, i * this.n, w, this.n);
+  }
+
+  @Override
+  public void axpy(final int i, final double alpha, final double[] y) {
+    VectorKernels.axpy(alpha, this.values, i * this.n, y, this.n);
+  }
+
+  boolean isFull() {
+    return this.m == this.y.length;
+  }
+
+  void clear() {
+    this.m = 0;
+  }
+
+  /**
+   * Append the current row of a reader, the label being its last field.
+   */
+  void add(final CsvReader reader) {
+    final int offset = this.m * this.n;
+    for (int j = 0; j < this.n; j++) {
+      this.values[offset + j] = reader.field(j);
+    }
+    this.y[this.m++] = reader.field(this.n);
+  }
+}
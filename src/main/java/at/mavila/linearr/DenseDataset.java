@@ -0,0 +1,95 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Dense feature matrix stored row-major in a single contiguous {@code double[]}.
+ * Row {@code i} occupies the slice {@code values[i * n] .. values[i * n + n - 1]}, so a pass over
+ * the data walks the array sequentially and never allocates per sample.
+ *
+ * @param values the row-major values, of length {@code m * n}.
+ * @param m      number of examples (rows).
+ * @param n      number of features (columns).
+ */
+public record DenseDataset(double[] values, int m, int n) implements FeatureMatrix {
+
+  /**
+   * Validate the dimensions against the backing array.
+   *
+   * @throws IllegalArgumentException if the array is null, or the dimensions are not positive or do not match its length.
+   */
+  public DenseDataset {
+    if (Objects.isNull(values)) {
+      throw new IllegalArgumentException("values is null");
+    }
+    if (m <= 0 || n <= 0) {
+      throw new IllegalArgumentException("m and n must be positive");
+    }
+    if ((long) m * n != values.length) {
+      throw new IllegalArgumentException("values length does not match m * n");
+    }
+  }
+
+  /**
+   * Copy a list based matrix into a dense one.
+   * <pre>
+   * of([[0.5, 1.5], [1, 1]]) = DenseDataset([0.5, 1.5, 1, 1], 2, 2)
+   * of(null) = IllegalArgumentException
+   * </pre>
+   *
+   * @param x (ndarray (m,n)): Data, m examples with n features, every row of the same size.
+   * @return the dense copy of x.
+   * @throws IllegalArgumentException if x or one of its rows is null or empty, the rows differ in size, or x has more
+   *                                  values than an array holds.
+   */
+  public static DenseDataset of(final List<List<BigDecimal>> x) {
+    Utils.validateList(x, "x");
+    Utils.validateList(x.getFirst(), "x[0]");
+    final int m = x.size();
+    final int n = x.getFirst().size();
+    final double[] values = new double[Utils.denseSize(m, n)];
+    for (int i = 0; i < m; i++) {
+      final List<BigDecimal> row = x.get(i);
+      if (Objects.isNull(row) || row.size() != n) {
+        throw new IllegalArgumentException("x[" + i + "] does not have " + n + " features");
+      }
+      for (int j = 0; j < n; j++) {
+        values[i * n + j] = row.get(j).doubleValue();
+      }
+    }
+    return new DenseDataset(values, m, n);
+  }
+
+  /**
+   * Offset of the first value of a row in {@link #values()}.
+   *
+   * @param i the row index.
+   * @return the offset of the row.
+   */
+  public int offset(final int i) {
+    return i * this.n;
+  }
+
+  /**
+   * Value of a single feature.
+   *
+   * @param i the row index.
+   * @param j the column index.
+   * @return the value at row i and column j.
+   */
+  public double get(final int i, final int j) {
+    return this.values[i * this.n + j];
+  }
+
+  @Override
+  public double dot(final int i, final double[] w) {
+    return VectorKernels.dot(this.values, i * this.n, w, this.n);
+  }
+
+  @Override
+  public void axpy(final int i, final double alpha, final double[] y) {
+    VectorKernels.axpy(alpha, this.values, i * this.n, y, this.n);
+  }
+}
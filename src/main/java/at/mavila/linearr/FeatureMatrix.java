@@ -0,0 +1,41 @@
+package at.mavila.linearr;
+
+/**
+ * Read only m x n feature matrix as seen by the primitive training kernels.
+ * The kernels only ever need two row operations, so every storage layout can implement them in the way that suits it
+ * best without the kernels knowing about it.
+ */
+public interface FeatureMatrix {
+
+  /**
+   * Number of examples.
+   *
+   * @return the number of rows, m.
+   */
+  int m();
+
+  /**
+   * Number of features.
+   *
+   * @return the number of columns, n.
+   */
+  int n();
+
+  /**
+   * Dot product of a row with a vector.
+   *
+   * @param i the row index.
+   * @param w the vector, at least n long.
+   * @return x[i] &middot; w.
+   */
+  double dot(int i, double[] w);
+
+  /**
+   * Accumulate a scaled row into a vector, y = y + alpha * x[i].
+   *
+   * @param i     the row index.
+   * @param alpha the scale factor.
+   * @param y     the vector to update in place, at least n long.
+   */
+  void axpy(int i, double alpha, double[] y);
+}
@@ -0,0 +1,104 @@
+package at.mavila.linearr;
+
+/**
+ * Affine per-feature transformation x' = (x - shift) * scale, folded into the parameters rather than applied to the
+ * rows. The model on the scaled features, w' . x' + b', is the model w . x + b on the raw features with
+ * <pre>
+ * w = scale * w'
+ * b = b' - shift . w
+ * </pre>
+ * so a pass evaluates the raw rows at (w, b), and the gradient w.r.t. w' follows from the raw one as
+ * {@code djDw'[j] = scale[j] * (djDw[j] - shift[j] * djDb)}. Each pass costs O(n) on top of the unscaled kernel, and the
+ * scaled dataset is never materialized. Not thread safe: a scaler belongs to one training run.
+ */
+final class FeatureScaler {
+
+  private final double[] shift;
+  private final double[] scale;
+  private final double[] raw;
+
+  FeatureScaler(final double[] shift, final double[] scale) {
+    this.shift = shift;
+    this.scale = scale;
+    this.raw = new double[shift.length];
+  }
+
+  /**
+   * Convert raw parameters to the scaled space, w' = w / scale, b' = b + shift . w.
+   *
+   * @param w the raw parameters w, overwritten with w'.
+   * @param b the raw parameter b.
+   * @return b'.
+   */
+  double toScaled(final double[] w, final double b) {
+    final double scaledB = b + VectorKernels.dot(this.shift, w);
+    for (int j = 0; j < w.length; j++) {
+      w[j] /= this.scale[j];
+    }
+    return scaledB;
+  }
+
+  /**
+   * Convert scaled parameters back to the raw space, w = scale * w', b = b' - shift . w.
+   *
+   * @param w the scaled parameters w', overwritten with w.
+   * @param b the scaled parameter b'.
+   * @return b.
+   */
+  double toRaw(final double[] w, final double b) {
+    for (int j = 0; j < w.length; j++) {
+      w[j] *= this.scale[j];
+    }
+    return b - VectorKernels.dot(this.shift, w);
+  }
+
+  /**
+   * Run a pass over the raw rows at the raw equivalent of scaled parameters, leaving the gradient w.r.t. the scaled
+   * parameters in the accumulator.
+   *
+   * @param w           the scaled parameters w', unchanged.
+   * @param b           the scaled parameter b'.
+   * @param accumulator where the sums are added, from a reset state.
+   * @param pass        the unscaled pass.
+   * @return the number of rows of the pass.
+   */
+  long accumulate(final double[] w, final double b, final GradientAccumulator accumulator, final GradientPass pass) {
+    final double rawB = loadRaw(w, b);
+    final long rows = pass.accumulate(rawWeights(), rawB, accumulator);
+    toScaledGradient(accumulator);
+    return rows;
+  }
+
+  /**
+   * Convert scaled parameters to the raw space into the buffer of {@link #rawWeights()}.
+   *
+   * @param w the scaled parameters w', unchanged.
+   * @param b the scaled parameter b'.
+   * @return the raw parameter b.
+   */
+  double loadRaw(final double[] w, final double b) {
+    System.arraycopy(w, 0, this.raw, 0, w.length);
+    return toRaw(this.raw, b);
+  }
+
+  /**
+   * The raw parameters w of the last {@link #loadRaw(double[], double)}.
+   *
+   * @return the buffer of the raw parameters.
+   */
+  double[] rawWeights() {
+    return this.raw;
+  }
+
+  /**
+   * Turn the sums of a pass at raw parameters into the sums of the gradient w.r.t. the scaled parameters.
+   *
+   * @param accumulator the sums of a single pass, from a reset state.
+   */
+  void toScaledGradient(final GradientAccumulator accumulator) {
+    final double[] djDw = accumulator.djDw;
+    for (int j = 0; j < djDw.length; j++) {
+      djDw[j] = this.scale[j] * (djDw[j] - this.shift[j] * accumulator.djDb);
+    }
+  }
+}
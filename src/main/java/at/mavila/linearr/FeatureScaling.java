@@ -0,0 +1,90 @@
+package at.mavila.linearr;
+
+/**
+ * Per-feature rescaling applied by {@link GradientDescentService} before descending, x' = (x - shift) * scale, so the
+ * features share a scale and a single learning rate suits all of them. The parameters are trained on x' and
+ * transformed back, so the result always applies to the raw features.
+ */
+public enum FeatureScaling {
+
+  /**
+   * Train on the raw features.
+   */
+  NONE {
+    @Override
+    double shift(final ColumnStatistics statistics, final int j) {
+      return 0D;
+    }
+
+    @Override
+    double range(final ColumnStatistics statistics, final int j) {
+      return 1D;
+    }
+  },
+
+  /**
+   * Standardize every feature to mean 0 and standard deviation 1.
+   */
+  Z_SCORE {
+    @Override
+    double shift(final ColumnStatistics statistics, final int j) {
+      return statistics.mean(j);
+    }
+
+    @Override
+    double range(final ColumnStatistics statistics, final int j) {
+      return statistics.standardDeviation(j);
+    }
+  },
+
+  /**
+   * Rescale every feature to [0, 1].
+   */
+  MIN_MAX {
+    @Override
+    double shift(final ColumnStatistics statistics, final int j) {
+      return statistics.min(j);
+    }
+
+    @Override
+    double range(final ColumnStatistics statistics, final int j) {
+      return statistics.max(j) - statistics.min(j);
+    }
+  };
+
+  /**
+   * Value subtracted from a feature.
+   *
+   * @param statistics the statistics of the columns.
+   * @param j          the column index.
+   * @return the shift of the column.
+   */
+  abstract double shift(ColumnStatistics statistics, int j);
+
+  /**
+   * Value a shifted feature is divided by; a constant column is only shifted.
+   *
+   * @param statistics the statistics of the columns.
+   * @param j          the column index.
+   * @return the range of the column, 0 when it is constant.
+   */
+  abstract double range(ColumnStatistics statistics, int j);
+
+  /**
+   * Build the transformation of a dataset.
+   *
+   * @param statistics the statistics of the columns of the dataset.
+   * @return the scaler applying this scaling.
+   */
+  FeatureScaler scaler(final ColumnStatistics statistics) {
+    final int n = statistics.n();
+    final double[] shift = new double[n];
+    final double[] scale = new double[n];
+    for (int j = 0; j < n; j++) {
+      shift[j] = shift(statistics, j);
+      final double range = range(statistics, j);
+      scale[j] = range > 0D ? 1D / range : 1D;
+    }
+    return new FeatureScaler(shift, scale);
+  }
+}
@@ -0,0 +1,102 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Dense feature matrix stored row-major in a single contiguous {@code float[]}, half the memory of {@link DenseDataset}.
+ * Values are rounded to single precision when stored; the kernels widen them and accumulate in double precision with
+ * the compensation of {@link CompensatedSum}, so the float backend loses accuracy to the storage of x only, not to the
+ * sums. The extra additions are hidden by the memory traffic that the float storage halves.
+ *
+ * @param values the row-major values, of length {@code m * n}.
+ * @param m      number of examples (rows).
+ * @param n      number of features (columns).
+ */
+public record FloatDenseDataset(float[] values, int m, int n) implements FeatureMatrix {
+
+  /**
+   * Validate the dimensions against the backing array.
+   *
+   * @throws IllegalArgumentException if the array is null, or the dimensions are not positive or do not match its length.
+   */
+  public FloatDenseDataset {
+    if (Objects.isNull(values)) {
+      throw new IllegalArgumentException("values is null");
+    }
+    if (m <= 0 || n <= 0) {
+      throw new IllegalArgumentException("m and n must be positive");
+    }
+    if ((long) m * n != values.length) {
+      throw new IllegalArgumentException("values length does not match m * n");
+    }
+  }
+
+  /**
+   * Copy a list based matrix into a single precision dense one.
+   *
+   * @param x (ndarray (m,n)): Data, m examples with n features, every row of the same size.
+   * @return the dense copy of x, rounded to float.
+   * @throws IllegalArgumentException if x or one of its rows is null or empty, the rows differ in size, or x has more
+   *                                  values than an array holds.
+   */
+  public static FloatDenseDataset of(final List<List<BigDecimal>> x) {
+    Utils.validateList(x, "x");
+    Utils.validateList(x.getFirst(), "x[0]");
+    final int m = x.size();
+    final int n = x.getFirst().size();
+    final float[] values = new float[Utils.denseSize(m, n)];
+    for (int i = 0; i < m; i++) {
+      final List<BigDecimal> row = x.get(i);
+      if (Objects.isNull(row) || row.size() != n) {
+        throw new IllegalArgumentException("x[" + i + "] does not have " + n + " features");
+      }
+      for (int j = 0; j < n; j++) {
+        values[i * n + j] = row.get(j).floatValue();
+      }
+    }
+    return new FloatDenseDataset(values, m, n);
+  }
+
+  @Override
+  public double dot(final int i, final double[] w) {
+    final int offset = i * this.n;
+    double sum = 0D;
+    double compensation = 0D;
+    for (int j = 0; j < this.n; j++) {
+      final double product = this.values[offset + j] * w[j];
+      final double total = sum + product;
+      compensation += CompensatedSum.error(sum, product, total);
+      sum = total;
+    }
+    return sum + compensation;
+  }
+
+  @Override
+  public void axpy(final int i, final double alpha, final double[] y) {
+    final int offset = i * this.n;
+    for (int j = 0; j < this.n; j++) {
+      y[j] += alpha * this.values[offset + j];
+    }
+  }
+
+  /**
+   * Compensated {@link #axpy}: the rounding error of every addition to y[j] is added to compensation[j], which the
+   * caller folds into y once all the rows are summed.
+   *
+   * @param i            the row index.
+   * @param alpha        the scale of the row.
+   * @param y            the running sums, updated in place, n long.
+   * @param compensation the running rounding errors of y, updated in place, n long.
+   */
+  void axpy(final int i, final double alpha, final double[] y, final double[] compensation) {
+    final int offset = i * this.n;
+    for (int j = 0; j < this.n; j++) {
+      final double value = alpha * this.values[offset + j];
+      final double total = y[j] + value;
+      compensation[j] += CompensatedSum.error(y[j], value, total);
+      y[j] = total;
+    }
+  }
+}
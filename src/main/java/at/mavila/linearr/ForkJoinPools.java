@@ -0,0 +1,77 @@
+package at.mavila.linearr;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Shared fork/join pools, one per parallelism level, so that choosing the parallelism per call does not create a pool
+ * (and its threads) per call. The requested parallelism is capped at the number of processors, so at most one pool
+ * per processor count exists whatever the callers ask for. The level of the common pool is
+ * served by the common pool itself, and the others are shut down with the application context.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ForkJoinPools {
+
+  private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+  /**
+   * Resolve a requested parallelism.
+   *
+   * @param parallelism the requested number of workers, or 0 for every available processor.
+   * @return the number of workers to use, at least 1.
+   * @throws IllegalArgumentException if the parallelism is negative.
+   */
+  public static int resolve(final int parallelism) {
+    if (parallelism < 0) {
+      throw new IllegalArgumentException("parallelism is negative");
+    }
+    return parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+  }
+
+  /**
+   * The pool of a parallelism level.
+   *
+   * @param parallelism the number of workers, at least 1.
+   * @return a pool with {@link #level(int)} workers.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  public static ForkJoinPool get(final int parallelism) {
+    final int level = level(parallelism);
+    if (level == ForkJoinPool.getCommonPoolParallelism()) {
+      return ForkJoinPool.commonPool();
+    }
+    return POOLS.computeIfAbsent(level, ForkJoinPool::new);
+  }
+
+  /**
+   * The number of workers of the pool serving a requested parallelism.
+   * <pre>
+   * level(64) = 8 on 8 processors
+   * level(6)  = 6 on 8 processors
+   * </pre>
+   *
+   * @param parallelism the requested number of workers, at least 1.
+   * @return the requested parallelism, at most the number of processors.
+   * @throws IllegalArgumentException if the parallelism is not positive.
+   */
+  static int level(final int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    final int processors = Runtime.getRuntime().availableProcessors();
+    return Math.min(parallelism, processors);
+  }
+
+  /**
+   * Shut the pools down; a later {@link #get(int)} creates a new one. The common pool is left alone.
+   */
+  static void shutdown() {
+    POOLS.values().removeIf(pool -> {
+      pool.shutdown();
+      return true;
+    });
+  }
+}
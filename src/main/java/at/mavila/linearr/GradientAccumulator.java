@@ -0,0 +1,100 @@
+package at.mavila.linearr;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Mutable running sums of one pass of the logistic kernel: the unscaled gradient and, optionally, the unscaled log-loss.
+ * A single instance is reused across the iterations of a training run so the hot loop does not allocate.
+ */
+final class GradientAccumulator {
+
+  final double[] djDw;
+  final boolean withCost;
+  double djDb;
+  double cost;
+  private double[] compensation;
+  private double[] block;
+
+  GradientAccumulator(final int n, final boolean withCost) {
+    this.djDw = new double[n];
+    this.withCost = withCost;
+  }
+
+  /**
+   * Clear the sums so the accumulator can be reused for another pass.
+   */
+  void reset() {
+    Arrays.fill(this.djDw, 0D);
+    this.djDb = 0D;
+    this.cost = 0D;
+  }
+
+  /**
+   * Scratch buffer for the running compensations of djDw, used by the compensated sums of the float backend.
+   * It is allocated on first use and kept, so passes reusing the accumulator do not allocate.
+   *
+   * @return n zeros.
+   */
+  double[] compensation() {
+    if (Objects.isNull(this.compensation)) {
+      this.compensation = new double[this.djDw.length];
+    } else {
+      Arrays.fill(this.compensation, 0D);
+    }
+    return this.compensation;
+  }
+
+  /**
+   * Scratch buffer for the values of a block of rows, used by the column by column kernel of
+   * {@link MappedColumnarDataset}. It is allocated on first use and kept, so passes reusing the accumulator do not
+   * allocate.
+   *
+   * @return a buffer of {@link MappedColumnarDataset#BLOCK_ROWS} values, with undefined contents.
+   */
+  double[] block() {
+    if (Objects.isNull(this.block)) {
+      this.block = new double[MappedColumnarDataset.BLOCK_ROWS];
+    }
+    return this.block;
+  }
+
+  /**
+   * Add the sums of another accumulator of the same size to this one.
+   *
+   * @param other the accumulator to merge.
+   */
+  void merge(final GradientAccumulator other) {
+    for (int j = 0; j < this.djDw.length; j++) {
+      this.djDw[j] += other.djDw[j];
+    }
+    this.djDb += other.djDb;
+    this.cost += other.cost;
+  }
+
+  /**
+   * Divide the sums by the number of samples they were accumulated over.
+   *
+   * @param m the number of samples.
+   */
+  void average(final long m) {
+    for (int j = 0; j < this.djDw.length; j++) {
+      this.djDw[j] /= m;
+    }
+    this.djDb /= m;
+    this.cost /= m;
+  }
+
+  /**
+   * Copy the sums into a result.
+   *
+   * @return the gradient, with the cost when it was accumulated and NaN otherwise.
+   */
+  ResultComputeGradientDense toResult() {
+    return ResultComputeGradientDense.builder()
+        .djDb(this.djDb)
+        .djDw(this.djDw.clone())
+        .cost(this.withCost ? this.cost : Double.NaN)
+        .build();
+  }
+}
@@ -38,6 +38,46 @@ public final class GradientCalculator {
         );
   }
 
+  /**
+   * Calculate the accumulated gradients in double precision.
+   *
+   * @param x array of x values
+   * @param y array of y values, as long as x
+   * @param w weight
+   * @param b bias
+   * @return the sums of (w * x + b - y) * x and of (w * x + b - y), not yet divided by the number of samples
+   */
+  public static double[] calculateGradients(final double[] x, final double[] y, final double w, final double b) {
+    final CompensatedSum djdw = new CompensatedSum();
+    final CompensatedSum djdb = new CompensatedSum();
+    for (int i = 0; i < x.length; i++) {
+      final double diff = w * x[i] + b - y[i];
+      djdw.add(diff * x[i]);
+      djdb.add(diff);
+    }
+    return new double[] {djdw.value(), djdb.value()};
+  }
+
+  /**
+   * Calculate the accumulated gradients from single precision inputs, accumulating in double precision.
+   *
+   * @param x array of x values
+   * @param y array of y values, as long as x
+   * @param w weight
+   * @param b bias
+   * @return the sums of (w * x + b - y) * x and of (w * x + b - y), not yet divided by the number of samples
+   */
+  public static double[] calculateGradients(final float[] x, final float[] y, final double w, final double b) {
+    final CompensatedSum djdw = new CompensatedSum();
+    final CompensatedSum djdb = new CompensatedSum();
+    for (int i = 0; i < x.length; i++) {
+      final double diff = w * x[i] + b - y[i];
+      djdw.add(diff * x[i]);
+      djdb.add(diff);
+    }
+    return new double[] {djdw.value(), djdb.value()};
+  }
+
   private static BigDecimal getDifferenceObservedVsPredicted(final List<BigDecimal> y, final int i, final BigDecimal fwb) {
     return fwb.subtract(y.get(i));
   }
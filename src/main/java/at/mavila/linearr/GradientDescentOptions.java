@@ -0,0 +1,144 @@
+package at.mavila.linearr;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Duration;
+import java.util.Objects;
+import lombok.Builder;
+import lombok.With;
+
+/**
+ * Tuning knobs of {@link GradientDescentService}. Every component left at zero or null takes its default.
+ *
+ * @param costHistoryInterval record the cost every this many iterations, 1 (every iteration) by default.
+ *                            The cost comes out of the same pass as the gradient, so iterations that do not record it
+ *                            skip the log-loss entirely.
+ * @param parallelism         number of workers the gradient of the dense overloads is split across,
+ *                            the configured {@code linearr.gradient-parallelism} by default.
+ * @param batchSize           number of rows per update of the dense overloads; 0 (the default) or at least m runs
+ *                            full-batch descent, 1 runs stochastic gradient descent and anything in between mini-batch.
+ *                            With batches, numberOfIterations counts epochs: every epoch shuffles the rows and makes
+ *                            one update per batch, and the recorded cost is the mean loss of the batches of the epoch.
+ * @param shuffleSeed         seed of the per-epoch shuffling, so mini-batch runs are reproducible.
+ * @param numericBackend      arithmetic of the list overload, the configured {@code linearr.numeric-backend} when null.
+ * @param costTolerance       stop once the relative change between two computed costs,
+ *                            {@code |J(k - interval) - J(k)| / |J(k - interval)|}, is at most this; 0 (the default)
+ *                            disables the test. The costs are computed every costHistoryInterval iterations (epochs).
+ * @param gradientTolerance   stop once the euclidean norm of (djDw, djDb) is below this; 0 (the default) disables the
+ *                            test. Only full-batch runs test it, the gradient of a single batch is too noisy.
+ * @param timeBudget          stop once the run has taken this long, checked after every iteration (epoch);
+ *                            null (the default) means no limit.
+ * @param historyCapacity     maximum number of costs kept, {@value #DEFAULT_HISTORY_CAPACITY} by default. Once full,
+ *                            the history is downsampled by half and the interval between the kept costs doubles, so
+ *                            its memory does not grow with the number of iterations.
+ * @param featureScaling      rescaling of the features the parameters are descended on, {@link FeatureScaling#NONE}
+ *                            when null. The returned parameters and costs always apply to the raw features; the
+ *                            gradient tolerance is tested on the gradient of the scaled parameters.
+ * @param optimizer           update rule of the dense overloads, {@link OptimizerType#GRADIENT_DESCENT} when null.
+ *                            The list overload delegates to the dense one for any other optimizer.
+ * @param momentum            momentum of {@link OptimizerType#MOMENTUM} and {@link OptimizerType#NESTEROV}, first
+ *                            moment decay of {@link OptimizerType#ADAM}; 0 for the default of the optimizer.
+ * @param decay               decay of the squared gradient average of {@link OptimizerType#RMSPROP} and
+ *                            {@link OptimizerType#ADAM}; 0 for the default of the optimizer.
+ * @param epsilon             added to the denominators of the adaptive optimizers, 0 for
+ *                            {@value OptimizerType#DEFAULT_EPSILON}.
+ * @param stepSize            how the learning rate of every iteration is chosen, {@link StepSize#FIXED} when null. The
+ *                            adaptive rules start from the given alpha, need full-batch descent and the
+ *                            {@link OptimizerType#GRADIENT_DESCENT} optimizer; the list overload delegates them to
+ *                            the dense one.
+ * @param solver              training algorithm of the dense overloads, {@link Solver#GRADIENT_DESCENT} when null.
+ *                            {@link Solver#LBFGS} needs full-batch descent, the
+ *                            {@link OptimizerType#GRADIENT_DESCENT} optimizer and a {@link StepSize#FIXED} step size;
+ *                            the list overload delegates it to the dense one.
+ * @param lbfgsHistory        number of steps {@link Solver#LBFGS} remembers, {@value LbfgsSolver#DEFAULT_HISTORY} when
+ *                            0.
+ * @param progressListener    called after every iteration (epoch), null (the default) for none. Not serialized.
+ */
+@With
+@Builder
+public record GradientDescentOptions(long costHistoryInterval,
+                                     int parallelism,
+                                     int batchSize,
+                                     long shuffleSeed,
+                                     NumericBackend numericBackend,
+                                     double costTolerance,
+                                     double gradientTolerance,
+                                     Duration timeBudget,
+                                     int historyCapacity,
+                                     FeatureScaling featureScaling,
+                                     OptimizerType optimizer,
+                                     double momentum,
+                                     double decay,
+                                     double epsilon,
+                                     StepSize stepSize,
+                                     Solver solver,
+                                     int lbfgsHistory,
+                                     @JsonIgnore ProgressListener progressListener) {
+
+  /**
+   * Number of costs kept when no capacity is given.
+   */
+  public static final int DEFAULT_HISTORY_CAPACITY = 10000;
+
+  /**
+   * Normalize the components left at zero to their defaults.
+   *
+   * @throws IllegalArgumentException if a component is negative, the history capacity is 1, or an adaptive step size
+   *                                  or L-BFGS is combined with another optimizer than gradient descent, or L-BFGS
+   *                                  with an adaptive step size.
+   */
+  public GradientDescentOptions {
+    if (costHistoryInterval < 0L) {
+      throw new IllegalArgumentException("costHistoryInterval is negative");
+    }
+    if (parallelism < 0) {
+      throw new IllegalArgumentException("parallelism is negative");
+    }
+    if (batchSize < 0) {
+      throw new IllegalArgumentException("batchSize is negative");
+    }
+    if (costTolerance < 0D || gradientTolerance < 0D) {
+      throw new IllegalArgumentException("tolerance is negative");
+    }
+    if (Objects.nonNull(timeBudget) && timeBudget.isNegative()) {
+      throw new IllegalArgumentException("timeBudget is negative");
+    }
+    if (momentum < 0D || momentum >= 1D || decay < 0D || decay >= 1D) {
+      throw new IllegalArgumentException("momentum and decay must be in [0, 1)");
+    }
+    if (epsilon < 0D) {
+      throw new IllegalArgumentException("epsilon is negative");
+    }
+    if (Objects.nonNull(stepSize) && stepSize != StepSize.FIXED
+        && Objects.nonNull(optimizer) && optimizer != OptimizerType.GRADIENT_DESCENT) {
+      throw new IllegalArgumentException("stepSize requires the GRADIENT_DESCENT optimizer");
+    }
+    if (solver == Solver.LBFGS && ((Objects.nonNull(optimizer) && optimizer != OptimizerType.GRADIENT_DESCENT)
+        || (Objects.nonNull(stepSize) && stepSize != StepSize.FIXED))) {
+      throw new IllegalArgumentException("LBFGS requires the GRADIENT_DESCENT optimizer and a FIXED step size");
+    }
+    if (lbfgsHistory < 0) {
+      throw new IllegalArgumentException("lbfgsHistory is negative");
+    }
+    if (historyCapacity < 0 || historyCapacity == 1) {
+      throw new IllegalArgumentException("historyCapacity must be 0 or at least 2");
+    }
+    if (costHistoryInterval == 0L) {
+      costHistoryInterval = 1L;
+    }
+    if (historyCapacity == 0) {
+      historyCapacity = DEFAULT_HISTORY_CAPACITY;
+    }
+    if (lbfgsHistory == 0) {
+      lbfgsHistory = LbfgsSolver.DEFAULT_HISTORY;
+    }
+  }
+
+  /**
+   * The options used when none are given.
+   *
+   * @return the default options.
+   */
+  public static GradientDescentOptions defaults() {
+    return GradientDescentOptions.builder().build();
+  }
+}
@@ -4,9 +4,11 @@ import static java.lang.String.format;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.LongStream;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +20,8 @@ import org.springframework.stereotype.Service;
 public class GradientDescentService {
 
   private final ComputeGradientLogisticService computeGradientLogisticService;
-  private final ComputeCostLogisticService computeCostLogisticService;
+  private final LinearRegressionProperties properties;
+  private final TrainingMetrics metrics;
 
   /**
    * Compute the gradient descent.
@@ -38,53 +41,489 @@ public class GradientDescentService {
                                        final BigDecimal bIn,
                                        final BigDecimal alpha,
                                        final long numberOfIterations) {
+    return compute(x, y, wIn, bIn, alpha, numberOfIterations, GradientDescentOptions.defaults());
+  }
+
+  /**
+   * Compute the gradient descent with the given options.
+   * Every iteration makes a single pass over the rows that yields the gradient and, on the iterations that record it,
+   * the cost at the parameters the gradient was taken at. The cost history therefore holds J(w, b) before each update.
+   *
+   * @param x                  (ndarray (m,n)   : Data, m examples with n features
+   * @param y                  (ndarray (m,))   : target values
+   * @param wIn                (ndarray (n,)): Initial values of model parameters
+   * @param bIn                (scalar)      : Initial values of model parameter
+   * @param alpha              (float)      : Learning rate
+   * @param numberOfIterations (scalar) : number of iterations to run gradient descent
+   * @param options            tuning knobs, such as how often the cost is recorded or the numeric backend.
+   *                           The primitive backends, and runs with a batch size, a feature scaling, an optimizer,
+   *                           an adaptive step size or L-BFGS whatever the backend, are delegated to the dense
+   *                           overload on a copy of x.
+   * @return w (ndarray (n,))   : Updated values of parameters
+   * b (scalar)         : Updated value of parameter
+   */
+  public ResultGradientDescent compute(final List<List<BigDecimal>> x,
+                                       final List<BigDecimal> y,
+                                       final List<BigDecimal> wIn,
+                                       final BigDecimal bIn,
+                                       final BigDecimal alpha,
+                                       final long numberOfIterations,
+                                       final GradientDescentOptions options) {
+
+    final NumericBackend backend =
+        Objects.requireNonNullElse(options.numericBackend(), this.properties.numericBackend());
+    if (backend != NumericBackend.EXACT || (options.batchSize() > 0 && options.batchSize() < x.size())
+        || isScaled(options) || !isPlain(options) || isAdaptive(options) || isLbfgs(options)) {
+      //Mini-batches, feature scaling, optimizers, step-size control, L-BFGS and the primitive backends run on the dense
+      //path
+      //The copy is never seen again, so its statistics are not cached
+      final FeatureMatrix matrix = backend.toFeatureMatrix(x);
+      final double[] yArray = Utils.toDoubleArray(y, "y");
+      final double[] w = Utils.toDoubleArray(wIn, "w");
+      Utils.validateDense(matrix, yArray, w);
+      return computeDense(matrix, yArray, w, bIn.doubleValue(), alpha.doubleValue(), numberOfIterations, options,
+          isScaled(options) ? ColumnStatistics.compute(matrix) : null);
+    }
 
-    final List<BigDecimal> jHistory = new ArrayList<>();
+    final CostHistory jHistory = new CostHistory(options.historyCapacity(), options.costHistoryInterval());
+    final ConvergenceMonitor monitor = new ConvergenceMonitor(options);
     //Clone wIn in w
     final List<BigDecimal> w = new ArrayList<>(wIn);
-    final AtomicReference<BigDecimal> b = new AtomicReference<>(BigDecimal.valueOf(bIn.doubleValue()));
+    BigDecimal b = BigDecimal.valueOf(bIn.doubleValue());
 
     //Calculate the gradient and update the parameters
     //w is an array of n elements and djDw is an array of n elements
     //port this from Python to Java
     //w = w - alpha * djDw
     //b = b - alpha * djDb
-    LongStream.range(0L, numberOfIterations).forEach(index -> {
-      final ResultComputeGradient resultComputeGradient = this.computeGradientLogisticService.compute(x, y, w, b.get());
+    long index = 0L;
+    StopReason stopReason = StopReason.MAX_ITERATIONS;
+    while (index < numberOfIterations) {
+      final long start = this.metrics.start();
+      final boolean computeCost = monitor.isCostComputed(index);
+      final ResultComputeGradientCost resultComputeGradientCost =
+          this.computeGradientLogisticService.computeWithCost(x, y, w, b, computeCost);
+      final double cost = computeCost ? resultComputeGradientCost.cost().doubleValue() : Double.NaN;
+      if (computeCost) {
+        jHistory.add(index, cost);
+      }
+      final ResultComputeGradient resultComputeGradient = resultComputeGradientCost.gradient();
       calculateW(alpha, w, resultComputeGradient);
-      b.set(calculateB(alpha, b.get(), resultComputeGradient));
-      storeInHistory(x, y, index, jHistory, w, b);
+      b = calculateB(alpha, b, resultComputeGradient);
       logProgress((double) numberOfIterations, index, jHistory);
+      index++;
+      final double gradientNorm = monitor.isGradientNormComputed() ? norm(resultComputeGradient) : Double.NaN;
+      //The rows were counted by the gradient service
+      this.metrics.recordIteration(start, 0L);
+      final StopReason reason = monitor.check(index, cost, gradientNorm);
+      if (Objects.nonNull(reason)) {
+        stopReason = reason;
+        break;
+      }
+    }
+
+    return ResultGradientDescent.builder()
+        .w(w)
+        .b(b)
+        .costHistory(jHistory.toList())
+        .costHistoryStride(jHistory.stride())
+        .iterations(index)
+        .alphaHistory(List.of())
+        .alphaHistoryStride(1L)
+        .stopReason(stopReason)
+        .build();
+  }
+
+  /**
+   * Compute the gradient descent on a primitive feature matrix, such as a {@link DenseDataset}.
+   * Same algorithm as {@link #compute(List, List, List, BigDecimal, BigDecimal, long, GradientDescentOptions)}
+   * in double precision: the gradient buffers are allocated once per run and every iteration is a single
+   * allocation free pass over the rows. With a {@link GradientDescentOptions#featureScaling()}, the statistics of the
+   * columns are computed once per dataset and cached with it, see {@link ColumnStatistics}. An adaptive
+   * {@link GradientDescentOptions#stepSize()} and {@link Solver#LBFGS} need full-batch descent.
+   *
+   * @param x                  (ndarray (m,n)   : Data, m examples with n features
+   * @param y                  (ndarray (m,))   : target values
+   * @param wIn                (ndarray (n,)): Initial values of model parameters
+   * @param bIn                (scalar)      : Initial values of model parameter
+   * @param alpha              (float)      : Learning rate
+   * @param numberOfIterations (scalar) : number of iterations to run gradient descent
+   * @param options            tuning knobs, such as how often the cost is recorded
+   * @return w (ndarray (n,))   : Updated values of parameters
+   * b (scalar)         : Updated value of parameter
+   * @throws IllegalArgumentException if the inputs are invalid, or an adaptive step size or L-BFGS is requested with
+   *                                  batches.
+   */
+  public ResultGradientDescent compute(final FeatureMatrix x,
+                                       final double[] y,
+                                       final double[] wIn,
+                                       final double bIn,
+                                       final double alpha,
+                                       final long numberOfIterations,
+                                       final GradientDescentOptions options) {
+    Utils.validateDense(x, y, wIn);
+    return computeDense(x, y, wIn, bIn, alpha, numberOfIterations, options,
+        isScaled(options) ? ColumnStatistics.of(x) : null);
+  }
+
+  private ResultGradientDescent computeDense(final FeatureMatrix x,
+                                             final double[] y,
+                                             final double[] wIn,
+                                             final double bIn,
+                                             final double alpha,
+                                             final long numberOfIterations,
+                                             final GradientDescentOptions options,
+                                             final ColumnStatistics statistics) {
+    final int m = x.m();
+    final double[] w = wIn.clone();
+    final FeatureScaler scaler = Objects.isNull(statistics) ? null : options.featureScaling().scaler(statistics);
+
+    if (options.batchSize() > 0 && options.batchSize() < m) {
+      if (isAdaptive(options)) {
+        throw new IllegalArgumentException("stepSize requires full-batch descent");
+      }
+      if (isLbfgs(options)) {
+        throw new IllegalArgumentException("LBFGS requires full-batch descent");
+      }
+      return computeMiniBatch(x, y, w, bIn, alpha, numberOfIterations, options, scaler);
+    }
+
+    return computeFullBatch(w, bIn, alpha, numberOfIterations, options, scaler, (wi, bi, accumulator) -> {
+      this.computeGradientLogisticService.accumulate(x, y, wi, bi, accumulator, options.parallelism());
+      return m;
     });
+  }
 
+  /**
+   * Compute the gradient descent on a dataset read chunk by chunk, such as a {@link CsvDataset}.
+   * Every iteration makes one pass over the source, summing the gradient of the chunks before the single update of
+   * the parameters, so the result is the one of full-batch descent on the whole dataset while at most one chunk is in
+   * memory.
+   *
+   * @param x                  the chunked dataset, labels included.
+   * @param wIn                (ndarray (n,)): Initial values of model parameters
+   * @param bIn                (scalar)      : Initial values of model parameter
+   * @param alpha              (float)      : Learning rate
+   * @param numberOfIterations (scalar) : number of iterations to run gradient descent
+   * @param options            tuning knobs, such as how often the cost is recorded; batchSize is not supported.
+   * @return w (ndarray (n,))   : Updated values of parameters
+   * b (scalar)         : Updated value of parameter
+   * @throws IllegalArgumentException if the inputs are invalid or a batch size is requested.
+   */
+  public ResultGradientDescent compute(final ChunkedDataset x,
+                                       final double[] wIn,
+                                       final double bIn,
+                                       final double alpha,
+                                       final long numberOfIterations,
+                                       final GradientDescentOptions options) {
+    Utils.validateChunked(x, wIn);
+    if (options.batchSize() > 0) {
+      throw new IllegalArgumentException("batchSize is not supported on chunked datasets");
+    }
+    final FeatureScaler scaler = isScaled(options) ? options.featureScaling().scaler(ColumnStatistics.of(x)) : null;
 
-    return ResultGradientDescent.builder().w(w).costHistory(jHistory).b(b.get()).build();
+    return computeFullBatch(wIn.clone(), bIn, alpha, numberOfIterations, options, scaler, (wi, bi, accumulator) ->
+        this.computeGradientLogisticService.accumulate(x, wi, bi, accumulator, options.parallelism()));
   }
 
-  private static void logProgress(final double numberOfIterations, final long i, final List<BigDecimal> jHistory) {
+  /**
+   * Full-batch iterations: one pass and one update of w and b per iteration.
+   * With a scaler, w and b are descended in the scaled space and transformed back at the end. With an adaptive step
+   * size, the update is the one of its controller, and the pass is skipped when the controller already evaluated the
+   * gradient at the new parameters. {@link Solver#LBFGS} runs are handed to {@link #computeLbfgs}.
+   *
+   * @return the result of the run, w is updated in place.
+   */
+  private ResultGradientDescent computeFullBatch(final double[] w,
+                                                 final double bIn,
+                                                 final double alpha,
+                                                 final long numberOfIterations,
+                                                 final GradientDescentOptions options,
+                                                 final FeatureScaler scaler,
+                                                 final GradientPass rawPass) {
+    final GradientPass pass = Objects.isNull(scaler)
+        ? rawPass
+        : (wi, bi, accumulator) -> scaler.accumulate(wi, bi, accumulator, rawPass);
+    double b = Objects.isNull(scaler) ? bIn : scaler.toScaled(w, bIn);
+    if (isLbfgs(options)) {
+      return computeLbfgs(w, b, alpha, numberOfIterations, options, scaler, pass);
+    }
+    final CostHistory jHistory = new CostHistory(options.historyCapacity(), options.costHistoryInterval());
+    final ConvergenceMonitor monitor = new ConvergenceMonitor(options);
+    final GradientAccumulator withCost = new GradientAccumulator(w.length, true);
+    final GradientAccumulator withoutCost = new GradientAccumulator(w.length, false);
+    final Optimizer optimizer = optimizer(options).create(w.length, options);
+    final StepSizeController controller =
+        isAdaptive(options) ? new StepSizeController(options.stepSize(), alpha, w.length) : null;
+    final CostHistory alphaHistory = Objects.isNull(controller) ? null : new CostHistory(options.historyCapacity(), 1L);
 
-    if (i % Math.ceil(numberOfIterations / 10L) != 0 || !log.isInfoEnabled()) {
-      return;
+    long index = 0L;
+    StopReason stopReason = StopReason.MAX_ITERATIONS;
+    GradientAccumulator evaluated = null;
+    while (index < numberOfIterations) {
+      final long start = this.metrics.start();
+      final boolean computeCost = monitor.isCostComputed(index);
+      final GradientAccumulator accumulator;
+      long rows = 0L;
+      if (Objects.isNull(evaluated)) {
+        accumulator = computeCost || (Objects.nonNull(controller) && controller.isCostNeeded()) ? withCost : withoutCost;
+        accumulator.reset();
+        rows = pass.accumulate(w, b, accumulator);
+        accumulator.average(rows);
+      } else {
+        accumulator = evaluated;
+      }
+      final double cost = computeCost ? accumulator.cost : Double.NaN;
+      if (computeCost) {
+        jHistory.add(index, cost);
+      }
+      final double gradientNorm = monitor.isGradientNormComputed()
+          ? ConvergenceMonitor.norm(accumulator.djDw, accumulator.djDb) : Double.NaN;
+      if (Objects.isNull(controller)) {
+        b = optimizer.step(alpha, w, b, accumulator.djDw, accumulator.djDb);
+      } else {
+        b = controller.step(w, b, accumulator, pass);
+        alphaHistory.add(index, controller.alpha());
+        evaluated = controller.evaluated();
+        rows += controller.rows();
+      }
+      logProgress((double) numberOfIterations, index, jHistory);
+      index++;
+      this.metrics.recordIteration(start, rows);
+      final StopReason reason = monitor.check(index, cost, gradientNorm);
+      if (Objects.nonNull(reason)) {
+        stopReason = reason;
+        break;
+      }
+    }
+
+    return toResult(w, Objects.isNull(scaler) ? b : scaler.toRaw(w, b), jHistory, alphaHistory, index, stopReason);
+  }
+
+  /**
+   * L-BFGS iterations: one line search per iteration, every point it tries evaluated by a pass with cost.
+   * The cost history holds the cost before each step and the alpha history the step lengths the line search accepted.
+   * A failed line search drops the memory of the solver, and stops the run when it already started from the steepest
+   * descent direction: no step along the gradient decreases the cost any more, at the precision of the doubles.
+   *
+   * @param b the initial parameter b, scaled when there is a scaler.
+   * @return the result of the run, w is updated in place.
+   */
+  private ResultGradientDescent computeLbfgs(final double[] w,
+                                             final double b,
+                                             final double alpha,
+                                             final long numberOfIterations,
+                                             final GradientDescentOptions options,
+                                             final FeatureScaler scaler,
+                                             final GradientPass pass) {
+    final CostHistory jHistory = new CostHistory(options.historyCapacity(), options.costHistoryInterval());
+    final CostHistory alphaHistory = new CostHistory(options.historyCapacity(), 1L);
+    final ConvergenceMonitor monitor = new ConvergenceMonitor(options);
+    final LbfgsSolver solver = new LbfgsSolver(w.length, options.lbfgsHistory(), pass);
+    solver.start(w, b);
+
+    long index = 0L;
+    StopReason stopReason = StopReason.MAX_ITERATIONS;
+    while (index < numberOfIterations) {
+      final long start = this.metrics.start();
+      final boolean computeCost = monitor.isCostComputed(index);
+      final double cost = computeCost ? solver.cost() : Double.NaN;
+      if (computeCost) {
+        jHistory.add(index, cost);
+      }
+      final double gradientNorm = solver.gradientNorm();
+      final double step = solver.iterate(alpha);
+      alphaHistory.add(index, step);
+      logProgress((double) numberOfIterations, index, jHistory);
+      index++;
+      this.metrics.recordIteration(start, solver.rows());
+      final StopReason reason = monitor.check(index, cost, gradientNorm);
+      if (Objects.nonNull(reason)) {
+        stopReason = reason;
+        break;
+      }
+      if (step == 0D && solver.wasSteepest()) {
+        //A failed search along the negative gradient would only be repeated
+        stopReason = StopReason.COST_CONVERGED;
+        break;
+      }
+    }
+
+    final double bOut = solver.copyTo(w);
+    return toResult(w, Objects.isNull(scaler) ? bOut : scaler.toRaw(w, bOut), jHistory, alphaHistory, index,
+        stopReason);
+  }
+
+  /**
+   * Mini-batch epochs: every epoch shuffles the rows with the seeded generator and updates w and b once per batch.
+   * On a {@link SparseDataset} with the plain update and no scaling, the weights are updated lazily: only the columns
+   * the batch touched are updated and cleared, so a batch costs its nonzeros instead of O(n).
+   *
+   * @return the result of the run, w is updated in place.
+   */
+  private ResultGradientDescent computeMiniBatch(final FeatureMatrix x,
+                                                 final double[] y,
+                                                 final double[] w,
+                                                 final double bIn,
+                                                 final double alpha,
+                                                 final long numberOfEpochs,
+                                                 final GradientDescentOptions options,
+                                                 final FeatureScaler scaler) {
+    final int m = x.m();
+    final int batchSize = options.batchSize();
+    final CostHistory jHistory = new CostHistory(options.historyCapacity(), options.costHistoryInterval());
+    final ConvergenceMonitor monitor = new ConvergenceMonitor(options);
+    final GradientAccumulator withCost = new GradientAccumulator(x.n(), true);
+    final GradientAccumulator withoutCost = new GradientAccumulator(x.n(), false);
+    final Optimizer optimizer = optimizer(options).create(x.n(), options);
+    final int[] rows = IntStream.range(0, m).toArray();
+    final SplittableRandom random = new SplittableRandom(options.shuffleSeed());
+    final SparseDataset sparse =
+        x instanceof SparseDataset csr && Objects.isNull(scaler) && isPlain(options) ? csr : null;
+    double b = Objects.isNull(scaler) ? bIn : scaler.toScaled(w, bIn);
+
+    long epoch = 0L;
+    StopReason stopReason = StopReason.MAX_ITERATIONS;
+    while (epoch < numberOfEpochs) {
+      final long start = this.metrics.start();
+      shuffle(rows, random);
+      final boolean computeCost = monitor.isCostComputed(epoch);
+      final GradientAccumulator accumulator = computeCost ? withCost : withoutCost;
+      double epochCost = 0D;
+      for (int from = 0; from < m; from += batchSize) {
+        final int to = Math.min(m, from + batchSize);
+        if (Objects.nonNull(sparse)) {
+          b = sparseBatch(sparse, y, w, b, alpha, rows, from, to, accumulator);
+          epochCost += accumulator.cost;
+          continue;
+        }
+        accumulator.reset();
+        if (Objects.isNull(scaler)) {
+          this.computeGradientLogisticService.accumulate(x, y, w, b, rows, from, to, accumulator);
+        } else {
+          final double rawB = scaler.loadRaw(w, b);
+          this.computeGradientLogisticService.accumulate(x, y, scaler.rawWeights(), rawB, rows, from, to, accumulator);
+          scaler.toScaledGradient(accumulator);
+        }
+        epochCost += accumulator.cost;
+        accumulator.average(to - from);
+        b = optimizer.step(alpha, w, b, accumulator.djDw, accumulator.djDb);
+      }
+      final double cost = computeCost ? epochCost / m : Double.NaN;
+      if (computeCost) {
+        jHistory.add(epoch, cost);
+      }
+      logProgress((double) numberOfEpochs, epoch, jHistory);
+      epoch++;
+      this.metrics.recordIteration(start, m);
+      final StopReason reason = monitor.check(epoch, cost, Double.NaN);
+      if (Objects.nonNull(reason)) {
+        stopReason = reason;
+        break;
+      }
+    }
+    return toResult(w, Objects.isNull(scaler) ? b : scaler.toRaw(w, b), jHistory, null, epoch, stopReason);
+  }
+
+  /**
+   * One plain update on a batch of a sparse dataset. The gradient buffer of the accumulator is all zeros on entry and
+   * is left so: the sums of the batch only touch its columns, and {@link SparseDataset#descend} clears them as it
+   * applies them.
+   *
+   * @return the updated b, the cost of the batch is left unaveraged in the accumulator.
+   */
+  private double sparseBatch(final SparseDataset x,
+                             final double[] y,
+                             final double[] w,
+                             final double b,
+                             final double alpha,
+                             final int[] rows,
+                             final int from,
+                             final int to,
+                             final GradientAccumulator accumulator) {
+    accumulator.djDb = 0D;
+    accumulator.cost = 0D;
+    this.computeGradientLogisticService.accumulate(x, y, w, b, rows, from, to, accumulator);
+    final double scale = alpha / (to - from);
+    for (int k = from; k < to; k++) {
+      x.descend(rows[k], scale, accumulator.djDw, w);
     }
+    return b - scale * accumulator.djDb;
+  }
+
+  private static OptimizerType optimizer(final GradientDescentOptions options) {
+    return Objects.requireNonNullElse(options.optimizer(), OptimizerType.GRADIENT_DESCENT);
+  }
+
+  private static boolean isPlain(final GradientDescentOptions options) {
+    return optimizer(options) == OptimizerType.GRADIENT_DESCENT;
+  }
+
+  private static boolean isAdaptive(final GradientDescentOptions options) {
+    return Objects.nonNull(options.stepSize()) && options.stepSize() != StepSize.FIXED;
+  }
+
+  private static boolean isLbfgs(final GradientDescentOptions options) {
+    return options.solver() == Solver.LBFGS;
+  }
 
-    log.info(format("Iteration %4d: Cost %s", i, jHistory.getLast()));
+  private static boolean isScaled(final GradientDescentOptions options) {
+    return Objects.nonNull(options.featureScaling()) && options.featureScaling() != FeatureScaling.NONE;
   }
 
-  private void storeInHistory(List<List<BigDecimal>> x, List<BigDecimal> y, long i, List<BigDecimal> jHistory, List<BigDecimal> w,
-                              AtomicReference<BigDecimal> b) {
-    if (i < 100000) {
-      jHistory.add(this.computeCostLogisticService.compute(x, y, w, b.get()));
+  private static void shuffle(final int[] rows, final SplittableRandom random) {
+    for (int i = rows.length - 1; i > 0; i--) {
+      final int j = random.nextInt(i + 1);
+      final int row = rows[i];
+      rows[i] = rows[j];
+      rows[j] = row;
     }
   }
 
+  private static ResultGradientDescent toResult(final double[] w,
+                                                final double b,
+                                                final CostHistory jHistory,
+                                                final CostHistory alphaHistory,
+                                                final long iterations,
+                                                final StopReason stopReason) {
+    return ResultGradientDescent.builder()
+        .w(Arrays.stream(w).mapToObj(BigDecimal::valueOf).toList())
+        .b(BigDecimal.valueOf(b))
+        .costHistory(jHistory.toList())
+        .costHistoryStride(jHistory.stride())
+        .iterations(iterations)
+        .alphaHistory(Objects.isNull(alphaHistory) ? List.of() : alphaHistory.toList())
+        .alphaHistoryStride(Objects.isNull(alphaHistory) ? 1L : alphaHistory.stride())
+        .stopReason(stopReason)
+        .build();
+  }
+
+  private static void logProgress(final double numberOfIterations, final long i, final CostHistory jHistory) {
+
+    if (i % Math.ceil(numberOfIterations / 10L) != 0 || !log.isInfoEnabled() || Double.isNaN(jHistory.last())) {
+      return;
+    }
+
+    log.info(format("Iteration %4d: Cost %s", i, jHistory.last()));
+  }
+
   private static void calculateW(BigDecimal alpha, List<BigDecimal> w, ResultComputeGradient compute) {
     for (int j = 0; j < w.size(); j++) {
       w.set(j, w.get(j).subtract(alpha.multiply(compute.djDw().get(j))));
     }
   }
 
+  private static double norm(final ResultComputeGradient compute) {
+    final double djDb = compute.djDb().doubleValue();
+    double sum = djDb * djDb;
+    for (final BigDecimal djDw : compute.djDw()) {
+      final double value = djDw.doubleValue();
+      sum += value * value;
+    }
+    return Math.sqrt(sum);
+  }
+
   private static BigDecimal calculateB(BigDecimal alpha, BigDecimal b, ResultComputeGradient compute) {
     return b.subtract(alpha.multiply(compute.djDb()));
   }
-
 }
@@ -0,0 +1,18 @@
+package at.mavila.linearr;
+
+/**
+ * One pass over a dataset at the given parameters.
+ */
+@FunctionalInterface
+interface GradientPass {
+
+  /**
+   * Add the unscaled gradient, and the cost when requested, of every row to the accumulator.
+   *
+   * @param w           the parameters w, unchanged.
+   * @param b           the parameter b.
+   * @param accumulator where the sums are added, from a reset state.
+   * @return the number of rows the sums are over.
+   */
+  long accumulate(double[] w, double b, GradientAccumulator accumulator);
+}
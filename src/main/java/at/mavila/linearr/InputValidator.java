@@ -41,6 +41,25 @@ public final class InputValidator {
     validateSizeArrays(x, y);
   }
 
+  /**
+   * Validate the primitive x and y arrays for non-null, non-empty and same length.
+   *
+   * @param x array of x values
+   * @param y array of y values
+   * @throws IllegalArgumentException if any of them is null or empty, or they have different lengths.
+   */
+  public static void validateArraysXY(double[] x, double[] y) {
+    if (Objects.isNull(x) || x.length == 0) {
+      throw new IllegalArgumentException("x is empty");
+    }
+    if (Objects.isNull(y) || y.length == 0) {
+      throw new IllegalArgumentException("y is empty");
+    }
+    if (x.length != y.length) {
+      throw new IllegalArgumentException("x and y have different sizes");
+    }
+  }
+
   /**
    * Wrap the parameters.
    * Validate each parameter for non-null and non-empty, if not throw an IllegalArgumentException
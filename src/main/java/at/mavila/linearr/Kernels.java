@@ -0,0 +1,32 @@
+package at.mavila.linearr;
+
+/**
+ * Innermost linear algebra operations of the training loops, over slices of primitive arrays.
+ * Implementations must not allocate.
+ */
+interface Kernels {
+
+  /**
+   * Dot product of two slices.
+   *
+   * @param a       the first array.
+   * @param aOffset the offset of the slice in a.
+   * @param b       the second array.
+   * @param bOffset the offset of the slice in b.
+   * @param n       the length of the slices.
+   * @return the sum of a[aOffset + j] * b[bOffset + j] for j in [0, n).
+   */
+  double dot(double[] a, int aOffset, double[] b, int bOffset, int n);
+
+  /**
+   * Scaled accumulation of a slice into another, y = y + alpha * x.
+   *
+   * @param alpha   the scale factor.
+   * @param x       the array to read.
+   * @param xOffset the offset of the slice in x.
+   * @param y       the array to update in place.
+   * @param yOffset the offset of the slice in y.
+   * @param n       the length of the slices.
+   */
+  void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int n);
+}
@@ -0,0 +1,341 @@
+package at.mavila.linearr;
+
+/**
+ * Per-run state of limited-memory BFGS on the n + 1 parameters (w, b), b last. The last pairs of parameter changes s
+ * and gradient changes y are kept in ring buffers of primitive vectors, from which the two-loop recursion builds the
+ * search direction in O(history * n). Every step length comes from a line search satisfying the strong Wolfe
+ * conditions, which keeps s . y positive so the implicit inverse Hessian stays positive definite.
+ * <p>
+ * The objective is evaluated through a {@link GradientPass} with cost: a single pass yields both the cost and the
+ * gradient at a trial point, and the point the line search accepts is always the last one evaluated, so its cost and
+ * gradient are reused by the next iteration without another pass.
+ */
+final class LbfgsSolver {
+
+  /**
+   * Number of (s, y) pairs kept when no history size is given.
+   */
+  static final int DEFAULT_HISTORY = 10;
+
+  /**
+   * Sufficient decrease constant of the strong Wolfe conditions.
+   */
+  static final double C1 = 1e-4D;
+
+  /**
+   * Curvature constant of the strong Wolfe conditions.
+   */
+  static final double C2 = 0.9D;
+
+  private static final int MAX_EVALUATIONS = 30;
+
+  private final int n;
+  private final GradientPass pass;
+  private final GradientAccumulator accumulator;
+  private final double[] w;
+  private final double[][] s;
+  private final double[][] y;
+  private final double[] rho;
+  private final double[] coefficients;
+  private int newest = -1;
+  private int size;
+  private long rows;
+  private boolean steepest;
+
+  private double[] x;
+  private double[] gradient;
+  private double cost;
+  private double[] trialX;
+  private double[] trialGradient;
+  private double trialCost;
+  private final double[] direction;
+
+  /**
+   * Start a run.
+   *
+   * @param n       the number of parameters w.
+   * @param history the number of (s, y) pairs to keep, at least 1.
+   * @param pass    the pass over the dataset, called with accumulators that compute the cost.
+   */
+  LbfgsSolver(final int n, final int history, final GradientPass pass) {
+    final int d = n + 1;
+    this.n = n;
+    this.pass = pass;
+    this.accumulator = new GradientAccumulator(n, true);
+    this.w = new double[n];
+    this.s = new double[history][d];
+    this.y = new double[history][d];
+    this.rho = new double[history];
+    this.coefficients = new double[history];
+    this.x = new double[d];
+    this.gradient = new double[d];
+    this.trialX = new double[d];
+    this.trialGradient = new double[d];
+    this.direction = new double[d];
+  }
+
+  /**
+   * Evaluate the cost and gradient at the initial parameters.
+   *
+   * @param wIn the initial parameters w, unchanged.
+   * @param b   the initial parameter b.
+   */
+  void start(final double[] wIn, final double b) {
+    System.arraycopy(wIn, 0, this.x, 0, this.n);
+    this.x[this.n] = b;
+    this.rows = 0L;
+    this.cost = evaluate(this.x, this.gradient);
+  }
+
+  /**
+   * The cost at the current parameters.
+   *
+   * @return the averaged cost.
+   */
+  double cost() {
+    return this.cost;
+  }
+
+  /**
+   * The euclidean norm of the gradient at the current parameters.
+   *
+   * @return the norm of (djDw, djDb).
+   */
+  double gradientNorm() {
+    return Math.sqrt(VectorKernels.dot(this.gradient, this.gradient));
+  }
+
+  /**
+   * Number of rows read by the passes since the last call, the initial evaluation included.
+   *
+   * @return the rows of the passes.
+   */
+  long rows() {
+    final long read = this.rows;
+    this.rows = 0L;
+    return read;
+  }
+
+  /**
+   * Copy the current parameters out.
+   *
+   * @param out the buffer of w, n long.
+   * @return the current b.
+   */
+  double copyTo(final double[] out) {
+    System.arraycopy(this.x, 0, out, 0, this.n);
+    return this.x[this.n];
+  }
+
+  /**
+   * Whether the last {@link #iterate} searched along the steepest descent direction, with no history. When such a
+   * search failed, the next iteration would repeat it exactly, so the run is over.
+   *
+   * @return true if the direction of the last search was the negative gradient.
+   */
+  boolean wasSteepest() {
+    return this.steepest;
+  }
+
+  /**
+   * Take one step: build the direction from the history, search along it and record the new (s, y) pair.
+   * When the line search fails with a history, the history is dropped so the next iteration starts over from the
+   * steepest descent direction; {@link #wasSteepest()} tells the two failures apart.
+   *
+   * @param initialStep the first step length tried when the history is empty; 1 is tried otherwise.
+   * @return the accepted step length, or 0 if the line search did not find a point satisfying the conditions.
+   */
+  double iterate(final double initialStep) {
+    double slope = direction();
+    if (!(slope < 0D)) {
+      //Not a descent direction, which a poorly conditioned history can produce: start over from steepest descent
+      this.size = 0;
+      slope = direction();
+      if (!(slope < 0D)) {
+        this.steepest = true;
+        return 0D;
+      }
+    }
+    this.steepest = this.size == 0;
+    final double step = search(this.steepest ? initialStep : 1D, slope);
+    if (step == 0D) {
+      this.size = 0;
+      return 0D;
+    }
+    remember();
+    final double[] previousX = this.x;
+    this.x = this.trialX;
+    this.trialX = previousX;
+    final double[] previousGradient = this.gradient;
+    this.gradient = this.trialGradient;
+    this.trialGradient = previousGradient;
+    this.cost = this.trialCost;
+    return step;
+  }
+
+  /**
+   * Two-loop recursion, direction = -H g with H the implicit inverse Hessian of the history.
+   *
+   * @return the slope of the direction, g . direction.
+   */
+  private double direction() {
+    final double[] q = this.direction;
+    System.arraycopy(this.gradient, 0, q, 0, q.length);
+    final int history = this.s.length;
+    for (int k = 0; k < this.size; k++) {
+      final int i = Math.floorMod(this.newest - k, history);
+      this.coefficients[i] = this.rho[i] * VectorKernels.dot(this.s[i], q);
+      VectorKernels.axpy(-this.coefficients[i], this.y[i], q);
+    }
+    if (this.size > 0) {
+      final double[] yNewest = this.y[this.newest];
+      final double gamma = 1D / (this.rho[this.newest] * VectorKernels.dot(yNewest, yNewest));
+      for (int j = 0; j < q.length; j++) {
+        q[j] *= gamma;
+      }
+    }
+    for (int k = this.size - 1; k >= 0; k--) {
+      final int i = Math.floorMod(this.newest - k, history);
+      final double beta = this.rho[i] * VectorKernels.dot(this.y[i], q);
+      VectorKernels.axpy(this.coefficients[i] - beta, this.s[i], q);
+    }
+    for (int j = 0; j < q.length; j++) {
+      q[j] = -q[j];
+    }
+    return VectorKernels.dot(this.gradient, q);
+  }
+
+  /**
+   * Line search for the strong Wolfe conditions, bracketing then zooming (Nocedal and Wright, algorithms 3.5 and
+   * 3.6). The trial buffers hold the accepted point on success.
+   *
+   * @return the accepted step, 0 on failure.
+   */
+  private double search(final double initialStep, final double slope) {
+    double previous = 0D;
+    double previousCost = this.cost;
+    double previousSlope = slope;
+    double step = initialStep;
+    for (int evaluation = 0; evaluation < MAX_EVALUATIONS; evaluation++) {
+      final double trialSlope = trial(step);
+      if (this.trialCost > this.cost + C1 * step * slope || (evaluation > 0 && this.trialCost >= previousCost)) {
+        return zoom(previous, previousCost, previousSlope, step, this.trialCost, trialSlope, slope,
+            MAX_EVALUATIONS - evaluation - 1);
+      }
+      if (Math.abs(trialSlope) <= -C2 * slope) {
+        return step;
+      }
+      if (trialSlope >= 0D) {
+        return zoom(step, this.trialCost, trialSlope, previous, previousCost, previousSlope, slope,
+            MAX_EVALUATIONS - evaluation - 1);
+      }
+      previous = step;
+      previousCost = this.trialCost;
+      previousSlope = trialSlope;
+      step *= 2D;
+    }
+    return 0D;
+  }
+
+  private double zoom(double lo,
+                      double loCost,
+                      double loSlope,
+                      double hi,
+                      double hiCost,
+                      double hiSlope,
+                      final double slope,
+                      final int evaluations) {
+    for (int evaluation = 0; evaluation < evaluations; evaluation++) {
+      final double step = interpolate(lo, loCost, loSlope, hi, hiCost, hiSlope);
+      final double trialSlope = trial(step);
+      if (this.trialCost > this.cost + C1 * step * slope || this.trialCost >= loCost) {
+        hi = step;
+        hiCost = this.trialCost;
+        hiSlope = trialSlope;
+      } else {
+        if (Math.abs(trialSlope) <= -C2 * slope) {
+          return step;
+        }
+        if (trialSlope * (hi - lo) >= 0D) {
+          hi = lo;
+          hiCost = loCost;
+          hiSlope = loSlope;
+        }
+        lo = step;
+        loCost = this.trialCost;
+        loSlope = trialSlope;
+      }
+    }
+    return 0D;
+  }
+
+  /**
+   * Minimizer of the cubic through both ends of the interval, kept away from the ends; the midpoint when the cubic
+   * has no usable minimizer.
+   */
+  private static double interpolate(final double lo,
+                                    final double loCost,
+                                    final double loSlope,
+                                    final double hi,
+                                    final double hiCost,
+                                    final double hiSlope) {
+    final double d1 = loSlope + hiSlope - 3D * (loCost - hiCost) / (lo - hi);
+    final double discriminant = d1 * d1 - loSlope * hiSlope;
+    final double low = Math.min(lo, hi);
+    final double width = Math.abs(hi - lo);
+    if (discriminant >= 0D) {
+      final double d2 = Math.signum(hi - lo) * Math.sqrt(discriminant);
+      final double step = hi - (hi - lo) * (hiSlope + d2 - d1) / (hiSlope - loSlope + 2D * d2);
+      if (Double.isFinite(step) && step >= low + 0.1D * width && step <= low + 0.9D * width) {
+        return step;
+      }
+    }
+    return low + 0.5D * width;
+  }
+
+  /**
+   * Evaluate the trial point x + step * direction.
+   *
+   * @return the slope at the trial point, its gradient . direction.
+   */
+  private double trial(final double step) {
+    System.arraycopy(this.x, 0, this.trialX, 0, this.trialX.length);
+    VectorKernels.axpy(step, this.direction, this.trialX);
+    this.trialCost = evaluate(this.trialX, this.trialGradient);
+    return VectorKernels.dot(this.trialGradient, this.direction);
+  }
+
+  private double evaluate(final double[] point, final double[] gradientOut) {
+    System.arraycopy(point, 0, this.w, 0, this.n);
+    this.accumulator.reset();
+    final long read = this.pass.accumulate(this.w, point[this.n], this.accumulator);
+    this.accumulator.average(read);
+    this.rows += read;
+    System.arraycopy(this.accumulator.djDw, 0, gradientOut, 0, this.n);
+    gradientOut[this.n] = this.accumulator.djDb;
+    return this.accumulator.cost;
+  }
+
+  /**
+   * Record the pair of the accepted step in the ring buffers, s = trialX - x and y = trialGradient - gradient,
+   * unless its curvature is too small to keep the approximation positive definite.
+   */
+  private void remember() {
+    final int next = (this.newest + 1) % this.s.length;
+    final double[] sNext = this.s[next];
+    final double[] yNext = this.y[next];
+    for (int j = 0; j < sNext.length; j++) {
+      sNext[j] = this.trialX[j] - this.x[j];
+      yNext[j] = this.trialGradient[j] - this.gradient[j];
+    }
+    final double sy = VectorKernels.dot(sNext, yNext);
+    if (!(sy > 1e-10D * VectorKernels.dot(yNext, yNext))) {
+      //The slot held the oldest pair when the buffers are full, it is gone
+      this.size = Math.min(this.size, this.s.length - 1);
+      return;
+    }
+    this.rho[next] = 1D / sy;
+    this.newest = next;
+    this.size = Math.min(this.size + 1, this.s.length);
+  }
+}
@@ -0,0 +1,69 @@
+package at.mavila.linearr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Application properties under the {@code linearr} prefix.
+ *
+ * @param gradientParallelism          number of workers the dense gradient is split across when a call does not choose;
+ *                                     0 uses every available processor and 1 keeps the pass on the calling thread.
+ * @param gradientMinimumRowsPerTask   smallest number of rows a gradient worker is given, so small datasets are not
+ *                                     split into tasks that cost more to schedule than to compute.
+ * @param sigmoidApproximation         implementation of the primitive sigmoid used by the dense training paths.
+ * @param numericBackend               arithmetic of the list based services when a call does not choose one.
+ * @param trainingThreads              platform threads running the training jobs of the REST API, 0 for one per
+ *                                     available processor.
+ * @param trainingQueueCapacity        training jobs that may wait for a thread; submissions beyond it are rejected.
+ * @param trainingJobsRetained         finished training jobs kept for their results, the oldest are forgotten first.
+ * @param modelRegistryBytes           budget of the models held by the model registry, the least recently used are
+ *                                     evicted beyond it.
+ * @param metricsEnabled               whether the training hot paths record Micrometer meters, see
+ *                                     {@link TrainingMetrics}.
+ */
+@ConfigurationProperties(prefix = "linearr")
+public record LinearRegressionProperties(@DefaultValue("0") int gradientParallelism,
+                                         @DefaultValue("1024") int gradientMinimumRowsPerTask,
+                                         @DefaultValue("EXACT") SigmoidApproximation sigmoidApproximation,
+                                         @DefaultValue("EXACT") NumericBackend numericBackend,
+                                         @DefaultValue("0") int trainingThreads,
+                                         @DefaultValue("64") int trainingQueueCapacity,
+                                         @DefaultValue("256") int trainingJobsRetained,
+                                         @DefaultValue("67108864") long modelRegistryBytes,
+                                         @DefaultValue("true") boolean metricsEnabled) {
+
+  /**
+   * Validate the properties.
+   *
+   * @throws IllegalArgumentException if a property is out of range.
+   */
+  public LinearRegressionProperties {
+    if (gradientParallelism < 0) {
+      throw new IllegalArgumentException("gradientParallelism is negative");
+    }
+    if (gradientMinimumRowsPerTask < 1) {
+      throw new IllegalArgumentException("gradientMinimumRowsPerTask must be positive");
+    }
+    if (trainingThreads < 0) {
+      throw new IllegalArgumentException("trainingThreads is negative");
+    }
+    if (trainingQueueCapacity < 1 || trainingJobsRetained < 1) {
+      throw new IllegalArgumentException("trainingQueueCapacity and trainingJobsRetained must be positive");
+    }
+    if (modelRegistryBytes < 1L) {
+      throw new IllegalArgumentException("modelRegistryBytes must be positive");
+    }
+    Utils.validateNotNull(sigmoidApproximation, "sigmoidApproximation");
+    Utils.validateNotNull(numericBackend, "numericBackend");
+  }
+
+  /**
+   * The properties used when none are configured.
+   *
+   * @return the default properties.
+   */
+  public static LinearRegressionProperties defaults() {
+    return new LinearRegressionProperties(0, 1024, SigmoidApproximation.EXACT, NumericBackend.EXACT, 0, 64, 256,
+        67_108_864L, true);
+  }
+}
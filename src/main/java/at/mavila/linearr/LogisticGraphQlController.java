@@ -0,0 +1,202 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import org.dataloader.DataLoader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+/**
+ * GraphQL API of the logistic regression services, see {@code graphql/schema.graphqls}.
+ * The probability and label of the predictions go through one batch loader keyed by {@link Prediction}: GraphQL
+ * collects the predictions of a request, the loader scores the rows of the same model in a single dense pass, and both
+ * fields read the same score instead of one resolver call, or one pass per field, per row.
+ */
+@Controller
+public class LogisticGraphQlController {
+
+  private final ComputeCostLogisticService computeCostLogisticService;
+  private final ComputeGradientLogisticService computeGradientLogisticService;
+  private final TrainingJobService trainingJobService;
+  private final PredictionService predictionService;
+
+  /**
+   * Create the controller and register the batch loader of the predictions.
+   *
+   * @param computeCostLogisticService     the cost service.
+   * @param computeGradientLogisticService the gradient service.
+   * @param trainingJobService             the training jobs, also running the synchronous training.
+   * @param predictionService              the scoring of the predictions.
+   * @param batchLoaderRegistry            where the batch loader of the predictions is registered.
+   */
+  @Autowired
+  public LogisticGraphQlController(final ComputeCostLogisticService computeCostLogisticService,
+                                   final ComputeGradientLogisticService computeGradientLogisticService,
+                                   final TrainingJobService trainingJobService,
+                                   final PredictionService predictionService,
+                                   final BatchLoaderRegistry batchLoaderRegistry) {
+    this.computeCostLogisticService = computeCostLogisticService;
+    this.computeGradientLogisticService = computeGradientLogisticService;
+    this.trainingJobService = trainingJobService;
+    this.predictionService = predictionService;
+    batchLoaderRegistry.forTypePair(Prediction.class, Double.class)
+        .registerBatchLoader((predictions, environment) -> Flux.defer(() -> Flux.fromArray(
+            Arrays.stream(score(predictions)).boxed().toArray(Double[]::new))));
+  }
+
+  @QueryMapping
+  public BigDecimal cost(@Argument final LogisticInput input) {
+    final List<List<BigDecimal>> x = toMatrix(input.x());
+    final List<BigDecimal> y = toVector(input.y(), "y");
+    final List<BigDecimal> w = toVector(input.w(), "w");
+    final BigDecimal b = BigDecimal.valueOf(input.b());
+    return Objects.isNull(input.backend())
+        ? this.computeCostLogisticService.compute(x, y, w, b)
+        : this.computeCostLogisticService.compute(x, y, w, b, input.backend());
+  }
+
+  @QueryMapping
+  public ResultComputeGradient gradient(@Argument final LogisticInput input) {
+    final List<List<BigDecimal>> x = toMatrix(input.x());
+    final List<BigDecimal> y = toVector(input.y(), "y");
+    final List<BigDecimal> w = toVector(input.w(), "w");
+    final BigDecimal b = BigDecimal.valueOf(input.b());
+    return Objects.isNull(input.backend())
+        ? this.computeGradientLogisticService.compute(x, y, w, b)
+        : this.computeGradientLogisticService.compute(x, y, w, b, input.backend());
+  }
+
+  @QueryMapping
+  public List<Prediction> predict(@Argument final ModelInput model, @Argument final List<List<Double>> x) {
+    Utils.validateList(model.w(), "w");
+    Utils.validateList(x, "x");
+    final int n = model.w().size();
+    for (int i = 0; i < x.size(); i++) {
+      if (x.get(i).size() != n) {
+        throw new IllegalArgumentException("x[" + i + "] does not have " + n + " features");
+      }
+    }
+    return x.stream().map(row -> new Prediction(row, model)).toList();
+  }
+
+  @QueryMapping
+  public TrainingJobStatus trainingJob(@Argument final String id) {
+    return this.trainingJobService.status(id).orElse(null);
+  }
+
+  @MutationMapping
+  public ResultGradientDescent train(@Argument final TrainingInput input) {
+    return this.trainingJobService.train(toRequest(input));
+  }
+
+  @MutationMapping
+  public TrainingJobStatus submitTrainingJob(@Argument final TrainingInput input) {
+    return this.trainingJobService.submit(toRequest(input));
+  }
+
+  /**
+   * Probability of a prediction, from the batch scoring of all the predictions of the request.
+   *
+   * @param prediction the prediction.
+   * @param scores     the batch loader of the scores.
+   * @return sigmoid(w . x + b).
+   */
+  @SchemaMapping(typeName = "Prediction")
+  public CompletableFuture<Double> probability(final Prediction prediction,
+                                               final DataLoader<Prediction, Double> scores) {
+    return scores.load(prediction);
+  }
+
+  /**
+   * Label of a prediction, from the same batch scoring as {@link #probability}.
+   *
+   * @param prediction the prediction.
+   * @param scores     the batch loader of the scores.
+   * @return 1 for a probability of at least 0.5, 0 otherwise.
+   */
+  @SchemaMapping(typeName = "Prediction")
+  public CompletableFuture<Integer> label(final Prediction prediction, final DataLoader<Prediction, Double> scores) {
+    return scores.load(prediction).thenApply(probability -> probability >= 0.5D ? 1 : 0);
+  }
+
+  /**
+   * Score the predictions, one dense pass per model: the rows of a model are copied into a single dense block, their
+   * logits computed with the vector kernels and the sigmoid applied to all of them at once. The rows were checked
+   * against their model by {@link #predict}.
+   */
+  private double[] score(final List<Prediction> predictions) {
+    final Map<ModelInput, List<Integer>> byModel = new IdentityHashMap<>();
+    for (int k = 0; k < predictions.size(); k++) {
+      byModel.computeIfAbsent(predictions.get(k).model(), model -> new ArrayList<>()).add(k);
+    }
+
+    final double[] probabilities = new double[predictions.size()];
+    byModel.forEach((model, indexes) -> {
+      final double[] w = model.w().stream().mapToDouble(Double::doubleValue).toArray();
+      final int n = w.length;
+      final double[] values = new double[indexes.size() * n];
+      for (int i = 0; i < indexes.size(); i++) {
+        final List<Double> row = predictions.get(indexes.get(i)).x();
+        for (int j = 0; j < n; j++) {
+          values[i * n + j] = row.get(j);
+        }
+      }
+      final double[] scores = new double[indexes.size()];
+      this.predictionService.predict(new DenseDataset(values, indexes.size(), n), w, model.b(), ModelType.LOGISTIC,
+          scores);
+      for (int i = 0; i < scores.length; i++) {
+        probabilities[indexes.get(i)] = scores[i];
+      }
+    });
+    return probabilities;
+  }
+
+  private static TrainingJobRequest toRequest(final TrainingInput input) {
+    GradientDescentOptions options = GradientDescentOptions.defaults()
+        .withNumericBackend(input.backend())
+        .withFeatureScaling(input.featureScaling())
+        .withOptimizer(input.optimizer())
+        .withStepSize(input.stepSize())
+        .withSolver(input.solver());
+    if (Objects.nonNull(input.costHistoryInterval())) {
+      options = options.withCostHistoryInterval(input.costHistoryInterval());
+    }
+    if (Objects.nonNull(input.costTolerance())) {
+      options = options.withCostTolerance(input.costTolerance());
+    }
+    if (Objects.nonNull(input.gradientTolerance())) {
+      options = options.withGradientTolerance(input.gradientTolerance());
+    }
+    return TrainingJobRequest.builder()
+        .x(toMatrix(input.x()))
+        .y(toVector(input.y(), "y"))
+        .w(toVector(input.w(), "w"))
+        .b(BigDecimal.valueOf(input.b()))
+        .alpha(BigDecimal.valueOf(input.alpha()))
+        .numberOfIterations(input.numberOfIterations())
+        .options(options)
+        .build();
+  }
+
+  private static List<List<BigDecimal>> toMatrix(final List<List<Double>> x) {
+    Utils.validateList(x, "x");
+    return x.stream().map(row -> toVector(row, "x[i]")).toList();
+  }
+
+  private static List<BigDecimal> toVector(final List<Double> values, final String name) {
+    Utils.validateList(values, name);
+    return values.stream().map(BigDecimal::valueOf).toList();
+  }
+}
@@ -0,0 +1,15 @@
+package at.mavila.linearr;
+
+import java.util.List;
+
+/**
+ * GraphQL input of the logistic cost and gradient.
+ *
+ * @param x       (ndarray (m,n)): Data, m examples with n features.
+ * @param y       (ndarray (m,)): target values.
+ * @param w       (ndarray (n,)): model parameters.
+ * @param b       (scalar): model parameter.
+ * @param backend arithmetic of the computation, the configured one when null.
+ */
+public record LogisticInput(List<List<Double>> x, List<Double> y, List<Double> w, double b, NumericBackend backend) {
+}
@@ -0,0 +1,188 @@
+package at.mavila.linearr;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Feature matrix backed by the memory mapped columns of a {@link ColumnarDatasetFormat} file.
+ * Values are read in place with absolute gets, which do not touch the buffer positions, so any number of threads can
+ * iterate the same dataset. The row operations walk the n columns at the same position, touching n pages per row;
+ * the block operations, {@link #dot(int, int, double[], double[])} and {@link #axpy(int, int, double[], double[])},
+ * go over a block of consecutive rows column by column instead, so every column is read sequentially once per block.
+ * The gradient kernels use them for ranges of rows.
+ */
+public final class MappedColumnarDataset implements FeatureMatrix {
+
+  /**
+   * Rows of a block operation the kernels use: 8 KiB of every double column.
+   */
+  static final int BLOCK_ROWS = 1024;
+
+  private final int m;
+  private final int n;
+  private final ColumnType type;
+  private final DoubleBuffer[] doubleColumns;
+  private final FloatBuffer[] floatColumns;
+  private final DoubleBuffer labels;
+
+  /**
+   * Wrap mapped columns, see {@link ColumnarDatasetFormat#map(java.nio.file.Path)}.
+   *
+   * @param m       number of examples.
+   * @param n       number of features.
+   * @param type    storage type of the feature columns.
+   * @param columns the n feature columns, already in little-endian order.
+   * @param labels  the label column.
+   */
+  MappedColumnarDataset(final int m,
+                        final int n,
+                        final ColumnType type,
+                        final ByteBuffer[] columns,
+                        final DoubleBuffer labels) {
+    this.m = m;
+    this.n = n;
+    this.type = type;
+    this.labels = labels;
+    if (type == ColumnType.FLOAT32) {
+      this.doubleColumns = null;
+      this.floatColumns = new FloatBuffer[n];
+      for (int j = 0; j < n; j++) {
+        this.floatColumns[j] = columns[j].asFloatBuffer();
+      }
+    } else {
+      this.floatColumns = null;
+      this.doubleColumns = new DoubleBuffer[n];
+      for (int j = 0; j < n; j++) {
+        this.doubleColumns[j] = columns[j].asDoubleBuffer();
+      }
+    }
+  }
+
+  @Override
+  public int m() {
+    return this.m;
+  }
+
+  @Override
+  public int n() {
+    return this.n;
+  }
+
+  /**
+   * Storage type of the feature columns.
+   *
+   * @return the column type.
+   */
+  public ColumnType type() {
+    return this.type;
+  }
+
+  /**
+   * Value of a single feature.
+   *
+   * @param i the row index.
+   * @param j the column index.
+   * @return the value at row i and column j.
+   */
+  public double get(final int i, final int j) {
+    return this.type == ColumnType.FLOAT32 ? this.floatColumns[j].get(i) : this.doubleColumns[j].get(i);
+  }
+
+  /**
+   * Copy the label column onto the heap, m doubles, which the training services take as an array.
+   *
+   * @return the target values.
+   */
+  public double[] labels() {
+    final double[] y = new double[this.m];
+    this.labels.get(0, y);
+    return y;
+  }
+
+  @Override
+  public double dot(final int i, final double[] w) {
+    double sum = 0D;
+    if (this.type == ColumnType.FLOAT32) {
+      for (int j = 0; j < this.n; j++) {
+        sum += this.floatColumns[j].get(i) * w[j];
+      }
+    } else {
+      for (int j = 0; j < this.n; j++) {
+        sum += this.doubleColumns[j].get(i) * w[j];
+      }
+    }
+    return sum;
+  }
+
+  @Override
+  public void axpy(final int i, final double alpha, final double[] y) {
+    if (this.type == ColumnType.FLOAT32) {
+      for (int j = 0; j < this.n; j++) {
+        y[j] += alpha * this.floatColumns[j].get(i);
+      }
+    } else {
+      for (int j = 0; j < this.n; j++) {
+        y[j] += alpha * this.doubleColumns[j].get(i);
+      }
+    }
+  }
+
+  /**
+   * Dot products of a block of consecutive rows with a vector, column by column. The sums are taken in the order of
+   * {@link #dot(int, double[])}, so the results are the same.
+   *
+   * @param from first row, inclusive.
+   * @param to   last row, exclusive.
+   * @param w    the vector, at least n long.
+   * @param z    where x[from + k] &middot; w is written, at least to - from long.
+   */
+  public void dot(final int from, final int to, final double[] w, final double[] z) {
+    final int length = to - from;
+    Arrays.fill(z, 0, length, 0D);
+    for (int j = 0; j < this.n; j++) {
+      final double wj = w[j];
+      if (this.type == ColumnType.FLOAT32) {
+        final FloatBuffer column = this.floatColumns[j];
+        for (int k = 0; k < length; k++) {
+          z[k] += column.get(from + k) * wj;
+        }
+      } else {
+        final DoubleBuffer column = this.doubleColumns[j];
+        for (int k = 0; k < length; k++) {
+          z[k] += column.get(from + k) * wj;
+        }
+      }
+    }
+  }
+
+  /**
+   * Accumulate scaled rows of a block of consecutive rows into a vector, y = y + sum(alpha[k] * x[from + k]), column
+   * by column. Every y[j] is updated in the order of repeated {@link #axpy(int, double, double[])} calls, so the
+   * results are the same.
+   *
+   * @param from  first row, inclusive.
+   * @param to    last row, exclusive.
+   * @param alpha the scale factors, at least to - from long.
+   * @param y     the vector to update in place, at least n long.
+   */
+  public void axpy(final int from, final int to, final double[] alpha, final double[] y) {
+    final int length = to - from;
+    for (int j = 0; j < this.n; j++) {
+      double yj = y[j];
+      if (this.type == ColumnType.FLOAT32) {
+        final FloatBuffer column = this.floatColumns[j];
+        for (int k = 0; k < length; k++) {
+          yj += alpha[k] * column.get(from + k);
+        }
+      } else {
+        final DoubleBuffer column = this.doubleColumns[j];
+        for (int k = 0; k < length; k++) {
+          yj += alpha[k] * column.get(from + k);
+        }
+      }
+      y[j] = yj;
+    }
+  }
+}
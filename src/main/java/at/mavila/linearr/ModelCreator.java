@@ -19,4 +19,18 @@ public final class ModelCreator {
   public static BigDecimal createModel(BigDecimal i, BigDecimal wValid, BigDecimal bValid) {
     return wValid.multiply(i).add(bValid);
   }
+
+  /**
+   * Evaluate the model on a row of a feature matrix, in double precision and without allocating.
+   * Apply the formula: w . x[i] + b
+   *
+   * @param x the feature matrix
+   * @param i the row index
+   * @param w the weights, n long
+   * @param b the bias
+   * @return the model at row i
+   */
+  public static double createModel(FeatureMatrix x, int i, double[] w, double b) {
+    return x.dot(i, w) + b;
+  }
 }
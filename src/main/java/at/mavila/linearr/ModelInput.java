@@ -0,0 +1,12 @@
+package at.mavila.linearr;
+
+import java.util.List;
+
+/**
+ * GraphQL input of a trained logistic model.
+ *
+ * @param w (ndarray (n,)): model parameters.
+ * @param b (scalar): model parameter.
+ */
+public record ModelInput(List<Double> w, double b) {
+}
@@ -0,0 +1,278 @@
+package at.mavila.linearr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory store of trained models, keyed by identifier and version. The models together stay within
+ * {@code linearr.model-registry-bytes}; registering beyond it evicts the least recently used ones.
+ * <p>
+ * Lookups and scoring neither lock nor allocate: the versions of an identifier are a copy-on-write array behind a
+ * concurrent map, and only registering and removing are serialized. Recency is approximate: every registration starts
+ * a new epoch, a lookup stamps the model with the current one, and the models used in the same epoch count as equally
+ * recent, the oldest registered first. A caller scoring many rows can still keep the {@link RegisteredModel} returned
+ * by {@link #find(String, long)} and call {@link #predict(RegisteredModel, double[], int)} for every row, which skips
+ * the lookup.
+ */
+@Service
+@Slf4j
+public class ModelRegistryService {
+
+  private final LinearRegressionProperties properties;
+  private final ConcurrentMap<String, Versions> models = new ConcurrentHashMap<>();
+  private volatile long epoch;
+  private long sizeInBytes;
+
+  /**
+   * Create the registry.
+   *
+   * @param properties the application properties, for the byte budget and the sigmoid implementation.
+   */
+  @Autowired
+  public ModelRegistryService(final LinearRegressionProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Register the outcome of a gradient descent run as the next version of a model.
+   *
+   * @param id     the model identifier.
+   * @param type   how the model turns the linear combination into a prediction.
+   * @param result the trained parameters.
+   * @return the registered model, with its version.
+   * @throws IllegalArgumentException if an argument is null or empty, or the model is larger than the budget.
+   */
+  public RegisteredModel register(final String id, final ModelType type, final ResultGradientDescent result) {
+    Utils.validateNotNull(result, "result");
+    Utils.validateNotNull(result.b(), "b");
+    return register(id, type, Utils.toDoubleArray(result.w(), "w"), result.b().doubleValue());
+  }
+
+  /**
+   * Register parameters as the next version of a model. Versions of an identifier start at 1 and are never reused,
+   * even once every version of the identifier was evicted or removed, so an (id, version) pair always names the same
+   * parameters.
+   *
+   * @param id   the model identifier.
+   * @param type how the model turns the linear combination into a prediction.
+   * @param w    the parameters w, copied.
+   * @param b    the parameter b.
+   * @return the registered model, with its version.
+   * @throws IllegalArgumentException if an argument is null or empty, or the model is larger than the budget.
+   */
+  public synchronized RegisteredModel register(final String id, final ModelType type, final double[] w,
+                                               final double b) {
+    Utils.validateNotNull(w, "w");
+    final Versions existing = Objects.isNull(id) ? null : this.models.get(id);
+    final long version = Objects.isNull(existing) ? 1L : existing.latest + 1L;
+    final RegisteredModel model = new RegisteredModel(id, version, type, w.clone(), b);
+    final long budget = this.properties.modelRegistryBytes();
+    if (model.sizeInBytes() > budget) {
+      throw new IllegalArgumentException("model is larger than the registry budget");
+    }
+    final Slot slot = new Slot(model, ++this.epoch);
+    this.models.computeIfAbsent(id, key -> new Versions()).add(slot);
+    this.sizeInBytes += model.sizeInBytes();
+    if (this.sizeInBytes > budget) {
+      evict(budget, slot);
+    }
+    return model;
+  }
+
+  /**
+   * Remove the least recently used models, never the one just registered, until the budget is met.
+   */
+  private void evict(final long budget, final Slot registered) {
+    final List<Slot> slots = new ArrayList<>();
+    for (final Versions versions : this.models.values()) {
+      for (final Slot slot : versions.slots) {
+        if (slot != registered) {
+          slots.add(slot);
+        }
+      }
+    }
+    slots.sort(Comparator.<Slot>comparingLong(slot -> slot.lastUsed).thenComparingLong(slot -> slot.sequence));
+    for (int k = 0; this.sizeInBytes > budget; k++) {
+      final RegisteredModel evicted = slots.get(k).model;
+      unregister(evicted.id(), evicted.version());
+      log.debug("Evicted model {} version {}", evicted.id(), evicted.version());
+    }
+  }
+
+  private RegisteredModel unregister(final String id, final long version) {
+    final Versions versions = this.models.get(id);
+    final Slot removed = Objects.isNull(versions) ? null : versions.remove(version);
+    if (Objects.isNull(removed)) {
+      return null;
+    }
+    this.sizeInBytes -= removed.model.sizeInBytes();
+    return removed.model;
+  }
+
+  /**
+   * Look up a version of a model, marking it as recently used.
+   *
+   * @param id      the model identifier.
+   * @param version the version.
+   * @return the model, empty if it was never registered, was evicted or removed.
+   */
+  public Optional<RegisteredModel> find(final String id, final long version) {
+    return Optional.ofNullable(lookup(id, version));
+  }
+
+  /**
+   * Look up the latest version of a model, marking it as recently used.
+   *
+   * @param id the model identifier.
+   * @return the model, empty if it was never registered or its latest version was evicted or removed.
+   */
+  public Optional<RegisteredModel> find(final String id) {
+    final Versions versions = Objects.isNull(id) ? null : this.models.get(id);
+    return Objects.isNull(versions) ? Optional.empty() : Optional.ofNullable(lookup(id, versions.latest));
+  }
+
+  private RegisteredModel lookup(final String id, final long version) {
+    final Versions versions = Objects.isNull(id) ? null : this.models.get(id);
+    final Slot slot = Objects.isNull(versions) ? null : versions.get(version);
+    if (Objects.isNull(slot)) {
+      return null;
+    }
+    final long current = this.epoch;
+    if (slot.lastUsed != current) {
+      slot.lastUsed = current;
+    }
+    return slot.model;
+  }
+
+  /**
+   * Remove a version of a model.
+   *
+   * @param id      the model identifier.
+   * @param version the version.
+   * @return whether the model was registered.
+   */
+  public synchronized boolean remove(final String id, final long version) {
+    return Objects.nonNull(unregister(id, version));
+  }
+
+  /**
+   * Total footprint of the registered models.
+   *
+   * @return the sum of {@link RegisteredModel#sizeInBytes()}, at most {@code linearr.model-registry-bytes}.
+   */
+  public synchronized long sizeInBytes() {
+    return this.sizeInBytes;
+  }
+
+  /**
+   * Score a row with a version of a model, without locking nor allocating.
+   * <pre>
+   * register("price", LINEAR, [2], 1) then predict("price", 1, [3]) = 7.0
+   * predict("unknown", 1, [3]) = IllegalArgumentException
+   * </pre>
+   *
+   * @param id      the model identifier.
+   * @param version the version.
+   * @param x       the features, n long.
+   * @return the prediction: w . x + b for linear models, sigmoid(w . x + b) for logistic ones.
+   * @throws IllegalArgumentException if the model is not registered or x does not have n features.
+   */
+  public double predict(final String id, final long version, final double[] x) {
+    final RegisteredModel model = lookup(id, version);
+    if (Objects.isNull(model)) {
+      throw new IllegalArgumentException("model " + id + " version " + version + " is not registered");
+    }
+    Utils.validateNotNull(x, "x");
+    if (x.length != model.n()) {
+      throw new IllegalArgumentException("x does not have " + model.n() + " features");
+    }
+    return model.predict(x, 0, this.properties.sigmoidApproximation());
+  }
+
+  /**
+   * Score a row of a row-major block with a model already looked up, without locking nor allocating.
+   *
+   * @param model  the model.
+   * @param x      the features of one or more rows, row-major.
+   * @param offset the offset of the row in x.
+   * @return the prediction: w . x + b for linear models, sigmoid(w . x + b) for logistic ones.
+   * @throws IllegalArgumentException if an argument is null or the row does not fit in x.
+   */
+  public double predict(final RegisteredModel model, final double[] x, final int offset) {
+    Utils.validateNotNull(model, "model");
+    Utils.validateNotNull(x, "x");
+    if (offset < 0 || offset > x.length - model.n()) {
+      throw new IllegalArgumentException("x does not have " + model.n() + " features at offset " + offset);
+    }
+    return model.predict(x, offset, this.properties.sigmoidApproximation());
+  }
+
+  /**
+   * A registered model with the epoch of its last lookup.
+   */
+  private static final class Slot {
+
+    private final RegisteredModel model;
+    private final long sequence;
+    private volatile long lastUsed;
+
+    private Slot(final RegisteredModel model, final long sequence) {
+      this.model = model;
+      this.sequence = sequence;
+      this.lastUsed = sequence;
+    }
+  }
+
+  /**
+   * The registered versions of an identifier, sorted by version. Written under the lock of the registry, read without.
+   * It is kept once empty, as the tombstone that remembers the latest version given out.
+   */
+  private static final class Versions {
+
+    private volatile Slot[] slots = new Slot[0];
+    private volatile long latest;
+
+    private Slot get(final long version) {
+      final Slot[] current = this.slots;
+      int low = 0;
+      int high = current.length - 1;
+      while (low <= high) {
+        final int middle = (low + high) >>> 1;
+        final long found = current[middle].model.version();
+        if (found < version) {
+          low = middle + 1;
+        } else if (found > version) {
+          high = middle - 1;
+        } else {
+          return current[middle];
+        }
+      }
+      return null;
+    }
+
+    private void add(final Slot slot) {
+      //Versions only grow, appending keeps the order
+      final Slot[] grown = Arrays.copyOf(this.slots, this.slots.length + 1);
+      grown[grown.length - 1] = slot;
+      this.slots = grown;
+      this.latest = slot.model.version();
+    }
+
+    private Slot remove(final long version) {
+      final Slot slot = get(version);
+      if (Objects.nonNull(slot)) {
+        this.slots = Arrays.stream(this.slots).filter(other -> other != slot).toArray(Slot[]::new);
+      }
+      return slot;
+    }
+  }
+}
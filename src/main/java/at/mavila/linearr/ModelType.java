@@ -0,0 +1,36 @@
+package at.mavila.linearr;
+
+/**
+ * How a registered model turns the linear combination z = w . x + b into a prediction.
+ */
+public enum ModelType {
+
+  /**
+   * Linear regression, the prediction is z itself, as in {@link ModelCreator#createModel}.
+   */
+  LINEAR {
+    @Override
+    public double apply(final double z, final SigmoidApproximation approximation) {
+      return z;
+    }
+  },
+
+  /**
+   * Logistic regression, the prediction is the probability sigmoid(z).
+   */
+  LOGISTIC {
+    @Override
+    public double apply(final double z, final SigmoidApproximation approximation) {
+      return approximation.apply(z);
+    }
+  };
+
+  /**
+   * Turn the linear combination of a row into a prediction.
+   *
+   * @param z             w . x + b for the row.
+   * @param approximation the sigmoid implementation of logistic models.
+   * @return the prediction.
+   */
+  public abstract double apply(double z, SigmoidApproximation approximation);
+}
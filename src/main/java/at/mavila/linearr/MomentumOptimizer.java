@@ -0,0 +1,30 @@
+package at.mavila.linearr;
+
+/**
+ * Heavy ball and Nesterov momentum. The Nesterov variant uses the usual reformulation in terms of the current
+ * parameters, w = w + momentum * v - alpha * djDw after the velocity update, so it needs no extra gradient pass at the
+ * look-ahead point.
+ */
+final class MomentumOptimizer implements Optimizer {
+
+  private final double momentum;
+  private final boolean nesterov;
+  private final double[] velocity;
+  private double velocityB;
+
+  MomentumOptimizer(final int n, final double momentum, final boolean nesterov) {
+    this.momentum = momentum;
+    this.nesterov = nesterov;
+    this.velocity = new double[n];
+  }
+
+  @Override
+  public double step(final double alpha, final double[] w, final double b, final double[] djDw, final double djDb) {
+    for (int j = 0; j < w.length; j++) {
+      this.velocity[j] = this.momentum * this.velocity[j] - alpha * djDw[j];
+      w[j] += this.nesterov ? this.momentum * this.velocity[j] - alpha * djDw[j] : this.velocity[j];
+    }
+    this.velocityB = this.momentum * this.velocityB - alpha * djDb;
+    return b + (this.nesterov ? this.momentum * this.velocityB - alpha * djDb : this.velocityB);
+  }
+}
@@ -0,0 +1,288 @@
+package at.mavila.linearr;
+
+import java.util.Arrays;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * Sufficient statistics of the linear regression model f(x) = w . x + b with n features: the count, the means of the
+ * features and of y, the centered scatter matrix of the features and their centered products with y. This is the
+ * n-feature counterpart of {@link UnivariateStatistics}, with the same Welford updates and Chan merges. Adding or
+ * retracting a sample costs O(n^2), and the least-squares parameters are solved on demand from the n x n normal
+ * equations, without going over the samples again. Not thread safe: every thread or shard keeps its own statistics and
+ * they are merged.
+ */
+public final class MultivariateStatistics {
+
+  /**
+   * Smallest pivot of the Cholesky decomposition, relative to the largest diagonal entry of the scatter matrix, so
+   * the rank test does not depend on the scale of the features.
+   */
+  private static final double RANK_TOLERANCE = 1e-12D;
+
+  private final int n;
+  private long count;
+  private final double[] meanX;
+  private double meanY;
+  /**
+   * Upper triangle of the centered scatter matrix, row-major n x n; the lower triangle is not maintained.
+   */
+  private final double[] sXX;
+  private final double[] sXY;
+  private double sYY;
+  private final double[] delta;
+  private final double[] row;
+
+  /**
+   * Empty statistics.
+   *
+   * @param n the number of features.
+   * @throws IllegalArgumentException if n is not positive.
+   */
+  public MultivariateStatistics(final int n) {
+    if (n <= 0) {
+      throw new IllegalArgumentException("n must be positive");
+    }
+    this.n = n;
+    this.meanX = new double[n];
+    this.sXX = new double[n * n];
+    this.sXY = new double[n];
+    this.delta = new double[n];
+    this.row = new double[n];
+  }
+
+  /**
+   * Number of features.
+   *
+   * @return n.
+   */
+  public int n() {
+    return this.n;
+  }
+
+  /**
+   * Number of samples.
+   *
+   * @return the number of samples added and not retracted.
+   */
+  public long count() {
+    return this.count;
+  }
+
+  /**
+   * Add a sample.
+   *
+   * @param x the features, n long.
+   * @param y the target value.
+   * @return these statistics.
+   * @throws IllegalArgumentException if x is null or does not have n values.
+   */
+  public MultivariateStatistics add(final double[] x, final double y) {
+    validate(x);
+    this.count++;
+    final double[] dx = this.delta;
+    for (int j = 0; j < this.n; j++) {
+      dx[j] = x[j] - this.meanX[j];
+      this.meanX[j] += dx[j] / this.count;
+    }
+    final double dy = y - this.meanY;
+    this.meanY += dy / this.count;
+    update(x, y, 1D);
+    this.sYY += dy * (y - this.meanY);
+    return this;
+  }
+
+  /**
+   * Add a row of a feature matrix, such as a {@link DenseDataset}, read into a buffer of these statistics.
+   *
+   * @param x the feature matrix, with n features.
+   * @param i the row index.
+   * @param y the target value of the row.
+   * @return these statistics.
+   * @throws IllegalArgumentException if x is null or does not have n features.
+   */
+  public MultivariateStatistics add(final FeatureMatrix x, final int i, final double y) {
+    Utils.validateNotNull(x, "x");
+    if (x.n() != this.n) {
+      throw new IllegalArgumentException("x does not have " + this.n + " features");
+    }
+    Arrays.fill(this.row, 0D);
+    x.axpy(i, 1D, this.row);
+    return add(this.row, y);
+  }
+
+  /**
+   * Retract a sample previously added, the reverse of {@link #add(double[], double)}.
+   *
+   * @param x the features, n long.
+   * @param y the target value.
+   * @return these statistics.
+   * @throws IllegalArgumentException if x is invalid or there are no samples.
+   */
+  public MultivariateStatistics remove(final double[] x, final double y) {
+    validate(x);
+    if (this.count == 0L) {
+      throw new IllegalArgumentException("there are no points to remove");
+    }
+    if (this.count == 1L) {
+      copy(new MultivariateStatistics(this.n));
+      return this;
+    }
+    this.count--;
+    //delta holds x - mean without the sample, the update is then subtracted against the mean with it
+    final double[] dx = this.delta;
+    for (int j = 0; j < this.n; j++) {
+      final double mean = this.meanX[j] - (x[j] - this.meanX[j]) / this.count;
+      dx[j] = x[j] - mean;
+    }
+    final double meanY = this.meanY - (y - this.meanY) / this.count;
+    update(x, y, -1D);
+    this.sYY = Math.max(0D, this.sYY - (y - meanY) * (y - this.meanY));
+    for (int j = 0; j < this.n; j++) {
+      this.meanX[j] = x[j] - dx[j];
+    }
+    this.meanY = meanY;
+    return this;
+  }
+
+  /**
+   * Merge partial statistics, such as the ones of another shard of the samples, into these ones.
+   *
+   * @param other the partial statistics to merge, with the same number of features.
+   * @return these statistics.
+   * @throws IllegalArgumentException if the numbers of features differ.
+   */
+  public MultivariateStatistics merge(final MultivariateStatistics other) {
+    if (other.n != this.n) {
+      throw new IllegalArgumentException("other does not have " + this.n + " features");
+    }
+    if (other.count == 0L) {
+      return this;
+    }
+    if (this.count == 0L) {
+      copy(other);
+      return this;
+    }
+    final long total = this.count + other.count;
+    final double weight = (double) this.count * other.count / total;
+    final double[] d = this.delta;
+    for (int j = 0; j < this.n; j++) {
+      d[j] = other.meanX[j] - this.meanX[j];
+    }
+    final double dy = other.meanY - this.meanY;
+    for (int j = 0; j < this.n; j++) {
+      for (int k = j; k < this.n; k++) {
+        this.sXX[j * this.n + k] += other.sXX[j * this.n + k] + weight * d[j] * d[k];
+      }
+      this.sXY[j] += other.sXY[j] + weight * d[j] * dy;
+      this.meanX[j] += d[j] * other.count / total;
+    }
+    this.sYY += other.sYY + weight * dy * dy;
+    this.meanY += dy * other.count / total;
+    this.count = total;
+    return this;
+  }
+
+  /**
+   * Solve the normal equations for the least-squares parameters, with a Cholesky decomposition of the scatter matrix.
+   *
+   * @return w, b and the cost at them.
+   * @throws IllegalArgumentException if there are no samples or some feature is constant or a linear combination of
+   *                                  the others.
+   */
+  public ResultLeastSquares solve() {
+    if (this.count == 0L) {
+      throw new IllegalArgumentException("x is empty");
+    }
+    final double[][] scatter = new double[this.n][this.n];
+    double maxDiagonal = 0D;
+    for (int j = 0; j < this.n; j++) {
+      maxDiagonal = Math.max(maxDiagonal, this.sXX[j * this.n + j]);
+      for (int k = j; k < this.n; k++) {
+        scatter[j][k] = this.sXX[j * this.n + k];
+        scatter[k][j] = this.sXX[j * this.n + k];
+      }
+    }
+    final RealVector solution;
+    try {
+      solution = new CholeskyDecomposition(new Array2DRowRealMatrix(scatter, false),
+          CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD, RANK_TOLERANCE * maxDiagonal)
+          .getSolver()
+          .solve(new ArrayRealVector(this.sXY));
+    } catch (NonPositiveDefiniteMatrixException e) {
+      throw new IllegalArgumentException("x is rank deficient", e);
+    }
+    final double[] w = solution.toArray();
+    final double b = this.meanY - VectorKernels.dot(w, this.meanX);
+    return ResultLeastSquares.builder()
+        .w(w)
+        .b(b)
+        .cost(cost(w, b))
+        .build();
+  }
+
+  /**
+   * Cost of the model at any parameters, 1/2m * sum((w . x + b - y)^2), without going over the samples again.
+   *
+   * @param w the parameters w, n long.
+   * @param b the parameter b.
+   * @return the cost.
+   * @throws IllegalArgumentException if w is invalid or there are no samples.
+   */
+  public double cost(final double[] w, final double b) {
+    Utils.validateNotNull(w, "w");
+    if (w.length != this.n) {
+      throw new IllegalArgumentException("w does not have " + this.n + " values");
+    }
+    if (this.count == 0L) {
+      throw new IllegalArgumentException("x is empty");
+    }
+    final double meanResidual = VectorKernels.dot(w, this.meanX) + b - this.meanY;
+    double quadratic = 0D;
+    for (int j = 0; j < this.n; j++) {
+      quadratic += w[j] * w[j] * this.sXX[j * this.n + j];
+      for (int k = j + 1; k < this.n; k++) {
+        quadratic += 2D * w[j] * w[k] * this.sXX[j * this.n + k];
+      }
+    }
+    final double squares = this.count * meanResidual * meanResidual + quadratic
+        - 2D * VectorKernels.dot(w, this.sXY) + this.sYY;
+    return Math.max(0D, squares) / (2D * this.count);
+  }
+
+  /**
+   * Add sign * delta (x - mean)^T to the scatter matrix and sign * delta (y - meanY) to the products with y, where
+   * mean and meanY are the current means.
+   */
+  private void update(final double[] x, final double y, final double sign) {
+    final double[] dx = this.delta;
+    final double ry = sign * (y - this.meanY);
+    for (int j = 0; j < this.n; j++) {
+      final double dj = sign * dx[j];
+      final int row = j * this.n;
+      for (int k = j; k < this.n; k++) {
+        this.sXX[row + k] += dj * (x[k] - this.meanX[k]);
+      }
+      this.sXY[j] += dx[j] * ry;
+    }
+  }
+
+  private void validate(final double[] x) {
+    Utils.validateNotNull(x, "x");
+    if (x.length != this.n) {
+      throw new IllegalArgumentException("x does not have " + this.n + " features");
+    }
+  }
+
+  private void copy(final MultivariateStatistics other) {
+    this.count = other.count;
+    System.arraycopy(other.meanX, 0, this.meanX, 0, this.n);
+    this.meanY = other.meanY;
+    System.arraycopy(other.sXX, 0, this.sXX, 0, this.sXX.length);
+    System.arraycopy(other.sXY, 0, this.sXY, 0, this.n);
+    this.sYY = other.sYY;
+  }
+}
@@ -0,0 +1,99 @@
+package at.mavila.linearr;
+
+import java.util.Arrays;
+
+/**
+ * Mutable running sums of one pass of the Newton solver over the augmented features (x, 1): the gradient, the upper
+ * triangle of the Hessian X^T S X with S = diag(p (1 - p)), and the log-loss. The last coordinate is the bias b.
+ * The rows are staged in a block buffer, so the Hessian is updated one row of it at a time over a whole block while
+ * that row stays in cache.
+ */
+final class NewtonAccumulator {
+
+  /**
+   * Rows staged per block of the Hessian update.
+   */
+  static final int BLOCK_ROWS = 64;
+
+  final int d;
+  final double[] gradient;
+  /**
+   * Upper triangle of the Hessian, row-major d x d; the lower triangle is not maintained.
+   */
+  final double[] hessian;
+  double cost;
+  final double[] row;
+  final double[] block;
+  final double[] weights;
+
+  /**
+   * Empty sums.
+   *
+   * @param n the number of features, the sums are over n + 1 parameters.
+   */
+  NewtonAccumulator(final int n) {
+    this.d = n + 1;
+    this.gradient = new double[this.d];
+    this.hessian = new double[this.d * this.d];
+    this.row = new double[n];
+    this.block = new double[BLOCK_ROWS * this.d];
+    this.weights = new double[BLOCK_ROWS];
+  }
+
+  /**
+   * Clear the sums so the accumulator can be reused for another pass.
+   */
+  void reset() {
+    Arrays.fill(this.gradient, 0D);
+    Arrays.fill(this.hessian, 0D);
+    this.cost = 0D;
+  }
+
+  /**
+   * Add the sums of another accumulator of the same size to this one.
+   *
+   * @param other the accumulator to merge.
+   */
+  void merge(final NewtonAccumulator other) {
+    VectorKernels.axpy(1D, other.gradient, this.gradient);
+    VectorKernels.axpy(1D, other.hessian, this.hessian);
+    this.cost += other.cost;
+  }
+
+  /**
+   * Divide the sums by the number of samples they were accumulated over.
+   *
+   * @param m the number of samples.
+   */
+  void average(final long m) {
+    for (int j = 0; j < this.d; j++) {
+      this.gradient[j] /= m;
+      for (int k = j; k < this.d; k++) {
+        this.hessian[j * this.d + k] /= m;
+      }
+    }
+    this.cost /= m;
+  }
+
+  /**
+   * Add the staged rows of the block to the Hessian: for every row j of the triangle, the contributions of all the
+   * staged rows.
+   *
+   * @param rows the number of rows staged in the block.
+   */
+  void flush(final int rows) {
+    for (int j = 0; j < this.d; j++) {
+      final int offset = j * this.d;
+      for (int r = 0; r < rows; r++) {
+        final int row = r * this.d;
+        final double c = this.weights[r] * this.block[row + j];
+        if (c == 0D) {
+          continue;
+        }
+        for (int k = j; k < this.d; k++) {
+          this.hessian[offset + k] += c * this.block[row + k];
+        }
+      }
+    }
+  }
+}
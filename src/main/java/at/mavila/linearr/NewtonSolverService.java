@@ -0,0 +1,336 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RecursiveTask;
+import lombok.AllArgsConstructor;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Newton's method (iteratively reweighted least squares) for the logistic model of
+ * {@link ComputeGradientLogisticService} and {@link ComputeCostLogisticService}. Every iteration makes one pass that
+ * yields the gradient, the Hessian X^T S X / m with S = diag(f_wb (1 - f_wb)) and the cost, and solves
+ * H delta = gradient with a Cholesky decomposition of the (n + 1) x (n + 1) Hessian. It converges in tens of
+ * iterations where {@link GradientDescentService} needs thousands, at O(m n^2) per pass and O(n^3) per solve, so it
+ * suits moderate feature counts (a few hundred).
+ * <p>
+ * When the Hessian is not numerically positive definite, such as on separable data where f_wb saturates, or when a
+ * step raises the cost, the step is retaken from the same point with a damping lambda added to the diagonal of H, ten
+ * times larger each time. Accepted steps divide lambda by ten again, so well conditioned runs end with pure Newton
+ * steps.
+ */
+@Service
+@AllArgsConstructor(onConstructor_ = @Autowired)
+public class NewtonSolverService {
+
+  /**
+   * Smallest damping, relative to the largest diagonal entry of the Hessian.
+   */
+  static final double MIN_DAMPING = 1e-10D;
+
+  private static final int MAX_DAMPING_ATTEMPTS = 40;
+
+  private final SigmoidService sigmoidService;
+  private final LinearRegressionProperties properties;
+  private final TrainingMetrics metrics;
+
+  /**
+   * Fit the logistic model with Newton's method.
+   * <pre>
+   * Usage:
+   * solve([[0.5, 1.5], [1, 1], [1.5, 0.5], [3, 0.5], [2, 2], [1, 2.5]], [0, 1, 0, 1, 1, 0], [0, 0], 0, 20,
+   *     defaults()) = w, b minimizing the log-loss, after at most 20 iterations
+   * </pre>
+   *
+   * @param x                  (ndarray (m,n)   : Data, m examples with n features
+   * @param y                  (ndarray (m,))   : target values
+   * @param wIn                (ndarray (n,)): Initial values of model parameters
+   * @param bIn                (scalar)      : Initial values of model parameter
+   * @param numberOfIterations (scalar) : maximum number of Newton iterations
+   * @param options            the stopping criteria, cost history, parallelism and progress listener, as for gradient
+   *                           descent; the components specific to gradient descent are ignored.
+   * @return the result of the run, with an empty alpha history.
+   * @throws IllegalArgumentException if the inputs are invalid.
+   */
+  public ResultGradientDescent solve(final List<List<BigDecimal>> x,
+                                     final List<BigDecimal> y,
+                                     final List<BigDecimal> wIn,
+                                     final BigDecimal bIn,
+                                     final long numberOfIterations,
+                                     final GradientDescentOptions options) {
+    Utils.validateNotNull(bIn, "b");
+    return solve(DenseDataset.of(x), Utils.toDoubleArray(y, "y"), Utils.toDoubleArray(wIn, "w"), bIn.doubleValue(),
+        numberOfIterations, options);
+  }
+
+  /**
+   * Fit the logistic model with Newton's method on a primitive feature matrix, such as a {@link DenseDataset}.
+   * The pass is split across {@link GradientDescentOptions#parallelism()} workers, each summing a contiguous range of
+   * rows into its own Hessian, and the Hessians are merged pairwise.
+   *
+   * @param x                  (ndarray (m,n)   : Data, m examples with n features
+   * @param y                  (ndarray (m,))   : target values
+   * @param wIn                (ndarray (n,)): Initial values of model parameters
+   * @param bIn                (scalar)      : Initial values of model parameter
+   * @param numberOfIterations (scalar) : maximum number of Newton iterations. A step that raises the cost is rejected
+   *                           and retaken with more damping; it is not counted, recorded in the cost history or
+   *                           tested against the stopping criteria.
+   * @param options            the stopping criteria, cost history, parallelism and progress listener.
+   * @return the result of the run, with an empty alpha history.
+   * @throws IllegalArgumentException if the inputs are invalid.
+   */
+  public ResultGradientDescent solve(final FeatureMatrix x,
+                                     final double[] y,
+                                     final double[] wIn,
+                                     final double bIn,
+                                     final long numberOfIterations,
+                                     final GradientDescentOptions options) {
+    Utils.validateDense(x, y, wIn);
+    Utils.validateNotNull(options, "options");
+    final int n = x.n();
+    final CostHistory jHistory = new CostHistory(options.historyCapacity(), options.costHistoryInterval());
+    final ConvergenceMonitor monitor = new ConvergenceMonitor(options);
+    //The sums at the current point, and the ones of the last accepted point to retake a rejected step from
+    NewtonAccumulator current = new NewtonAccumulator(n);
+    NewtonAccumulator accepted = new NewtonAccumulator(n);
+    final double[] w = wIn.clone();
+    final double[] acceptedW = new double[n];
+    double b = bIn;
+    double acceptedB = 0D;
+    double damping = 0D;
+    int rejected = 0;
+
+    long index = 0L;
+    StopReason stopReason = StopReason.MAX_ITERATIONS;
+    while (index < numberOfIterations) {
+      final long start = this.metrics.start();
+      current.reset();
+      accumulate(x, y, w, b, current, options.parallelism());
+      current.average(x.m());
+      final double cost = current.cost;
+      final boolean computeCost = monitor.isCostComputed(index);
+
+      if (index > 0L && !(cost <= accepted.cost)) {
+        //The step raised the cost: back to the accepted point, with more damping. The rejected point is neither
+        //recorded nor counted as an iteration
+        System.arraycopy(acceptedW, 0, w, 0, n);
+        b = acceptedB;
+        this.metrics.recordIteration(start, x.m());
+        if (++rejected > MAX_DAMPING_ATTEMPTS) {
+          //Even a step damped down to a fraction of the gradient does not lower the cost
+          stopReason = StopReason.COST_CONVERGED;
+          break;
+        }
+        damping = increase(damping, accepted);
+      } else {
+        rejected = 0;
+        if (computeCost) {
+          jHistory.add(index, cost);
+        }
+        damping = damping / 10D < MIN_DAMPING * maxDiagonal(current) ? 0D : damping / 10D;
+        final NewtonAccumulator swap = accepted;
+        accepted = current;
+        current = swap;
+        System.arraycopy(w, 0, acceptedW, 0, n);
+        acceptedB = b;
+      }
+
+      //Solve (H + damping I) delta = gradient, damping harder until H is numerically positive definite
+      double[] delta = null;
+      for (int attempt = 0; Objects.isNull(delta); attempt++) {
+        delta = newtonStep(accepted, damping);
+        if (Objects.isNull(delta)) {
+          if (attempt == MAX_DAMPING_ATTEMPTS) {
+            throw new IllegalStateException("the Hessian is not positive definite at any damping");
+          }
+          damping = increase(damping, accepted);
+        }
+      }
+      for (int j = 0; j < n; j++) {
+        w[j] -= delta[j];
+      }
+      b -= delta[n];
+      if (rejected > 0) {
+        continue;
+      }
+
+      index++;
+      final double gradientNorm = ConvergenceMonitor.norm(accepted.gradient, 0D);
+      this.metrics.recordIteration(start, x.m());
+      final StopReason reason = monitor.check(index, computeCost ? cost : Double.NaN, gradientNorm);
+      if (Objects.nonNull(reason)) {
+        stopReason = reason;
+        break;
+      }
+    }
+
+    return ResultGradientDescent.builder()
+        .w(Arrays.stream(w).mapToObj(BigDecimal::valueOf).toList())
+        .b(BigDecimal.valueOf(b))
+        .costHistory(jHistory.toList())
+        .costHistoryStride(jHistory.stride())
+        .iterations(index)
+        .alphaHistory(List.of())
+        .alphaHistoryStride(1L)
+        .stopReason(stopReason)
+        .build();
+  }
+
+  /**
+   * Add the gradient, Hessian and cost of all the rows to an accumulator, splitting the rows across workers when the
+   * dataset is large enough. Every worker sums into its own (n + 1)^2 Hessian, so there is one task per worker.
+   */
+  void accumulate(final FeatureMatrix x,
+                  final double[] y,
+                  final double[] w,
+                  final double b,
+                  final NewtonAccumulator accumulator,
+                  final int parallelism) {
+    final int m = x.m();
+    final int workers = ForkJoinPools.resolve(parallelism == 0 ? this.properties.gradientParallelism() : parallelism);
+    final int minimumRows = this.properties.gradientMinimumRowsPerTask();
+    if (workers == 1 || m < 2 * minimumRows) {
+      accumulate(x, y, w, b, 0, m, accumulator);
+      return;
+    }
+    final int rowsPerTask = Math.max(minimumRows, Math.ceilDiv(m, workers));
+    accumulator.merge(ForkJoinPools.get(workers).invoke(new HessianTask(this, x, y, w, b, 0, m, rowsPerTask)));
+  }
+
+  /**
+   * Add the gradient, Hessian and cost of the rows [from, to) to an accumulator, staging them block by block.
+   */
+  void accumulate(final FeatureMatrix x,
+                  final double[] y,
+                  final double[] w,
+                  final double b,
+                  final int from,
+                  final int to,
+                  final NewtonAccumulator accumulator) {
+    final int n = x.n();
+    final int d = accumulator.d;
+    final double[] block = accumulator.block;
+    double cost = 0D;
+    int staged = 0;
+    for (int i = from; i < to; i++) {
+      final int row = staged * d;
+      Arrays.fill(accumulator.row, 0D);
+      x.axpy(i, 1D, accumulator.row);
+      System.arraycopy(accumulator.row, 0, block, row, n);
+      block[row + n] = 1D;
+      final double z = VectorKernels.dot(block, row, w, n) + b;
+      final double fWbi = this.sigmoidService.sigmoid(z);
+      final double erri = fWbi - y[i];
+      for (int k = 0; k < d; k++) {
+        accumulator.gradient[k] += erri * block[row + k];
+      }
+      cost += ComputeCostLogisticService.logLoss(z, fWbi, y[i]);
+      accumulator.weights[staged] = fWbi * (1D - fWbi);
+      if (++staged == NewtonAccumulator.BLOCK_ROWS) {
+        accumulator.flush(staged);
+        staged = 0;
+      }
+    }
+    accumulator.flush(staged);
+    accumulator.cost += cost;
+  }
+
+  /**
+   * The Newton step of the sums at the accepted point.
+   *
+   * @return delta, n + 1 long with the step of b last, or null if H + damping I is not numerically positive definite.
+   */
+  private static double[] newtonStep(final NewtonAccumulator sums, final double damping) {
+    final int d = sums.d;
+    final double[][] hessian = new double[d][d];
+    for (int j = 0; j < d; j++) {
+      hessian[j][j] = sums.hessian[j * d + j] + damping;
+      for (int k = j + 1; k < d; k++) {
+        hessian[j][k] = sums.hessian[j * d + k];
+        hessian[k][j] = sums.hessian[j * d + k];
+      }
+    }
+    try {
+      return new CholeskyDecomposition(new Array2DRowRealMatrix(hessian, false))
+          .getSolver()
+          .solve(new ArrayRealVector(sums.gradient, false))
+          .toArray();
+    } catch (NonPositiveDefiniteMatrixException e) {
+      return null;
+    }
+  }
+
+  private static double increase(final double damping, final NewtonAccumulator sums) {
+    return damping == 0D ? Math.max(MIN_DAMPING * maxDiagonal(sums), Double.MIN_NORMAL) * 10D : damping * 10D;
+  }
+
+  private static double maxDiagonal(final NewtonAccumulator sums) {
+    double max = 0D;
+    for (int j = 0; j < sums.d; j++) {
+      max = Math.max(max, sums.hessian[j * sums.d + j]);
+    }
+    return max;
+  }
+
+  /**
+   * Fork/join task summing the Newton sums of a range of rows into its own accumulator.
+   * Ranges above the task size are halved, and the two halves are merged when both are done.
+   */
+  private static final class HessianTask extends RecursiveTask<NewtonAccumulator> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient NewtonSolverService service;
+    private final transient FeatureMatrix x;
+    private final transient double[] y;
+    private final transient double[] w;
+    private final double b;
+    private final int from;
+    private final int to;
+    private final int rowsPerTask;
+
+    private HessianTask(final NewtonSolverService service,
+                        final FeatureMatrix x,
+                        final double[] y,
+                        final double[] w,
+                        final double b,
+                        final int from,
+                        final int to,
+                        final int rowsPerTask) {
+      this.service = service;
+      this.x = x;
+      this.y = y;
+      this.w = w;
+      this.b = b;
+      this.from = from;
+      this.to = to;
+      this.rowsPerTask = rowsPerTask;
+    }
+
+    @Override
+    protected NewtonAccumulator compute() {
+      if (this.to - this.from <= this.rowsPerTask) {
+        final NewtonAccumulator accumulator = new NewtonAccumulator(this.x.n());
+        this.service.accumulate(this.x, this.y, this.w, this.b, this.from, this.to, accumulator);
+        return accumulator;
+      }
+      final int middle = (this.from + this.to) >>> 1;
+      final HessianTask left =
+          new HessianTask(this.service, this.x, this.y, this.w, this.b, this.from, middle, this.rowsPerTask);
+      final HessianTask right =
+          new HessianTask(this.service, this.x, this.y, this.w, this.b, middle, this.to, this.rowsPerTask);
+      left.fork();
+      final NewtonAccumulator rightSums = right.compute();
+      final NewtonAccumulator leftSums = left.join();
+      leftSums.merge(rightSums);
+      return leftSums;
+    }
+  }
+}
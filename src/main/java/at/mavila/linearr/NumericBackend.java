@@ -0,0 +1,49 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Number representation the computational services run on. Whatever the backend, the services return the same
+ * BigDecimal based results; only the arithmetic in between changes.
+ */
+public enum NumericBackend {
+
+  /**
+   * BigDecimal arithmetic with {@link Utils#PRECISION} significant digits on division, the original behavior.
+   */
+  EXACT,
+
+  /**
+   * Primitive double arithmetic on the dense kernels, with one conversion of the inputs per call.
+   */
+  DOUBLE,
+
+  /**
+   * Inputs stored as float, half the memory of {@link #DOUBLE}, accumulated in double precision.
+   */
+  FLOAT,
+
+  /**
+   * Primitive double arithmetic on a compressed sparse row copy, {@link SparseDataset}, so the kernels cost the
+   * nonzeros instead of m * n: for features that are mostly zeros. The univariate linear services have no rows to
+   * compress and run it as {@link #DOUBLE}.
+   */
+  SPARSE;
+
+  /**
+   * Copy a list based matrix into the primitive storage of this backend.
+   * {@link #FLOAT} stores single precision values, {@link #SPARSE} the nonzero doubles only; the others, including
+   * {@link #EXACT} for callers that need a primitive view, store doubles.
+   *
+   * @param x (ndarray (m,n)): Data, m examples with n features.
+   * @return the primitive copy of x.
+   */
+  public FeatureMatrix toFeatureMatrix(final List<List<BigDecimal>> x) {
+    return switch (this) {
+      case FLOAT -> FloatDenseDataset.of(x);
+      case SPARSE -> SparseDataset.of(x);
+      default -> DenseDataset.of(x);
+    };
+  }
+}
@@ -0,0 +1,22 @@
+package at.mavila.linearr;
+
+/**
+ * Update rule of the parameters of a gradient descent run, given the gradient of an iteration (or batch).
+ * An optimizer belongs to a single run: it keeps its state, such as velocities or running averages of the squared
+ * gradient, in primitive arrays allocated once and updated in place, so a step does not allocate.
+ * Instances are created by {@link OptimizerType#create(int, GradientDescentOptions)}.
+ */
+public interface Optimizer {
+
+  /**
+   * Apply one step.
+   *
+   * @param alpha the learning rate.
+   * @param w     the parameters w, updated in place.
+   * @param b     the parameter b.
+   * @param djDw  the gradient w.r.t. w.
+   * @param djDb  the gradient w.r.t. b.
+   * @return the updated parameter b.
+   */
+  double step(double alpha, double[] w, double b, double[] djDw, double djDb);
+}
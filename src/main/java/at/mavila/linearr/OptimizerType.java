@@ -0,0 +1,101 @@
+package at.mavila.linearr;
+
+/**
+ * Optimizers selectable per training call through {@link GradientDescentOptions#optimizer()}.
+ * Their hyperparameters come from {@link GradientDescentOptions#momentum()}, {@link GradientDescentOptions#decay()}
+ * and {@link GradientDescentOptions#epsilon()}, each left at 0 taking the default of the optimizer.
+ */
+public enum OptimizerType {
+
+  /**
+   * The plain update, w = w - alpha * djDw.
+   */
+  GRADIENT_DESCENT {
+    @Override
+    public Optimizer create(final int n, final GradientDescentOptions options) {
+      return (alpha, w, b, djDw, djDb) -> {
+        VectorKernels.axpy(-alpha, djDw, w);
+        return b - alpha * djDb;
+      };
+    }
+  },
+
+  /**
+   * Heavy ball momentum, v = momentum * v - alpha * djDw, w = w + v. Momentum 0.9 by default.
+   */
+  MOMENTUM {
+    @Override
+    public Optimizer create(final int n, final GradientDescentOptions options) {
+      return new MomentumOptimizer(n, momentum(options), false);
+    }
+  },
+
+  /**
+   * Nesterov accelerated gradient, the momentum step corrected with the gradient at the look-ahead point.
+   * Momentum 0.9 by default.
+   */
+  NESTEROV {
+    @Override
+    public Optimizer create(final int n, final GradientDescentOptions options) {
+      return new MomentumOptimizer(n, momentum(options), true);
+    }
+  },
+
+  /**
+   * Step divided by the root of a running average of the squared gradient. Decay 0.9 by default.
+   */
+  RMSPROP {
+    @Override
+    public Optimizer create(final int n, final GradientDescentOptions options) {
+      return new RmsPropOptimizer(n, options.decay() > 0D ? options.decay() : 0.9D, epsilon(options), false);
+    }
+  },
+
+  /**
+   * Step divided by the root of the sum of all the squared gradients so far.
+   */
+  ADAGRAD {
+    @Override
+    public Optimizer create(final int n, final GradientDescentOptions options) {
+      return new RmsPropOptimizer(n, 1D, epsilon(options), true);
+    }
+  },
+
+  /**
+   * Adaptive moment estimation: bias corrected running averages of the gradient (momentum, 0.9 by default) and of its
+   * square (decay, 0.999 by default).
+   */
+  ADAM {
+    @Override
+    public Optimizer create(final int n, final GradientDescentOptions options) {
+      return new AdamOptimizer(n, momentum(options), options.decay() > 0D ? options.decay() : 0.999D, epsilon(options));
+    }
+  };
+
+  /**
+   * Default epsilon, added to the denominators of the adaptive optimizers.
+   */
+  public static final double DEFAULT_EPSILON = 1e-8D;
+
+  /**
+   * Default momentum of {@link #MOMENTUM}, {@link #NESTEROV} and the first moment of {@link #ADAM}.
+   */
+  public static final double DEFAULT_MOMENTUM = 0.9D;
+
+  /**
+   * Create the optimizer of a run.
+   *
+   * @param n       the number of parameters w.
+   * @param options the options of the run, for the hyperparameters.
+   * @return a new optimizer, with its state zeroed.
+   */
+  public abstract Optimizer create(int n, GradientDescentOptions options);
+
+  private static double momentum(final GradientDescentOptions options) {
+    return options.momentum() > 0D ? options.momentum() : DEFAULT_MOMENTUM;
+  }
+
+  private static double epsilon(final GradientDescentOptions options) {
+    return options.epsilon() > 0D ? options.epsilon() : DEFAULT_EPSILON;
+  }
+}
@@ -0,0 +1,14 @@
+package at.mavila.linearr;
+
+import java.util.List;
+
+/**
+ * A row to score with a model, and the key of the batch loader that scores them: its probability and label are GraphQL
+ * fields resolved from the same score, computed for all the predictions of a request together, see
+ * {@link LogisticGraphQlController}.
+ *
+ * @param x     (ndarray (n,)): the features of the row.
+ * @param model the model to score the row with, shared by the rows of the same query.
+ */
+public record Prediction(List<Double> x, ModelInput model) {
+}
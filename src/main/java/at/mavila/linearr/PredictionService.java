@@ -0,0 +1,188 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Batch scoring of linear and logistic models. Every row is evaluated with
+ * {@link ModelCreator#createModel(FeatureMatrix, int, double[], double)} and, for logistic models, the configured
+ * sigmoid; the predictions are written into an array supplied by the caller, so a batch does not allocate per row.
+ * Large batches are split across workers like the gradient, with the same {@code linearr.gradient-parallelism} and
+ * {@code linearr.gradient-minimum-rows-per-task}; the rows of a worker are disjoint, so nothing is merged.
+ */
+@Service
+@AllArgsConstructor(onConstructor_ = @Autowired)
+public class PredictionService {
+
+  /**
+   * Tasks created per worker, so that uneven chunks still keep every worker busy.
+   */
+  private static final int TASKS_PER_WORKER = 4;
+
+  private final LinearRegressionProperties properties;
+  private final TrainingMetrics metrics;
+
+  /**
+   * Score every row of a feature block with the configured parallelism.
+   * <pre>
+   * predict([[3], [0]], [2], 1, LINEAR, out)   : out = [7, 1]
+   * predict([[-0.5]], [2], 1, LOGISTIC, out)   : out = [0.5]
+   * </pre>
+   *
+   * @param x    (ndarray (m,n)): Data, m examples with n features, such as a {@link DenseDataset}.
+   * @param w    (ndarray (n,)) : model parameters (weights).
+   * @param b    (scalar)       : model parameter (bias).
+   * @param type whether the model is linear or logistic.
+   * @param out  where the m predictions are written, at least m long.
+   * @throws IllegalArgumentException if an argument is null, w does not have n values or out is shorter than m.
+   */
+  public void predict(final FeatureMatrix x, final double[] w, final double b, final ModelType type,
+                      final double[] out) {
+    predict(x, w, b, type, out, 0);
+  }
+
+  /**
+   * Score every row of a feature block, split across a number of workers.
+   *
+   * @param x           (ndarray (m,n)): Data, m examples with n features.
+   * @param w           (ndarray (n,)) : model parameters (weights).
+   * @param b           (scalar)       : model parameter (bias).
+   * @param type        whether the model is linear or logistic.
+   * @param out         where the m predictions are written, at least m long.
+   * @param parallelism number of workers, 1 to stay on the calling thread, 0 for the configured default.
+   * @throws IllegalArgumentException if an argument is null, w does not have n values or out is shorter than m.
+   */
+  public void predict(final FeatureMatrix x, final double[] w, final double b, final ModelType type,
+                      final double[] out, final int parallelism) {
+    Utils.validateNotNull(x, "x");
+    Utils.validateNotNull(w, "w");
+    Utils.validateNotNull(type, "type");
+    Utils.validateNotNull(out, "out");
+    if (w.length != x.n()) {
+      throw new IllegalArgumentException("w does not have " + x.n() + " values");
+    }
+    if (out.length < x.m()) {
+      throw new IllegalArgumentException("out is shorter than x");
+    }
+
+    final long start = this.metrics.start();
+    final SigmoidApproximation approximation = this.properties.sigmoidApproximation();
+    final int m = x.m();
+    final int workers = ForkJoinPools.resolve(parallelism == 0 ? this.properties.gradientParallelism() : parallelism);
+    final int minimumRows = this.properties.gradientMinimumRowsPerTask();
+    if (workers == 1 || m < 2 * minimumRows) {
+      predict(x, w, b, type, approximation, 0, m, out);
+    } else {
+      final int rowsPerTask = Math.max(minimumRows, Math.ceilDiv(m, workers * TASKS_PER_WORKER));
+      ForkJoinPools.get(workers).invoke(new PredictTask(x, w, b, type, approximation, 0, m, rowsPerTask, out));
+    }
+    this.metrics.recordPrediction(start, m);
+  }
+
+  /**
+   * Score a registered model on a feature block.
+   *
+   * @param model the model, as returned by {@link ModelRegistryService#find(String, long)}.
+   * @param x     (ndarray (m,n)): Data, m examples with n features.
+   * @param out   where the m predictions are written, at least m long.
+   * @throws IllegalArgumentException if an argument is null, the model does not have n weights or out is shorter
+   *                                  than m.
+   */
+  public void predict(final RegisteredModel model, final FeatureMatrix x, final double[] out) {
+    Utils.validateNotNull(model, "model");
+    predict(x, model.w(), model.b(), model.type(), out, 0);
+  }
+
+  /**
+   * Convenience overload over lists, the rows are copied into a {@link DenseDataset} and scored in double precision.
+   * <pre>
+   * predict([[3], [0]], [2], 1, LINEAR) = [7.0, 1.0]
+   * </pre>
+   *
+   * @param x    (ndarray (m,n)): Data, m examples with n features.
+   * @param w    (ndarray (n,)) : model parameters (weights).
+   * @param b    (scalar)       : model parameter (bias).
+   * @param type whether the model is linear or logistic.
+   * @return the m predictions.
+   * @throws IllegalArgumentException if an argument is null or empty, or the sizes do not match.
+   */
+  public List<BigDecimal> predict(final List<List<BigDecimal>> x, final List<BigDecimal> w, final BigDecimal b,
+                                  final ModelType type) {
+    Utils.validateNotNull(b, "b");
+    final DenseDataset dense = DenseDataset.of(x);
+    final double[] out = new double[dense.m()];
+    predict(dense, Utils.toDoubleArray(w, "w"), b.doubleValue(), type, out);
+    return Arrays.stream(out).mapToObj(BigDecimal::valueOf).toList();
+  }
+
+  private static void predict(final FeatureMatrix x, final double[] w, final double b, final ModelType type,
+                              final SigmoidApproximation approximation, final int from, final int to,
+                              final double[] out) {
+    if (type == ModelType.LINEAR) {
+      for (int i = from; i < to; i++) {
+        out[i] = ModelCreator.createModel(x, i, w, b);
+      }
+      return;
+    }
+    for (int i = from; i < to; i++) {
+      out[i] = approximation.apply(ModelCreator.createModel(x, i, w, b));
+    }
+  }
+
+  /**
+   * Fork/join task scoring a range of rows; ranges above the task size are halved.
+   */
+  private static final class PredictTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient FeatureMatrix x;
+    private final transient double[] w;
+    private final double b;
+    private final ModelType type;
+    private final SigmoidApproximation approximation;
+    private final int from;
+    private final int to;
+    private final int rowsPerTask;
+    private final transient double[] out;
+
+    private PredictTask(final FeatureMatrix x,
+                        final double[] w,
+                        final double b,
+                        final ModelType type,
+                        final SigmoidApproximation approximation,
+                        final int from,
+                        final int to,
+                        final int rowsPerTask,
+                        final double[] out) {
+      this.x = x;
+      this.w = w;
+      this.b = b;
+      this.type = type;
+      this.approximation = approximation;
+      this.from = from;
+      this.to = to;
+      this.rowsPerTask = rowsPerTask;
+      this.out = out;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= this.rowsPerTask) {
+        predict(this.x, this.w, this.b, this.type, this.approximation, this.from, this.to, this.out);
+        return;
+      }
+      final int middle = (this.from + this.to) >>> 1;
+      invokeAll(
+          new PredictTask(this.x, this.w, this.b, this.type, this.approximation, this.from, middle, this.rowsPerTask,
+              this.out),
+          new PredictTask(this.x, this.w, this.b, this.type, this.approximation, middle, this.to, this.rowsPerTask,
+              this.out));
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package at.mavila.linearr;
+
+/**
+ * Callback of {@link GradientDescentService} after every iteration (epoch), such as to report the progress of a
+ * training job. It runs on the training thread, between two passes over the data, and should return quickly.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+  /**
+   * Called once an iteration has updated the parameters.
+   *
+   * @param iterations   number of iterations completed so far.
+   * @param cost         cost computed in the iteration, NaN if it was not computed.
+   * @param gradientNorm euclidean norm of the gradient of the iteration, NaN if it was not computed.
+   */
+  void onIteration(long iterations, double cost, double gradientNorm);
+}
@@ -0,0 +1,73 @@
+package at.mavila.linearr;
+
+import java.util.Objects;
+
+/**
+ * Trained parameters held by the {@link ModelRegistryService}, as primitives so scoring a row neither boxes nor
+ * allocates. The weights are owned by the model and must not be modified once it is registered.
+ *
+ * @param id      the model identifier.
+ * @param version the version of the model under its identifier, starting at 1.
+ * @param type    how the linear combination is turned into a prediction.
+ * @param w       the parameters w, one per feature.
+ * @param b       the parameter b.
+ */
+public record RegisteredModel(String id, long version, ModelType type, double[] w, double b) {
+
+  /**
+   * Approximate heap footprint of a model besides its weights: object headers, fields and the identifier.
+   */
+  static final long OVERHEAD_BYTES = 96L;
+
+  /**
+   * Validate the model.
+   *
+   * @throws IllegalArgumentException if an argument is null or empty, or the version is not positive.
+   */
+  public RegisteredModel {
+    if (Objects.isNull(id) || id.isEmpty()) {
+      throw new IllegalArgumentException("id is null or empty");
+    }
+    if (version < 1L) {
+      throw new IllegalArgumentException("version must be positive");
+    }
+    Utils.validateNotNull(type, "type");
+    if (Objects.isNull(w) || w.length == 0) {
+      throw new IllegalArgumentException("w is null or empty");
+    }
+  }
+
+  /**
+   * Number of features the model expects.
+   *
+   * @return the length of w.
+   */
+  public int n() {
+    return this.w.length;
+  }
+
+  /**
+   * Approximate heap footprint, what the model counts against the byte budget of the registry.
+   *
+   * @return the size of the model in bytes.
+   */
+  public long sizeInBytes() {
+    return OVERHEAD_BYTES + 2L * this.id.length() + 8L * this.w.length;
+  }
+
+  /**
+   * Score a single row.
+   * <pre>
+   * LINEAR,   w = [2], b = 1: predict([3], 0, EXACT) = 7.0
+   * LOGISTIC, w = [2], b = 1: predict([-0.5], 0, EXACT) = 0.5
+   * </pre>
+   *
+   * @param x             the features, the row starting at offset and n long.
+   * @param offset        the offset of the row in x, so rows of a row-major block are scored in place.
+   * @param approximation the sigmoid implementation of logistic models.
+   * @return the prediction for the row.
+   */
+  public double predict(final double[] x, final int offset, final SigmoidApproximation approximation) {
+    return this.type.apply(VectorKernels.dot(x, offset, this.w, this.w.length) + this.b, approximation);
+  }
+}
@@ -0,0 +1,17 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import lombok.Builder;
+import lombok.With;
+
+/**
+ * Least-squares parameters of the univariate linear regression model.
+ *
+ * @param w    the optimal weight.
+ * @param b    the optimal bias.
+ * @param cost the cost at w and b, the minimum of the cost.
+ */
+@With
+@Builder
+public record ResultClosedFormSolver(BigDecimal w, BigDecimal b, BigDecimal cost) {
+}
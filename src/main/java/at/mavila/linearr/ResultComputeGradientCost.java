@@ -0,0 +1,10 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import lombok.Builder;
+import lombok.With;
+
+@With
+@Builder
+public record ResultComputeGradientCost(ResultComputeGradient gradient, BigDecimal cost) {
+}
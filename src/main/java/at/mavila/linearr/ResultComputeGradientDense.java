@@ -0,0 +1,16 @@
+package at.mavila.linearr;
+
+import lombok.Builder;
+import lombok.With;
+
+/**
+ * Gradient of the logistic cost computed on a dense dataset.
+ *
+ * @param djDb the gradient of the cost w.r.t. the parameter b.
+ * @param djDw the gradient of the cost w.r.t. the parameters w, always n long.
+ * @param cost the cost at the same parameters when it was computed in the same pass, NaN otherwise.
+ */
+@With
+@Builder
+public record ResultComputeGradientDense(double djDb, double[] djDw, double cost) {
+}
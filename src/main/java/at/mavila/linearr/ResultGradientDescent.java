@@ -5,7 +5,29 @@ import java.util.List;
 import lombok.Builder;
 import lombok.With;
 
+/**
+ * Outcome of a gradient descent run.
+ *
+ * @param w                  the trained parameters w.
+ * @param b                  the trained parameter b.
+ * @param costHistory        the recorded costs, oldest first, at most {@link GradientDescentOptions#historyCapacity()}.
+ * @param costHistoryStride  number of iterations (epochs) between two entries of costHistory, the first one being the
+ *                           cost before the first update.
+ * @param iterations         number of iterations (epochs) that actually ran.
+ * @param alphaHistory       the learning rates of the updates, oldest first, downsampled like costHistory; empty for
+ *                           {@link StepSize#FIXED}.
+ * @param alphaHistoryStride number of iterations between two entries of alphaHistory, the first one being the step
+ *                           of the first update.
+ * @param stopReason         why the run stopped.
+ */
 @With
 @Builder
-public record ResultGradientDescent(List<BigDecimal> w, BigDecimal b, List<BigDecimal> costHistory) {
+public record ResultGradientDescent(List<BigDecimal> w,
+                                    BigDecimal b,
+                                    List<BigDecimal> costHistory,
+                                    long costHistoryStride,
+                                    long iterations,
+                                    List<BigDecimal> alphaHistory,
+                                    long alphaHistoryStride,
+                                    StopReason stopReason) {
 }
@@ -0,0 +1,16 @@
+package at.mavila.linearr;
+
+import lombok.Builder;
+import lombok.With;
+
+/**
+ * Least-squares parameters of the linear regression model f(x) = w . x + b.
+ *
+ * @param w    the optimal parameters w, one per feature.
+ * @param b    the optimal parameter b.
+ * @param cost the cost 1/2m * sum((w . x + b - y)^2) at w and b, the minimum of the cost.
+ */
+@With
+@Builder
+public record ResultLeastSquares(double[] w, double b, double cost) {
+}
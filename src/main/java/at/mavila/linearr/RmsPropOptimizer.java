@@ -0,0 +1,33 @@
+package at.mavila.linearr;
+
+/**
+ * RMSProp and AdaGrad, which only differ in how the squared gradients are accumulated: an exponential moving average
+ * for RMSProp, a plain sum for AdaGrad.
+ */
+final class RmsPropOptimizer implements Optimizer {
+
+  private final double decay;
+  private final double epsilon;
+  private final boolean cumulative;
+  private final double[] squares;
+  private double squaresB;
+
+  RmsPropOptimizer(final int n, final double decay, final double epsilon, final boolean cumulative) {
+    this.decay = decay;
+    this.epsilon = epsilon;
+    this.cumulative = cumulative;
+    this.squares = new double[n];
+  }
+
+  @Override
+  public double step(final double alpha, final double[] w, final double b, final double[] djDw, final double djDb) {
+    final double keep = this.cumulative ? 1D : this.decay;
+    final double add = this.cumulative ? 1D : 1D - this.decay;
+    for (int j = 0; j < w.length; j++) {
+      this.squares[j] = keep * this.squares[j] + add * djDw[j] * djDw[j];
+      w[j] -= alpha * djDw[j] / (Math.sqrt(this.squares[j]) + this.epsilon);
+    }
+    this.squaresB = keep * this.squaresB + add * djDb * djDb;
+    return b - alpha * djDb / (Math.sqrt(this.squaresB) + this.epsilon);
+  }
+}
@@ -0,0 +1,23 @@
+package at.mavila.linearr;
+
+/**
+ * Plain loop implementation of the kernels, used when the Vector API is not available.
+ */
+final class ScalarKernels implements Kernels {
+
+  @Override
+  public double dot(final double[] a, final int aOffset, final double[] b, final int bOffset, final int n) {
+    double sum = 0D;
+    for (int j = 0; j < n; j++) {
+      sum += a[aOffset + j] * b[bOffset + j];
+    }
+    return sum;
+  }
+
+  @Override
+  public void axpy(final double alpha, final double[] x, final int xOffset, final double[] y, final int yOffset, final int n) {
+    for (int j = 0; j < n; j++) {
+      y[yOffset + j] += alpha * x[xOffset + j];
+    }
+  }
+}
@@ -3,11 +3,16 @@ package at.mavila.linearr;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.Objects;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
+@AllArgsConstructor(onConstructor_ = @Autowired)
 public class SigmoidService {
 
+  private final LinearRegressionProperties properties;
+
   /**
    * Calculate the sigmoid function for a given value z.
    * sigmoid(z) = 1 / (1 + e^(-z))
@@ -28,6 +33,79 @@ public class SigmoidService {
     return applyFormula(z).stripTrailingZeros();
   }
 
+  /**
+   * Calculate the sigmoid function for a primitive value z, without boxing, with the configured
+   * {@code linearr.sigmoid-approximation} ({@link SigmoidApproximation#EXACT} unless configured otherwise).
+   * sigmoid(z) = 1 / (1 + e^(-z))
+   * Usage:
+   * <pre>
+   * sigmoid(0D) = 0.5
+   * sigmoid(-1000D) = 0.0
+   * </pre>
+   *
+   * @param z value for the sigmoid function
+   * @return the result of the sigmoid function
+   */
+  public double sigmoid(double z) {
+    return this.properties.sigmoidApproximation().apply(z);
+  }
+
+  /**
+   * Calculate the sigmoid function for a primitive value z with a chosen implementation.
+   * Usage:
+   * <pre>
+   * sigmoid(0D, TABLE) = 0.5
+   * sigmoid(1D, RATIONAL) = 0.7310585... (within 2e-5)
+   * sigmoid(0D, null) = IllegalArgumentException
+   * </pre>
+   *
+   * @param z             value for the sigmoid function
+   * @param approximation the implementation, see {@link SigmoidApproximation#maximumAbsoluteError()}
+   * @return the result of the sigmoid function
+   */
+  public double sigmoid(double z, SigmoidApproximation approximation) {
+    Utils.validateNotNull(approximation, "approximation");
+    return approximation.apply(z);
+  }
+
+  /**
+   * Calculate the sigmoid function for every value of an array, with the configured implementation.
+   *
+   * @param z   values for the sigmoid function
+   * @param out where the results are written, at least as long as z; may be z itself
+   */
+  public void sigmoid(double[] z, double[] out) {
+    sigmoid(z, out, this.properties.sigmoidApproximation());
+  }
+
+  /**
+   * Calculate the sigmoid function for every value of an array with a chosen implementation.
+   * The implementation is resolved once for the whole array.
+   *
+   * @param z             values for the sigmoid function
+   * @param out           where the results are written, at least as long as z; may be z itself
+   * @param approximation the implementation, see {@link SigmoidApproximation#maximumAbsoluteError()}
+   * @throws IllegalArgumentException if an argument is null or out is shorter than z.
+   */
+  public void sigmoid(double[] z, double[] out, SigmoidApproximation approximation) {
+    Utils.validateNotNull(z, "z");
+    Utils.validateNotNull(out, "out");
+    Utils.validateNotNull(approximation, "approximation");
+    if (out.length < z.length) {
+      throw new IllegalArgumentException("out is shorter than z");
+    }
+    if (approximation == SigmoidApproximation.EXACT) {
+      //The default keeps a loop of its own, with a single receiver the JIT can inline
+      for (int i = 0; i < z.length; i++) {
+        out[i] = SigmoidApproximation.EXACT.apply(z[i]);
+      }
+      return;
+    }
+    for (int i = 0; i < z.length; i++) {
+      out[i] = approximation.apply(z[i]);
+    }
+  }
+
   private static BigDecimal applyFormula(BigDecimal z) {
     return BigDecimal.ONE.divide(//Divide 1 by the lower part of the formula
         BigDecimal.ONE.add(BigDecimal.valueOf(Math.exp(z.negate().doubleValue()))), new MathContext(Utils.PRECISION)
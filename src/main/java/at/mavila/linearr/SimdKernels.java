@@ -0,0 +1,47 @@
+package at.mavila.linearr;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of the kernels on the incubating Vector API, processing as many lanes per instruction as the
+ * preferred species of the CPU holds and finishing the tail of each slice with a scalar loop.
+ * This class links against jdk.incubator.vector, so it must only be loaded when that module is in the boot layer.
+ */
+final class SimdKernels implements Kernels {
+
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  @Override
+  public double dot(final double[] a, final int aOffset, final double[] b, final int bOffset, final int n) {
+    final int upperBound = SPECIES.loopBound(n);
+    DoubleVector sums = DoubleVector.zero(SPECIES);
+    int j = 0;
+    for (; j < upperBound; j += SPECIES.length()) {
+      final DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + j);
+      final DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + j);
+      sums = va.fma(vb, sums);
+    }
+    double sum = sums.reduceLanes(VectorOperators.ADD);
+    for (; j < n; j++) {
+      sum += a[aOffset + j] * b[bOffset + j];
+    }
+    return sum;
+  }
+
+  @Override
+  public void axpy(final double alpha, final double[] x, final int xOffset, final double[] y, final int yOffset, final int n) {
+    final int upperBound = SPECIES.loopBound(n);
+    final DoubleVector va = DoubleVector.broadcast(SPECIES, alpha);
+    int j = 0;
+    for (; j < upperBound; j += SPECIES.length()) {
+      final DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + j);
+      final DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + j);
+      vx.fma(va, vy).intoArray(y, yOffset + j);
+    }
+    for (; j < n; j++) {
+      y[yOffset + j] += alpha * x[xOffset + j];
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package at.mavila.linearr;
+
+/**
+ * Algorithms the dense overloads of {@link GradientDescentService} train with, selected per training call through
+ * {@link GradientDescentOptions#solver()}.
+ */
+public enum Solver {
+
+  /**
+   * First-order updates of the configured {@link OptimizerType} and {@link StepSize}.
+   */
+  GRADIENT_DESCENT,
+
+  /**
+   * Limited-memory BFGS: the direction is the gradient scaled by an approximation of the inverse Hessian built from the
+   * last {@link GradientDescentOptions#lbfgsHistory()} steps, and every step length comes from a strong Wolfe line
+   * search. It needs O(history * n) memory, so it scales to thousands of features where the Hessian of
+   * {@link NewtonSolverService} does not. The given alpha is the first step length tried along the steepest descent
+   * direction; later iterations try 1 first.
+   */
+  LBFGS
+}
@@ -0,0 +1,175 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sparse feature matrix in compressed sparse row (CSR) form: only the nonzero values are stored, row after row, with
+ * their column indexes. Row {@code i} occupies the slice {@code rowOffsets[i] .. rowOffsets[i + 1] - 1} of
+ * {@code values} and {@code columns}, so the row operations of the kernels cost the nonzeros of the row instead of n.
+ * <pre>
+ * of([[0, 2, 0], [1, 0, 3]]) = SparseDataset([2, 1, 3], [1, 0, 2], [0, 1, 3], 2, 3)
+ * </pre>
+ *
+ * @param values     the nonzero values, row after row.
+ * @param columns    the column index of every value, increasing within a row.
+ * @param rowOffsets where every row starts in values, m + 1 long with the total number of values last.
+ * @param m          number of examples (rows).
+ * @param n          number of features (columns).
+ */
+public record SparseDataset(double[] values, int[] columns, int[] rowOffsets, int m, int n) implements FeatureMatrix {
+
+  /**
+   * Validate the structure against the dimensions.
+   *
+   * @throws IllegalArgumentException if an array is null, the dimensions are not positive, or the offsets or the
+   *                                  column indexes are out of range.
+   */
+  public SparseDataset {
+    if (Objects.isNull(values) || Objects.isNull(columns) || Objects.isNull(rowOffsets)) {
+      throw new IllegalArgumentException("values, columns and rowOffsets must not be null");
+    }
+    if (m <= 0 || n <= 0) {
+      throw new IllegalArgumentException("m and n must be positive");
+    }
+    if (rowOffsets.length != m + 1 || rowOffsets[0] != 0 || rowOffsets[m] != values.length
+        || columns.length != values.length) {
+      throw new IllegalArgumentException("rowOffsets does not match m and the number of values");
+    }
+    for (int i = 0; i < m; i++) {
+      if (rowOffsets[i] > rowOffsets[i + 1]) {
+        throw new IllegalArgumentException("rowOffsets is not increasing");
+      }
+    }
+    for (final int column : columns) {
+      if (column < 0 || column >= n) {
+        throw new IllegalArgumentException("column " + column + " is out of range");
+      }
+    }
+  }
+
+  /**
+   * Copy the nonzero values of a list based matrix.
+   * <pre>
+   * of([[0, 2], [0, 0]]) = SparseDataset([2], [1], [0, 1, 1], 2, 2)
+   * of(null) = IllegalArgumentException
+   * </pre>
+   *
+   * @param x (ndarray (m,n)): Data, m examples with n features, every row of the same size.
+   * @return the sparse copy of x.
+   * @throws IllegalArgumentException if x, one of its rows or one of their values is null, x or its first row is
+   *                                  empty, or the rows differ in size.
+   */
+  public static SparseDataset of(final List<List<BigDecimal>> x) {
+    Utils.validateList(x, "x");
+    Utils.validateList(x.getFirst(), "x[0]");
+    final int m = x.size();
+    final int n = x.getFirst().size();
+    final int[] rowOffsets = new int[m + 1];
+    int nonZeros = 0;
+    for (int i = 0; i < m; i++) {
+      final List<BigDecimal> row = x.get(i);
+      if (Objects.isNull(row) || row.size() != n) {
+        throw new IllegalArgumentException("x[" + i + "] does not have " + n + " features");
+      }
+      for (int j = 0; j < n; j++) {
+        final BigDecimal value = row.get(j);
+        Utils.validateNotNull(value, "x[" + i + "][" + j + "]");
+        if (value.signum() != 0) {
+          nonZeros++;
+        }
+      }
+      rowOffsets[i + 1] = nonZeros;
+    }
+    final double[] values = new double[nonZeros];
+    final int[] columns = new int[nonZeros];
+    int k = 0;
+    for (final List<BigDecimal> row : x) {
+      for (int j = 0; j < n; j++) {
+        if (row.get(j).signum() != 0) {
+          values[k] = row.get(j).doubleValue();
+          columns[k++] = j;
+        }
+      }
+    }
+    return new SparseDataset(values, columns, rowOffsets, m, n);
+  }
+
+  /**
+   * Copy the nonzero values of a dense matrix.
+   *
+   * @param x the dense matrix.
+   * @return the sparse copy of x.
+   * @throws IllegalArgumentException if x is null.
+   */
+  public static SparseDataset of(final DenseDataset x) {
+    Utils.validateNotNull(x, "x");
+    final double[] dense = x.values();
+    int nonZeros = 0;
+    for (final double value : dense) {
+      if (value != 0D) {
+        nonZeros++;
+      }
+    }
+    final double[] values = new double[nonZeros];
+    final int[] columns = new int[nonZeros];
+    final int[] rowOffsets = new int[x.m() + 1];
+    int k = 0;
+    for (int i = 0; i < x.m(); i++) {
+      for (int j = 0; j < x.n(); j++) {
+        final double value = dense[i * x.n() + j];
+        if (value != 0D) {
+          values[k] = value;
+          columns[k++] = j;
+        }
+      }
+      rowOffsets[i + 1] = k;
+    }
+    return new SparseDataset(values, columns, rowOffsets, x.m(), x.n());
+  }
+
+  /**
+   * Number of stored values.
+   *
+   * @return the number of nonzeros of the matrix.
+   */
+  public int nonZeros() {
+    return this.values.length;
+  }
+
+  @Override
+  public double dot(final int i, final double[] w) {
+    double sum = 0D;
+    for (int k = this.rowOffsets[i]; k < this.rowOffsets[i + 1]; k++) {
+      sum += this.values[k] * w[this.columns[k]];
+    }
+    return sum;
+  }
+
+  @Override
+  public void axpy(final int i, final double alpha, final double[] y) {
+    for (int k = this.rowOffsets[i]; k < this.rowOffsets[i + 1]; k++) {
+      y[this.columns[k]] += alpha * this.values[k];
+    }
+  }
+
+  /**
+   * Apply the pending gradient of the columns of a row to the weights and clear it, w = w - scale * gradient on those
+   * columns only. Called for every row of a batch whose gradient was summed into a cleared buffer, it updates exactly
+   * the weights the batch touched and leaves the buffer cleared for the next batch, in O(nonzeros of the batch)
+   * instead of O(n); a column shared by several rows is updated once, its later visits find a zero.
+   *
+   * @param i        the row index.
+   * @param scale    the learning rate divided by the size of the batch.
+   * @param gradient the summed gradient of the batch, zero outside of its columns.
+   * @param w        the weights, updated in place.
+   */
+  void descend(final int i, final double scale, final double[] gradient, final double[] w) {
+    for (int k = this.rowOffsets[i]; k < this.rowOffsets[i + 1]; k++) {
+      final int column = this.columns[k];
+      w[column] -= scale * gradient[column];
+      gradient[column] = 0D;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package at.mavila.linearr;
+
+/**
+ * How the full-batch runs of {@link GradientDescentService} choose the learning rate of every iteration, selected per
+ * training call through {@link GradientDescentOptions#stepSize()}. The given alpha is the initial step of the adaptive
+ * rules, and the steps they take are reported in {@link ResultGradientDescent#alphaHistory()}.
+ */
+public enum StepSize {
+
+  /**
+   * Every iteration steps by the given alpha.
+   */
+  FIXED,
+
+  /**
+   * Backtracking line search: the step starts at twice the last accepted one and is halved until the cost decreases
+   * by at least {@value StepSizeController#ARMIJO_SUFFICIENT_DECREASE} of the decrease predicted by the gradient.
+   * The pass at the accepted point computes its gradient as well, so it is reused by the next iteration and a step
+   * that is accepted at once costs a single pass.
+   */
+  ARMIJO,
+
+  /**
+   * Barzilai-Borwein step, the short variant {@code s.y / y.y} with s the change of the parameters and y the change of
+   * the gradient between the last two iterations; the long variant {@code s.s / s.y} overshoots on separable data,
+   * where the curvature vanishes. It costs no extra pass; the first iteration, and any iteration where the curvature
+   * {@code s.y} is not positive, steps by the given alpha.
+   */
+  BARZILAI_BORWEIN,
+
+  /**
+   * Bold driver: the step grows by {@value StepSizeController#BOLD_DRIVER_INCREASE} after every iteration that lowered
+   * the cost. When the cost went up, the step is halved and the iteration is taken again from the previous parameters
+   * with their saved gradient, so no extra pass is needed.
+   */
+  BOLD_DRIVER
+}
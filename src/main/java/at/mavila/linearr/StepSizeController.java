@@ -0,0 +1,193 @@
+package at.mavila.linearr;
+
+/**
+ * Per-run state of an adaptive {@link StepSize}. It takes the plain update w = w - t * djDw with the step t of its
+ * rule, from the gradient (and cost) the run computed at the current parameters.
+ */
+final class StepSizeController {
+
+  /**
+   * Fraction of the decrease predicted by the gradient an Armijo step must achieve.
+   */
+  static final double ARMIJO_SUFFICIENT_DECREASE = 1e-4D;
+
+  /**
+   * Growth of the bold driver step after an iteration that lowered the cost.
+   */
+  static final double BOLD_DRIVER_INCREASE = 1.1D;
+
+  private static final int MAX_BACKTRACKS = 50;
+
+  private final StepSize rule;
+  private final double alpha;
+  private final double[] previousW;
+  private final double[] previousDjDw;
+  private double previousB;
+  private double previousDjDb;
+  private double previousCost = Double.NaN;
+  private boolean started;
+  private double step;
+  private long rows;
+  private GradientAccumulator trial;
+  private GradientAccumulator evaluated;
+
+  /**
+   * Start a run.
+   *
+   * @param rule  the adaptive rule, not {@link StepSize#FIXED}.
+   * @param alpha the initial step.
+   * @param n     the number of parameters w.
+   */
+  StepSizeController(final StepSize rule, final double alpha, final int n) {
+    this.rule = rule;
+    this.alpha = alpha;
+    this.step = alpha;
+    this.previousW = new double[n];
+    this.previousDjDw = new double[n];
+    this.trial = rule == StepSize.ARMIJO ? new GradientAccumulator(n, true) : null;
+  }
+
+  /**
+   * Whether the rule needs the cost at the current parameters on every iteration.
+   *
+   * @return true for {@link StepSize#ARMIJO} and {@link StepSize#BOLD_DRIVER}.
+   */
+  boolean isCostNeeded() {
+    return this.rule == StepSize.ARMIJO || this.rule == StepSize.BOLD_DRIVER;
+  }
+
+  /**
+   * Update w in place by one step of the rule.
+   * The bold driver may move w back to the previous parameters and overwrite the gradient of the accumulator with
+   * theirs before stepping.
+   *
+   * @param w       the parameters w, updated in place.
+   * @param b       the parameter b.
+   * @param current the averaged gradient at (w, b), with the cost when {@link #isCostNeeded()}.
+   * @param pass    the pass over the dataset, for the trial points of the line search.
+   * @return the updated b.
+   */
+  double step(final double[] w, final double b, final GradientAccumulator current, final GradientPass pass) {
+    this.rows = 0L;
+    this.evaluated = null;
+    return switch (this.rule) {
+      case ARMIJO -> armijo(w, b, current, pass);
+      case BARZILAI_BORWEIN -> barzilaiBorwein(w, b, current);
+      case BOLD_DRIVER -> boldDriver(w, b, current);
+      case FIXED -> throw new IllegalStateException("FIXED has no controller");
+    };
+  }
+
+  /**
+   * The step taken by the last {@link #step}.
+   *
+   * @return the learning rate of the last update.
+   */
+  double alpha() {
+    return this.step;
+  }
+
+  /**
+   * Number of rows read by the trial passes of the last {@link #step}.
+   *
+   * @return the rows of the extra passes, 0 for the rules that need none.
+   */
+  long rows() {
+    return this.rows;
+  }
+
+  /**
+   * The averaged gradient and cost at the parameters of the last {@link #step}, when the rule already computed them.
+   *
+   * @return the accumulator to reuse as the next current one, or null if the next iteration must run its pass.
+   */
+  GradientAccumulator evaluated() {
+    return this.evaluated;
+  }
+
+  private double armijo(final double[] w, final double b, final GradientAccumulator current, final GradientPass pass) {
+    final double squaredNorm = VectorKernels.dot(current.djDw, current.djDw) + current.djDb * current.djDb;
+    double t = this.started ? 2D * this.step : this.alpha;
+    this.started = true;
+    if (squaredNorm == 0D) {
+      //Stationary point, the parameters and so their gradient do not change
+      this.evaluated = current;
+      return b;
+    }
+    System.arraycopy(w, 0, this.previousW, 0, w.length);
+    double trialB = b;
+    for (int k = 0; ; k++) {
+      System.arraycopy(this.previousW, 0, w, 0, w.length);
+      VectorKernels.axpy(-t, current.djDw, w);
+      trialB = b - t * current.djDb;
+      this.trial.reset();
+      final long trialRows = pass.accumulate(w, trialB, this.trial);
+      this.trial.average(trialRows);
+      this.rows += trialRows;
+      if (k == MAX_BACKTRACKS || this.trial.cost <= current.cost - ARMIJO_SUFFICIENT_DECREASE * t * squaredNorm) {
+        break;
+      }
+      t *= 0.5D;
+    }
+    //The last trial is kept even when it failed the test, t is the step it took, the smallest one tried
+    this.step = t;
+    this.evaluated = this.trial;
+    this.trial = current;
+    return trialB;
+  }
+
+  private double barzilaiBorwein(final double[] w, final double b, final GradientAccumulator current) {
+    double t = this.alpha;
+    if (this.started) {
+      final double sB = b - this.previousB;
+      final double yB = current.djDb - this.previousDjDb;
+      double sy = sB * yB;
+      double yy = yB * yB;
+      for (int j = 0; j < w.length; j++) {
+        final double y = current.djDw[j] - this.previousDjDw[j];
+        sy += (w[j] - this.previousW[j]) * y;
+        yy += y * y;
+      }
+      if (sy > 0D && Double.isFinite(sy / yy)) {
+        t = sy / yy;
+      }
+    }
+    this.started = true;
+    save(w, b, current);
+    return descend(t, w, b, current);
+  }
+
+  private double boldDriver(final double[] w, final double b, final GradientAccumulator current) {
+    double from = b;
+    if (this.started) {
+      if (current.cost <= this.previousCost) {
+        this.step *= BOLD_DRIVER_INCREASE;
+      } else {
+        //Reject the last step: back to the previous parameters, with their saved gradient
+        this.step *= 0.5D;
+        System.arraycopy(this.previousW, 0, w, 0, w.length);
+        System.arraycopy(this.previousDjDw, 0, current.djDw, 0, w.length);
+        from = this.previousB;
+        current.djDb = this.previousDjDb;
+        current.cost = this.previousCost;
+      }
+    }
+    this.started = true;
+    save(w, from, current);
+    return descend(this.step, w, from, current);
+  }
+
+  private void save(final double[] w, final double b, final GradientAccumulator current) {
+    System.arraycopy(w, 0, this.previousW, 0, w.length);
+    System.arraycopy(current.djDw, 0, this.previousDjDw, 0, w.length);
+    this.previousB = b;
+    this.previousDjDb = current.djDb;
+    this.previousCost = current.cost;
+  }
+
+  private double descend(final double t, final double[] w, final double b, final GradientAccumulator current) {
+    this.step = t;
+    VectorKernels.axpy(-t, current.djDw, w);
+    return b - t * current.djDb;
+  }
+}
@@ -0,0 +1,34 @@
+package at.mavila.linearr;
+
+/**
+ * Why {@link GradientDescentService} stopped iterating.
+ */
+public enum StopReason {
+
+  /**
+   * All the requested iterations ran.
+   */
+  MAX_ITERATIONS,
+
+  /**
+   * The relative change of the cost between two computed costs fell below
+   * {@link GradientDescentOptions#costTolerance()}, or the line search of {@link Solver#LBFGS} found no lower cost
+   * along the gradient.
+   */
+  COST_CONVERGED,
+
+  /**
+   * The euclidean norm of the gradient fell below {@link GradientDescentOptions#gradientTolerance()}.
+   */
+  GRADIENT_CONVERGED,
+
+  /**
+   * The run exceeded {@link GradientDescentOptions#timeBudget()}.
+   */
+  TIME_BUDGET_EXCEEDED,
+
+  /**
+   * The training thread was interrupted, such as by the cancellation of a training job.
+   */
+  CANCELLED
+}
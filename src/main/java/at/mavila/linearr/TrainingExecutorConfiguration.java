@@ -0,0 +1,44 @@
+package at.mavila.linearr;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Executor of the training jobs. Training is CPU bound, so it runs on a fixed number of platform threads with a
+ * bounded queue rather than on the virtual threads serving the requests: a burst of submissions is rejected instead of
+ * piling up, and a long job never holds a request thread. The fork/join pools the passes are split across are shut
+ * down with the context as well.
+ */
+@Configuration
+public class TrainingExecutorConfiguration {
+
+  /**
+   * The training pool, sized by {@code linearr.training-threads} and {@code linearr.training-queue-capacity}.
+   *
+   * @param properties the application properties.
+   * @return the executor, shut down with the context.
+   */
+  @Bean(destroyMethod = "shutdownNow")
+  public ExecutorService trainingExecutor(final LinearRegressionProperties properties) {
+    final int threads = ForkJoinPools.resolve(properties.trainingThreads());
+    return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(properties.trainingQueueCapacity()),
+        Thread.ofPlatform().name("training-", 0).factory(),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Shut the pools of {@link ForkJoinPools} down with the context.
+   *
+   * @return the callback run when the context closes.
+   */
+  @Bean
+  public DisposableBean forkJoinPoolsShutdown() {
+    return ForkJoinPools::shutdown;
+  }
+}
@@ -0,0 +1,37 @@
+package at.mavila.linearr;
+
+import java.util.List;
+
+/**
+ * GraphQL input of a gradient descent run.
+ *
+ * @param x                   (ndarray (m,n)): Data, m examples with n features.
+ * @param y                   (ndarray (m,)): target values.
+ * @param w                   (ndarray (n,)): initial values of the model parameters.
+ * @param b                   (scalar): initial value of the model parameter.
+ * @param alpha               (float): learning rate.
+ * @param numberOfIterations  (scalar): number of iterations to run gradient descent.
+ * @param backend             see {@link GradientDescentOptions#numericBackend()}.
+ * @param costHistoryInterval see {@link GradientDescentOptions#costHistoryInterval()}, null for the default.
+ * @param costTolerance       see {@link GradientDescentOptions#costTolerance()}, null for the default.
+ * @param gradientTolerance   see {@link GradientDescentOptions#gradientTolerance()}, null for the default.
+ * @param featureScaling      see {@link GradientDescentOptions#featureScaling()}.
+ * @param optimizer           see {@link GradientDescentOptions#optimizer()}.
+ * @param stepSize            see {@link GradientDescentOptions#stepSize()}.
+ * @param solver              see {@link GradientDescentOptions#solver()}.
+ */
+public record TrainingInput(List<List<Double>> x,
+                            List<Double> y,
+                            List<Double> w,
+                            double b,
+                            double alpha,
+                            int numberOfIterations,
+                            NumericBackend backend,
+                            Integer costHistoryInterval,
+                            Double costTolerance,
+                            Double gradientTolerance,
+                            FeatureScaling featureScaling,
+                            OptimizerType optimizer,
+                            StepSize stepSize,
+                            Solver solver) {
+}
@@ -0,0 +1,128 @@
+package at.mavila.linearr;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mutable state of a training job, shared between the training thread, which reports progress and the outcome, and
+ * the request threads, which read snapshots and cancel. Every state change is a compare-and-set, so a job that was
+ * cancelled is never turned back into a running or succeeded one.
+ */
+final class TrainingJob {
+
+  private final String id;
+  private final long numberOfIterations;
+  private final Instant submittedAt = Instant.now();
+  private final AtomicReference<TrainingJobState> state = new AtomicReference<>(TrainingJobState.QUEUED);
+  private volatile Future<?> future;
+  private volatile long iterations;
+  private volatile double cost = Double.NaN;
+  private volatile double gradientNorm = Double.NaN;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile ResultGradientDescent result;
+  private volatile String error;
+
+  TrainingJob(final String id, final long numberOfIterations) {
+    this.id = id;
+    this.numberOfIterations = numberOfIterations;
+  }
+
+  String id() {
+    return this.id;
+  }
+
+  void setFuture(final Future<?> future) {
+    this.future = future;
+  }
+
+  /**
+   * Move from queued to running.
+   *
+   * @return false if the job was cancelled while queued and must not run.
+   */
+  boolean start() {
+    this.startedAt = Instant.now();
+    return this.state.compareAndSet(TrainingJobState.QUEUED, TrainingJobState.RUNNING);
+  }
+
+  /**
+   * Progress of the training thread, see {@link ProgressListener}.
+   */
+  void progress(final long iterations, final double cost, final double gradientNorm) {
+    this.iterations = iterations;
+    if (!Double.isNaN(cost)) {
+      this.cost = cost;
+    }
+    if (!Double.isNaN(gradientNorm)) {
+      this.gradientNorm = gradientNorm;
+    }
+  }
+
+  void succeed(final ResultGradientDescent result) {
+    this.result = result;
+    finish(TrainingJobState.SUCCEEDED);
+  }
+
+  void fail(final Throwable exception) {
+    this.error = Objects.requireNonNullElse(exception.getMessage(), exception.getClass().getName());
+    finish(TrainingJobState.FAILED);
+  }
+
+  /**
+   * Cancel the job, interrupting the training thread if it is running.
+   *
+   * @return the state before the cancellation.
+   */
+  TrainingJobState cancel() {
+    TrainingJobState previous = this.state.get();
+    while ((previous == TrainingJobState.QUEUED || previous == TrainingJobState.RUNNING)
+        && !this.state.compareAndSet(previous, TrainingJobState.CANCELLED)) {
+      previous = this.state.get();
+    }
+    if (previous == TrainingJobState.QUEUED || previous == TrainingJobState.RUNNING) {
+      this.finishedAt = Instant.now();
+      final Future<?> running = this.future;
+      if (Objects.nonNull(running)) {
+        running.cancel(true);
+      }
+    }
+    return previous;
+  }
+
+  TrainingJobState state() {
+    return this.state.get();
+  }
+
+  /**
+   * The result of a job that succeeded, or of a running job that was cancelled.
+   *
+   * @return the result, null if there is none (yet).
+   */
+  ResultGradientDescent result() {
+    return this.result;
+  }
+
+  TrainingJobStatus status() {
+    return TrainingJobStatus.builder()
+        .id(this.id)
+        .state(this.state.get())
+        .iterations(this.iterations)
+        .numberOfIterations(this.numberOfIterations)
+        .cost(Double.isNaN(this.cost) ? null : this.cost)
+        .gradientNorm(Double.isNaN(this.gradientNorm) ? null : this.gradientNorm)
+        .submittedAt(this.submittedAt)
+        .startedAt(this.startedAt)
+        .finishedAt(this.finishedAt)
+        .error(this.error)
+        .build();
+  }
+
+  private void finish(final TrainingJobState outcome) {
+    if (this.state.compareAndSet(TrainingJobState.RUNNING, outcome)) {
+      this.finishedAt = Instant.now();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package at.mavila.linearr;
+
+import java.net.URI;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST API of the training jobs.
+ * <pre>
+ * POST   /training-jobs             submit, 202 with the status and its location
+ * GET    /training-jobs/{id}        status and progress
+ * GET    /training-jobs/{id}/result result, 409 while there is none
+ * DELETE /training-jobs/{id}        cancel
+ * </pre>
+ */
+@RestController
+@RequestMapping("/training-jobs")
+@AllArgsConstructor(onConstructor_ = @Autowired)
+public class TrainingJobController {
+
+  private final TrainingJobService trainingJobService;
+
+  @PostMapping
+  public ResponseEntity<TrainingJobStatus> submit(@RequestBody final TrainingJobRequest request) {
+    final TrainingJobStatus status = this.trainingJobService.submit(request);
+    return ResponseEntity.accepted().location(URI.create("/training-jobs/" + status.id())).body(status);
+  }
+
+  @GetMapping("/{id}")
+  public TrainingJobStatus status(@PathVariable final String id) {
+    return this.trainingJobService.status(id).orElseThrow(() -> notFound(id));
+  }
+
+  @GetMapping("/{id}/result")
+  public ResultGradientDescent result(@PathVariable final String id) {
+    final TrainingJobStatus status = status(id);
+    return this.trainingJobService.result(id)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+            "training job " + id + " has no result, it is " + status.state()));
+  }
+
+  @DeleteMapping("/{id}")
+  public TrainingJobStatus cancel(@PathVariable final String id) {
+    return this.trainingJobService.cancel(id).orElseThrow(() -> notFound(id));
+  }
+
+  private static ResponseStatusException notFound(final String id) {
+    return new ResponseStatusException(HttpStatus.NOT_FOUND, "training job " + id + " not found");
+  }
+}
@@ -0,0 +1,29 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.Builder;
+import lombok.With;
+
+/**
+ * Parameters of a training job, the arguments of
+ * {@link GradientDescentService#compute(List, List, List, BigDecimal, BigDecimal, long, GradientDescentOptions)}.
+ *
+ * @param x                  (ndarray (m,n)): Data, m examples with n features.
+ * @param y                  (ndarray (m,)): target values.
+ * @param w                  (ndarray (n,)): initial values of the model parameters.
+ * @param b                  (scalar): initial value of the model parameter.
+ * @param alpha              (float): learning rate.
+ * @param numberOfIterations (scalar): number of iterations to run gradient descent.
+ * @param options            tuning knobs, the defaults when null.
+ */
+@With
+@Builder
+public record TrainingJobRequest(List<List<BigDecimal>> x,
+                                 List<BigDecimal> y,
+                                 List<BigDecimal> w,
+                                 BigDecimal b,
+                                 BigDecimal alpha,
+                                 long numberOfIterations,
+                                 GradientDescentOptions options) {
+}
@@ -0,0 +1,203 @@
+package at.mavila.linearr;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Asynchronous gradient descent. Jobs are queued on the training executor, report their progress while they run and
+ * keep their result once finished, until {@code linearr.training-jobs-retained} newer jobs have finished. Synchronous
+ * runs, see {@link #train(TrainingJobRequest)}, go through the same executor.
+ */
+@Service
+@Slf4j
+@AllArgsConstructor(onConstructor_ = @Autowired)
+public class TrainingJobService {
+
+  private final GradientDescentService gradientDescentService;
+  private final ExecutorService trainingExecutor;
+  private final LinearRegressionProperties properties;
+  private final TrainingMetrics metrics;
+  private final Map<String, TrainingJob> jobs = new ConcurrentHashMap<>();
+  private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Queue a training job.
+   *
+   * @param request the training parameters.
+   * @return the status of the queued job.
+   * @throws IllegalArgumentException   if the parameters are invalid.
+   * @throws RejectedExecutionException if the queue of the training executor is full.
+   */
+  public TrainingJobStatus submit(final TrainingJobRequest request) {
+    validate(request);
+
+    final TrainingJob job = new TrainingJob(UUID.randomUUID().toString(), request.numberOfIterations());
+    final GradientDescentOptions options = Objects.requireNonNullElse(request.options(), GradientDescentOptions.defaults())
+        .withProgressListener((iterations, cost, gradientNorm) -> {
+          job.progress(iterations, cost, gradientNorm);
+          this.metrics.recordIteration(job.id(), cost, gradientNorm);
+        });
+    this.jobs.put(job.id(), job);
+    this.metrics.jobSubmitted();
+    try {
+      job.setFuture(this.trainingExecutor.submit(() -> run(job, request, options)));
+    } catch (RejectedExecutionException e) {
+      this.jobs.remove(job.id());
+      this.metrics.jobFinished();
+      throw e;
+    }
+    return job.status();
+  }
+
+  /**
+   * Run gradient descent on the training executor and wait for its result, so synchronous training is bounded by the
+   * same workers and queue as the jobs. The run is not tracked as a job.
+   *
+   * @param request the training parameters.
+   * @return the trained parameters.
+   * @throws IllegalArgumentException   if the parameters are invalid.
+   * @throws RejectedExecutionException if the queue of the training executor is full.
+   */
+  public ResultGradientDescent train(final TrainingJobRequest request) {
+    validate(request);
+    final GradientDescentOptions options = Objects.requireNonNullElse(request.options(), GradientDescentOptions.defaults());
+    final Future<ResultGradientDescent> future = this.trainingExecutor.submit(() ->
+        this.gradientDescentService.compute(request.x(), request.y(), request.w(), request.b(), request.alpha(),
+            request.numberOfIterations(), options));
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while waiting for the training run", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("training run failed", e.getCause());
+    }
+  }
+
+  /**
+   * Snapshot of a job.
+   *
+   * @param id the job identifier.
+   * @return the status, empty if the job is unknown or was forgotten.
+   */
+  public Optional<TrainingJobStatus> status(final String id) {
+    return find(id).map(TrainingJob::status);
+  }
+
+  /**
+   * Result of a job.
+   *
+   * @param id the job identifier.
+   * @return the result, empty if the job is unknown, was forgotten or has no result yet.
+   */
+  public Optional<ResultGradientDescent> result(final String id) {
+    return find(id).map(TrainingJob::result);
+  }
+
+  /**
+   * Cancel a job. A queued job never runs; a running job stops after its current iteration and keeps the parameters
+   * it had reached as its result. Cancelling a finished job has no effect.
+   *
+   * @param id the job identifier.
+   * @return the status after the cancellation, empty if the job is unknown or was forgotten.
+   */
+  public Optional<TrainingJobStatus> cancel(final String id) {
+    return find(id).map(job -> {
+      if (job.cancel() == TrainingJobState.QUEUED) {
+        retire(job);
+      }
+      return job.status();
+    });
+  }
+
+  private Optional<TrainingJob> find(final String id) {
+    return Optional.ofNullable(id).map(this.jobs::get);
+  }
+
+  private static void validate(final TrainingJobRequest request) {
+    Utils.validateNotNull(request, "request");
+    Utils.validateList(request.x(), "x");
+    Utils.validateList(request.y(), "y");
+    Utils.validateList(request.w(), "w");
+    Utils.validateList(request.x().getFirst(), "x[0]");
+    //The shapes are checked before the job is accepted, so a malformed request is rejected rather than failing later
+    final int m = request.x().size();
+    final int n = request.x().getFirst().size();
+    for (int i = 0; i < m; i++) {
+      final List<BigDecimal> row = request.x().get(i);
+      if (Objects.isNull(row) || row.size() != n) {
+        throw new IllegalArgumentException("x[" + i + "] does not have " + n + " features");
+      }
+      for (int j = 0; j < n; j++) {
+        Utils.validateNotNull(row.get(j), "x[" + i + "][" + j + "]");
+      }
+    }
+    validateValues(request.y(), m, "y");
+    validateValues(request.w(), n, "w");
+    Utils.validateNotNull(request.b(), "b");
+    Utils.validateNotNull(request.alpha(), "alpha");
+    if (request.numberOfIterations() < 0L) {
+      throw new IllegalArgumentException("numberOfIterations is negative");
+    }
+  }
+
+  private static void validateValues(final List<BigDecimal> values, final int size, final String name) {
+    if (values.size() != size) {
+      throw new IllegalArgumentException(name + " does not have " + size + " values");
+    }
+    for (int i = 0; i < size; i++) {
+      Utils.validateNotNull(values.get(i), name + "[" + i + "]");
+    }
+  }
+
+  private void run(final TrainingJob job, final TrainingJobRequest request, final GradientDescentOptions options) {
+    if (!job.start()) {
+      return;
+    }
+    this.metrics.jobStarted(job.id());
+    try {
+      job.succeed(this.gradientDescentService.compute(request.x(), request.y(), request.w(), request.b(),
+          request.alpha(), request.numberOfIterations(), options));
+    } catch (RuntimeException | Error e) {
+      log.warn("Training job {} failed", job.id(), e);
+      job.fail(e);
+      if (e instanceof Error error) {
+        //The job is failed first, so it does not stay running, then the error keeps propagating
+        throw error;
+      }
+    } finally {
+      retire(job);
+    }
+  }
+
+  private void retire(final TrainingJob job) {
+    this.metrics.jobFinished();
+    this.metrics.jobRetired(job.id());
+    this.finished.add(job.id());
+    while (this.finished.size() > this.properties.trainingJobsRetained()) {
+      final String oldest = this.finished.poll();
+      if (Objects.nonNull(oldest)) {
+        this.jobs.remove(oldest);
+      }
+    }
+  }
+}
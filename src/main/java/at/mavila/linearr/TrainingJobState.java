@@ -0,0 +1,32 @@
+package at.mavila.linearr;
+
+/**
+ * Lifecycle of a training job submitted to {@link TrainingJobService}.
+ */
+public enum TrainingJobState {
+
+  /**
+   * Waiting for a training thread.
+   */
+  QUEUED,
+
+  /**
+   * Gradient descent is running.
+   */
+  RUNNING,
+
+  /**
+   * Gradient descent returned, its result is available.
+   */
+  SUCCEEDED,
+
+  /**
+   * Gradient descent threw, the error is available.
+   */
+  FAILED,
+
+  /**
+   * Cancelled before it finished. A job cancelled while running keeps the parameters it had reached as its result.
+   */
+  CANCELLED
+}
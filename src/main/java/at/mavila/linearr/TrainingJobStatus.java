@@ -0,0 +1,34 @@
+package at.mavila.linearr;
+
+import java.time.Instant;
+import lombok.Builder;
+import lombok.With;
+
+/**
+ * Snapshot of a training job.
+ *
+ * @param id                 the job identifier.
+ * @param state              where the job is in its lifecycle.
+ * @param iterations         iterations completed so far.
+ * @param numberOfIterations iterations requested.
+ * @param cost               the last computed cost, null before the first one.
+ * @param gradientNorm       the last computed euclidean norm of the gradient, null before the first one or when the
+ *                           run does not compute it.
+ * @param submittedAt        when the job was accepted.
+ * @param startedAt          when a training thread picked it up, null while queued.
+ * @param finishedAt         when it succeeded, failed or was cancelled, null before.
+ * @param error              the message of the failure of a failed job, null otherwise.
+ */
+@With
+@Builder
+public record TrainingJobStatus(String id,
+                                TrainingJobState state,
+                                long iterations,
+                                long numberOfIterations,
+                                Double cost,
+                                Double gradientNorm,
+                                Instant submittedAt,
+                                Instant startedAt,
+                                Instant finishedAt,
+                                String error) {
+}
@@ -0,0 +1,281 @@
+package at.mavila.linearr;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer meters of the training hot paths, exposed at {@code /actuator/prometheus}.
+ * <pre>
+ * linearr.gradient.duration                  timer, one gradient computation
+ * linearr.cost.duration                      timer, one cost computation
+ * linearr.prediction.duration                timer, one batch prediction
+ * linearr.gradient.descent.iteration         timer, one gradient descent iteration (epoch)
+ * linearr.samples.processed{operation}       counter, rows a gradient, cost or prediction pass went over
+ * linearr.training.jobs.in.flight            gauge, training jobs queued or running
+ * linearr.training.cost{job}                 gauge, last computed cost of a running training job
+ * linearr.training.gradient.norm{job}        gauge, last gradient norm of a running training job
+ * </pre>
+ * The cost and gradient norm gauges are tagged with the job identifier, so concurrent jobs do not overwrite each
+ * other. They are registered when the job starts and removed when it is retired.
+ * With {@code linearr.metrics-enabled=false}, or without a meter registry, every method returns after a single
+ * branch: no clock is read and nothing is recorded. Callers time a section with {@link #start()} and pass the
+ * returned value to the matching record method, so no sample object is allocated either way.
+ */
+@Component
+public class TrainingMetrics {
+
+  private static final String OPERATION = "operation";
+  private static final String JOB = "job";
+
+  private final boolean enabled;
+  private final MeterRegistry registry;
+  private final Timer gradientTimer;
+  private final Timer costTimer;
+  private final Timer iterationTimer;
+  private final Timer predictionTimer;
+  private final Counter gradientSamples;
+  private final Counter costSamples;
+  private final Counter predictionSamples;
+  private final AtomicInteger jobsInFlight = new AtomicInteger();
+  private final Map<String, JobGauges> jobGauges = new ConcurrentHashMap<>();
+
+  /**
+   * Register the meters.
+   *
+   * @param properties the application properties, for {@code linearr.metrics-enabled}.
+   * @param registry   the meter registry, when one is configured.
+   */
+  @Autowired
+  public TrainingMetrics(final LinearRegressionProperties properties, final ObjectProvider<MeterRegistry> registry) {
+    this(properties.metricsEnabled() ? registry.getIfAvailable() : null);
+  }
+
+  /**
+   * Register the meters in a registry.
+   *
+   * @param registry the meter registry, null to disable the metrics.
+   */
+  TrainingMetrics(final MeterRegistry registry) {
+    this.enabled = Objects.nonNull(registry);
+    this.registry = registry;
+    if (!this.enabled) {
+      this.gradientTimer = null;
+      this.costTimer = null;
+      this.iterationTimer = null;
+      this.predictionTimer = null;
+      this.gradientSamples = null;
+      this.costSamples = null;
+      this.predictionSamples = null;
+      return;
+    }
+    this.gradientTimer = Timer.builder("linearr.gradient.duration")
+        .description("Time of one gradient computation")
+        .register(registry);
+    this.costTimer = Timer.builder("linearr.cost.duration")
+        .description("Time of one cost computation")
+        .register(registry);
+    this.iterationTimer = Timer.builder("linearr.gradient.descent.iteration")
+        .description("Time of one gradient descent iteration")
+        .register(registry);
+    this.predictionTimer = Timer.builder("linearr.prediction.duration")
+        .description("Time of one batch prediction")
+        .register(registry);
+    this.gradientSamples = Counter.builder("linearr.samples.processed")
+        .description("Rows a pass went over")
+        .tag(OPERATION, "gradient")
+        .register(registry);
+    this.costSamples = Counter.builder("linearr.samples.processed")
+        .description("Rows a pass went over")
+        .tag(OPERATION, "cost")
+        .register(registry);
+    this.predictionSamples = Counter.builder("linearr.samples.processed")
+        .description("Rows a pass went over")
+        .tag(OPERATION, "prediction")
+        .register(registry);
+    Gauge.builder("linearr.training.jobs.in.flight", this.jobsInFlight, AtomicInteger::get)
+        .description("Training jobs queued or running")
+        .register(registry);
+  }
+
+  /**
+   * Metrics that record nothing, for services built outside of the application context.
+   *
+   * @return disabled metrics.
+   */
+  public static TrainingMetrics disabled() {
+    return new TrainingMetrics((MeterRegistry) null);
+  }
+
+  /**
+   * Whether anything is recorded.
+   *
+   * @return false when the metrics are disabled.
+   */
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Start timing a section.
+   *
+   * @return the start of the section in nanoseconds, 0 when the metrics are disabled.
+   */
+  public long start() {
+    return this.enabled ? System.nanoTime() : 0L;
+  }
+
+  /**
+   * Record a gradient computation.
+   *
+   * @param start the value returned by {@link #start()} before the computation.
+   * @param rows  the number of rows it went over.
+   */
+  public void recordGradient(final long start, final long rows) {
+    if (this.enabled) {
+      this.gradientTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      this.gradientSamples.increment(rows);
+    }
+  }
+
+  /**
+   * Record a cost computation.
+   *
+   * @param start the value returned by {@link #start()} before the computation.
+   * @param rows  the number of rows it went over.
+   */
+  public void recordCost(final long start, final long rows) {
+    if (this.enabled) {
+      this.costTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      this.costSamples.increment(rows);
+    }
+  }
+
+  /**
+   * Record a batch prediction.
+   *
+   * @param start the value returned by {@link #start()} before the prediction.
+   * @param rows  the number of rows scored.
+   */
+  public void recordPrediction(final long start, final long rows) {
+    if (this.enabled) {
+      this.predictionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      this.predictionSamples.increment(rows);
+    }
+  }
+
+  /**
+   * Record a gradient descent iteration.
+   *
+   * @param start the value returned by {@link #start()} before the iteration.
+   * @param rows  the number of rows its gradient passes went over, 0 when they were recorded on their own.
+   */
+  public void recordIteration(final long start, final long rows) {
+    if (this.enabled) {
+      this.iterationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      if (rows > 0L) {
+        this.gradientSamples.increment(rows);
+      }
+    }
+  }
+
+  /**
+   * Record the progress of a training job, see {@link ProgressListener}.
+   *
+   * @param job          the job identifier, whose gauges were registered by {@link #jobStarted(String)}.
+   * @param cost         the cost computed in the iteration, NaN if it was not computed.
+   * @param gradientNorm the norm of the gradient, NaN if it was not computed.
+   */
+  public void recordIteration(final String job, final double cost, final double gradientNorm) {
+    if (this.enabled) {
+      final JobGauges gauges = this.jobGauges.get(job);
+      if (Objects.nonNull(gauges)) {
+        gauges.update(cost, gradientNorm);
+      }
+    }
+  }
+
+  /**
+   * Register the cost and gradient norm gauges of a training job that started running.
+   *
+   * @param job the job identifier.
+   */
+  public void jobStarted(final String job) {
+    if (this.enabled) {
+      this.jobGauges.computeIfAbsent(job, id -> new JobGauges(id, this.registry));
+    }
+  }
+
+  /**
+   * Remove the gauges of a training job that is retired, whether it ran or not.
+   *
+   * @param job the job identifier.
+   */
+  public void jobRetired(final String job) {
+    if (this.enabled) {
+      final JobGauges gauges = this.jobGauges.remove(job);
+      if (Objects.nonNull(gauges)) {
+        gauges.remove(this.registry);
+      }
+    }
+  }
+
+  /**
+   * Count a training job that was accepted.
+   */
+  public void jobSubmitted() {
+    this.jobsInFlight.incrementAndGet();
+  }
+
+  /**
+   * Count a training job that succeeded, failed or was cancelled.
+   */
+  public void jobFinished() {
+    this.jobsInFlight.decrementAndGet();
+  }
+
+  /**
+   * The last cost and gradient norm of one job, and the gauges that read them.
+   */
+  private static final class JobGauges {
+
+    private volatile double cost = Double.NaN;
+    private volatile double gradientNorm = Double.NaN;
+    private final Gauge costGauge;
+    private final Gauge gradientNormGauge;
+
+    JobGauges(final String job, final MeterRegistry registry) {
+      this.costGauge = Gauge.builder("linearr.training.cost", this, gauges -> gauges.cost)
+          .description("Last computed cost of a running training job")
+          .tag(JOB, job)
+          .register(registry);
+      this.gradientNormGauge = Gauge.builder("linearr.training.gradient.norm", this, gauges -> gauges.gradientNorm)
+          .description("Last gradient norm of a running training job")
+          .tag(JOB, job)
+          .register(registry);
+    }
+
+    void update(final double cost, final double gradientNorm) {
+      if (!Double.isNaN(cost)) {
+        this.cost = cost;
+      }
+      if (!Double.isNaN(gradientNorm)) {
+        this.gradientNorm = gradientNorm;
+      }
+    }
+
+    void remove(final MeterRegistry registry) {
+      registry.remove(this.costGauge);
+      registry.remove(this.gradientNormGauge);
+    }
+  }
+}
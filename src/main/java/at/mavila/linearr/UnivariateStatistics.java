@@ -0,0 +1,153 @@
+package at.mavila.linearr;
+
+/**
+ * Sufficient statistics of the univariate linear regression model f(x) = w * x + b, kept as the count, the means and
+ * the centered sums of squares and products instead of raw power sums. Points are added with Welford's update and
+ * partial statistics are merged with Chan's formula, so large offsets in x or y do not cancel catastrophically the way
+ * n * sum(x^2) - sum(x)^2 does. Points can also be retracted, so the statistics of a sliding window of samples are
+ * maintained in O(1) per sample, and the parameters and cost are available at any time without going over the points
+ * again. Not thread safe: every thread or shard keeps its own statistics and they are merged.
+ * <pre>
+ * add (1, 2), (2, 3), (3, 4), (4, 5): w() = 1.0, b() = 1.0, cost(2, 1) = 3.75
+ * </pre>
+ */
+public final class UnivariateStatistics {
+
+  private long count;
+  private double meanX;
+  private double meanY;
+  private double m2X;
+  private double m2Y;
+  private double cXY;
+
+  /**
+   * Add a point.
+   *
+   * @param x the x value.
+   * @param y the y value.
+   * @return these statistics.
+   */
+  public UnivariateStatistics add(final double x, final double y) {
+    this.count++;
+    final double dx = x - this.meanX;
+    final double dy = y - this.meanY;
+    this.meanX += dx / this.count;
+    this.meanY += dy / this.count;
+    this.m2X += dx * (x - this.meanX);
+    this.m2Y += dy * (y - this.meanY);
+    this.cXY += dx * (y - this.meanY);
+    return this;
+  }
+
+  /**
+   * Retract a point previously added, the reverse of {@link #add(double, double)}.
+   *
+   * @param x the x value.
+   * @param y the y value.
+   * @return these statistics.
+   * @throws IllegalArgumentException if there are no points.
+   */
+  public UnivariateStatistics remove(final double x, final double y) {
+    if (this.count == 0L) {
+      throw new IllegalArgumentException("there are no points to remove");
+    }
+    if (this.count == 1L) {
+      copy(new UnivariateStatistics());
+      return this;
+    }
+    this.count--;
+    final double meanX = this.meanX - (x - this.meanX) / this.count;
+    final double meanY = this.meanY - (y - this.meanY) / this.count;
+    this.m2X = Math.max(0D, this.m2X - (x - meanX) * (x - this.meanX));
+    this.m2Y = Math.max(0D, this.m2Y - (y - meanY) * (y - this.meanY));
+    this.cXY -= (x - meanX) * (y - this.meanY);
+    this.meanX = meanX;
+    this.meanY = meanY;
+    return this;
+  }
+
+  /**
+   * Merge partial statistics, such as the ones of another chunk of the points, into these ones.
+   *
+   * @param other the partial statistics to merge.
+   * @return these statistics.
+   */
+  public UnivariateStatistics merge(final UnivariateStatistics other) {
+    if (other.count == 0L) {
+      return this;
+    }
+    if (this.count == 0L) {
+      copy(other);
+      return this;
+    }
+    final long total = this.count + other.count;
+    final double dx = other.meanX - this.meanX;
+    final double dy = other.meanY - this.meanY;
+    final double weight = (double) this.count * other.count / total;
+    this.meanX += dx * other.count / total;
+    this.meanY += dy * other.count / total;
+    this.m2X += other.m2X + dx * dx * weight;
+    this.m2Y += other.m2Y + dy * dy * weight;
+    this.cXY += other.cXY + dx * dy * weight;
+    this.count = total;
+    return this;
+  }
+
+  /**
+   * Number of points.
+   *
+   * @return the number of points added.
+   */
+  public long count() {
+    return this.count;
+  }
+
+  /**
+   * Least-squares weight, cov(x, y) / var(x).
+   *
+   * @return the w minimizing the cost.
+   * @throws IllegalArgumentException if there are no points or all the x values are equal.
+   */
+  public double w() {
+    if (this.count == 0L || this.m2X == 0D) {
+      throw new IllegalArgumentException("x has no variance");
+    }
+    return this.cXY / this.m2X;
+  }
+
+  /**
+   * Least-squares bias, mean(y) - w * mean(x).
+   *
+   * @return the b minimizing the cost.
+   * @throws IllegalArgumentException if there are no points or all the x values are equal.
+   */
+  public double b() {
+    return this.meanY - w() * this.meanX;
+  }
+
+  /**
+   * Cost of the model at any parameters, 1/2m * sum((w * x + b - y)^2), without going over the points again.
+   *
+   * @param w weight
+   * @param b bias
+   * @return the cost, as computed by {@link ComputeCostService}.
+   * @throws IllegalArgumentException if there are no points.
+   */
+  public double cost(final double w, final double b) {
+    if (this.count == 0L) {
+      throw new IllegalArgumentException("x is empty");
+    }
+    final double meanResidual = w * this.meanX + b - this.meanY;
+    final double squares = this.count * meanResidual * meanResidual + w * w * this.m2X - 2D * w * this.cXY + this.m2Y;
+    return Math.max(0D, squares) / (2D * this.count);
+  }
+
+  private void copy(final UnivariateStatistics other) {
+    this.count = other.count;
+    this.meanX = other.meanX;
+    this.meanY = other.meanY;
+    this.m2X = other.m2X;
+    this.m2Y = other.m2Y;
+    this.cXY = other.cXY;
+  }
+}
@@ -6,7 +6,6 @@ import java.util.Objects;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.math3.linear.ArrayRealVector;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Utils {
@@ -53,16 +52,114 @@ public final class Utils {
     }
   }
 
+  /**
+   * Convenient method to size the row-major array of a dense m x n matrix.
+   *
+   * @param m the number of rows.
+   * @param n the number of columns.
+   * @return m * n.
+   * @throws IllegalArgumentException if m * n does not fit in an array.
+   */
+  public static int denseSize(int m, int n) {
+    try {
+      return Math.multiplyExact(m, n);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("x has " + ((long) m * n) + " values, more than an array holds", e);
+    }
+  }
+
+  /**
+   * Convenient method to validate the parameters of a computation over a dense dataset.
+   *
+   * @param x the dense dataset, m examples with n features.
+   * @param y the target values, of length m.
+   * @param w the weights, of length n.
+   * @throws IllegalArgumentException if any of them is null or the lengths do not match the dataset.
+   */
+  public static void validateDense(FeatureMatrix x, double[] y, double[] w) {
+    validateNotNull(x, "x");
+    validateNotNull(y, "y");
+    validateNotNull(w, "w");
+    if (y.length != x.m()) {
+      throw new IllegalArgumentException("y does not have " + x.m() + " values");
+    }
+    if (w.length != x.n()) {
+      throw new IllegalArgumentException("w does not have " + x.n() + " values");
+    }
+  }
+
+  /**
+   * Convenient method to validate the parameters of a computation over a chunked dataset.
+   *
+   * @param x the chunked dataset, with n features.
+   * @param w the weights, of length n.
+   * @throws IllegalArgumentException if any of them is null or the length of w does not match the dataset.
+   */
+  public static void validateChunked(ChunkedDataset x, double[] w) {
+    validateNotNull(x, "x");
+    validateNotNull(w, "w");
+    if (w.length != x.n()) {
+      throw new IllegalArgumentException("w does not have " + x.n() + " values");
+    }
+  }
+
+  /**
+   * Convenient method to unbox a list of BigDecimals.
+   *
+   * @param list the list to convert.
+   * @param name the name of the list.
+   * @return the values of the list as doubles.
+   * @throws IllegalArgumentException if the list is null or empty.
+   */
+  public static double[] toDoubleArray(List<BigDecimal> list, String name) {
+    validateList(list, name);
+    return list.stream().mapToDouble(BigDecimal::doubleValue).toArray();
+  }
+
+  /**
+   * Convenient method to unbox a list of BigDecimals into single precision.
+   *
+   * @param list the list to convert.
+   * @param name the name of the list.
+   * @return the values of the list rounded to float.
+   * @throws IllegalArgumentException if the list is null or empty.
+   */
+  public static float[] toFloatArray(List<BigDecimal> list, String name) {
+    validateList(list, name);
+    final float[] values = new float[list.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = list.get(i).floatValue();
+    }
+    return values;
+  }
+
+  /**
+   * Dot product of a slice of a row-major matrix with a vector, without allocating.
+   *
+   * @param values the backing array of the matrix.
+   * @param offset the offset of the row in values.
+   * @param w      the vector, at least n long.
+   * @param n      the number of elements to multiply.
+   * @return the dot product of values[offset .. offset + n - 1] and w[0 .. n - 1].
+   */
+  public static double calculateDotProduct(double[] values, int offset, double[] w, int n) {
+    return VectorKernels.dot(values, offset, w, n);
+  }
+
+  /**
+   * Dot product of two lists of BigDecimals, computed in double precision.
+   *
+   * @param xN the first list.
+   * @param w  the second list, as long as xN.
+   * @return the dot product of xN and w.
+   * @throws IllegalArgumentException if the lists have different sizes.
+   */
   public static double calculateDotProduct(List<BigDecimal> xN, List<BigDecimal> w) {
-    return (new ArrayRealVector(
-        xN.stream()
-            .mapToDouble(BigDecimal::doubleValue)
-            .toArray())
-    ).dotProduct(
-        new ArrayRealVector(
-            w.stream()
-                .mapToDouble(BigDecimal::doubleValue)
-                .toArray())
-    );
+    if (xN.size() != w.size()) {
+      throw new IllegalArgumentException("xN and w have different sizes");
+    }
+    return VectorKernels.dot(
+        xN.stream().mapToDouble(BigDecimal::doubleValue).toArray(),
+        w.stream().mapToDouble(BigDecimal::doubleValue).toArray());
   }
 }
@@ -0,0 +1,107 @@
+package at.mavila.linearr;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Entry point of the vectorized kernels used by the dense training paths.
+ * The SIMD implementation is picked once, at class initialization, when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}; otherwise, or when the system property {@value #DISABLE_PROPERTY} is true,
+ * every call falls back to plain scalar loops. Results of both implementations agree up to the rounding of the
+ * different summation order.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class VectorKernels {
+
+  /**
+   * System property that forces the scalar implementation.
+   */
+  public static final String DISABLE_PROPERTY = "linearr.vector.disabled";
+
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+  private static final Kernels KERNELS = selectKernels();
+
+  /**
+   * Whether the SIMD implementation is in use.
+   *
+   * @return true when the Vector API kernels were selected.
+   */
+  public static boolean isVectorized() {
+    //Not instanceof SimdKernels: it is only named reflectively, so it is never linked without the incubator module
+    return !(KERNELS instanceof ScalarKernels);
+  }
+
+  /**
+   * The implementation picked at class initialization.
+   *
+   * @return the SIMD kernels when {@link #isVectorized()}, the scalar ones otherwise.
+   */
+  static Kernels kernels() {
+    return KERNELS;
+  }
+
+  /**
+   * Dot product of a row of a row-major matrix with a vector.
+   *
+   * @param values the backing array of the matrix.
+   * @param offset the offset of the row in values.
+   * @param w      the vector, at least n long.
+   * @param n      the number of elements to multiply.
+   * @return the dot product of values[offset .. offset + n - 1] and w[0 .. n - 1].
+   */
+  public static double dot(final double[] values, final int offset, final double[] w, final int n) {
+    return KERNELS.dot(values, offset, w, 0, n);
+  }
+
+  /**
+   * Dot product of two vectors of the same length.
+   *
+   * @param a the first vector.
+   * @param b the second vector.
+   * @return the dot product of a and b.
+   */
+  public static double dot(final double[] a, final double[] b) {
+    return KERNELS.dot(a, 0, b, 0, a.length);
+  }
+
+  /**
+   * In place update y = y + alpha * x, as in the weight update w = w - alpha * djDw.
+   *
+   * @param alpha the scale factor.
+   * @param x     the vector to add.
+   * @param y     the vector to update, as long as x.
+   */
+  public static void axpy(final double alpha, final double[] x, final double[] y) {
+    KERNELS.axpy(alpha, x, 0, y, 0, x.length);
+  }
+
+  /**
+   * Accumulate a scaled row of a row-major matrix, y = y + alpha * values[offset .. offset + n - 1],
+   * as in the residual times row sum of the gradient.
+   *
+   * @param alpha  the scale factor, such as the residual of the row.
+   * @param values the backing array of the matrix.
+   * @param offset the offset of the row in values.
+   * @param y      the vector to update, at least n long.
+   * @param n      the number of elements to accumulate.
+   */
+  public static void axpy(final double alpha, final double[] values, final int offset, final double[] y, final int n) {
+    KERNELS.axpy(alpha, values, offset, y, 0, n);
+  }
+
+  private static Kernels selectKernels() {
+    if (Boolean.getBoolean(DISABLE_PROPERTY) || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+      log.info("Using scalar kernels, start the JVM with --add-modules {} to vectorize them", VECTOR_MODULE);
+      return new ScalarKernels();
+    }
+    try {
+      return (Kernels) Class.forName("at.mavila.linearr.SimdKernels").getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      log.warn("Vector API kernels are not available, using scalar kernels", e);
+      return new ScalarKernels();
+    }
+  }
+}
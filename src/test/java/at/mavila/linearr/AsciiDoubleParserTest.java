@@ -0,0 +1,55 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class AsciiDoubleParserTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {"0", "-0", "1", "+7", "0.1", "-12.5e-1", "0.000123", "1E22", "1e-22", "123456789012345",
+      "1234567890123456789", "2.2250738585072014E-308", "1e400", "-1e-400", "00042.500", "-Infinity", ".5", "5."})
+  void whenParsingThenSameAsDoubleParseDouble(String text) {
+    byte[] bytes = (" " + text + " ").getBytes(StandardCharsets.US_ASCII);
+
+    assertThat(AsciiDoubleParser.parse(bytes, 1, bytes.length - 1)).isEqualTo(Double.parseDouble(text));
+  }
+
+  @Property
+  void whenParsingTheShortestRepresentationThenSameDouble(@ForAll double value) {
+    byte[] bytes = Double.toString(value).getBytes(StandardCharsets.US_ASCII);
+
+    assertThat(AsciiDoubleParser.parse(bytes, 0, bytes.length)).isEqualTo(value);
+  }
+
+  @Property
+  void whenParsingFixedPointValuesThenSameAsDoubleParseDouble(@ForAll long units, @ForAll("scale") int scale) {
+    String text = BigDecimal.valueOf(units, scale).toPlainString();
+    byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+
+    assertThat(AsciiDoubleParser.parse(bytes, 0, bytes.length)).isEqualTo(Double.parseDouble(text));
+  }
+
+  @Provide
+  Arbitrary<Integer> scale() {
+    return Arbitraries.integers().between(0, 12);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "-", "1,5", "1e", "1.2.3", "abc", "1e+"})
+  void whenNotANumberThenThrowException(String text) {
+    byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+
+    assertThatThrownBy(() -> AsciiDoubleParser.parse(bytes, 0, bytes.length))
+        .isInstanceOf(NumberFormatException.class);
+  }
+}
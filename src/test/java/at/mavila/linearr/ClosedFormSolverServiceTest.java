@@ -0,0 +1,108 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ClosedFormSolverServiceTest {
+
+  @Autowired
+  private ClosedFormSolverService closedFormSolverService;
+
+  @Autowired
+  private ComputeCostService computeCostService;
+
+  @Autowired
+  private ComputeGradientService computeGradientService;
+
+  @Test
+  void whenPointsAreOnALineThenExactFit() {
+    ResultClosedFormSolver result = this.closedFormSolverService.solve(
+        List.of(BigDecimal.valueOf(1), BigDecimal.valueOf(2), BigDecimal.valueOf(3), BigDecimal.valueOf(4)),
+        List.of(BigDecimal.valueOf(3), BigDecimal.valueOf(5), BigDecimal.valueOf(7), BigDecimal.valueOf(9)));
+
+    assertThat(result.w()).isEqualByComparingTo("2");
+    assertThat(result.b()).isEqualByComparingTo("1");
+    assertThat(result.cost()).isEqualByComparingTo("0");
+  }
+
+  @Test
+  void whenNoisyThenCostIsMinimalAndGradientVanishes() {
+    SplittableRandom random = new SplittableRandom(3L);
+    List<BigDecimal> x = random.doubles(200, 0D, 10D).mapToObj(BigDecimal::valueOf).toList();
+    List<BigDecimal> y = x.stream()
+        .map(xi -> BigDecimal.valueOf(1.5D * xi.doubleValue() - 4D + random.nextDouble(-1D, 1D)))
+        .toList();
+
+    ResultClosedFormSolver result = this.closedFormSolverService.solve(x, y);
+
+    BigDecimal cost = this.computeCostService.computeCost(x, y, result.w(), result.b(), NumericBackend.DOUBLE);
+    List<BigDecimal> gradient =
+        this.computeGradientService.computeGradient(x, y, result.w(), result.b(), NumericBackend.DOUBLE);
+    assertThat(result.cost().doubleValue()).isCloseTo(cost.doubleValue(), within(1e-12D));
+    assertThat(gradient.get(0).doubleValue()).isCloseTo(0D, within(1e-10D));
+    assertThat(gradient.get(1).doubleValue()).isCloseTo(0D, within(1e-10D));
+    assertThat(this.computeCostService.computeCost(x, y, result.w().add(new BigDecimal("0.01")), result.b(),
+        NumericBackend.DOUBLE)).isGreaterThan(cost);
+  }
+
+  @Test
+  void whenValuesHaveALargeOffsetThenStillAccurate() {
+    final int m = 100_000;
+    double[] x = new double[m];
+    double[] y = new double[m];
+    for (int i = 0; i < m; i++) {
+      x[i] = 1e9D + (i % 100) * 0.01D;
+      y[i] = 3D * (i % 100) * 0.01D + 1e9D;
+    }
+
+    UnivariateStatistics sequential = this.closedFormSolverService.statistics(x, y, false);
+    UnivariateStatistics parallel = this.closedFormSolverService.statistics(x, y, true);
+
+    assertThat(sequential.count()).isEqualTo(m);
+    assertThat(sequential.w()).isCloseTo(3D, within(1e-6D));
+    assertThat(parallel.w()).isCloseTo(sequential.w(), within(1e-9D));
+    assertThat(sequential.b()).isCloseTo(-2e9D, within(10D));
+    assertThat(parallel.b()).isCloseTo(-2e9D, within(10D));
+  }
+
+  @Test
+  void whenSolvingAFeatureMatrixThenSameAsSequentialStatistics() {
+    final int m = 70_000;
+    SplittableRandom random = new SplittableRandom(5L);
+    DenseDataset x = new DenseDataset(random.doubles(2L * m, -1D, 1D).toArray(), m, 2);
+    double[] y = new double[m];
+    MultivariateStatistics sequential = new MultivariateStatistics(2);
+    for (int i = 0; i < m; i++) {
+      y[i] = 3D * x.get(i, 0) - x.get(i, 1) + 0.5D + random.nextDouble(-0.01D, 0.01D);
+      sequential.add(x, i, y[i]);
+    }
+
+    ResultLeastSquares result = this.closedFormSolverService.solve(x, y);
+
+    assertThat(result.w()).containsExactly(new double[] {3D, -1D}, within(1e-3D));
+    assertThat(result.b()).isCloseTo(0.5D, within(1e-3D));
+    assertThat(result.w()).containsExactly(sequential.solve().w(), within(1e-10D));
+  }
+
+  @Test
+  void whenXHasNoVarianceThenThrowException() {
+    List<BigDecimal> x = List.of(BigDecimal.ONE, BigDecimal.ONE);
+    List<BigDecimal> y = List.of(BigDecimal.ONE, BigDecimal.TWO);
+
+    assertThatThrownBy(() -> this.closedFormSolverService.solve(x, y))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x has no variance");
+    assertThatThrownBy(() -> this.closedFormSolverService.solve(x, List.of(BigDecimal.ONE)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x and y have different sizes");
+  }
+}
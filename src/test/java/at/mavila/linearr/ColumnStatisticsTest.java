@@ -0,0 +1,86 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class ColumnStatisticsTest {
+
+  @Test
+  void whenComputedThenMomentsAndRangeOfEveryColumn() {
+    DenseDataset x = new DenseDataset(new double[] {1D, 10D, 2D, 20D, 3D, 30D, 4D, 40D}, 4, 2);
+
+    ColumnStatistics statistics = ColumnStatistics.of(x);
+
+    assertThat(statistics.count()).isEqualTo(4L);
+    assertThat(statistics.mean(0)).isEqualTo(2.5D);
+    assertThat(statistics.mean(1)).isEqualTo(25D);
+    assertThat(statistics.standardDeviation(0)).isCloseTo(Math.sqrt(1.25D), within(1e-15D));
+    assertThat(statistics.min(1)).isEqualTo(10D);
+    assertThat(statistics.max(1)).isEqualTo(40D);
+  }
+
+  @Test
+  void whenLargeThenParallelPassMatchesAndIsCached() {
+    final int m = 100_000;
+    SplittableRandom random = new SplittableRandom(9L);
+    DenseDataset x = new DenseDataset(random.doubles(3L * m, 1e6D, 1e6D + 1D).toArray(), m, 3);
+    double sum = 0D;
+    for (int i = 0; i < m; i++) {
+      sum += x.get(i, 2);
+    }
+    double mean = sum / m;
+    double squares = 0D;
+    for (int i = 0; i < m; i++) {
+      squares += (x.get(i, 2) - mean) * (x.get(i, 2) - mean);
+    }
+
+    ColumnStatistics statistics = ColumnStatistics.of(x);
+
+    assertThat(statistics.mean(2)).isCloseTo(mean, within(1e-8D));
+    assertThat(statistics.standardDeviation(2)).isCloseTo(Math.sqrt(squares / m), within(1e-9D));
+    assertThat(ColumnStatistics.of(x)).isSameAs(statistics);
+  }
+
+  @Test
+  void whenAPassIsSlowThenOtherDatasetsAreNotBlocked() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ChunkedDataset slow = new ChunkedDataset() {
+      @Override
+      public int n() {
+        return 1;
+      }
+
+      @Override
+      public void forEachChunk(final Consumer<DatasetChunk> consumer) {
+        entered.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    CompletableFuture<ColumnStatistics> scan = CompletableFuture.supplyAsync(() -> ColumnStatistics.of(slow));
+    entered.await();
+
+    ColumnStatistics other = CompletableFuture
+        .supplyAsync(() -> ColumnStatistics.of(new DenseDataset(new double[] {1D, 3D}, 2, 1)))
+        .get(10L, TimeUnit.SECONDS);
+    release.countDown();
+
+    assertThat(other.mean(0)).isEqualTo(2D);
+    assertThatThrownBy(scan::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasRootCauseMessage("x has no rows");
+  }
+}
@@ -0,0 +1,157 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ColumnarDatasetFormatTest {
+
+  private static final DenseDataset X =
+      new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+  private static final double[] Y = {0D, 0D, 0D, 1D, 1D, 1D};
+
+  @TempDir
+  Path directory;
+
+  @Autowired
+  private GradientDescentService gradientDescentService;
+
+  @Autowired
+  private ComputeGradientLogisticService computeGradientLogisticService;
+
+  @Test
+  void whenWrittenAndMappedThenSameValues() throws IOException {
+    Path path = this.directory.resolve("dataset.lrcd");
+
+    ColumnarDatasetFormat.write(path, X, Y, ColumnType.FLOAT64);
+    MappedColumnarDataset mapped = ColumnarDatasetFormat.map(path);
+
+    assertThat(Files.size(path)).isEqualTo(ColumnarDatasetFormat.HEADER_SIZE + 6L * 2 * 8 + 6L * 8);
+    assertThat(mapped.m()).isEqualTo(6);
+    assertThat(mapped.n()).isEqualTo(2);
+    assertThat(mapped.type()).isEqualTo(ColumnType.FLOAT64);
+    assertThat(mapped.labels()).containsExactly(Y);
+    double[] w = {2D, -3D};
+    for (int i = 0; i < 6; i++) {
+      assertThat(mapped.get(i, 1)).isEqualTo(X.get(i, 1));
+      assertThat(mapped.dot(i, w)).isEqualTo(X.dot(i, w));
+    }
+    double[] fromMapped = new double[2];
+    double[] fromDense = new double[2];
+    mapped.axpy(3, 0.5D, fromMapped);
+    X.axpy(3, 0.5D, fromDense);
+    assertThat(fromMapped).containsExactly(fromDense);
+  }
+
+  @Test
+  void whenTrainingOnMappedFileThenSameResultAsDense() throws IOException {
+    Path path = this.directory.resolve("dataset.lrcd");
+    ColumnarDatasetFormat.write(path, X, Y, ColumnType.FLOAT64);
+    MappedColumnarDataset mapped = ColumnarDatasetFormat.map(path);
+    double[] w = {0D, 0D};
+
+    ResultGradientDescent dense = this.gradientDescentService.compute(X, Y, w, 0D, 0.1D, 1000L,
+        GradientDescentOptions.defaults().withParallelism(1));
+    ResultGradientDescent fromFile = this.gradientDescentService.compute(mapped, mapped.labels(), w, 0D, 0.1D, 1000L,
+        GradientDescentOptions.defaults().withParallelism(1));
+
+    assertThat(fromFile.w().getFirst()).isCloseTo(dense.w().getFirst(), Percentage.withPercentage(1e-9));
+    assertThat(fromFile.w().getLast()).isCloseTo(dense.w().getLast(), Percentage.withPercentage(1e-9));
+    assertThat(fromFile.b()).isCloseTo(dense.b(), Percentage.withPercentage(1e-9));
+  }
+
+  @Test
+  void whenGradientIsTakenColumnByColumnThenSameAsRowByRow() throws IOException {
+    SplittableRandom random = new SplittableRandom(5L);
+    int m = 2 * MappedColumnarDataset.BLOCK_ROWS + 37;
+    DenseDataset x = new DenseDataset(random.doubles(m * 5L, -2D, 2D).toArray(), m, 5);
+    double[] y = random.ints(m, 0, 2).asDoubleStream().toArray();
+    double[] w = {0.5D, -1D, 0.25D, 2D, -0.75D};
+    for (ColumnType type : ColumnType.values()) {
+      Path path = this.directory.resolve(type + ".lrcd");
+      ColumnarDatasetFormat.write(path, x, y, type);
+      MappedColumnarDataset mapped = ColumnarDatasetFormat.map(path);
+      //The same dataset through its row operations only
+      FeatureMatrix rows = new FeatureMatrix() {
+        @Override
+        public int m() {
+          return mapped.m();
+        }
+
+        @Override
+        public int n() {
+          return mapped.n();
+        }
+
+        @Override
+        public double dot(final int i, final double[] v) {
+          return mapped.dot(i, v);
+        }
+
+        @Override
+        public void axpy(final int i, final double alpha, final double[] v) {
+          mapped.axpy(i, alpha, v);
+        }
+      };
+      GradientAccumulator columnar = new GradientAccumulator(5, true);
+      GradientAccumulator rowByRow = new GradientAccumulator(5, true);
+
+      this.computeGradientLogisticService.accumulate(mapped, y, w, 0.5D, 3, m, columnar);
+      this.computeGradientLogisticService.accumulate(rows, y, w, 0.5D, 3, m, rowByRow);
+
+      assertThat(columnar.djDw).containsExactly(rowByRow.djDw);
+      assertThat(columnar.djDb).isEqualTo(rowByRow.djDb);
+      assertThat(columnar.cost).isEqualTo(rowByRow.cost);
+    }
+  }
+
+  @Test
+  void whenWritingListsAsFloatsThenValuesAreRounded() throws IOException {
+    Path path = this.directory.resolve("floats.lrcd");
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.1"), new BigDecimal("1")),
+        List.of(new BigDecimal("2"), new BigDecimal("0.3")));
+
+    ColumnarDatasetFormat.write(path, x, List.of(BigDecimal.ZERO, BigDecimal.ONE), ColumnType.FLOAT32);
+    MappedColumnarDataset mapped = ColumnarDatasetFormat.map(path);
+
+    assertThat(Files.size(path)).isEqualTo(ColumnarDatasetFormat.HEADER_SIZE + 2L * 2 * 4 + 2L * 8);
+    assertThat(mapped.type()).isEqualTo(ColumnType.FLOAT32);
+    assertThat(mapped.get(0, 0)).isEqualTo(0.1F);
+    assertThat(mapped.get(1, 1)).isEqualTo(0.3F);
+    assertThat(mapped.labels()).containsExactly(0D, 1D);
+  }
+
+  @Test
+  void whenFileIsNotADatasetThenThrowException() throws IOException {
+    Path path = this.directory.resolve("garbage.lrcd");
+    Files.write(path, new byte[64]);
+    Path truncated = this.directory.resolve("truncated.lrcd");
+    ColumnarDatasetFormat.write(truncated, X, Y, ColumnType.FLOAT64);
+    byte[] content = Files.readAllBytes(truncated);
+    Files.write(truncated, Arrays.copyOf(content, content.length - 1));
+
+    assertThatThrownBy(() -> ColumnarDatasetFormat.map(path))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("is not a columnar dataset");
+    assertThatThrownBy(() -> ColumnarDatasetFormat.map(truncated))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("is truncated");
+    assertThatThrownBy(() -> ColumnarDatasetFormat.write(path, X, new double[] {1D}, ColumnType.FLOAT64))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("y does not have 6 values");
+  }
+}
@@ -0,0 +1,39 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CompensatedSumTest {
+
+  @Test
+  void whenCancellingLargeValuesThenSmallValueIsKept() {
+    CompensatedSum sum = new CompensatedSum().add(1e100D).add(1D).add(-1e100D);
+
+    assertThat(sum.value()).isEqualTo(1D);
+  }
+
+  @Test
+  void whenAddingManySmallValuesThenNoDrift() {
+    CompensatedSum sum = new CompensatedSum();
+    for (int i = 0; i < 10_000_000; i++) {
+      sum.add(0.1D);
+    }
+
+    assertThat(sum.value()).isEqualTo(1_000_000D);
+  }
+
+  @Test
+  void whenMergingPartialSumsThenSameAsSequential() {
+    CompensatedSum sequential = new CompensatedSum();
+    CompensatedSum left = new CompensatedSum();
+    CompensatedSum right = new CompensatedSum();
+    for (int i = 0; i < 1000; i++) {
+      final double value = (i % 2 == 0 ? 1e16D : -1e16D) + i * 0.1D;
+      sequential.add(value);
+      (i < 500 ? left : right).add(value);
+    }
+
+    assertThat(left.merge(right).value()).isEqualTo(sequential.value());
+  }
+}
@@ -145,4 +145,24 @@ class ComputeCostLogisticServiceTest {
     assertThat(compute).isNotNull().isCloseTo(new BigDecimal("1.2002001197388507667"), Percentage.withPercentage(0.0001));
   }
 
-}
\ No newline at end of file
+  @Test
+  void whenUsingDenseDatasetThenSameResultAsLists() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    double[] w = {1D, 1D};
+
+    assertThat(this.computeCostLogisticService.compute(x, y, w, -3D))
+        .isCloseTo(0.3668667864055175D, Percentage.withPercentage(0.0001));
+    assertThat(this.computeCostLogisticService.compute(x, y, w, -4D))
+        .isCloseTo(0.5036808636748461D, Percentage.withPercentage(0.0001));
+  }
+
+  @Test
+  void whenDenseSigmoidSaturatesThenCostIsFinite() {
+    DenseDataset x = new DenseDataset(new double[] {100D, -100D}, 2, 1);
+    double[] y = {0D, 1D};
+    double[] w = {10D};
+
+    assertThat(this.computeCostLogisticService.compute(x, y, w, 0D)).isCloseTo(1000D, Percentage.withPercentage(0.0001));
+  }
+}
@@ -5,12 +5,16 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.SplittableRandom;
 import lombok.extern.slf4j.Slf4j;
 import net.jqwik.api.ForAll;
+import org.assertj.core.data.Percentage;
 import net.jqwik.api.Property;
 import net.jqwik.api.constraints.BigRange;
 import net.jqwik.spring.JqwikSpringSupport;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -329,4 +333,100 @@ class ComputeCostServiceTest {
     log.info("w: {}, b: {}, result: {}", w, b, result);
     assertThat(result).isNotNull();
   }
-}
\ No newline at end of file
+
+  @Test
+  void whenGivenDuplicateXValuesThenEachPointUsesItsOwnY() {
+    //Given
+    List<BigDecimal> x = List.of(BigDecimal.valueOf(1), BigDecimal.valueOf(1));
+    List<BigDecimal> y = List.of(BigDecimal.valueOf(3), BigDecimal.valueOf(5));
+    BigDecimal w = BigDecimal.valueOf(2);
+    BigDecimal b = BigDecimal.valueOf(1);
+
+    //When
+    BigDecimal result = this.computeCostService.computeCost(x, y, w, b);
+
+    //Then (0^2 + 2^2) / 4
+    assertThat(result).isNotNull().isEqualTo(BigDecimal.ONE);
+  }
+
+  @Test
+  void whenGivenPrimitiveArraysThenSameResultAsLists() {
+    //Given
+    double[] x = {1D, 2D, 3D, 4D};
+    double[] y = {2D, 3D, 4D, 5D};
+
+    //When and Then
+    assertThat(this.computeCostService.computeCost(x, y, 2D, 1D)).isEqualTo(3.75D);
+    assertThat(this.computeCostService.computeCost(x, y, 4D, 3D)).isEqualTo(50.75D);
+    assertThat(this.computeCostService.computeCost(x, y, -2D, -1D, true)).isEqualTo(50.75D);
+  }
+
+  @Test
+  void whenGivenManyPointsThenParallelMatchesSequential() {
+    //Given
+    final int m = 200_000;
+    final SplittableRandom random = new SplittableRandom(42L);
+    double[] x = new double[m];
+    double[] y = new double[m];
+    for (int i = 0; i < m; i++) {
+      x[i] = random.nextDouble(-1000D, 1000D);
+      y[i] = 3D * x[i] - 7D + random.nextDouble(-1D, 1D);
+    }
+
+    //When
+    double sequential = this.computeCostService.computeCost(x, y, 2.5D, 1.5D, false);
+    double parallel = this.computeCostService.computeCost(x, y, 2.5D, 1.5D, true);
+
+    //Then
+    assertThat(parallel).isCloseTo(sequential, Percentage.withPercentage(1e-12));
+    assertThat(this.computeCostService.computeCost(x, y, 2.5D, 1.5D)).isCloseTo(sequential, Percentage.withPercentage(1e-12));
+  }
+
+  @Test
+  void whenGivenPrimitiveArraysOfDifferentSizesThenThrowIllegalArgumentException() {
+    //Given
+    double[] x = {1D, 2D, 3D};
+    double[] y = {2D, 3D};
+
+    //When and Then
+    assertThatThrownBy(() -> this.computeCostService.computeCost(x, y, 2D, 1D))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("x and y have different sizes");
+    assertThatThrownBy(() -> this.computeCostService.computeCost(null, y, 2D, 1D))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("x is empty");
+  }
+
+  @ParameterizedTest
+  @EnumSource(NumericBackend.class)
+  void whenUsingAnyBackendThenSameCost(NumericBackend backend) {
+    //Given
+    List<BigDecimal> x = List.of(BigDecimal.valueOf(1), BigDecimal.valueOf(2), BigDecimal.valueOf(3), BigDecimal.valueOf(4));
+    List<BigDecimal> y = List.of(BigDecimal.valueOf(2), BigDecimal.valueOf(3), BigDecimal.valueOf(4), BigDecimal.valueOf(5));
+
+    //When
+    BigDecimal result = this.computeCostService.computeCost(x, y, BigDecimal.valueOf(2), BigDecimal.valueOf(1), backend);
+
+    //Then
+    assertThat(result).isEqualByComparingTo(BigDecimal.valueOf(3.75));
+  }
+
+  @Test
+  void whenUsingFloatBackendThenInputsAreRoundedToSinglePrecision() {
+    //Given
+    List<BigDecimal> x = List.of(new BigDecimal("1.299288388489299443"), new BigDecimal("2.299288828990299443"));
+    List<BigDecimal> y = List.of(new BigDecimal("2.827727772825617783"), new BigDecimal("3.728843726393294728"));
+    BigDecimal w = BigDecimal.valueOf(9.8288383994904D);
+    BigDecimal b = BigDecimal.valueOf(2.9277398999389D);
+
+    //When
+    BigDecimal exact = this.computeCostService.computeCost(x, y, w, b, NumericBackend.EXACT);
+    BigDecimal floats = this.computeCostService.computeCost(x, y, w, b, NumericBackend.FLOAT);
+
+    //Then
+    assertThat(floats).isCloseTo(exact, Percentage.withPercentage(1e-4));
+    assertThatThrownBy(() -> this.computeCostService.computeCost(x, y, w, b, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("backend is null");
+  }
+}
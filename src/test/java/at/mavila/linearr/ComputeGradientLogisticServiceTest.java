@@ -1,12 +1,17 @@
 package at.mavila.linearr;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.SplittableRandom;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.data.Percentage;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -59,4 +64,144 @@ class ComputeGradientLogisticServiceTest {
 
 
   }
-}
\ No newline at end of file
+
+  @Test
+  void whenUsingDenseDatasetThenSameResultAsLists() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    double[] w = {2D, 3D};
+
+    ResultComputeGradientDense resultComputeGradient = this.computeGradientLogisticService.compute(x, y, w, 1D);
+
+    assertThat(resultComputeGradient).isNotNull();
+    assertThat(resultComputeGradient.djDw()).hasSize(2);
+    assertThat(resultComputeGradient.djDw()[0]).isCloseTo(0.498333393278696D, Percentage.withPercentage(0.0001));
+    assertThat(resultComputeGradient.djDw()[1]).isCloseTo(0.49883942983996693D, Percentage.withPercentage(0.0001));
+    assertThat(resultComputeGradient.djDb()).isCloseTo(0.49861806546328574D, Percentage.withPercentage(0.0001));
+  }
+
+  @Test
+  void whenDenseWeightsDoNotMatchFeaturesThenThrowException() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D}, 2, 2);
+    double[] y = {0D, 1D};
+    double[] w = {2D};
+
+    assertThatThrownBy(() -> this.computeGradientLogisticService.compute(x, y, w, 1D))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("w does not have 2 values");
+  }
+
+  @Test
+  void whenComputingWithCostThenSameAsSeparatePasses() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(BigDecimal.valueOf(0.5D), BigDecimal.valueOf(1.5D)),
+        List.of(BigDecimal.valueOf(1D), BigDecimal.valueOf(1D)),
+        List.of(BigDecimal.valueOf(1.5D), BigDecimal.valueOf(0.5D)),
+        List.of(BigDecimal.valueOf(3D), BigDecimal.valueOf(0.5D)),
+        List.of(BigDecimal.valueOf(2D), BigDecimal.valueOf(2D)),
+        List.of(BigDecimal.valueOf(1D), BigDecimal.valueOf(2.5D))
+    );
+    List<BigDecimal> y = List.of(
+        BigDecimal.valueOf(0D),
+        BigDecimal.valueOf(0D),
+        BigDecimal.valueOf(0D),
+        BigDecimal.valueOf(1D),
+        BigDecimal.valueOf(1D),
+        BigDecimal.valueOf(1D));
+    List<BigDecimal> w = List.of(BigDecimal.valueOf(1D), BigDecimal.valueOf(1D));
+    BigDecimal b = BigDecimal.valueOf(-3D);
+
+    ResultComputeGradientCost fused = this.computeGradientLogisticService.computeWithCost(x, y, w, b);
+    ResultComputeGradient gradient = this.computeGradientLogisticService.compute(x, y, w, b);
+
+    assertThat(fused.gradient()).isEqualTo(gradient);
+    assertThat(fused.cost()).isCloseTo(new BigDecimal("0.3668667864055175"), Percentage.withPercentage(0.0001));
+
+    ResultComputeGradientDense dense =
+        this.computeGradientLogisticService.computeWithCost(DenseDataset.of(x), new double[] {0D, 0D, 0D, 1D, 1D, 1D},
+            new double[] {1D, 1D}, -3D);
+    assertThat(dense.cost()).isCloseTo(0.3668667864055175D, Percentage.withPercentage(0.0001));
+    assertThat(dense.djDb()).isCloseTo(gradient.djDb().doubleValue(), Percentage.withPercentage(0.0001));
+    assertThat(this.computeGradientLogisticService.compute(DenseDataset.of(x), new double[] {0D, 0D, 0D, 1D, 1D, 1D},
+        new double[] {1D, 1D}, -3D).cost()).isNaN();
+  }
+
+  @Test
+  void whenSplittingAcrossWorkersThenSameResultAsSingleThread() {
+    final int m = 50_000;
+    final int n = 13;
+    SplittableRandom random = new SplittableRandom(3L);
+    DenseDataset x = new DenseDataset(random.doubles((long) m * n, -2D, 2D).toArray(), m, n);
+    double[] y = random.ints(m, 0, 2).asDoubleStream().toArray();
+    double[] w = random.doubles(n, -1D, 1D).toArray();
+
+    ResultComputeGradientDense sequential = this.computeGradientLogisticService.computeWithCost(x, y, w, 0.5D, 1);
+    ResultComputeGradientDense parallel = this.computeGradientLogisticService.computeWithCost(x, y, w, 0.5D, 8);
+    ResultComputeGradientDense configured = this.computeGradientLogisticService.compute(x, y, w, 0.5D);
+
+    for (int j = 0; j < n; j++) {
+      assertThat(parallel.djDw()[j]).isCloseTo(sequential.djDw()[j], within(1e-12D));
+      assertThat(configured.djDw()[j]).isCloseTo(sequential.djDw()[j], within(1e-12D));
+    }
+    assertThat(parallel.djDb()).isCloseTo(sequential.djDb(), within(1e-12D));
+    assertThat(parallel.cost()).isCloseTo(sequential.cost(), within(1e-12D));
+    assertThat(this.computeGradientLogisticService.computeWithCost(x, y, w, 0.5D, 8).djDw()).containsExactly(parallel.djDw());
+  }
+
+  @Test
+  void whenParallelismIsNegativeThenThrowException() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D}, 2, 2);
+
+    assertThatThrownBy(() -> this.computeGradientLogisticService.compute(x, new double[] {0D, 1D}, new double[] {1D, 1D}, 0D, -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("parallelism is negative");
+  }
+
+  @ParameterizedTest
+  @EnumSource(NumericBackend.class)
+  void whenUsingAnyBackendThenSameGradient(NumericBackend backend) {
+    List<List<BigDecimal>> x = List.of(
+        List.of(BigDecimal.valueOf(0.5D), BigDecimal.valueOf(1.5D)),
+        List.of(BigDecimal.valueOf(1D), BigDecimal.valueOf(1D)),
+        List.of(BigDecimal.valueOf(1.5D), BigDecimal.valueOf(0.5D)),
+        List.of(BigDecimal.valueOf(3D), BigDecimal.valueOf(0.5D)),
+        List.of(BigDecimal.valueOf(2D), BigDecimal.valueOf(2D)),
+        List.of(BigDecimal.valueOf(1D), BigDecimal.valueOf(2.5D))
+    );
+    List<BigDecimal> y = List.of(
+        BigDecimal.valueOf(0D),
+        BigDecimal.valueOf(0D),
+        BigDecimal.valueOf(0D),
+        BigDecimal.valueOf(1D),
+        BigDecimal.valueOf(1D),
+        BigDecimal.valueOf(1D));
+    List<BigDecimal> w = List.of(BigDecimal.valueOf(2D), BigDecimal.valueOf(3D));
+
+    ResultComputeGradient resultComputeGradient = this.computeGradientLogisticService.compute(x, y, w, BigDecimal.ONE, backend);
+
+    assertThat(resultComputeGradient.djDw()).hasSize(2);
+    assertThat(resultComputeGradient.djDw().get(0)).isCloseTo(new BigDecimal("0.498333393278696"), Percentage.withPercentage(0.0001));
+    assertThat(resultComputeGradient.djDw().get(1)).isCloseTo(new BigDecimal("0.49883942983996693"), Percentage.withPercentage(0.0001));
+    assertThat(resultComputeGradient.djDb()).isCloseTo(new BigDecimal("0.49861806546328574"), Percentage.withPercentage(0.0001));
+  }
+
+  @Test
+  void whenAColumnIsAllZerosOnTheSparseBackendThenTheGradientKeepsNValues() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(BigDecimal.ZERO, BigDecimal.valueOf(1.5D), BigDecimal.ZERO),
+        List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.valueOf(2D)),
+        List.of(BigDecimal.ZERO, BigDecimal.valueOf(0.5D), BigDecimal.ZERO)
+    );
+    List<BigDecimal> y = List.of(BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ONE);
+    List<BigDecimal> w = List.of(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+
+    ResultComputeGradient sparse = this.computeGradientLogisticService.compute(x, y, w, BigDecimal.ZERO,
+        NumericBackend.SPARSE);
+    ResultComputeGradient dense = this.computeGradientLogisticService.compute(x, y, w, BigDecimal.ZERO,
+        NumericBackend.DOUBLE);
+
+    assertThat(sparse.djDw()).hasSize(3);
+    assertThat(sparse.djDw().getFirst()).isEqualByComparingTo(BigDecimal.ZERO);
+    assertThat(sparse).isEqualTo(dense);
+  }
+}
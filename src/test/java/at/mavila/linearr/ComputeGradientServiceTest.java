@@ -11,6 +11,8 @@ import net.jqwik.api.Property;
 import net.jqwik.api.constraints.BigRange;
 import net.jqwik.spring.JqwikSpringSupport;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -362,4 +364,19 @@ class ComputeGradientServiceTest {
     assertThat(result).isNotNull();
   }
 
-}
\ No newline at end of file
+  @ParameterizedTest
+  @EnumSource(NumericBackend.class)
+  void whenUsingAnyBackendThenSameGradient(NumericBackend backend) {
+    //Given
+    List<BigDecimal> x = List.of(BigDecimal.valueOf(1), BigDecimal.valueOf(2), BigDecimal.valueOf(3), BigDecimal.valueOf(4));
+    List<BigDecimal> y = List.of(BigDecimal.valueOf(2), BigDecimal.valueOf(3), BigDecimal.valueOf(4), BigDecimal.valueOf(5));
+
+    //When
+    List<BigDecimal> result = this.computeGradientService.computeGradient(x, y, BigDecimal.valueOf(4), BigDecimal.valueOf(3), backend);
+
+    //Then
+    assertThat(result).hasSize(2);
+    assertThat(result.get(0)).isEqualByComparingTo(BigDecimal.valueOf(27.5));
+    assertThat(result.get(1)).isEqualByComparingTo(BigDecimal.valueOf(9.5));
+  }
+}
@@ -0,0 +1,42 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class CostHistoryTest {
+
+  @Test
+  void whenFullThenDownsampledToEveryOtherEntry() {
+    CostHistory history = new CostHistory(4, 1L);
+
+    LongStream.range(0L, 10L).forEach(i -> history.add(i, i));
+
+    assertThat(history.stride()).isEqualTo(4L);
+    assertThat(history.toList()).containsExactly(BigDecimal.valueOf(0D), BigDecimal.valueOf(4D), BigDecimal.valueOf(8D));
+    assertThat(history.last()).isEqualTo(8D);
+  }
+
+  @Test
+  void whenManyIterationsThenCapacityIsNeverExceeded() {
+    CostHistory history = new CostHistory(100, 3L);
+
+    LongStream.range(0L, 1_000_000L).forEach(i -> history.add(i, i));
+
+    assertThat(history.toList()).hasSizeBetween(50, 100);
+    assertThat(history.toList().getFirst()).isEqualByComparingTo(BigDecimal.ZERO);
+    for (int k = 0; k < history.toList().size(); k++) {
+      assertThat(history.toList().get(k).longValue()).isEqualTo(k * history.stride());
+    }
+  }
+
+  @Test
+  void whenEmptyThenLastIsNaN() {
+    CostHistory history = new CostHistory(2, 1L);
+
+    assertThat(history.last()).isNaN();
+    assertThat(history.toList()).isEmpty();
+  }
+}
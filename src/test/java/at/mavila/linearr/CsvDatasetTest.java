@@ -0,0 +1,128 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class CsvDatasetTest {
+
+  private static final DenseDataset X =
+      new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+  private static final double[] Y = {0D, 0D, 0D, 1D, 1D, 1D};
+  private static final String CSV = "x1,x2,y\r\n0.5,1.5,0\r\n1,1,0\n\n1.5, 0.5 ,0\n3,0.5,1\n2,2,1\n1,2.5,1";
+
+  @TempDir
+  Path directory;
+
+  @Autowired
+  private ComputeGradientLogisticService computeGradientLogisticService;
+
+  @Autowired
+  private ComputeCostLogisticService computeCostLogisticService;
+
+  @Autowired
+  private GradientDescentService gradientDescentService;
+
+  @Test
+  void whenReadInChunksThenAllRowsAreSeenInOrder() throws IOException {
+    CsvDataset dataset = CsvDataset.of(write(CSV), true, 4);
+    List<Integer> sizes = new ArrayList<>();
+    List<Double> labels = new ArrayList<>();
+
+    dataset.forEachChunk(chunk -> {
+      sizes.add(chunk.m());
+      for (int i = 0; i < chunk.m(); i++) {
+        labels.add(chunk.y()[i]);
+      }
+    });
+
+    assertThat(dataset.n()).isEqualTo(2);
+    assertThat(sizes).containsExactly(4, 2);
+    assertThat(labels).containsExactly(0D, 0D, 0D, 1D, 1D, 1D);
+  }
+
+  @Test
+  void whenComputingOverChunksThenSameAsDense() throws IOException {
+    CsvDataset dataset = CsvDataset.of(write(CSV), true, 4);
+    double[] w = {2D, 3D};
+
+    ResultComputeGradientDense chunked = this.computeGradientLogisticService.computeWithCost(dataset, w, 1D);
+    ResultComputeGradientDense dense = this.computeGradientLogisticService.computeWithCost(X, Y, w, 1D);
+
+    assertThat(chunked.djDw()).containsExactly(dense.djDw(), Offset.offset(1e-15));
+    assertThat(chunked.djDb()).isCloseTo(dense.djDb(), Offset.offset(1e-15));
+    assertThat(chunked.cost()).isCloseTo(dense.cost(), Offset.offset(1e-15));
+    assertThat(this.computeCostLogisticService.compute(dataset, w, 1D))
+        .isCloseTo(this.computeCostLogisticService.compute(X, Y, w, 1D), Offset.offset(1e-15));
+  }
+
+  @Test
+  void whenTrainingOverChunksThenSameAsDense() throws IOException {
+    CsvDataset dataset = CsvDataset.of(write(CSV), true, 4);
+    GradientDescentOptions options = GradientDescentOptions.defaults().withParallelism(1);
+
+    ResultGradientDescent chunked = this.gradientDescentService.compute(dataset, new double[2], 0D, 0.1D, 1000L, options);
+    ResultGradientDescent dense = this.gradientDescentService.compute(X, Y, new double[2], 0D, 0.1D, 1000L, options);
+
+    assertThat(chunked.w().getFirst().doubleValue()).isCloseTo(dense.w().getFirst().doubleValue(), Offset.offset(1e-9));
+    assertThat(chunked.b().doubleValue()).isCloseTo(dense.b().doubleValue(), Offset.offset(1e-9));
+    assertThat(chunked.costHistory()).hasSize(1000);
+    assertThatThrownBy(() -> this.gradientDescentService.compute(dataset, new double[2], 0D, 0.1D, 10L,
+        options.withBatchSize(2)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("batchSize");
+  }
+
+  @Test
+  void whenLinesAreLongerThanTheBufferThenStillRead() throws IOException {
+    int n = 20000;
+    StringBuilder csv = new StringBuilder();
+    for (int row = 0; row < 3; row++) {
+      for (int j = 0; j < n; j++) {
+        csv.append(j % 7).append(".25,");
+      }
+      csv.append(row % 2).append('\n');
+    }
+    CsvDataset dataset = CsvDataset.of(write(csv.toString()), false);
+    double[] sums = new double[1];
+
+    dataset.forEachChunk(chunk -> sums[0] += chunk.dot(2, new double[n]) + chunk.m());
+
+    assertThat(dataset.n()).isEqualTo(n);
+    assertThat(sums[0]).isEqualTo(3D);
+  }
+
+  @Test
+  void whenRowsAreMalformedThenThrowException() throws IOException {
+    CsvDataset missingField = CsvDataset.of(write("1,2,0\n3,1\n"), false);
+    CsvDataset notANumber = CsvDataset.of(write("1,2,0\n3,x,1\n"), false);
+
+    assertThatThrownBy(() -> missingField.forEachChunk(chunk -> { }))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("line 2 does not have 3 fields");
+    assertThatThrownBy(() -> notANumber.forEachChunk(chunk -> { }))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("line 2: field 2 is not a number");
+    assertThatThrownBy(() -> CsvDataset.of(write("x1,y\n"), true))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("has no rows");
+    assertThatThrownBy(() -> CsvDataset.of(this.directory.resolve("missing.csv"), true))
+        .isInstanceOf(UncheckedIOException.class);
+  }
+
+  private Path write(final String content) throws IOException {
+    return Files.writeString(Files.createTempFile(this.directory, "dataset", ".csv"), content);
+  }
+}
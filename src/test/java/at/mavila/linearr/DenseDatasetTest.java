@@ -0,0 +1,64 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DenseDatasetTest {
+
+  @Test
+  void whenCreatedFromListsThenRowMajor() {
+    DenseDataset x = DenseDataset.of(List.of(
+        List.of(BigDecimal.valueOf(0.5D), BigDecimal.valueOf(1.5D)),
+        List.of(BigDecimal.valueOf(1D), BigDecimal.valueOf(2D)),
+        List.of(BigDecimal.valueOf(3D), BigDecimal.valueOf(4D))
+    ));
+
+    assertThat(x.m()).isEqualTo(3);
+    assertThat(x.n()).isEqualTo(2);
+    assertThat(x.values()).containsExactly(0.5D, 1.5D, 1D, 2D, 3D, 4D);
+    assertThat(x.offset(2)).isEqualTo(4);
+    assertThat(x.get(1, 1)).isEqualTo(2D);
+  }
+
+  @Test
+  void whenRowsHaveDifferentSizesThenThrowException() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(BigDecimal.valueOf(0.5D), BigDecimal.valueOf(1.5D)),
+        List.of(BigDecimal.valueOf(1D))
+    );
+
+    assertThatThrownBy(() -> DenseDataset.of(x))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("x[1]");
+  }
+
+  @Test
+  void whenDimensionsDoNotMatchValuesThenThrowException() {
+    double[] values = {1D, 2D, 3D};
+
+    assertThatThrownBy(() -> new DenseDataset(values, 2, 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("m * n");
+  }
+
+  @Test
+  void whenNullThenThrowException() {
+    assertThatThrownBy(() -> DenseDataset.of(null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new DenseDataset(null, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void whenTooManyValuesThenThrowException() {
+    //Every row is the same list, so only the dimensions are large
+    List<List<BigDecimal>> x = Collections.nCopies(50_000, Collections.nCopies(50_000, BigDecimal.ONE));
+
+    assertThatThrownBy(() -> DenseDataset.of(x))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x has 2500000000 values, more than an array holds");
+  }
+}
@@ -0,0 +1,66 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FloatDenseDatasetTest {
+
+  @Test
+  void whenCreatedFromListsThenRowOperationsMatchDoubleDataset() {
+    List<List<BigDecimal>> rows = List.of(
+        List.of(BigDecimal.valueOf(0.5D), BigDecimal.valueOf(1.5D), BigDecimal.valueOf(-2D)),
+        List.of(BigDecimal.valueOf(1D), BigDecimal.valueOf(2D), BigDecimal.valueOf(0.25D))
+    );
+    FloatDenseDataset floats = FloatDenseDataset.of(rows);
+    DenseDataset doubles = DenseDataset.of(rows);
+    double[] w = {1D, -1D, 2D};
+
+    assertThat(floats.m()).isEqualTo(2);
+    assertThat(floats.n()).isEqualTo(3);
+    assertThat(floats.dot(1, w)).isEqualTo(doubles.dot(1, w));
+
+    double[] fromFloats = new double[3];
+    double[] fromDoubles = new double[3];
+    floats.axpy(0, 2D, fromFloats);
+    doubles.axpy(0, 2D, fromDoubles);
+    assertThat(fromFloats).containsExactly(fromDoubles);
+  }
+
+  @Test
+  void whenSumsCancelThenTheyAreCompensated() {
+    FloatDenseDataset x = new FloatDenseDataset(new float[] {1F, 1F, 1F}, 1, 3);
+
+    //A naive sum loses the 1 to the rounding of 1e100
+    assertThat(x.dot(0, new double[] {1e100D, 1D, -1e100D})).isEqualTo(1D);
+
+    double[] y = {1e100D, 1D, 0D};
+    double[] compensation = new double[3];
+    x.axpy(0, 1D, y, compensation);
+    x.axpy(0, -1e100D, y, compensation);
+    assertThat(y[0] + compensation[0]).isEqualTo(1D);
+  }
+
+  @Test
+  void whenDimensionsDoNotMatchValuesThenThrowException() {
+    float[] values = {1F, 2F, 3F};
+
+    assertThatThrownBy(() -> new FloatDenseDataset(values, 2, 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("m * n");
+  }
+
+  @Test
+  void whenTooManyValuesThenThrowException() {
+    //Every row is the same list, so only the dimensions are large
+    List<List<BigDecimal>> x = Collections.nCopies(50_000, Collections.nCopies(50_000, BigDecimal.ONE));
+
+    assertThatThrownBy(() -> FloatDenseDataset.of(x))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x has 2500000000 values, more than an array holds");
+  }
+}
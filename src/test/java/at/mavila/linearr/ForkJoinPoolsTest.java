@@ -0,0 +1,41 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.junit.jupiter.api.Test;
+
+class ForkJoinPoolsTest {
+
+  private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+  @Test
+  void whenParallelismIsRequestedThenItIsCapped() {
+    assertThat(ForkJoinPools.level(1)).isEqualTo(1);
+    assertThat(ForkJoinPools.level(Integer.MAX_VALUE)).isEqualTo(PROCESSORS);
+    if (PROCESSORS > 3) {
+      assertThat(ForkJoinPools.level(3)).isEqualTo(3);
+    }
+    assertThat(ForkJoinPools.get(Integer.MAX_VALUE)).isSameAs(ForkJoinPools.get(PROCESSORS));
+    assertThatThrownBy(() -> ForkJoinPools.get(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("parallelism must be positive");
+  }
+
+  @Test
+  void whenShutDownThenTheNextPoolIsNew() {
+    ForkJoinPool pool = ForkJoinPools.get(1);
+
+    ForkJoinPools.shutdown();
+
+    ForkJoinPool next = ForkJoinPools.get(1);
+    if (pool != ForkJoinPool.commonPool()) {
+      assertThat(pool.isShutdown()).isTrue();
+      assertThat(next).isNotSameAs(pool);
+    }
+    assertThat(next.isShutdown()).isFalse();
+    assertThat(next.invoke(ForkJoinTask.adapt(() -> 42))).isEqualTo(42);
+  }
+}
@@ -1,11 +1,17 @@
 package at.mavila.linearr;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.SplittableRandom;
 import org.assertj.core.data.Percentage;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -15,6 +21,12 @@ class GradientDescentServiceTest {
   @Autowired
   private GradientDescentService gradientDescentService;
 
+  @Autowired
+  private ComputeCostLogisticService computeCostLogisticService;
+
+  @Autowired
+  private NewtonSolverService newtonSolverService;
+
   @Test
   void whenUsingParameterFromTrainingThenResult() {
 
@@ -52,4 +64,452 @@ class GradientDescentServiceTest {
     assertThat(b1).isNotNull();
     assertThat(b1).isCloseTo(new BigDecimal("-14.222409982019837"), Percentage.withPercentage(0.04));
   }
-}
\ No newline at end of file
+
+  @Test
+  void whenRecordingCostEveryKIterationsThenHistoryIsSampled() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+        List.of(new BigDecimal("1"), new BigDecimal("1")),
+        List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("2"), new BigDecimal("2")),
+        List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+    );
+    List<BigDecimal> y =
+        List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+    List<BigDecimal> w = List.of(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    ResultGradientDescent everyIteration =
+        this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"), 100L);
+    ResultGradientDescent everyTenth = this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"), 100L,
+        GradientDescentOptions.defaults().withCostHistoryInterval(10L));
+
+    assertThat(everyIteration.costHistory()).hasSize(100);
+    assertThat(everyIteration.costHistory().getFirst()).isCloseTo(new BigDecimal("0.6931471805599453"),
+        Percentage.withPercentage(0.0001));
+    assertThat(everyTenth.costHistory()).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(everyTenth.costHistory().get(i)).isEqualTo(everyIteration.costHistory().get(i * 10));
+    }
+    assertThat(everyTenth.w()).isEqualTo(everyIteration.w());
+    assertThat(everyTenth.b()).isEqualTo(everyIteration.b());
+  }
+
+  @Test
+  void whenUsingDenseDatasetThenSameResultAsLists() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    double[] w = {0D, 0D};
+
+    ResultGradientDescent compute =
+        this.gradientDescentService.compute(x, y, w, 0D, 0.1D, 10000L, GradientDescentOptions.defaults());
+
+    assertThat(compute.w().getFirst()).isCloseTo(new BigDecimal("5.28"), Percentage.withPercentage(0.04));
+    assertThat(compute.w().getLast()).isCloseTo(new BigDecimal("5.08"), Percentage.withPercentage(0.04));
+    assertThat(compute.b()).isCloseTo(new BigDecimal("-14.222409982019837"), Percentage.withPercentage(0.04));
+    assertThat(compute.costHistory()).hasSize(10000);
+    assertThat(compute.costHistory().getLast()).isCloseTo(new BigDecimal("0.017"), Percentage.withPercentage(5));
+    assertThat(w).containsExactly(0D, 0D);
+  }
+
+  @Test
+  void whenUsingMiniBatchesThenReproducibleAndConverges() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    double[] w = {0D, 0D};
+    GradientDescentOptions options = GradientDescentOptions.defaults().withBatchSize(2).withShuffleSeed(42L);
+
+    ResultGradientDescent first = this.gradientDescentService.compute(x, y, w, 0D, 0.1D, 3000L, options);
+    ResultGradientDescent second = this.gradientDescentService.compute(x, y, w, 0D, 0.1D, 3000L, options);
+    ResultGradientDescent otherSeed =
+        this.gradientDescentService.compute(x, y, w, 0D, 0.1D, 3000L, options.withShuffleSeed(7L));
+
+    assertThat(first.costHistory()).hasSize(3000);
+    assertThat(first.costHistory().getFirst()).isGreaterThan(first.costHistory().getLast());
+    assertThat(first.costHistory().getLast()).isLessThan(new BigDecimal("0.05"));
+    assertThat(second).isEqualTo(first);
+    assertThat(otherSeed.w()).isNotEqualTo(first.w());
+    assertThat(first.w().getFirst()).isCloseTo(new BigDecimal("5.28"), Percentage.withPercentage(10));
+  }
+
+  @Test
+  void whenUsingStochasticGradientDescentOnListsThenConverges() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+        List.of(new BigDecimal("1"), new BigDecimal("1")),
+        List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("2"), new BigDecimal("2")),
+        List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+    );
+    List<BigDecimal> y =
+        List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+    List<BigDecimal> w = List.of(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    ResultGradientDescent compute = this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"), 2000L,
+        GradientDescentOptions.defaults().withBatchSize(1));
+
+    assertThat(compute.costHistory()).hasSize(2000);
+    assertThat(compute.costHistory().getLast()).isLessThan(new BigDecimal("0.05"));
+    assertThat(compute.b()).isNegative();
+  }
+
+  @ParameterizedTest
+  @EnumSource(NumericBackend.class)
+  void whenUsingAnyBackendThenSameParameters(NumericBackend backend) {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+        List.of(new BigDecimal("1"), new BigDecimal("1")),
+        List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("2"), new BigDecimal("2")),
+        List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+    );
+    List<BigDecimal> y =
+        List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+    List<BigDecimal> w = List.of(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    ResultGradientDescent compute = this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"), 1000L,
+        GradientDescentOptions.defaults().withNumericBackend(backend));
+
+    assertThat(compute.w().getFirst()).isCloseTo(new BigDecimal("2.3"), Percentage.withPercentage(5));
+    assertThat(compute.costHistory()).hasSize(1000);
+    assertThat(compute.costHistory().getLast()).isLessThan(compute.costHistory().getFirst());
+  }
+
+  @Test
+  void whenCostConvergesThenStopsEarly() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    double[] w = {0D, 0D};
+
+    ResultGradientDescent full = this.gradientDescentService.compute(x, y, w, 0D, 0.1D, 10000L,
+        GradientDescentOptions.defaults());
+    ResultGradientDescent early = this.gradientDescentService.compute(x, y, w, 0D, 0.1D, 10000L,
+        GradientDescentOptions.defaults().withCostTolerance(1e-3D));
+
+    assertThat(full.stopReason()).isEqualTo(StopReason.MAX_ITERATIONS);
+    assertThat(full.iterations()).isEqualTo(10000L);
+    assertThat(early.stopReason()).isEqualTo(StopReason.COST_CONVERGED);
+    assertThat(early.iterations()).isLessThan(10000L);
+    assertThat(early.costHistory()).hasSize((int) early.iterations());
+    BigDecimal last = early.costHistory().getLast();
+    BigDecimal previous = early.costHistory().get(early.costHistory().size() - 2);
+    assertThat(previous.subtract(last).abs()).isLessThanOrEqualTo(previous.multiply(new BigDecimal("1e-3")));
+  }
+
+  @Test
+  void whenGradientConvergesThenStopsEarly() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+        List.of(new BigDecimal("1"), new BigDecimal("1")),
+        List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("2"), new BigDecimal("2")),
+        List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+    );
+    List<BigDecimal> y =
+        List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+    List<BigDecimal> w = List.of(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    ResultGradientDescent compute = this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"), 1000L,
+        GradientDescentOptions.defaults().withGradientTolerance(0.1D));
+
+    assertThat(compute.stopReason()).isEqualTo(StopReason.GRADIENT_CONVERGED);
+    assertThat(compute.iterations()).isBetween(1L, 999L);
+  }
+
+  @Test
+  void whenTimeBudgetIsExhaustedThenStops() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    double[] w = {0D, 0D};
+
+    ResultGradientDescent compute = this.gradientDescentService.compute(x, y, w, 0D, 0.1D, Long.MAX_VALUE,
+        GradientDescentOptions.defaults().withTimeBudget(Duration.ofMillis(50L)).withBatchSize(2));
+
+    assertThat(compute.stopReason()).isEqualTo(StopReason.TIME_BUDGET_EXCEEDED);
+    assertThat(compute.iterations()).isPositive();
+    assertThat(compute.costHistory()).hasSizeLessThanOrEqualTo(GradientDescentOptions.DEFAULT_HISTORY_CAPACITY);
+  }
+
+  @Test
+  void whenHistoryCapacityIsReachedThenHistoryIsDownsampled() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    double[] w = {0D, 0D};
+
+    ResultGradientDescent all = this.gradientDescentService.compute(x, y, w, 0D, 0.1D, 1000L,
+        GradientDescentOptions.defaults());
+    ResultGradientDescent bounded = this.gradientDescentService.compute(x, y, w, 0D, 0.1D, 1000L,
+        GradientDescentOptions.defaults().withHistoryCapacity(100));
+
+    assertThat(bounded.costHistory()).hasSize(63);
+    assertThat(bounded.costHistoryStride()).isEqualTo(16L);
+    for (int k = 0; k < bounded.costHistory().size(); k++) {
+      assertThat(bounded.costHistory().get(k)).isEqualTo(all.costHistory().get(k * 16));
+    }
+    assertThat(bounded.w()).isEqualTo(all.w());
+    assertThatThrownBy(() -> GradientDescentOptions.defaults().withHistoryCapacity(1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = FeatureScaling.class, names = {"Z_SCORE", "MIN_MAX"})
+  void whenFeaturesAreBadlyScaledThenScalingConvergesOnTheRawScale(FeatureScaling scaling) {
+    //Same points as above, with the second feature in thousandths and offset by 5000
+    double[] values = {0.5D, 5001.5D, 1D, 5001D, 1.5D, 5000.5D, 3D, 5000.5D, 2D, 5002D, 1D, 5002.5D};
+    for (int i = 1; i < values.length; i += 2) {
+      values[i] = (values[i] - 5000D) * 1000D + 5000D;
+    }
+    DenseDataset x = new DenseDataset(values, 6, 2);
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    double[] w = {0D, 0D};
+
+    ResultGradientDescent scaled = this.gradientDescentService.compute(x, y, w, 0D, 1D, 2000L,
+        GradientDescentOptions.defaults().withFeatureScaling(scaling));
+    double[] trainedW = scaled.w().stream().mapToDouble(BigDecimal::doubleValue).toArray();
+    double cost = this.computeCostLogisticService.compute(x, y, trainedW, scaled.b().doubleValue());
+
+    assertThat(scaled.costHistory().getFirst()).isCloseTo(BigDecimal.valueOf(Math.log(2D)), Percentage.withPercentage(1e-9));
+    assertThat(scaled.costHistory().getLast()).isLessThan(new BigDecimal("0.02"));
+    assertThat(cost).isLessThan(0.02D);
+    //The data is separable, so the weights keep growing; the second one stays on the scale of its feature
+    assertThat(scaled.w().getFirst()).isGreaterThan(new BigDecimal("5"));
+    assertThat(scaled.w().getLast()).isBetween(new BigDecimal("0.005"), new BigDecimal("0.05"));
+    assertThat(w).containsExactly(0D, 0D);
+  }
+
+  @Test
+  void whenScalingMiniBatchesThenSameAsScaledDatasetWithoutScaling() {
+    DenseDataset x = new DenseDataset(new double[] {0.5D, 1.5D, 1D, 1D, 1.5D, 0.5D, 3D, 0.5D, 2D, 2D, 1D, 2.5D}, 6, 2);
+    ColumnStatistics statistics = ColumnStatistics.of(x);
+    double[] standardized = new double[12];
+    for (int i = 0; i < 6; i++) {
+      for (int j = 0; j < 2; j++) {
+        standardized[i * 2 + j] = (x.get(i, j) - statistics.mean(j)) / statistics.standardDeviation(j);
+      }
+    }
+    double[] y = {0D, 0D, 0D, 1D, 1D, 1D};
+    GradientDescentOptions options = GradientDescentOptions.defaults().withBatchSize(2).withShuffleSeed(3L);
+
+    ResultGradientDescent scaled = this.gradientDescentService.compute(x, y, new double[2], 0D, 0.5D, 200L,
+        options.withFeatureScaling(FeatureScaling.Z_SCORE));
+    ResultGradientDescent manual = this.gradientDescentService.compute(new DenseDataset(standardized, 6, 2), y,
+        new double[2], 0D, 0.5D, 200L, options);
+
+    assertThat(scaled.costHistory().getLast().doubleValue())
+        .isCloseTo(manual.costHistory().getLast().doubleValue(), within(1e-9D));
+    assertThat(scaled.w().getFirst().doubleValue()).isCloseTo(
+        manual.w().getFirst().doubleValue() / statistics.standardDeviation(0), within(1e-9D));
+  }
+
+  @ParameterizedTest
+  @EnumSource(OptimizerType.class)
+  void whenUsingAnOptimizerThenConverges(OptimizerType optimizer) {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+        List.of(new BigDecimal("1"), new BigDecimal("1")),
+        List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("2"), new BigDecimal("2")),
+        List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+    );
+    List<BigDecimal> y =
+        List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+    List<BigDecimal> w = List.of(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    ResultGradientDescent compute = this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"),
+        1000L, GradientDescentOptions.defaults().withOptimizer(optimizer));
+    ResultGradientDescent plain = this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"),
+        1000L, GradientDescentOptions.defaults().withNumericBackend(NumericBackend.DOUBLE));
+
+    assertThat(compute.costHistory().getLast()).isLessThan(compute.costHistory().getFirst());
+    if (optimizer == OptimizerType.GRADIENT_DESCENT) {
+      assertThat(compute.costHistory().getLast()).isCloseTo(plain.costHistory().getLast(), Percentage.withPercentage(1e-6));
+    } else if (optimizer != OptimizerType.ADAGRAD) {
+      //Momentum and the moving averages reach a lower cost than the plain update in the same number of iterations
+      assertThat(compute.costHistory().getLast()).isLessThan(plain.costHistory().getLast());
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(StepSize.class)
+  void whenUsingAStepSizeThenAlphasAreReported(StepSize stepSize) {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+        List.of(new BigDecimal("1"), new BigDecimal("1")),
+        List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("2"), new BigDecimal("2")),
+        List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+    );
+    List<BigDecimal> y =
+        List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+    List<BigDecimal> w = List.of(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    ResultGradientDescent compute = this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"),
+        1000L, GradientDescentOptions.defaults().withStepSize(stepSize));
+    ResultGradientDescent fixed = this.gradientDescentService.compute(x, y, w, BigDecimal.ZERO, new BigDecimal("0.1"),
+        1000L, GradientDescentOptions.defaults());
+
+    assertThat(compute.iterations()).isEqualTo(1000L);
+    if (stepSize == StepSize.FIXED) {
+      assertThat(compute.alphaHistory()).isEmpty();
+      assertThat(compute.costHistory()).isEqualTo(fixed.costHistory());
+      return;
+    }
+    assertThat(compute.alphaHistory()).hasSize(1000).allMatch(alpha -> alpha.signum() > 0);
+    assertThat(compute.alphaHistory().getFirst()).isEqualByComparingTo(new BigDecimal("0.1"));
+    //Adapting the step reaches a lower cost than the fixed learning rate in the same number of iterations
+    assertThat(compute.costHistory().getLast()).isLessThan(fixed.costHistory().getLast());
+    if (stepSize == StepSize.ARMIJO) {
+      assertThat(compute.costHistory()).isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+  }
+
+  @Test
+  void whenTheLearningRateIsTooLargeThenTheBoldDriverRecovers() {
+    double[] values = {0.5, 1.5, 1, 1, 1.5, 0.5, 3, 0.5, 2, 2, 1, 2.5};
+    double[] y = {0, 0, 0, 1, 1, 1};
+    DenseDataset x = new DenseDataset(values, 6, 2);
+
+    ResultGradientDescent compute = this.gradientDescentService.compute(x, y, new double[2], 0D, 1000D, 200L,
+        GradientDescentOptions.defaults().withStepSize(StepSize.BOLD_DRIVER));
+
+    assertThat(compute.costHistory().getLast()).isLessThan(compute.costHistory().getFirst());
+    assertThat(compute.alphaHistory().getLast()).isLessThan(new BigDecimal("1000"));
+  }
+
+  @Test
+  void whenUsingAStepSizeWithBatchesOrAnOptimizerThenException() {
+    double[] values = {0.5, 1.5, 1, 1, 1.5, 0.5, 3, 0.5, 2, 2, 1, 2.5};
+    double[] y = {0, 0, 0, 1, 1, 1};
+    DenseDataset x = new DenseDataset(values, 6, 2);
+
+    assertThatThrownBy(() -> this.gradientDescentService.compute(x, y, new double[2], 0D, 0.1D, 10L,
+        GradientDescentOptions.defaults().withStepSize(StepSize.ARMIJO).withBatchSize(2)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("stepSize requires full-batch descent");
+    assertThatThrownBy(() -> GradientDescentOptions.defaults().withOptimizer(OptimizerType.ADAM)
+        .withStepSize(StepSize.BARZILAI_BORWEIN))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("stepSize requires the GRADIENT_DESCENT optimizer");
+  }
+
+  @Test
+  void whenUsingLbfgsThenReachesTheNewtonMinimum() {
+    //(1, 1) is labelled 1 and lies halfway between two rows labelled 0, so the data is not separable
+    double[] values = {0.5, 1.5, 1, 1, 1.5, 0.5, 3, 0.5, 2, 2, 1, 2.5};
+    double[] y = {0, 1, 0, 1, 1, 0};
+    DenseDataset x = new DenseDataset(values, 6, 2);
+
+    ResultGradientDescent lbfgs = this.gradientDescentService.compute(x, y, new double[2], 0D, 0.1D, 200L,
+        GradientDescentOptions.defaults().withSolver(Solver.LBFGS).withGradientTolerance(1e-9D).withLbfgsHistory(3));
+    ResultGradientDescent newton = this.newtonSolverService.solve(x, y, new double[2], 0D, 50L,
+        GradientDescentOptions.defaults().withGradientTolerance(1e-12D));
+
+    assertThat(lbfgs.stopReason()).isEqualTo(StopReason.GRADIENT_CONVERGED);
+    assertThat(lbfgs.iterations()).isLessThan(50L);
+    assertThat(lbfgs.alphaHistory()).hasSize((int) lbfgs.iterations());
+    //At the minimum no step decreases the cost at the precision of the doubles, so the last search may fail
+    assertThat(lbfgs.alphaHistory().subList(0, lbfgs.alphaHistory().size() - 1)).allMatch(alpha -> alpha.signum() > 0);
+    assertThat(lbfgs.costHistory()).isSortedAccordingTo((a, b) -> b.compareTo(a));
+    for (int j = 0; j < 2; j++) {
+      assertThat(lbfgs.w().get(j).doubleValue()).isCloseTo(newton.w().get(j).doubleValue(), within(1e-6D));
+    }
+    assertThat(lbfgs.b().doubleValue()).isCloseTo(newton.b().doubleValue(), within(1e-6D));
+  }
+
+  @Test
+  void whenUsingLbfgsOnManyFeaturesThenBeatsGradientDescent() {
+    int m = 2000;
+    int n = 400;
+    SplittableRandom random = new SplittableRandom(3L);
+    double[] values = random.doubles((long) m * n, -1D, 1D).toArray();
+    double[] y = new double[m];
+    for (int i = 0; i < m; i++) {
+      y[i] = values[i * n] + 0.5D * values[i * n + 1] + random.nextDouble(-0.5D, 0.5D) > 0D ? 1D : 0D;
+    }
+    DenseDataset x = new DenseDataset(values, m, n);
+
+    ResultGradientDescent lbfgs = this.gradientDescentService.compute(x, y, new double[n], 0D, 0.1D, 30L,
+        GradientDescentOptions.defaults().withSolver(Solver.LBFGS).withFeatureScaling(FeatureScaling.Z_SCORE));
+    ResultGradientDescent descent = this.gradientDescentService.compute(x, y, new double[n], 0D, 0.1D, 300L,
+        GradientDescentOptions.defaults().withFeatureScaling(FeatureScaling.Z_SCORE));
+
+    assertThat(lbfgs.costHistory().getLast()).isLessThan(descent.costHistory().getLast());
+  }
+
+  @Test
+  void whenUsingLbfgsOnListsThenSameAsDense() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+        List.of(new BigDecimal("1"), new BigDecimal("1")),
+        List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("2"), new BigDecimal("2")),
+        List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+    );
+    List<BigDecimal> y =
+        List.of(BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ZERO);
+    GradientDescentOptions options = GradientDescentOptions.defaults().withSolver(Solver.LBFGS);
+
+    ResultGradientDescent lists = this.gradientDescentService.compute(x, y, List.of(BigDecimal.ZERO, BigDecimal.ZERO),
+        BigDecimal.ZERO, new BigDecimal("0.1"), 20L, options);
+    ResultGradientDescent dense = this.gradientDescentService.compute(DenseDataset.of(x),
+        new double[]{0, 1, 0, 1, 1, 0}, new double[2], 0D, 0.1D, 20L, options);
+
+    assertThat(lists).isEqualTo(dense);
+  }
+
+  @Test
+  void whenUsingLbfgsWithBatchesOrAnOptimizerThenException() {
+    double[] values = {0.5, 1.5, 1, 1, 1.5, 0.5, 3, 0.5, 2, 2, 1, 2.5};
+    double[] y = {0, 0, 0, 1, 1, 1};
+    DenseDataset x = new DenseDataset(values, 6, 2);
+
+    assertThatThrownBy(() -> this.gradientDescentService.compute(x, y, new double[2], 0D, 0.1D, 10L,
+        GradientDescentOptions.defaults().withSolver(Solver.LBFGS).withBatchSize(2)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("LBFGS requires full-batch descent");
+    assertThatThrownBy(() -> GradientDescentOptions.defaults().withStepSize(StepSize.ARMIJO).withSolver(Solver.LBFGS))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("LBFGS requires the GRADIENT_DESCENT optimizer and a FIXED step size");
+    assertThatThrownBy(() -> GradientDescentOptions.defaults().withLbfgsHistory(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("lbfgsHistory is negative");
+  }
+
+  @Test
+  void whenUsingStochasticDescentOnSparseRowsThenSameAsDense() {
+    int m = 500;
+    int n = 1000;
+    SplittableRandom random = new SplittableRandom(9L);
+    double[] values = new double[m * n];
+    double[] y = new double[m];
+    for (int i = 0; i < m; i++) {
+      //Five nonzeros per row
+      for (int k = 0; k < 5; k++) {
+        values[i * n + random.nextInt(n)] = random.nextDouble(-1D, 1D);
+      }
+      y[i] = values[i * n] + values[i * n + 1] >= 0D ? 1D : 0D;
+    }
+    DenseDataset dense = new DenseDataset(values, m, n);
+    SparseDataset sparse = SparseDataset.of(dense);
+    GradientDescentOptions options = GradientDescentOptions.defaults().withBatchSize(8).withShuffleSeed(4L);
+
+    ResultGradientDescent fromSparse = this.gradientDescentService.compute(sparse, y, new double[n], 0D, 0.5D, 20L,
+        options);
+    ResultGradientDescent fromDense = this.gradientDescentService.compute(dense, y, new double[n], 0D, 0.5D, 20L,
+        options);
+
+    assertThat(fromSparse.w()).hasSize(n);
+    for (int j = 0; j < n; j++) {
+      assertThat(fromSparse.w().get(j).doubleValue()).isCloseTo(fromDense.w().get(j).doubleValue(), within(1e-12D));
+    }
+    assertThat(fromSparse.b().doubleValue()).isCloseTo(fromDense.b().doubleValue(), within(1e-12D));
+    assertThat(fromSparse.costHistory().getLast().doubleValue())
+        .isCloseTo(fromDense.costHistory().getLast().doubleValue(), within(1e-12D));
+  }
+}
@@ -0,0 +1,37 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LbfgsSolverTest {
+
+  @Test
+  void whenTheFirstPairIsRejectedThenTheNextFailedSearchIsSteepest() {
+    long[] evaluations = {0L};
+    //The accepted trial has a huge gradient across the direction, so its (s, y) pair is rejected, and every later
+    //point costs more than the current one
+    GradientPass pass = (w, b, accumulator) -> {
+      long evaluation = evaluations[0]++;
+      if (evaluation == 0L) {
+        accumulator.cost = 1D;
+        accumulator.djDw[0] = 1D;
+      } else if (evaluation == 1L) {
+        accumulator.cost = 0D;
+        accumulator.djDb = 1e8D;
+      } else {
+        accumulator.cost = evaluation;
+        accumulator.djDb = 1e8D;
+      }
+      return 1L;
+    };
+    LbfgsSolver solver = new LbfgsSolver(1, 5, pass);
+    solver.start(new double[1], 0D);
+
+    assertThat(solver.iterate(1D)).isEqualTo(1D);
+    assertThat(solver.wasSteepest()).isTrue();
+    assertThat(solver.iterate(1D)).isZero();
+    //Still no history: the failed search was the steepest descent one, and would only be repeated
+    assertThat(solver.wasSteepest()).isTrue();
+  }
+}
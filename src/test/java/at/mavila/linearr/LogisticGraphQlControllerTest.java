@@ -0,0 +1,112 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+
+@SpringBootTest
+@AutoConfigureHttpGraphQlTester
+class LogisticGraphQlControllerTest {
+
+  private static final List<List<Double>> X =
+      List.of(List.of(0.5D, 1.5D), List.of(1D, 1D), List.of(1.5D, 0.5D), List.of(3D, 0.5D), List.of(2D, 2D),
+          List.of(1D, 2.5D));
+  private static final List<Double> Y = List.of(0D, 0D, 0D, 1D, 1D, 1D);
+
+  @Autowired
+  private HttpGraphQlTester graphQlTester;
+
+  @SpyBean
+  private PredictionService predictionService;
+
+  @SpyBean
+  private TrainingJobService trainingJobService;
+
+  @Test
+  void whenQueryingCostAndGradientThenSameAsServices() {
+    Map<String, Object> input = Map.of("x", X, "y", Y, "w", List.of(2D, 3D), "b", 1D, "backend", "DOUBLE");
+
+    this.graphQlTester.document("""
+            query($input: LogisticInput!) {
+              cost(input: $input)
+              gradient(input: $input) { djDw djDb }
+            }""")
+        .variable("input", input)
+        .execute()
+        .path("cost").entity(Double.class).satisfies(cost -> assertThat(cost).isCloseTo(3.001384020645288, Offset.offset(1e-9)))
+        .path("gradient.djDw").entityList(Double.class).satisfies(djDw -> {
+          assertThat(djDw.getFirst()).isCloseTo(0.498333393278696, Offset.offset(1e-9));
+          assertThat(djDw.getLast()).isCloseTo(0.49883942983996693, Offset.offset(1e-9));
+        })
+        .path("gradient.djDb").entity(Double.class)
+        .satisfies(djDb -> assertThat(djDb).isCloseTo(0.49861806546328574, Offset.offset(1e-9)));
+  }
+
+  @Test
+  void whenPredictingManyRowsThenScoredInOneBatch() {
+    List<List<Double>> rows = IntStream.range(0, 1000)
+        .mapToObj(i -> List.of(i % 4D, (i % 3) - 1D))
+        .toList();
+
+    List<Double> probabilities = this.graphQlTester.document("""
+            query($x: [[Float!]!]!) {
+              predict(model: {w: [2.0, -1.0], b: -3.0}, x: $x) { probability label }
+            }""")
+        .variable("x", rows)
+        .execute()
+        .path("predict[*].probability").entityList(Double.class).get();
+
+    assertThat(probabilities).hasSize(1000);
+    for (int i = 0; i < 1000; i++) {
+      double z = 2D * rows.get(i).get(0) - rows.get(i).get(1) - 3D;
+      assertThat(probabilities.get(i)).isCloseTo(1D / (1D + Math.exp(-z)), Offset.offset(1e-12));
+    }
+    //The two fields share one dense pass
+    verify(this.predictionService, times(1))
+        .predict(any(FeatureMatrix.class), any(double[].class), anyDouble(), any(ModelType.class), any(double[].class));
+  }
+
+  @Test
+  void whenTrainingThenParametersAreReturned() {
+    Map<String, Object> input = Map.of("x", X, "y", Y, "w", List.of(0D, 0D), "b", 0D, "alpha", 0.1D,
+        "numberOfIterations", 1000, "backend", "DOUBLE");
+
+    this.graphQlTester.document("""
+            mutation($input: TrainingInput!) {
+              train(input: $input) { w b iterations stopReason costHistory }
+            }""")
+        .variable("input", input)
+        .execute()
+        .path("train.iterations").entity(Long.class).isEqualTo(1000L)
+        .path("train.stopReason").entity(String.class).isEqualTo("MAX_ITERATIONS")
+        .path("train.costHistory").entityList(Double.class).hasSize(1000)
+        .path("train.w[0]").entity(Double.class).satisfies(w -> assertThat(w).isCloseTo(2.3, Offset.offset(0.12)));
+    verify(this.trainingJobService, times(1)).train(any(TrainingJobRequest.class));
+  }
+
+  @Test
+  void whenInputIsInvalidThenBadRequestError() {
+    this.graphQlTester.document("""
+            { predict(model: {w: [2.0, -1.0], b: -3.0}, x: [[1.0]]) { probability } }""")
+        .execute()
+        .errors()
+        .satisfy(errors -> {
+          assertThat(errors).isNotEmpty();
+          assertThat(errors.getFirst().getMessage()).isEqualTo("x[0] does not have 2 features");
+          assertThat(errors.getFirst().getErrorType()).hasToString("BAD_REQUEST");
+        });
+  }
+}
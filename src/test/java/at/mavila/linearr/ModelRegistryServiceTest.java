@@ -0,0 +1,111 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+class ModelRegistryServiceTest {
+
+  private static final long MODEL_BYTES = RegisteredModel.OVERHEAD_BYTES + 2L + 8L * 4L;
+
+  private static ModelRegistryService registry(final long budget) {
+    return new ModelRegistryService(new LinearRegressionProperties(0, 1024, SigmoidApproximation.EXACT,
+        NumericBackend.EXACT, 0, 64, 256, budget, true));
+  }
+
+  @Test
+  void whenRegisteredThenVersionsIncreasePerId() {
+    ModelRegistryService registry = registry(1_000_000L);
+
+    RegisteredModel first = registry.register("a", ModelType.LINEAR, new double[] {1D}, 0D);
+    RegisteredModel second = registry.register("a", ModelType.LINEAR, new double[] {2D}, 0D);
+    RegisteredModel other = registry.register("b", ModelType.LINEAR, new double[] {3D}, 0D);
+
+    assertThat(first.version()).isEqualTo(1L);
+    assertThat(second.version()).isEqualTo(2L);
+    assertThat(other.version()).isEqualTo(1L);
+    assertThat(registry.find("a")).contains(second);
+    assertThat(registry.find("a", 1L)).contains(first);
+    assertThat(registry.remove("a", 2L)).isTrue();
+    assertThat(registry.find("a")).isEmpty();
+    assertThat(registry.register("a", ModelType.LINEAR, new double[] {4D}, 0D).version()).isEqualTo(3L);
+  }
+
+  @Test
+  void whenEveryVersionIsGoneThenVersionsAreNotReused() {
+    ModelRegistryService registry = registry(2L * MODEL_BYTES);
+    registry.register("a", ModelType.LINEAR, new double[4], 0D);
+
+    //Evicts the only version of a
+    registry.register("b", ModelType.LINEAR, new double[4], 0D);
+    registry.register("b", ModelType.LINEAR, new double[4], 0D);
+
+    assertThat(registry.find("a")).isEmpty();
+    //Evicts version 1 of b, and a client holding version 1 of a never scores the new model
+    assertThat(registry.register("a", ModelType.LINEAR, new double[4], 0D).version()).isEqualTo(2L);
+    assertThat(registry.find("a", 1L)).isEmpty();
+    assertThat(registry.remove("b", 1L)).isFalse();
+    assertThat(registry.remove("b", 2L)).isTrue();
+    assertThat(registry.remove("a", 2L)).isTrue();
+    assertThat(registry.register("a", ModelType.LINEAR, new double[4], 0D).version()).isEqualTo(3L);
+  }
+
+  @Test
+  void whenPredictingThenLinearAndLogisticModelsAreScored() {
+    ModelRegistryService registry = registry(1_000_000L);
+    ResultGradientDescent trained = ResultGradientDescent.builder()
+        .w(List.of(new BigDecimal("2"), new BigDecimal("-1")))
+        .b(BigDecimal.ONE)
+        .build();
+
+    registry.register("price", ModelType.LINEAR, trained);
+    registry.register("churn", ModelType.LOGISTIC, trained);
+
+    assertThat(registry.predict("price", 1L, new double[] {3D, 1D})).isEqualTo(6D);
+    assertThat(registry.predict("churn", 1L, new double[] {0D, 1D})).isEqualTo(0.5D);
+    RegisteredModel churn = registry.find("churn").orElseThrow();
+    double[] block = {0D, 1D, 3D, 1D};
+    assertThat(registry.predict(churn, block, 2)).isCloseTo(1D / (1D + Math.exp(-6D)), Offset.offset(1e-15));
+  }
+
+  @Test
+  void whenOverBudgetThenLeastRecentlyUsedIsEvicted() {
+    ModelRegistryService registry = registry(3L * MODEL_BYTES);
+    registry.register("a", ModelType.LINEAR, new double[4], 0D);
+    registry.register("b", ModelType.LINEAR, new double[4], 0D);
+    registry.register("c", ModelType.LINEAR, new double[4], 0D);
+
+    registry.find("a");
+    registry.register("d", ModelType.LINEAR, new double[4], 0D);
+
+    assertThat(registry.find("a")).isPresent();
+    assertThat(registry.find("b")).isEmpty();
+    assertThat(registry.find("c")).isPresent();
+    assertThat(registry.find("d")).isPresent();
+    assertThat(registry.sizeInBytes()).isEqualTo(3L * MODEL_BYTES);
+  }
+
+  @Test
+  void whenInvalidThenIllegalArgumentException() {
+    ModelRegistryService registry = registry(MODEL_BYTES);
+    registry.register("a", ModelType.LINEAR, new double[4], 0D);
+
+    assertThatThrownBy(() -> registry.register("b", ModelType.LINEAR, new double[5], 0D))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("model is larger than the registry budget");
+    assertThatThrownBy(() -> registry.register("", ModelType.LINEAR, new double[1], 0D))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("id is null or empty");
+    assertThatThrownBy(() -> registry.predict("a", 2L, new double[4]))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("model a version 2 is not registered");
+    assertThatThrownBy(() -> registry.predict("a", 1L, new double[3]))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x does not have 4 features");
+    assertThat(registry.find("a")).isPresent();
+  }
+}
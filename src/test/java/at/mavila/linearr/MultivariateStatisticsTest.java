@@ -0,0 +1,138 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class MultivariateStatisticsTest {
+
+  private static final double[] W = {1.5D, -2D, 0.5D};
+  private static final double B = 4D;
+
+  private static double[][] samples(final int m, final SplittableRandom random) {
+    final double[][] x = new double[m][];
+    for (int i = 0; i < m; i++) {
+      x[i] = random.doubles(W.length, -3D, 3D).toArray();
+    }
+    return x;
+  }
+
+  private static double target(final double[] x, final SplittableRandom random) {
+    return VectorKernels.dot(W, x) + B + random.nextDouble(-0.1D, 0.1D);
+  }
+
+  @Test
+  void whenSamplesAreAddedThenParametersAreRecovered() {
+    SplittableRandom random = new SplittableRandom(11L);
+    MultivariateStatistics statistics = new MultivariateStatistics(W.length);
+    for (double[] x : samples(1000, random)) {
+      statistics.add(x, target(x, random));
+    }
+
+    ResultLeastSquares result = statistics.solve();
+
+    for (int j = 0; j < W.length; j++) {
+      assertThat(result.w()[j]).isCloseTo(W[j], within(0.01D));
+    }
+    assertThat(result.b()).isCloseTo(B, within(0.01D));
+    assertThat(result.cost()).isLessThan(statistics.cost(W, B + 0.1D));
+  }
+
+  @Test
+  void whenSamplesAreRetractedThenSameAsNeverAdded() {
+    SplittableRandom random = new SplittableRandom(12L);
+    double[][] x = samples(200, random);
+    double[] y = new double[x.length];
+    MultivariateStatistics window = new MultivariateStatistics(W.length);
+    MultivariateStatistics kept = new MultivariateStatistics(W.length);
+    for (int i = 0; i < x.length; i++) {
+      y[i] = target(x[i], random);
+      window.add(x[i], y[i]);
+      if (i >= 50) {
+        kept.add(x[i], y[i]);
+      }
+    }
+
+    for (int i = 0; i < 50; i++) {
+      window.remove(x[i], y[i]);
+    }
+
+    assertThat(window.count()).isEqualTo(kept.count());
+    assertThat(window.solve().w()).containsExactly(kept.solve().w(), within(1e-9D));
+    assertThat(window.solve().b()).isCloseTo(kept.solve().b(), within(1e-9D));
+    assertThat(window.cost(W, B)).isCloseTo(kept.cost(W, B), within(1e-9D));
+  }
+
+  @Test
+  void whenShardsAreMergedThenSameAsSequential() {
+    SplittableRandom random = new SplittableRandom(13L);
+    MultivariateStatistics sequential = new MultivariateStatistics(W.length);
+    MultivariateStatistics left = new MultivariateStatistics(W.length);
+    MultivariateStatistics right = new MultivariateStatistics(W.length);
+    double[][] x = samples(300, random);
+    for (int i = 0; i < x.length; i++) {
+      double y = target(x[i], random);
+      sequential.add(x[i], y);
+      (i < 100 ? left : right).add(x[i], y);
+    }
+
+    ResultLeastSquares merged = left.merge(right).solve();
+
+    assertThat(merged.w()).containsExactly(sequential.solve().w(), within(1e-9D));
+    assertThat(merged.cost()).isCloseTo(sequential.solve().cost(), within(1e-12D));
+  }
+
+  @Test
+  void whenUnivariateSamplesAreRetractedThenSameAsNeverAdded() {
+    UnivariateStatistics window = new UnivariateStatistics().add(0D, 100D).add(1D, 3D).add(2D, 5D).add(3D, 7D);
+
+    window.remove(0D, 100D);
+
+    assertThat(window.count()).isEqualTo(3L);
+    assertThat(window.w()).isCloseTo(2D, within(1e-12D));
+    assertThat(window.b()).isCloseTo(1D, within(1e-12D));
+    assertThat(window.cost(2D, 1D)).isCloseTo(0D, within(1e-12D));
+    assertThat(window.remove(1D, 3D).remove(2D, 5D).remove(3D, 7D).count()).isZero();
+  }
+
+  @Test
+  void whenFeaturesAreTinyThenTheyAreStillSolved() {
+    SplittableRandom random = new SplittableRandom(17L);
+    MultivariateStatistics statistics = new MultivariateStatistics(W.length);
+    for (double[] x : samples(1000, random)) {
+      double y = target(x, random);
+      for (int j = 0; j < x.length; j++) {
+        x[j] *= 1e-8D;
+      }
+      statistics.add(x, y);
+    }
+
+    ResultLeastSquares result = statistics.solve();
+
+    for (int j = 0; j < W.length; j++) {
+      assertThat(result.w()[j]).isCloseTo(W[j] * 1e8D, within(1e6D));
+    }
+  }
+
+  @Test
+  void whenInvalidThenIllegalArgumentException() {
+    MultivariateStatistics statistics = new MultivariateStatistics(2).add(new double[] {1D, 2D}, 1D)
+        .add(new double[] {2D, 4D}, 2D);
+
+    assertThatThrownBy(statistics::solve)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x is rank deficient");
+    assertThatThrownBy(() -> statistics.add(new double[1], 0D))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x does not have 2 features");
+    assertThatThrownBy(() -> statistics.add(new DenseDataset(new double[3], 1, 3), 0, 0D))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x does not have 2 features");
+    assertThatThrownBy(() -> new MultivariateStatistics(2).remove(new double[2], 0D))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("there are no points to remove");
+  }
+}
@@ -0,0 +1,150 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class NewtonSolverServiceTest {
+
+  //(1, 1) is labelled 1 and lies halfway between two rows labelled 0, so the data is not separable
+  private static final double[] VALUES = {0.5, 1.5, 1, 1, 1.5, 0.5, 3, 0.5, 2, 2, 1, 2.5};
+  private static final double[] Y = {0, 1, 0, 1, 1, 0};
+
+  @Autowired
+  private NewtonSolverService newtonSolverService;
+
+  @Autowired
+  private GradientDescentService gradientDescentService;
+
+  @Autowired
+  private ComputeGradientLogisticService computeGradientLogisticService;
+
+  private static DenseDataset random(final int m, final int n, final double[] y, final SplittableRandom random) {
+    final double[] values = random.doubles((long) m * n, -2D, 2D).toArray();
+    for (int i = 0; i < m; i++) {
+      double z = 0.5D;
+      for (int j = 0; j < n; j++) {
+        z += (j % 2 == 0 ? 1D : -0.5D) * values[i * n + j];
+      }
+      y[i] = random.nextDouble() < 1D / (1D + Math.exp(-z)) ? 1D : 0D;
+    }
+    return new DenseDataset(values, m, n);
+  }
+
+  @Test
+  void whenSolvingThenTheGradientVanishesInFewIterations() {
+    DenseDataset x = new DenseDataset(VALUES, 6, 2);
+
+    ResultGradientDescent newton = this.newtonSolverService.solve(x, Y, new double[2], 0D, 50L,
+        GradientDescentOptions.defaults().withGradientTolerance(1e-12D));
+
+    assertThat(newton.stopReason()).isEqualTo(StopReason.GRADIENT_CONVERGED);
+    assertThat(newton.iterations()).isLessThan(20L);
+    assertThat(newton.alphaHistory()).isEmpty();
+    double[] w = newton.w().stream().mapToDouble(BigDecimal::doubleValue).toArray();
+    ResultComputeGradientDense gradient = this.computeGradientLogisticService.compute(x, Y, w, newton.b().doubleValue());
+    assertThat(ConvergenceMonitor.norm(gradient.djDw(), gradient.djDb())).isLessThan(1e-10D);
+
+    //Gradient descent gets to the same minimum, thousands of iterations later
+    ResultGradientDescent descent = this.gradientDescentService.compute(x, Y, new double[2], 0D, 1D, 100_000L,
+        GradientDescentOptions.defaults().withCostHistoryInterval(1000L));
+    assertThat(descent.costHistory().getLast().doubleValue())
+        .isCloseTo(newton.costHistory().getLast().doubleValue(), within(1e-9D));
+    assertThat(w[0]).isCloseTo(descent.w().getFirst().doubleValue(), within(1e-4D));
+    assertThat(newton.b().doubleValue()).isCloseTo(descent.b().doubleValue(), within(1e-4D));
+  }
+
+  @Test
+  void whenSolvingListsThenSameAsDense() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+        List.of(new BigDecimal("1"), new BigDecimal("1")),
+        List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+        List.of(new BigDecimal("2"), new BigDecimal("2")),
+        List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+    );
+    List<BigDecimal> y =
+        List.of(BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ZERO);
+
+    ResultGradientDescent lists = this.newtonSolverService.solve(x, y, List.of(BigDecimal.ZERO, BigDecimal.ZERO),
+        BigDecimal.ZERO, 10L, GradientDescentOptions.defaults());
+    ResultGradientDescent dense = this.newtonSolverService.solve(new DenseDataset(VALUES, 6, 2), Y, new double[2], 0D,
+        10L, GradientDescentOptions.defaults());
+
+    assertThat(lists).isEqualTo(dense);
+  }
+
+  @Test
+  void whenSolvingInParallelThenSameAsSequential() {
+    int m = 20_000;
+    double[] y = new double[m];
+    DenseDataset x = random(m, 70, y, new SplittableRandom(5L));
+
+    ResultGradientDescent sequential = this.newtonSolverService.solve(x, y, new double[70], 0D, 8L,
+        GradientDescentOptions.defaults().withParallelism(1));
+    ResultGradientDescent parallel = this.newtonSolverService.solve(x, y, new double[70], 0D, 8L,
+        GradientDescentOptions.defaults().withParallelism(4));
+
+    for (int j = 0; j < 70; j++) {
+      assertThat(parallel.w().get(j).doubleValue()).isCloseTo(sequential.w().get(j).doubleValue(), within(1e-9D));
+    }
+    assertThat(sequential.w().getFirst().doubleValue()).isCloseTo(1D, within(0.1D));
+    assertThat(sequential.w().get(1).doubleValue()).isCloseTo(-0.5D, within(0.1D));
+  }
+
+  @Test
+  void whenTheHessianIsSingularThenDampingKeepsDescending() {
+    //Separable data, and the second feature duplicates the first one
+    double[] values = {0.5, 0.5, 1, 1, 1.5, 1.5, 3, 3, 2, 2, 2.5, 2.5};
+    double[] y = {0, 0, 0, 1, 1, 1};
+
+    ResultGradientDescent result = this.newtonSolverService.solve(new DenseDataset(values, 6, 2), y, new double[2], 0D,
+        30L, GradientDescentOptions.defaults());
+
+    assertThat(result.iterations()).isEqualTo(30L);
+    assertThat(result.costHistory().getLast()).isLessThan(new BigDecimal("0.01"));
+    //Both features get the same weight, the damping only adds rounding
+    assertThat(result.w().getFirst().doubleValue()).isCloseTo(result.w().getLast().doubleValue(), within(1e-4D));
+  }
+
+  @Test
+  void whenAStepIsRejectedThenItIsNeitherRecordedNorCounted() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    LinearRegressionProperties properties = LinearRegressionProperties.defaults();
+    NewtonSolverService service = new NewtonSolverService(new SigmoidService(properties), properties,
+        new TrainingMetrics(registry));
+
+    //Far from the optimum the full Newton step overshoots
+    ResultGradientDescent result = service.solve(new DenseDataset(VALUES, 6, 2), Y, new double[] {40D, -40D}, 10D,
+        100L, GradientDescentOptions.defaults().withCostTolerance(1e-12D));
+
+    long passes = registry.get("linearr.gradient.descent.iteration").timer().count();
+    assertThat(passes).isGreaterThan(result.iterations());
+    List<BigDecimal> costs = result.costHistory();
+    for (int k = 1; k < costs.size(); k++) {
+      assertThat(costs.get(k)).isLessThanOrEqualTo(costs.get(k - 1));
+    }
+  }
+
+  @Test
+  void whenInputIsInvalidThenException() {
+    DenseDataset x = new DenseDataset(VALUES, 6, 2);
+
+    assertThatThrownBy(() -> this.newtonSolverService.solve(x, Y, new double[3], 0D, 10L,
+        GradientDescentOptions.defaults()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> this.newtonSolverService.solve(x, Y, new double[2], 0D, 10L, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("options is null");
+  }
+}
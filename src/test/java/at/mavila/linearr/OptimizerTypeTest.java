@@ -0,0 +1,56 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class OptimizerTypeTest {
+
+  private static final GradientDescentOptions OPTIONS = GradientDescentOptions.defaults();
+
+  @Test
+  void whenPlainThenGradientStep() {
+    double[] w = {1D, 2D};
+
+    double b = OptimizerType.GRADIENT_DESCENT.create(2, OPTIONS).step(0.1D, w, 3D, new double[] {1D, -2D}, 4D);
+
+    assertThat(w).containsExactly(new double[] {0.9D, 2.2D}, within(1e-15D));
+    assertThat(b).isCloseTo(2.6D, within(1e-15D));
+  }
+
+  @Test
+  void whenMomentumThenVelocityAccumulates() {
+    Optimizer momentum = OptimizerType.MOMENTUM.create(1, OPTIONS.withMomentum(0.5D));
+    Optimizer nesterov = OptimizerType.NESTEROV.create(1, OPTIONS.withMomentum(0.5D));
+    double[] w = {0D};
+    double[] wNesterov = {0D};
+
+    momentum.step(1D, w, 0D, new double[] {1D}, 0D);
+    momentum.step(1D, w, 0D, new double[] {1D}, 0D);
+    nesterov.step(1D, wNesterov, 0D, new double[] {1D}, 0D);
+
+    //v1 = -1, v2 = -1.5
+    assertThat(w[0]).isEqualTo(-2.5D);
+    //v1 = -1, w = 0.5 * -1 - 1
+    assertThat(wNesterov[0]).isEqualTo(-1.5D);
+  }
+
+  @Test
+  void whenAdaptiveThenStepIsNormalizedByTheGradientScale() {
+    double[] small = {0D, 0D};
+    double[] adam = {0D, 0D};
+    double[] adaGrad = {0D, 0D};
+    double[] gradient = {1e-3D, 1e3D};
+
+    OptimizerType.RMSPROP.create(2, OPTIONS).step(0.01D, small, 0D, gradient, 0D);
+    OptimizerType.ADAM.create(2, OPTIONS).step(0.01D, adam, 0D, gradient, 0D);
+    OptimizerType.ADAGRAD.create(2, OPTIONS).step(0.01D, adaGrad, 0D, gradient, 0D);
+
+    //Both coordinates move by the same amount whatever the size of their gradient
+    assertThat(small[0]).isCloseTo(small[1], within(1e-6D));
+    assertThat(adam[0]).isCloseTo(-0.01D, within(1e-6D));
+    assertThat(adam[1]).isCloseTo(-0.01D, within(1e-9D));
+    assertThat(adaGrad[0]).isCloseTo(-0.01D, within(1e-6D));
+  }
+}
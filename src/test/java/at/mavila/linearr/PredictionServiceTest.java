@@ -0,0 +1,67 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class PredictionServiceTest {
+
+  @Autowired
+  private PredictionService predictionService;
+
+  @Test
+  void whenPredictingListsThenSameAsModelCreatorAndSigmoid() {
+    List<List<BigDecimal>> x = List.of(
+        List.of(new BigDecimal("3"), new BigDecimal("1")),
+        List.of(new BigDecimal("0"), new BigDecimal("1"))
+    );
+    List<BigDecimal> w = List.of(new BigDecimal("2"), new BigDecimal("-1"));
+
+    List<BigDecimal> linear = this.predictionService.predict(x, w, BigDecimal.ONE, ModelType.LINEAR);
+    List<BigDecimal> logistic = this.predictionService.predict(x, w, BigDecimal.ONE, ModelType.LOGISTIC);
+
+    assertThat(linear).containsExactly(BigDecimal.valueOf(6D), BigDecimal.valueOf(0D));
+    assertThat(logistic).containsExactly(BigDecimal.valueOf(1D / (1D + Math.exp(-6D))), BigDecimal.valueOf(0.5D));
+  }
+
+  @Test
+  void whenBatchIsLargeThenParallelSameAsSequential() {
+    final int m = 50_000;
+    final int n = 8;
+    SplittableRandom random = new SplittableRandom(7L);
+    double[] values = random.doubles((long) m * n, -2D, 2D).toArray();
+    double[] w = random.doubles(n, -1D, 1D).toArray();
+    DenseDataset x = new DenseDataset(values, m, n);
+    double[] sequential = new double[m];
+    double[] parallel = new double[m + 1];
+
+    this.predictionService.predict(x, w, 0.25D, ModelType.LOGISTIC, sequential, 1);
+    this.predictionService.predict(x, w, 0.25D, ModelType.LOGISTIC, parallel, 8);
+
+    assertThat(parallel).startsWith(sequential);
+    assertThat(parallel[m]).isZero();
+    assertThat(sequential[m - 1]).isEqualTo(1D / (1D + Math.exp(-(x.dot(m - 1, w) + 0.25D))));
+  }
+
+  @Test
+  void whenInvalidThenIllegalArgumentException() {
+    DenseDataset x = new DenseDataset(new double[] {1D, 2D, 3D, 4D}, 2, 2);
+
+    assertThatThrownBy(() -> this.predictionService.predict(x, new double[1], 0D, ModelType.LINEAR, new double[2]))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("w does not have 2 values");
+    assertThatThrownBy(() -> this.predictionService.predict(x, new double[2], 0D, ModelType.LINEAR, new double[1]))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("out is shorter than x");
+    assertThatThrownBy(() -> this.predictionService.predict(x, new double[2], 0D, null, new double[2]))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("type is null");
+  }
+}
@@ -2,6 +2,7 @@ package at.mavila.linearr;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 
 import java.math.BigDecimal;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,8 @@ import net.jqwik.api.Property;
 import net.jqwik.api.constraints.BigRange;
 import net.jqwik.spring.JqwikSpringSupport;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -124,4 +127,81 @@ class SigmoidServiceTest {
     BigDecimal sigmoid = this.sigmoidService.sigmoid(z);
     assertThat(sigmoid).isNotNull().isBetween(BigDecimal.valueOf(0.2), BigDecimal.valueOf(0.3));
   }
-}
\ No newline at end of file
+
+  @Test
+  void sigmoidPrimitiveMatchesBigDecimal() {
+    for (double z = -10D; z <= 10D; z += 0.5D) {
+      assertThat(this.sigmoidService.sigmoid(z))
+          .isCloseTo(this.sigmoidService.sigmoid(BigDecimal.valueOf(z)).doubleValue(), within(1e-15D));
+    }
+  }
+
+  @Test
+  void sigmoidPrimitiveSaturates() {
+    assertThat(this.sigmoidService.sigmoid(0D)).isEqualTo(0.5D);
+    assertThat(this.sigmoidService.sigmoid(1000D)).isEqualTo(1D);
+    assertThat(this.sigmoidService.sigmoid(-1000D)).isZero();
+  }
+
+  @ParameterizedTest
+  @EnumSource(SigmoidApproximation.class)
+  void sigmoidApproximationWithinDocumentedError(SigmoidApproximation approximation) {
+    double maximumError = 0D;
+    for (double z = -50D; z <= 50D; z += 0.0007D) {
+      maximumError = Math.max(maximumError,
+          Math.abs(this.sigmoidService.sigmoid(z, approximation) - SigmoidApproximation.EXACT.apply(z)));
+    }
+    assertThat(maximumError).isLessThanOrEqualTo(approximation.maximumAbsoluteError());
+  }
+
+  @ParameterizedTest
+  @EnumSource(SigmoidApproximation.class)
+  void sigmoidApproximationSaturatesAndIsMonotonic(SigmoidApproximation approximation) {
+    assertThat(approximation.apply(0D)).isEqualTo(0.5D);
+    assertThat(approximation.apply(1000D)).isEqualTo(1D);
+    assertThat(approximation.apply(Double.POSITIVE_INFINITY)).isEqualTo(1D);
+    assertThat(approximation.apply(-1000D)).isZero();
+    assertThat(approximation.apply(Double.NEGATIVE_INFINITY)).isZero();
+
+    double previous = 0D;
+    for (double z = -40D; z <= 40D; z += 0.001D) {
+      double current = approximation.apply(z);
+      assertThat(current).isGreaterThanOrEqualTo(previous).isBetween(0D, 1D);
+      previous = current;
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(SigmoidApproximation.class)
+  void sigmoidBulkMatchesScalar(SigmoidApproximation approximation) {
+    double[] z = {-20D, -3.5D, -1D, 0D, 0.25D, 2D, 7.75D, 30D};
+    double[] out = new double[z.length];
+
+    this.sigmoidService.sigmoid(z, out, approximation);
+
+    for (int i = 0; i < z.length; i++) {
+      assertThat(out[i]).isEqualTo(approximation.apply(z[i]));
+    }
+  }
+
+  @Test
+  void sigmoidBulkInPlaceWithConfiguredApproximation() {
+    double[] z = {-1D, 0D, 1D};
+
+    this.sigmoidService.sigmoid(z, z);
+
+    assertThat(z[0]).isCloseTo(0.2689414213699951D, within(1e-15D));
+    assertThat(z[1]).isEqualTo(0.5D);
+    assertThat(z[2]).isCloseTo(0.7310585786300049D, within(1e-15D));
+  }
+
+  @Test
+  void sigmoidBulkWhenOutputTooShortThenThrowException() {
+    assertThatThrownBy(() -> this.sigmoidService.sigmoid(new double[2], new double[1], SigmoidApproximation.TABLE))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("out is shorter than z");
+    assertThatThrownBy(() -> this.sigmoidService.sigmoid(0D, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("approximation is null");
+  }
+}
@@ -0,0 +1,82 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SparseDatasetTest {
+
+  @Test
+  void whenCreatedFromListsThenOnlyNonZerosAreStored() {
+    List<List<BigDecimal>> rows = List.of(
+        List.of(BigDecimal.ZERO, BigDecimal.valueOf(2D), new BigDecimal("0.00")),
+        List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO),
+        List.of(BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.valueOf(3D))
+    );
+
+    SparseDataset sparse = SparseDataset.of(rows);
+
+    assertThat(sparse.m()).isEqualTo(3);
+    assertThat(sparse.n()).isEqualTo(3);
+    assertThat(sparse.values()).containsExactly(2D, 1D, 3D);
+    assertThat(sparse.columns()).containsExactly(1, 0, 2);
+    assertThat(sparse.rowOffsets()).containsExactly(0, 1, 1, 3);
+    assertThat(sparse.nonZeros()).isEqualTo(3);
+    assertThat(SparseDataset.of(DenseDataset.of(rows)).rowOffsets()).containsExactly(sparse.rowOffsets());
+  }
+
+  @Test
+  void whenUsingRowOperationsThenSameAsDense() {
+    double[] values = {0, 2, 0, 0, 0, 0, 0, 0, 1, 0, 0, 3};
+    DenseDataset dense = new DenseDataset(values, 3, 4);
+    SparseDataset sparse = SparseDataset.of(dense);
+    double[] w = {1D, -1D, 2D, 0.5D};
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(sparse.dot(i, w)).isEqualTo(dense.dot(i, w));
+      double[] fromSparse = {1D, 1D, 1D, 1D};
+      double[] fromDense = {1D, 1D, 1D, 1D};
+      sparse.axpy(i, 2D, fromSparse);
+      dense.axpy(i, 2D, fromDense);
+      assertThat(fromSparse).containsExactly(fromDense);
+    }
+  }
+
+  @Test
+  void whenDescendingThenOnlyTheColumnsOfTheRowAreUpdatedAndCleared() {
+    SparseDataset sparse = new SparseDataset(new double[]{5D, 7D}, new int[]{0, 2}, new int[]{0, 2}, 1, 3);
+    double[] gradient = {1D, 0D, -2D};
+    double[] w = {1D, 1D, 1D};
+
+    sparse.descend(0, 0.5D, gradient, w);
+
+    assertThat(w).containsExactly(0.5D, 1D, 2D);
+    assertThat(gradient).containsOnly(0D);
+  }
+
+  @Test
+  void whenTheStructureIsInvalidThenThrowException() {
+    assertThatThrownBy(() -> new SparseDataset(new double[]{1D}, new int[]{3}, new int[]{0, 1}, 1, 3))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("column 3 is out of range");
+    assertThatThrownBy(() -> new SparseDataset(new double[]{1D}, new int[]{0}, new int[]{0, 0}, 1, 3))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("rowOffsets does not match m and the number of values");
+    assertThatThrownBy(() -> new SparseDataset(new double[]{1D, 2D}, new int[]{0, 1}, new int[]{0, 2, 1, 2}, 3, 3))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("rowOffsets is not increasing");
+  }
+
+  @Test
+  void whenAValueIsNullThenThrowException() {
+    List<List<BigDecimal>> x = List.of(List.of(BigDecimal.ONE, BigDecimal.ZERO), Arrays.asList(BigDecimal.ZERO, null));
+
+    assertThatThrownBy(() -> SparseDataset.of(x))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("x[1][1] is null");
+  }
+}
@@ -0,0 +1,30 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class StepSizeControllerTest {
+
+  @Test
+  void whenEveryArmijoTrialFailsThenTheReportedStepIsTheOneApplied() {
+    StepSizeController controller = new StepSizeController(StepSize.ARMIJO, 1D, 1);
+    GradientAccumulator current = new GradientAccumulator(1, true);
+    current.djDw[0] = 1D;
+    current.djDb = 2D;
+    double[] w = new double[1];
+    //Every trial point costs more than the current one
+    GradientPass uphill = (wi, bi, accumulator) -> {
+      accumulator.cost = 1D;
+      return 1L;
+    };
+
+    double b = controller.step(w, 0D, current, uphill);
+
+    double step = controller.alpha();
+    assertThat(step).isEqualTo(Math.scalb(1D, -50));
+    assertThat(w[0]).isEqualTo(-step);
+    assertThat(b).isEqualTo(-2D * step);
+    assertThat(controller.rows()).isEqualTo(51L);
+  }
+}
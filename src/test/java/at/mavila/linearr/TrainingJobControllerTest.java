@@ -0,0 +1,167 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TrainingJobControllerTest {
+
+  private static final List<List<BigDecimal>> X = List.of(
+      List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+      List.of(new BigDecimal("1"), new BigDecimal("1")),
+      List.of(new BigDecimal("1.5"), new BigDecimal("0.5")),
+      List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+      List.of(new BigDecimal("2"), new BigDecimal("2")),
+      List.of(new BigDecimal("1"), new BigDecimal("2.5"))
+  );
+  private static final List<BigDecimal> Y =
+      List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+  private static final TrainingJobRequest REQUEST = TrainingJobRequest.builder()
+      .x(X)
+      .y(Y)
+      .w(List.of(BigDecimal.ZERO, BigDecimal.ZERO))
+      .b(BigDecimal.ZERO)
+      .alpha(new BigDecimal("0.1"))
+      .numberOfIterations(1000L)
+      .options(GradientDescentOptions.defaults().withNumericBackend(NumericBackend.DOUBLE))
+      .build();
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @Test
+  void whenJobIsSubmittedThenItRunsToItsResult() {
+    TrainingJobStatus submitted = submit(REQUEST);
+
+    TrainingJobStatus finished = awaitState(submitted.id(), TrainingJobState.SUCCEEDED);
+    ResultGradientDescent result = this.webTestClient.get().uri("/training-jobs/{id}/result", submitted.id())
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(ResultGradientDescent.class)
+        .returnResult()
+        .getResponseBody();
+
+    assertThat(submitted.state()).isIn(TrainingJobState.QUEUED, TrainingJobState.RUNNING, TrainingJobState.SUCCEEDED);
+    assertThat(finished.iterations()).isEqualTo(1000L);
+    assertThat(finished.cost()).isPositive();
+    assertThat(finished.gradientNorm()).isPositive();
+    assertThat(finished.finishedAt()).isNotNull();
+    assertThat(result).isNotNull();
+    assertThat(result.stopReason()).isEqualTo(StopReason.MAX_ITERATIONS);
+    assertThat(result.w().getFirst()).isCloseTo(new BigDecimal("2.3"), Percentage.withPercentage(5));
+  }
+
+  @Test
+  void whenRunningJobIsCancelledThenItStopsWithItsPartialResult() {
+    TrainingJobStatus submitted = submit(REQUEST.withNumberOfIterations(Long.MAX_VALUE)
+        .withOptions(GradientDescentOptions.defaults().withNumericBackend(NumericBackend.DOUBLE)
+            .withTimeBudget(Duration.ofMinutes(1L))));
+    awaitState(submitted.id(), TrainingJobState.RUNNING);
+
+    TrainingJobStatus cancelled = this.webTestClient.delete().uri("/training-jobs/{id}", submitted.id())
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(TrainingJobStatus.class)
+        .returnResult()
+        .getResponseBody();
+
+    assertThat(cancelled).isNotNull();
+    assertThat(cancelled.state()).isEqualTo(TrainingJobState.CANCELLED);
+    ResultGradientDescent result = awaitResult(submitted.id());
+    assertThat(result.stopReason()).isEqualTo(StopReason.CANCELLED);
+    assertThat(result.iterations()).isPositive();
+  }
+
+  @Test
+  void whenRequestIsInvalidThenBadRequest() {
+    this.webTestClient.post().uri("/training-jobs")
+        .bodyValue(REQUEST.withY(List.of()))
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.detail").isEqualTo("y is null or empty");
+  }
+
+  @Test
+  void whenShapesDoNotMatchThenBadRequest() {
+    List<List<BigDecimal>> ragged = List.of(X.get(0), List.of(BigDecimal.ONE));
+    this.webTestClient.post().uri("/training-jobs")
+        .bodyValue(REQUEST.withX(ragged).withY(Y.subList(0, 2)))
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.detail").isEqualTo("x[1] does not have 2 features");
+    this.webTestClient.post().uri("/training-jobs")
+        .bodyValue(REQUEST.withY(Y.subList(0, 5)))
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.detail").isEqualTo("y does not have 6 values");
+    this.webTestClient.post().uri("/training-jobs")
+        .bodyValue(REQUEST.withW(List.of(BigDecimal.ZERO)))
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.detail").isEqualTo("w does not have 2 values");
+  }
+
+  @Test
+  void whenJobIsUnknownThenNotFound() {
+    this.webTestClient.get().uri("/training-jobs/{id}", "unknown").exchange().expectStatus().isNotFound();
+    this.webTestClient.get().uri("/training-jobs/{id}/result", "unknown").exchange().expectStatus().isNotFound();
+    this.webTestClient.delete().uri("/training-jobs/{id}", "unknown").exchange().expectStatus().isNotFound();
+  }
+
+  private TrainingJobStatus submit(final TrainingJobRequest request) {
+    TrainingJobStatus status = this.webTestClient.post().uri("/training-jobs")
+        .bodyValue(request)
+        .exchange()
+        .expectStatus().isAccepted()
+        .expectHeader().exists("Location")
+        .expectBody(TrainingJobStatus.class)
+        .returnResult()
+        .getResponseBody();
+    assertThat(status).isNotNull();
+    return status;
+  }
+
+  private TrainingJobStatus awaitState(final String id, final TrainingJobState state) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(30L).toNanos();
+    while (System.nanoTime() < deadline) {
+      TrainingJobStatus status = this.webTestClient.get().uri("/training-jobs/{id}", id)
+          .exchange()
+          .expectStatus().isOk()
+          .expectBody(TrainingJobStatus.class)
+          .returnResult()
+          .getResponseBody();
+      if (status != null && status.state() == state) {
+        return status;
+      }
+      Thread.onSpinWait();
+    }
+    throw new AssertionError("training job " + id + " did not reach " + state);
+  }
+
+  private ResultGradientDescent awaitResult(final String id) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(30L).toNanos();
+    while (System.nanoTime() < deadline) {
+      ResultGradientDescent result = this.webTestClient.get().uri("/training-jobs/{id}/result", id)
+          .exchange()
+          .returnResult(ResultGradientDescent.class)
+          .getResponseBody()
+          .blockFirst();
+      if (result != null && result.stopReason() != null) {
+        return result;
+      }
+    }
+    throw new AssertionError("training job " + id + " has no result");
+  }
+}
@@ -0,0 +1,42 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TrainingJobServiceTest {
+
+  @Test
+  void whenTheRunThrowsAnErrorThenTheJobFails() throws InterruptedException {
+    GradientDescentService gradientDescentService = mock(GradientDescentService.class);
+    when(gradientDescentService.compute(any(), any(), any(), any(), any(), anyLong(), any()))
+        .thenThrow(new StackOverflowError("too deep"));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    TrainingJobService service = new TrainingJobService(gradientDescentService, executor,
+        LinearRegressionProperties.defaults(), TrainingMetrics.disabled());
+
+    TrainingJobStatus submitted = service.submit(TrainingJobRequest.builder()
+        .x(List.of(List.of(BigDecimal.ONE)))
+        .y(List.of(BigDecimal.ONE))
+        .w(List.of(BigDecimal.ZERO))
+        .b(BigDecimal.ZERO)
+        .alpha(BigDecimal.ONE)
+        .numberOfIterations(1L)
+        .build());
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10L, TimeUnit.SECONDS)).isTrue();
+
+    TrainingJobStatus status = service.status(submitted.id()).orElseThrow();
+    assertThat(status.state()).isEqualTo(TrainingJobState.FAILED);
+    assertThat(status.error()).isEqualTo("too deep");
+  }
+}
@@ -0,0 +1,129 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class TrainingMetricsTest {
+
+  private static final List<List<BigDecimal>> X = List.of(
+      List.of(new BigDecimal("0.5"), new BigDecimal("1.5")),
+      List.of(new BigDecimal("1"), new BigDecimal("1")),
+      List.of(new BigDecimal("3"), new BigDecimal("0.5")),
+      List.of(new BigDecimal("2"), new BigDecimal("2"))
+  );
+  private static final List<BigDecimal> Y = List.of(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ONE);
+  private static final List<BigDecimal> W = List.of(BigDecimal.ZERO, BigDecimal.ZERO);
+
+  @Autowired
+  private GradientDescentService gradientDescentService;
+
+  @Autowired
+  private ComputeCostLogisticService computeCostLogisticService;
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @Autowired
+  private TrainingMetrics trainingMetrics;
+
+  @Test
+  void whenTrainingThenMetersAreScrapedByPrometheus() {
+    this.gradientDescentService.compute(X, Y, W, BigDecimal.ZERO, new BigDecimal("0.1"), 10L,
+        GradientDescentOptions.defaults().withNumericBackend(NumericBackend.DOUBLE));
+    this.computeCostLogisticService.compute(X, Y, W, BigDecimal.ZERO);
+
+    String scrape = this.webTestClient.get().uri("/actuator/prometheus")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class)
+        .returnResult()
+        .getResponseBody();
+
+    assertThat(scrape)
+        .contains("linearr_gradient_descent_iteration_seconds_count")
+        .contains("linearr_cost_duration_seconds_count")
+        .contains("linearr_samples_processed_total{operation=\"gradient\"}")
+        .contains("linearr_training_jobs_in_flight")
+        .doesNotContain("linearr_training_cost");
+  }
+
+  @Test
+  void whenAJobIsRunningThenItsCostAndGradientNormAreScraped() {
+    this.trainingMetrics.jobStarted("job-1");
+    this.trainingMetrics.recordIteration("job-1", 0.5D, 0.25D);
+    this.trainingMetrics.recordIteration("job-1", Double.NaN, 0.125D);
+
+    String running = scrape();
+    this.trainingMetrics.jobRetired("job-1");
+    String retired = scrape();
+
+    assertThat(running)
+        .contains("linearr_training_cost{job=\"job-1\"} 0.5")
+        .contains("linearr_training_gradient_norm{job=\"job-1\"} 0.125");
+    assertThat(retired).doesNotContain("job=\"job-1\"");
+  }
+
+  @Test
+  void whenGradientDescentRunsThenEveryIterationAndRowIsCounted() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TrainingMetrics metrics = new TrainingMetrics(registry);
+    LinearRegressionProperties properties = LinearRegressionProperties.defaults();
+    GradientDescentService service = new GradientDescentService(
+        new ComputeGradientLogisticService(new SigmoidService(properties), properties, metrics), properties, metrics);
+
+    service.compute(DenseDataset.of(X), new double[] {0D, 0D, 1D, 1D}, new double[2], 0D, 0.1D, 10L,
+        GradientDescentOptions.defaults());
+
+    assertThat(registry.get("linearr.gradient.descent.iteration").timer().count()).isEqualTo(10L);
+    assertThat(registry.get("linearr.samples.processed").tag("operation", "gradient").counter().count())
+        .isEqualTo(40D);
+    //The cost of a run is reported with its job, not as a gauge every run would overwrite
+    assertThat(registry.find("linearr.training.cost").gauge()).isNull();
+  }
+
+  @Test
+  void whenJobsRunConcurrentlyThenEachHasItsOwnGauges() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TrainingMetrics metrics = new TrainingMetrics(registry);
+
+    metrics.jobStarted("a");
+    metrics.jobStarted("b");
+    metrics.recordIteration("a", 1D, 2D);
+    metrics.recordIteration("b", 3D, 4D);
+
+    assertThat(registry.get("linearr.training.cost").tag("job", "a").gauge().value()).isEqualTo(1D);
+    assertThat(registry.get("linearr.training.gradient.norm").tag("job", "b").gauge().value()).isEqualTo(4D);
+    metrics.jobRetired("a");
+    assertThat(registry.find("linearr.training.cost").tag("job", "a").gauge()).isNull();
+    assertThat(registry.get("linearr.training.cost").tag("job", "b").gauge().value()).isEqualTo(3D);
+  }
+
+  @Test
+  void whenDisabledThenNothingIsTimed() {
+    TrainingMetrics metrics = TrainingMetrics.disabled();
+
+    metrics.recordIteration(metrics.start(), 10L);
+
+    assertThat(metrics.isEnabled()).isFalse();
+    assertThat(metrics.start()).isZero();
+  }
+
+  private String scrape() {
+    return this.webTestClient.get().uri("/actuator/prometheus")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class)
+        .returnResult()
+        .getResponseBody();
+  }
+}
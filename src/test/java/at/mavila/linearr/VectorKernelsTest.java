@@ -0,0 +1,78 @@
+package at.mavila.linearr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class VectorKernelsTest {
+
+  private static final double TOLERANCE = 1e-12D;
+
+  private final Kernels scalar = new ScalarKernels();
+  //Through the selector, like the production code, so SimdKernels is never linked statically
+  private final Kernels simd = VectorKernels.kernels();
+
+  @Test
+  void whenTestsRunWithTheVectorModuleThenSimdIsSelected() {
+    assertThat(VectorKernels.isVectorized()).isTrue();
+    assertThat(this.simd.getClass().getSimpleName()).isEqualTo("SimdKernels");
+  }
+
+  @Test
+  void whenComputingDotProductsThenSimdMatchesScalar() {
+    SplittableRandom random = new SplittableRandom(7L);
+    for (int n = 0; n <= 67; n++) {
+      double[] a = random(random, n + 5);
+      double[] b = random(random, n);
+
+      double expected = this.scalar.dot(a, 5, b, 0, n);
+
+      assertThat(this.simd.dot(a, 5, b, 0, n)).isCloseTo(expected, within(TOLERANCE * Math.max(1D, Math.abs(expected))));
+      assertThat(VectorKernels.dot(a, 5, b, n)).isCloseTo(expected, within(TOLERANCE * Math.max(1D, Math.abs(expected))));
+    }
+  }
+
+  @Test
+  void whenAccumulatingRowsThenSimdMatchesScalar() {
+    SplittableRandom random = new SplittableRandom(11L);
+    for (int n = 0; n <= 67; n++) {
+      double[] row = random(random, n + 3);
+      double[] expected = random(random, n);
+      double[] actual = expected.clone();
+      double alpha = random.nextDouble(-2D, 2D);
+
+      this.scalar.axpy(alpha, row, 3, expected, 0, n);
+      this.simd.axpy(alpha, row, 3, actual, 0, n);
+
+      for (int j = 0; j < n; j++) {
+        assertThat(actual[j]).isCloseTo(expected[j], within(TOLERANCE));
+      }
+    }
+  }
+
+  @Test
+  void whenUpdatingWeightsThenAxpySubtractsTheScaledGradient() {
+    double[] w = {1D, 2D, 3D, 4D, 5D};
+    double[] djDw = {0.5D, 0.5D, 1D, 1D, 2D};
+
+    VectorKernels.axpy(-0.1D, djDw, w);
+
+    assertThat(w).containsExactly(new double[] {0.95D, 1.95D, 2.9D, 3.9D, 4.8D}, within(TOLERANCE));
+  }
+
+  @Test
+  void whenScalarFallbackThenSameResultsAsPlainLoops() {
+    double[] a = {1D, 2D, 3D};
+    double[] b = {4D, 5D, 6D};
+
+    assertThat(this.scalar.dot(a, 0, b, 0, 3)).isEqualTo(32D);
+    this.scalar.axpy(2D, a, 0, b, 0, 3);
+    assertThat(b).containsExactly(6D, 9D, 12D);
+  }
+
+  private static double[] random(SplittableRandom random, int length) {
+    return random.doubles(length, -10D, 10D).toArray();
+  }
+}